@@ -0,0 +1,40 @@
+package org.example;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+
+/**
+ * Starts the movie consumer application for benchmarks of its services and repositories.
+ * <p>
+ * The application runs on the in-memory database of the local profile, without a web server, without starting the
+ * Kafka listener containers and without the movie changelog, so no broker is needed.
+ * </p>
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the movie consumer application.
+     *
+     * @param properties Additional properties overriding the application configuration, e.g. {@code key=value}.
+     * @return The application context, to be closed by the caller.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        SpringApplication application = new SpringApplication(MovieConsumerApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of("spring.kafka.listener.auto-startup", "false",
+                "logging.level.root", "warn"));
+        // the application configuration enables the changelog, which default properties cannot override
+        String[] args = new String[properties.length + 1];
+        args[0] = "--changelog.enabled=false";
+        for (int i = 0; i < properties.length; i++) {
+            args[i + 1] = "--" + properties[i];
+        }
+        return application.run(args);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.ids;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.BenchmarkContext;
+import org.example.cache.MovieCache;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.repositories.MovieRepository;
+import org.example.services.MovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of allocating movie ids with {@link MovieIdAllocator}, alone and on the NEW path of {@link MovieService}
+ * when the id of the record is already taken, for different numbers of ids reserved per sequence call.
+ * <p>
+ * A block size of 1 hits the sequence of the in-memory database for every id, as before ids were reserved in blocks.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieIdAllocatorBenchmark {
+
+    private static final int MOVIES = 1000;
+
+    @Param({"1", "100"})
+    int blockSize;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieIdAllocator movieIdAllocator;
+
+    private MovieService movieService;
+
+    private MovieCache movieCache;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ConsumerRecord<Integer, byte[]> takenId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("movie.id-allocator.block-size=" + blockSize);
+        movieIdAllocator = context.getBean(MovieIdAllocator.class);
+        movieService = context.getBean(MovieService.class);
+        movieCache = context.getBean(MovieCache.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= MOVIES; id++) {
+            movies.add(Movie.builder().Id(id).movieType(MovieType.NEW).title("Movie " + id + " (1995)")
+                    .genres("Drama").build());
+        }
+        context.getBean(MovieRepository.class).saveAll(movies);
+        byte[] json = "{\"Id\":1,\"movieType\":\"NEW\",\"title\":\"Movie 1 (1995)\",\"genres\":\"Drama\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        takenId = new ConsumerRecord<>("movies", 0, 0, 1, json);
+    }
+
+    /**
+     * Removes the movies saved under allocated ids again, outside the measured time.
+     */
+    @TearDown(Level.Iteration)
+    public void removeAllocatedMovies() {
+        movieCache.invalidateAll(jdbcTemplate.queryForList("select id from movie where id > ?", Integer.class,
+                MOVIES));
+        jdbcTemplate.update("delete from movie where id > ?", MOVIES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int nextId() {
+        return movieIdAllocator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int nextIdContended() {
+        return movieIdAllocator.nextId();
+    }
+
+    @Benchmark
+    public void newWithTakenId() throws IOException {
+        movieService.processMovie(takenId);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.repositories;
+
+import org.example.BenchmarkContext;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link MovieRepository} operations behind the movie consumers on the in-memory database.
+ * <p>
+ * The lookups run against {@value #STORED_MOVIES} stored movies. Every {@link #saveAll()} invocation inserts
+ * {@value #BATCH_SIZE} new movies, which are deleted again after every iteration.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieRepositoryBenchmark {
+
+    private static final int STORED_MOVIES = 1000;
+
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieRepository movieRepository;
+
+    private final List<Integer> batchIds = new ArrayList<>();
+
+    private int nextId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        movieRepository = context.getBean(MovieRepository.class);
+        List<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= STORED_MOVIES; id++) {
+            movies.add(movie(id));
+        }
+        movieRepository.saveAll(movies);
+        for (int id = 1; id <= STORED_MOVIES; id += STORED_MOVIES / BATCH_SIZE) {
+            batchIds.add(id);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        nextId = STORED_MOVIES + 1;
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        movieRepository.deleteAllById(idsFrom(STORED_MOVIES + 1, nextId));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Iterable<Movie> saveAll() {
+        List<Movie> movies = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            movies.add(movie(nextId++));
+        }
+        return movieRepository.saveAll(movies);
+    }
+
+    @Benchmark
+    public Iterable<Movie> findAllById() {
+        return movieRepository.findAllById(batchIds);
+    }
+
+    @Benchmark
+    public Optional<Movie> findById() {
+        return movieRepository.findById(STORED_MOVIES / 2);
+    }
+
+    private static Movie movie(int id) {
+        return Movie.builder().Id(id).movieType(MovieType.NEW).title("Movie " + id + " (1995)").genres("Drama")
+                .build();
+    }
+
+    private static List<Integer> idsFrom(int from, int to) {
+        List<Integer> ids = new ArrayList<>(to - from);
+        for (int id = from; id < to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.serde;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.entities.Rating;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of decoding movie and rating records in both record formats with {@link RecordDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordDecoderBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    String format;
+
+    private final RecordDecoder recordDecoder = new RecordDecoder(new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    private byte[] movieRecord;
+
+    private byte[] ratingRecord;
+
+    @Setup
+    public void setUp() {
+        if ("BINARY".equals(format)) {
+            movieRecord = BinaryRecordCodec.writeMovie(Movie.builder().Id(1).movieType(MovieType.NEW)
+                    .title("Toy Story (1995)").genres("Adventure|Animation|Children|Comedy|Fantasy").build());
+            ratingRecord = BinaryRecordCodec.writeRating(new Rating(1, Movie.builder().Id(296).build(), 5.0,
+                    1147880044));
+        } else {
+            movieRecord = ("{\"Id\":1,\"movieType\":\"NEW\",\"title\":\"Toy Story (1995)\","
+                    + "\"genres\":\"Adventure|Animation|Children|Comedy|Fantasy\"}").getBytes(StandardCharsets.UTF_8);
+            ratingRecord = "{\"userId\":1,\"movieId\":296,\"rating\":5.0,\"timeStamp\":1147880044}"
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public Movie readMovie() throws IOException {
+        return recordDecoder.readMovie(movieRecord);
+    }
+
+    @Benchmark
+    public Rating readRating() throws IOException {
+        return recordDecoder.readRating(ratingRecord);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.services;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.BenchmarkContext;
+import org.example.cache.MovieCache;
+import org.example.repositories.MovieRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of backfilling an empty movie table with NEW records, one record at a time with {@link MovieService}
+ * versus one chunk at a time with {@link MovieBulkLoadService}. Scores are per record.
+ * <p>
+ * The database is the in-memory one of the local profile, where the chunk is written as one JDBC batch. To measure
+ * {@code COPY}, point the application at a PostgreSQL database through the environment, which the forked benchmark
+ * JVM inherits, e.g. {@code SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/movies}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieBulkLoadBenchmark {
+
+    private static final int CHUNK = 10000;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieService movieService;
+
+    private MovieBulkLoadService movieBulkLoadService;
+
+    private MovieRepository movieRepository;
+
+    private MovieCache movieCache;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<ConsumerRecord<Integer, byte[]>> records = new ArrayList<>(CHUNK);
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        movieService = context.getBean(MovieService.class);
+        movieBulkLoadService = context.getBean(MovieBulkLoadService.class);
+        movieRepository = context.getBean(MovieRepository.class);
+        movieCache = context.getBean(MovieCache.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int id = 1; id <= CHUNK; id++) {
+            byte[] json = ("{\"movieType\":\"NEW\",\"title\":\"Movie " + id + " (1995)\",\"genres\":\"Drama\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            records.add(new ConsumerRecord<>("movies", 0, id, id, json));
+        }
+    }
+
+    /**
+     * Empties the movie table again, outside the measured time.
+     */
+    @TearDown(Level.Invocation)
+    public void emptyTable() {
+        movieRepository.findAllIds().forEach(movieCache::invalidate);
+        jdbcTemplate.update("delete from movie");
+        movieBulkLoadService.loadStoredIds();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public void incremental() throws IOException {
+        for (ConsumerRecord<Integer, byte[]> consumerRecord : records) {
+            movieService.processMovie(consumerRecord);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public MovieBatchService.BatchResult bulk() {
+        return movieBulkLoadService.loadChunk(records);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.services;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.BenchmarkContext;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.repositories.MovieRepository;
+import org.example.serde.BinaryRecordCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of processing UPDATE records of stored movies with {@link MovieService}, from decoding the record to
+ * writing the movie to the in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieServiceBenchmark {
+
+    private static final int MOVIES = 1000;
+
+    @Param({"JSON", "BINARY"})
+    String format;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieService movieService;
+
+    private final List<ConsumerRecord<Integer, byte[]>> updates = new ArrayList<>();
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        movieService = context.getBean(MovieService.class);
+        List<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= MOVIES; id++) {
+            movies.add(Movie.builder().Id(id).movieType(MovieType.NEW).title("Movie " + id + " (1995)")
+                    .genres("Drama").build());
+            updates.add(new ConsumerRecord<>("movies", 0, id, id, update(id)));
+        }
+        context.getBean(MovieRepository.class).saveAll(movies);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void processMovie() throws IOException {
+        movieService.processMovie(updates.get(next));
+        next = (next + 1) % MOVIES;
+    }
+
+    private byte[] update(int id) {
+        if ("BINARY".equals(format)) {
+            return BinaryRecordCodec.writeMovie(Movie.builder().Id(id).movieType(MovieType.UPDATE)
+                    .title("Updated " + id + " (1995)").genres("Comedy|Drama").build());
+        }
+        return ("{\"Id\":" + id + ",\"movieType\":\"UPDATE\",\"title\":\"Updated " + id + " (1995)\","
+                + "\"genres\":\"Comedy|Drama\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
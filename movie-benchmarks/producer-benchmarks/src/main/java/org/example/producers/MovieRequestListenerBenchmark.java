@@ -0,0 +1,76 @@
+package org.example.producers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.example.records.Movie;
+import org.example.records.MovieType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of collecting a search response with {@link MovieRequestListener}.
+ * <p>
+ * Every invocation registers a search and delivers its single, last response batch, so it measures the JSON parsing
+ * of the batch and the routing by correlation id.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieRequestListenerBenchmark {
+
+    @Param({"10", "1000"})
+    int moviesPerResponse;
+
+    private final MovieRequestListener listener = new MovieRequestListener(new ObjectMapper());
+
+    private String response;
+
+    private long searches;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= moviesPerResponse; id++) {
+            movies.add(new Movie(id, MovieType.NEW, "Movie " + id + " (1995)", "Adventure|Animation|Comedy"));
+        }
+        response = new ObjectMapper().writeValueAsString(movies);
+    }
+
+    @Benchmark
+    public List<Movie> processMovieRequest() {
+        String correlationId = Long.toString(searches++);
+        CompletableFuture<List<Movie>> result = listener.register(correlationId);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        headers.add(MovieRequestListener.END_OF_RESULTS_HEADER, new byte[0]);
+        headers.add(MovieRequestListener.RESULT_COUNT_HEADER,
+                Integer.toString(moviesPerResponse).getBytes(StandardCharsets.UTF_8));
+        listener.processMovieRequest(new ConsumerRecord<>("movie-response-topic", 0, 0, 0L,
+                TimestampType.CREATE_TIME, Integer.BYTES, response.length(), 0, response, headers, Optional.empty()));
+        return result.join();
+    }
+}
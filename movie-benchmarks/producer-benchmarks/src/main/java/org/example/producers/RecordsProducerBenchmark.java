@@ -0,0 +1,116 @@
+package org.example.producers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.example.metrics.PipelineMetrics;
+import org.example.records.Movie;
+import org.example.records.MovieType;
+import org.example.records.Rating;
+import org.example.serde.RecordFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of serializing and sending records through the bulk path of {@link RecordsProducer}.
+ * <p>
+ * The bulk producer is replaced by one acknowledging every record immediately, so the benchmarks measure the
+ * serialization in the configured format and the send window bookkeeping, but no network.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordsProducerBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    RecordFormat format;
+
+    private final Movie movie = new Movie(1, MovieType.NEW, "Toy Story (1995)",
+            "Adventure|Animation|Children|Comedy|Fantasy");
+
+    private final Rating rating = new Rating(1, 296, 5.0, 1147880044);
+
+    private RecordsProducer recordsProducer;
+
+    private SendWindow window;
+
+    @Setup
+    public void setUp() {
+        ProducerChannel channel = new ProducerChannel("bulk", new ProducerSettings(20, 262144, "none"),
+                settings -> () -> new AcknowledgingProducer());
+        recordsProducer = new RecordsProducer(channel, channel, new ObjectMapper(),
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        setField("moviesTopic", "movies");
+        setField("ratingsTopic", "ratings");
+        setField("moviesFormat", format);
+        setField("ratingsFormat", format);
+        setField("maxInFlightSends", 10000);
+        window = recordsProducer.openSendWindow();
+    }
+
+    @Benchmark
+    public CompletableFuture<SendResult<Integer, byte[]>> sendMovieRecord() throws IOException {
+        return recordsProducer.sendMovieRecord(movie, window);
+    }
+
+    @Benchmark
+    public CompletableFuture<SendResult<Integer, byte[]>> sendRatingRecord() throws IOException {
+        return recordsProducer.sendRatingRecord(rating, window);
+    }
+
+    /**
+     * Sets a field that Spring would inject from the configuration.
+     */
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(RecordsProducer.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, recordsProducer, value);
+    }
+
+    /**
+     * Producer acknowledging every record immediately without keeping it.
+     */
+    private static final class AcknowledgingProducer extends MockProducer<Integer, byte[]> {
+
+        AcknowledgingProducer() {
+            super(true, new IntegerSerializer(), new ByteArraySerializer());
+        }
+
+        @Override
+        public Future<RecordMetadata> send(ProducerRecord<Integer, byte[]> record, Callback callback) {
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0,
+                    System.currentTimeMillis(), Integer.BYTES, record.value().length);
+            if (callback != null) {
+                callback.onCompletion(metadata, null);
+            }
+            return CompletableFuture.completedFuture(metadata);
+        }
+    }
+}
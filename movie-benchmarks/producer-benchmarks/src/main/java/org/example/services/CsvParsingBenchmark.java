@@ -0,0 +1,53 @@
+package org.example.services;
+
+import org.example.records.Movie;
+import org.example.records.Rating;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of parsing single CSV lines of the movies and ratings files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    private static final String MOVIE_LINE = "1,Toy Story (1995),Adventure|Animation|Children|Comedy|Fantasy";
+
+    private static final String QUOTED_MOVIE_LINE = "11,\"American President, The (1995)\",Comedy|Drama|Romance";
+
+    private static final String RATING_LINE = "1,296,5.0,1147880044";
+
+    private final MovieService movieService = new MovieService(null, null, null, Duration.ofSeconds(5), null, null);
+
+    private final RatingService ratingService = new RatingService(null, null);
+
+    @Benchmark
+    public Movie parseMoviesCsvLine() {
+        return movieService.parseMoviesCsvLine(MOVIE_LINE);
+    }
+
+    @Benchmark
+    public Movie parseQuotedMoviesCsvLine() {
+        return movieService.parseMoviesCsvLine(QUOTED_MOVIE_LINE);
+    }
+
+    @Benchmark
+    public Rating parseRatingCsvLine() {
+        return ratingService.parseRatingCsvLine(RATING_LINE);
+    }
+}
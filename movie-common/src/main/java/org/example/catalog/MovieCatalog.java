@@ -0,0 +1,212 @@
+package org.example.catalog;
+
+import org.example.search.GenreIndex;
+import org.example.search.TitleIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local replica of the movie catalog answering title and genre searches from memory.
+ * <p>
+ * The replica is filled by the {@link MovieCatalogReplicator} from the changelog topic the consumer publishes every
+ * committed change to. It keeps the title and genres of every movie, with the few distinct genre strings shared, in a
+ * trigram title index and a genre bitmap index. Every producer and consumer instance holds the same replica, so all
+ * of them return the same movies in the same order. Searches should only be answered once the replica is
+ * {@link #isReady() ready}, i.e. caught up with the changelog on startup and past a snapshot marker on every
+ * partition, which the consumer publishes once it reconciled the changelog with its database. The replica is safe for
+ * concurrent searches and updates.
+ * </p>
+ */
+@Component
+public class MovieCatalog {
+
+    /**
+     * The key of the snapshot markers on the changelog, which no movie may use.
+     */
+    public static final int SNAPSHOT_MARKER_KEY = Integer.MIN_VALUE;
+
+    private final TitleIndex titleIndex = new TitleIndex();
+
+    private final GenreIndex genreIndex = new GenreIndex();
+
+    private final Map<Integer, MovieChange> movies = new ConcurrentHashMap<>();
+
+    /**
+     * The distinct genre strings, so that movies of the same genres share one string.
+     */
+    private final Map<String, String> genreStrings = new ConcurrentHashMap<>();
+
+    private final boolean rankedTitles;
+
+    private volatile boolean caughtUp;
+
+    private volatile boolean ready;
+
+    /**
+     * Constructs an empty MovieCatalog.
+     *
+     * @param rankedTitles Whether title search results are ordered by match quality instead of by id.
+     */
+    public MovieCatalog(@Value("${search.catalog.ranked:true}") boolean rankedTitles) {
+        this.rankedTitles = rankedTitles;
+    }
+
+    /**
+     * Adds or replaces a movie.
+     *
+     * @param movieId The id of the movie.
+     * @param title   The title of the movie.
+     * @param genres  The pipe-separated genres of the movie.
+     */
+    public void put(int movieId, String title, String genres) {
+        String sharedGenres = genres != null ? genreStrings.computeIfAbsent(genres, key -> key) : null;
+        movies.put(movieId, new MovieChange(movieId, title, sharedGenres));
+        titleIndex.put(movieId, title);
+        genreIndex.put(movieId, sharedGenres);
+    }
+
+    /**
+     * Removes a deleted movie.
+     *
+     * @param movieId The id of the movie.
+     */
+    public void remove(int movieId) {
+        titleIndex.remove(movieId);
+        genreIndex.remove(movieId);
+        movies.remove(movieId);
+    }
+
+    /**
+     * Finds the movies whose title contains the query, ignoring case and the leading and trailing white space of the
+     * query, like the database search.
+     *
+     * @param title The substring to search for.
+     * @return The matching movies, best matches first if ranking is enabled.
+     */
+    public List<MovieChange> searchTitle(String title) {
+        return movies(titleIndex.search(title.strip(), rankedTitles));
+    }
+
+    /**
+     * Finds the movies matching a genre query such as {@code Comedy,Romance,!Drama}.
+     *
+     * @param genres The genre query, see {@link GenreIndex}.
+     * @return The matching movies in ascending order of id.
+     */
+    public List<MovieChange> searchGenres(String genres) {
+        return movies(genreIndex.search(genres));
+    }
+
+    /**
+     * Gets the number of movies in the replica.
+     *
+     * @return The number of movies.
+     */
+    public int size() {
+        return movies.size();
+    }
+
+    /**
+     * Gets the movies of the replica.
+     *
+     * @return A copy of the movies by id.
+     */
+    public Map<Integer, MovieChange> snapshot() {
+        return new HashMap<>(movies);
+    }
+
+    /**
+     * Tells whether the replica caught up with the changelog and past a snapshot marker, and may answer searches.
+     *
+     * @return {@code true} once the replica is ready.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Waits until the replica caught up with the end offsets of the changelog on startup, whether or not it saw a
+     * snapshot marker.
+     *
+     * @param timeout The maximum time to wait.
+     * @return Whether the replica caught up in time.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public synchronized boolean awaitCaughtUp(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!caughtUp) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until the replica is {@link #isReady() ready}. A replica that is ready has applied every change published
+     * to a partition before the snapshot marker it read there.
+     *
+     * @param timeout The maximum time to wait.
+     * @return Whether the replica became ready in time.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public synchronized boolean awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!ready) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the replica as caught up with the end offsets of the changelog on startup.
+     */
+    synchronized void markCaughtUp() {
+        caughtUp = true;
+        notifyAll();
+    }
+
+    /**
+     * Marks the replica as caught up and past a snapshot marker on every partition.
+     */
+    synchronized void markReady() {
+        ready = true;
+        notifyAll();
+    }
+
+    /**
+     * Marks the replica as no longer following the changelog.
+     */
+    synchronized void markStale() {
+        caughtUp = false;
+        ready = false;
+    }
+
+    /**
+     * Looks up the found movies, skipping those removed since the index was searched.
+     */
+    private List<MovieChange> movies(List<Integer> movieIds) {
+        List<MovieChange> found = new ArrayList<>(movieIds.size());
+        for (Integer movieId : movieIds) {
+            MovieChange movie = movies.get(movieId);
+            if (movie != null) {
+                found.add(movie);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.IntegerDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Keeps the {@link MovieCatalog} in sync with the log-compacted movie changelog topic of the consumer.
+ * <p>
+ * On startup a background thread assigns itself all partitions of the changelog, reads them from the beginning and
+ * marks the catalog caught up once it reached the end offsets recorded at that moment. Afterwards it keeps applying
+ * new changes. The thread joins no consumer group and commits no offsets, so every instance holds a full replica and
+ * instances can be added freely.
+ * </p>
+ * <p>
+ * The changelog may hold movies the database no longer stores, e.g. after the database of the consumer was replaced,
+ * until the consumer reconciled the two on startup and published a snapshot marker under
+ * {@link MovieCatalog#SNAPSHOT_MARKER_KEY} to every partition. The catalog is therefore only marked ready once it
+ * caught up and read a marker on every partition; until then searches take the slower path of the service, i.e. the
+ * request-reply path through the consumer in the producer and the database in the consumer. A marker published by an
+ * earlier run of the consumer counts as well, so a replica starting while the consumer reconciles may answer from the
+ * changelog of that run until the reconciliation reached it.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "search.catalog.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MovieCatalogReplicator implements SmartLifecycle {
+
+    private static final Integer SNAPSHOT_MARKER = MovieCatalog.SNAPSHOT_MARKER_KEY;
+
+    private final MovieCatalog movieCatalog;
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+
+    private final ObjectMapper objectMapper;
+
+    private final String changelogTopic;
+
+    private final Duration pollTimeout;
+
+    private volatile boolean running;
+
+    private volatile Consumer<Object, Object> consumer;
+
+    private Thread thread;
+
+    /**
+     * Constructs a MovieCatalogReplicator.
+     *
+     * @param movieCatalog    The catalog replica to fill.
+     * @param consumerFactory The consumer factory of the listeners.
+     * @param objectMapper    The object mapper deserializing the changed movies.
+     * @param changelogTopic  The changelog topic.
+     * @param pollTimeout     The maximum time to wait for changes in one poll.
+     */
+    public MovieCatalogReplicator(MovieCatalog movieCatalog, ConsumerFactory<Object, Object> consumerFactory,
+                                  ObjectMapper objectMapper,
+                                  @Value("${spring.kafka.topics.changelog:movies-changelog}") String changelogTopic,
+                                  @Value("${search.catalog.poll-timeout:1s}") Duration pollTimeout) {
+        this.movieCatalog = movieCatalog;
+        this.consumerFactory = consumerFactory;
+        this.objectMapper = objectMapper;
+        this.changelogTopic = changelogTopic;
+        this.pollTimeout = pollTimeout;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::replicate, "movie-catalog-replicator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        Consumer<Object, Object> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        try {
+            thread.join(pollTimeout.toMillis() * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the listener containers, which start in {@link AbstractMessageListenerContainer#DEFAULT_PHASE},
+     * and before the startup work of the services waiting for the catalog to catch up.
+     */
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 3;
+    }
+
+    private void replicate() {
+        Properties properties = new Properties();
+        properties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        // the consumer creates the changelog with log compaction
+        properties.setProperty(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, "false");
+        // the changelog has integer keys and JSON values, whatever the listeners of the service consume
+        properties.setProperty(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, IntegerDeserializer.class.getName());
+        properties.setProperty(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        try (Consumer<Object, Object> changelog = consumerFactory.createConsumer(null, null, "-catalog",
+                properties)) {
+            consumer = changelog;
+            List<TopicPartition> partitions = partitions(changelog);
+            changelog.assign(partitions);
+            changelog.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = changelog.endOffsets(partitions);
+            long start = System.nanoTime();
+            log.info("Replicating the movie catalog from {} up to the offsets {}", changelogTopic, endOffsets);
+            Set<Integer> markedPartitions = new HashSet<>();
+            boolean caughtUp = false;
+            while (running) {
+                for (ConsumerRecord<Object, Object> consumerRecord : changelog.poll(pollTimeout)) {
+                    if (SNAPSHOT_MARKER.equals(consumerRecord.key())) {
+                        markedPartitions.add(consumerRecord.partition());
+                    } else {
+                        apply(consumerRecord);
+                    }
+                }
+                if (!caughtUp && caughtUp(changelog, endOffsets)) {
+                    caughtUp = true;
+                    movieCatalog.markCaughtUp();
+                    log.info("Replicated {} movies from {} in {} ms", movieCatalog.size(), changelogTopic,
+                            Duration.ofNanos(System.nanoTime() - start).toMillis());
+                }
+                if (caughtUp && !movieCatalog.isReady() && markedPartitions.size() == partitions.size()) {
+                    movieCatalog.markReady();
+                    log.info("Read the snapshot markers of {}, answering searches locally", changelogTopic);
+                }
+            }
+        } catch (WakeupException e) {
+            // stopped
+        } catch (RuntimeException e) {
+            log.error("Stopped replicating the movie catalog from {}, searching without it: {}",
+                    changelogTopic, e.getMessage());
+        } finally {
+            consumer = null;
+            movieCatalog.markStale();
+        }
+    }
+
+    /**
+     * Waits for the changelog topic to exist, e.g. until the consumer created it or the brokers are reachable.
+     */
+    private List<TopicPartition> partitions(Consumer<Object, Object> changelog) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        while (running && partitions.isEmpty()) {
+            List<PartitionInfo> infos;
+            try {
+                infos = changelog.partitionsFor(changelogTopic);
+            } catch (TimeoutException e) {
+                infos = null;
+            }
+            if (infos == null || infos.isEmpty()) {
+                log.info("Waiting for the changelog topic {}", changelogTopic);
+                try {
+                    Thread.sleep(pollTimeout.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+                continue;
+            }
+            infos.forEach(info -> partitions.add(new TopicPartition(changelogTopic, info.partition())));
+        }
+        return partitions;
+    }
+
+    private void apply(ConsumerRecord<Object, Object> consumerRecord) {
+        if (!(consumerRecord.key() instanceof Integer movieId)) {
+            log.warn("Skipping changelog record without movie id at offset {}", consumerRecord.offset());
+            return;
+        }
+        if (consumerRecord.value() == null) {
+            movieCatalog.remove(movieId);
+            return;
+        }
+        try {
+            MovieChange movie = objectMapper.readValue(String.valueOf(consumerRecord.value()), MovieChange.class);
+            movieCatalog.put(movieId, movie.title(), movie.genres());
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed change of movie {}: {}", movieId, e.getMessage());
+        }
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+            if (consumer.position(endOffset.getKey()) < endOffset.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.catalog;
+
+/**
+ * The state of a movie as the consumer publishes it to the movie changelog topic, and as the {@link MovieCatalog}
+ * keeps it.
+ *
+ * @param Id     The id of the movie.
+ * @param title  The title of the movie.
+ * @param genres The pipe-separated genres of the movie.
+ */
+public record MovieChange(Integer Id, String title, String genres) {
+}
@@ -0,0 +1,282 @@
+package org.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index answering boolean genre queries.
+ * <p>
+ * Genre names are dictionary-encoded: every distinct genre gets a small code and a bitmap holding one bit per movie,
+ * so a movie costs one bit per known genre instead of its pipe-separated genre string. Queries are evaluated with
+ * word-wide bitmap operations over the whole catalog.
+ * </p>
+ * <p>
+ * The bitmaps are not indexed by movie id, which comes from the record keys and may be arbitrarily large, but by a
+ * dense ordinal assigned to every indexed movie and reused once the movie is removed. The bitmaps therefore grow with
+ * the number of movies, not with the largest id.
+ * </p>
+ * <p>
+ * A query is a comma-separated list of clauses that must all hold. A clause is a genre, several genres separated by
+ * {@code |} of which any must match, or a genre prefixed with {@code !} that must not match, e.g.
+ * {@code Comedy,Romance,!Drama} or {@code Action|Adventure,!Horror}. Genres match whole and ignoring case. The index
+ * is safe for concurrent searches and updates.
+ * </p>
+ */
+public class GenreIndex {
+
+    /**
+     * Separator of the genres of a movie, and of the alternatives of a query clause.
+     */
+    private static final String GENRE_SEPARATOR = "|";
+
+    private static final String CLAUSE_SEPARATOR = ",";
+
+    private static final String NOT = "!";
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private final List<BitSet> bitmaps = new ArrayList<>();
+
+    /**
+     * The ordinals of the indexed movies, by movie id.
+     */
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+
+    /**
+     * The movie ids, by ordinal.
+     */
+    private int[] movieIds = new int[64];
+
+    /**
+     * The ordinals in use.
+     */
+    private final BitSet movies = new BitSet();
+
+    /**
+     * The ordinals released by removed movies, reused before new ones are assigned.
+     */
+    private int[] freeOrdinals = new int[16];
+
+    private int freeCount;
+
+    private int nextOrdinal;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces the genres of a movie.
+     *
+     * @param movieId The id of the movie.
+     * @param genres  The pipe-separated genres, or {@code null} to remove the movie.
+     */
+    public void put(int movieId, String genres) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+            if (genres != null) {
+                int ordinal = assignOrdinal(movieId);
+                movies.set(ordinal);
+                for (String genre : split(genres, GENRE_SEPARATOR)) {
+                    int code = codes.computeIfAbsent(genre, key -> {
+                        bitmaps.add(new BitSet());
+                        return bitmaps.size() - 1;
+                    });
+                    bitmaps.get(code).set(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a movie from the index.
+     *
+     * @param movieId The id of the movie.
+     */
+    public void remove(int movieId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all movies and genres from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            codes.clear();
+            bitmaps.clear();
+            ordinals.clear();
+            movies.clear();
+            freeCount = 0;
+            nextOrdinal = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed movies.
+     *
+     * @return The number of movies.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct genres in the dictionary.
+     *
+     * @return The number of genres.
+     */
+    public int genreCount() {
+        lock.readLock().lock();
+        try {
+            return codes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the movies matching a genre query.
+     *
+     * @param query The query, see the class description.
+     * @return The ids of the matching movies in ascending order, empty if the query is {@code null} or has no clauses.
+     */
+    public List<Integer> search(String query) {
+        List<String> clauses = query == null ? List.of() : split(query, CLAUSE_SEPARATOR);
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+        BitSet result;
+        int[] ids;
+        lock.readLock().lock();
+        try {
+            result = (BitSet) movies.clone();
+            for (String clause : clauses) {
+                if (clause.startsWith(NOT)) {
+                    result.andNot(bitmap(clause.substring(NOT.length()).strip()));
+                } else {
+                    BitSet anyOf = new BitSet();
+                    for (String genre : split(clause, GENRE_SEPARATOR)) {
+                        anyOf.or(bitmap(genre));
+                    }
+                    result.and(anyOf);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            ids = new int[result.cardinality()];
+            int count = 0;
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                ids[count++] = movieIds[ordinal];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(ids);
+        List<Integer> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            found.add(id);
+        }
+        return found;
+    }
+
+    /**
+     * Tells whether the genres of a single movie match a genre query, without an index.
+     *
+     * @param query  The query, see the class description.
+     * @param genres The pipe-separated genres of the movie.
+     * @return Whether the movie matches, {@code false} if the query is {@code null} or has no clauses.
+     */
+    public static boolean matches(String query, String genres) {
+        List<String> clauses = query == null ? List.of() : split(query, CLAUSE_SEPARATOR);
+        if (clauses.isEmpty() || genres == null) {
+            return false;
+        }
+        List<String> movieGenres = split(genres, GENRE_SEPARATOR);
+        for (String clause : clauses) {
+            if (clause.startsWith(NOT)) {
+                if (movieGenres.contains(clause.substring(NOT.length()).strip())) {
+                    return false;
+                }
+            } else if (split(clause, GENRE_SEPARATOR).stream().noneMatch(movieGenres::contains)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private BitSet bitmap(String genre) {
+        Integer code = codes.get(genre);
+        return code == null ? new BitSet() : bitmaps.get(code);
+    }
+
+    private void removeLocked(int movieId) {
+        Integer ordinal = ordinals.remove(movieId);
+        if (ordinal != null) {
+            movies.clear(ordinal);
+            for (BitSet bitmap : bitmaps) {
+                bitmap.clear(ordinal);
+            }
+            if (freeCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            }
+            freeOrdinals[freeCount++] = ordinal;
+        }
+    }
+
+    private int assignOrdinal(int movieId) {
+        int ordinal;
+        if (freeCount > 0) {
+            ordinal = freeOrdinals[--freeCount];
+        } else {
+            ordinal = nextOrdinal++;
+            if (ordinal == movieIds.length) {
+                movieIds = Arrays.copyOf(movieIds, ordinal * 2);
+            }
+        }
+        movieIds[ordinal] = movieId;
+        ordinals.put(movieId, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Splits a text into its non-blank, trimmed and lower-cased parts.
+     */
+    private static List<String> split(String text, String separator) {
+        List<String> parts = new ArrayList<>();
+        int from = 0;
+        while (from <= text.length()) {
+            int to = text.indexOf(separator, from);
+            if (to < 0) {
+                to = text.length();
+            }
+            String part = text.substring(from, to).strip();
+            if (!part.isEmpty()) {
+                parts.add(part.toLowerCase(Locale.ROOT));
+            }
+            from = to + separator.length();
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index answering case-insensitive substring searches over movie titles.
+ * <p>
+ * Every lower-cased title is split into its distinct three-character substrings, and each trigram maps to the sorted
+ * ids of the titles containing it. A query is answered by intersecting the posting lists of its trigrams, starting
+ * with the shortest, and verifying the few remaining candidates with {@link String#contains}. Queries shorter than a
+ * trigram fall back to scanning the titles. The index is safe for concurrent searches and updates.
+ * </p>
+ */
+public class TitleIndex {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private final Map<Integer, String> titles = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces the title of a movie.
+     *
+     * @param movieId The id of the movie.
+     * @param title   The title, or {@code null} to remove the movie.
+     */
+    public void put(int movieId, String title) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+            if (title != null) {
+                String normalized = normalize(title);
+                titles.put(movieId, normalized);
+                for (long trigram : trigrams(normalized)) {
+                    postings.computeIfAbsent(trigram, key -> new Postings()).add(movieId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a movie from the index.
+     *
+     * @param movieId The id of the movie.
+     */
+    public void remove(int movieId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all movies from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            titles.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed movies.
+     *
+     * @return The number of movies.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the movies whose title contains the query, ignoring case.
+     *
+     * @param query  The substring to search for.
+     * @param ranked Whether to order the result by match quality: exact title, title prefix, word prefix, any other
+     *               match, and shorter titles first within each group. Otherwise the result is ordered by id.
+     * @return The ids of the matching movies.
+     */
+    public List<Integer> search(String query, boolean ranked) {
+        String normalized = normalize(query);
+        List<Integer> matches = new ArrayList<>();
+        Map<Integer, String> matchedTitles = ranked ? new HashMap<>() : null;
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < 3) {
+                titles.forEach((id, title) -> {
+                    if (title.contains(normalized)) {
+                        matches.add(id);
+                    }
+                });
+                matches.sort(null);
+            } else {
+                for (int id : candidates(normalized)) {
+                    if (titles.get(id).contains(normalized)) {
+                        matches.add(id);
+                    }
+                }
+            }
+            if (ranked) {
+                matches.forEach(id -> matchedTitles.put(id, titles.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ranked) {
+            matches.sort(Comparator.<Integer>comparingInt(id -> rank(matchedTitles.get(id), normalized))
+                    .thenComparingInt(id -> matchedTitles.get(id).length())
+                    .thenComparingInt(id -> id));
+        }
+        return matches;
+    }
+
+    /**
+     * Intersects the posting lists of all trigrams of the query.
+     */
+    private int[] candidates(String query) {
+        long[] queryTrigrams = trigrams(query);
+        Postings[] lists = new Postings[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            lists[i] = postings.get(queryTrigrams[i]);
+            if (lists[i] == null) {
+                return NO_IDS;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            size = intersect(result, size, lists[i]);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Keeps the ids of {@code result} also contained in {@code list}, in place.
+     *
+     * @return The new number of ids in {@code result}.
+     */
+    private static int intersect(int[] result, int size, Postings list) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size; i++) {
+            int found = Arrays.binarySearch(list.ids, from, list.size, result[i]);
+            if (found >= 0) {
+                result[kept++] = result[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    private void removeLocked(int movieId) {
+        String previous = titles.remove(movieId);
+        if (previous != null) {
+            for (long trigram : trigrams(previous)) {
+                Postings list = postings.get(trigram);
+                if (list != null && list.remove(movieId) && list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private static int rank(String title, String query) {
+        if (title.equals(query)) {
+            return 0;
+        }
+        if (title.startsWith(query)) {
+            return 1;
+        }
+        int at = title.indexOf(query);
+        while (at > 0) {
+            if (!Character.isLetterOrDigit(title.charAt(at - 1))) {
+                return 2;
+            }
+            at = title.indexOf(query, at + 1);
+        }
+        return 3;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the distinct trigrams of a normalized text, each packed into the low 48 bits of a long.
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * Sorted ids of the titles containing one trigram.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+
+        private int size;
+
+        void add(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.serde;
+
+/**
+ * Constants of the tagged binary record format shared by the producer and the consumer.
+ * <p>
+ * A record starts with a zero magic byte, which never starts a JSON document, the format version and the record
+ * type. The fields follow as {@code (tag << 3 | wire type)} keys and values: zig-zag varints for integers, eight
+ * little-endian bytes for doubles and length-prefixed UTF-8 for strings. Null fields are left out, and readers skip
+ * fields with unknown tags, so fields can be added without a version change; the version only changes when existing
+ * tags change meaning. Both services map their own movie and rating types with these tags.
+ * </p>
+ */
+public final class BinaryFormat {
+
+    /**
+     * The first byte of every binary record.
+     */
+    public static final byte MAGIC = 0;
+
+    /**
+     * The version of the format.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Wire type of zig-zag varints.
+     */
+    public static final int VARINT = 0;
+
+    /**
+     * Wire type of eight little-endian bytes.
+     */
+    public static final int FIXED64 = 1;
+
+    /**
+     * Wire type of length-prefixed bytes.
+     */
+    public static final int LENGTH_DELIMITED = 2;
+
+    /**
+     * Record type of movies.
+     */
+    public static final int MOVIE = 1;
+
+    /**
+     * Record type of ratings.
+     */
+    public static final int RATING = 2;
+
+    public static final int MOVIE_ID = 1;
+
+    public static final int MOVIE_TYPE = 2;
+
+    public static final int MOVIE_TITLE = 3;
+
+    public static final int MOVIE_GENRES = 4;
+
+    public static final int RATING_USER_ID = 1;
+
+    public static final int RATING_MOVIE_ID = 2;
+
+    public static final int RATING_RATING = 3;
+
+    public static final int RATING_TIMESTAMP = 4;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Tells whether a serialized value is in the binary format rather than JSON.
+     *
+     * @param value The serialized value.
+     * @return Whether the value starts with the magic byte.
+     */
+    public static boolean isBinary(byte[] value) {
+        return value != null && value.length > 0 && value[0] == MAGIC;
+    }
+}
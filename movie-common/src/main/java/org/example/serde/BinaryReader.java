@@ -0,0 +1,134 @@
+package org.example.serde;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of the tagged binary record format, see {@link BinaryFormat}.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private int wireType;
+
+    /**
+     * Constructs a BinaryReader positioned at the first field of a record.
+     *
+     * @param buffer             The binary record.
+     * @param expectedRecordType The record type the record must have.
+     * @throws IllegalArgumentException If the buffer is no binary record of the supported version and expected type.
+     */
+    public BinaryReader(byte[] buffer, int expectedRecordType) {
+        if (!BinaryFormat.isBinary(buffer) || buffer.length < 3) {
+            throw new IllegalArgumentException("Not a binary record");
+        }
+        if (buffer[1] != BinaryFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported binary record version " + buffer[1]);
+        }
+        if (buffer[2] != expectedRecordType) {
+            throw new IllegalArgumentException("Unexpected binary record type " + buffer[2]);
+        }
+        this.buffer = buffer;
+        this.position = 3;
+    }
+
+    /**
+     * Reads the key of the next field.
+     *
+     * @return The tag of the field, or -1 at the end of the record.
+     */
+    public int nextField() {
+        if (position == buffer.length) {
+            return -1;
+        }
+        long key = readVarint();
+        wireType = (int) (key & 0x7);
+        return (int) (key >>> 3);
+    }
+
+    /**
+     * Reads the value of an integer field.
+     *
+     * @return The value.
+     */
+    public int readInt() {
+        expect(BinaryFormat.VARINT);
+        int zigZag = (int) readVarint();
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    /**
+     * Reads the value of a double field.
+     *
+     * @return The value.
+     */
+    public double readDouble() {
+        expect(BinaryFormat.FIXED64);
+        require(Long.BYTES);
+        long bits = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            bits |= (buffer[position++] & 0xFFL) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Reads the value of a string field.
+     *
+     * @return The value.
+     */
+    public String readString() {
+        expect(BinaryFormat.LENGTH_DELIMITED);
+        int length = (int) readVarint();
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Skips the value of a field unknown to this version, so that newer writers may add fields.
+     */
+    public void skip() {
+        switch (wireType) {
+            case BinaryFormat.VARINT -> readVarint();
+            case BinaryFormat.FIXED64 -> {
+                require(Long.BYTES);
+                position += Long.BYTES;
+            }
+            case BinaryFormat.LENGTH_DELIMITED -> {
+                int length = (int) readVarint();
+                require(length);
+                position += length;
+            }
+            default -> throw new IllegalArgumentException("Unknown wire type " + wireType);
+        }
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private void expect(int expectedWireType) {
+        if (wireType != expectedWireType) {
+            throw new IllegalArgumentException("Unexpected wire type " + wireType);
+        }
+    }
+
+    private void require(int bytes) {
+        if (bytes < 0 || position + bytes > buffer.length) {
+            throw new IllegalArgumentException("Truncated binary record");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writer of the tagged binary record format, see {@link BinaryFormat}.
+ */
+public final class BinaryWriter {
+
+    private byte[] buffer;
+
+    private int size;
+
+    /**
+     * Constructs a BinaryWriter.
+     *
+     * @param expectedSize The initial capacity in bytes.
+     */
+    public BinaryWriter(int expectedSize) {
+        buffer = new byte[expectedSize];
+    }
+
+    /**
+     * Writes the magic byte, the version and the record type.
+     *
+     * @param recordType The record type.
+     * @return This writer.
+     */
+    public BinaryWriter header(int recordType) {
+        writeByte(BinaryFormat.MAGIC);
+        writeByte(BinaryFormat.VERSION);
+        writeByte(recordType);
+        return this;
+    }
+
+    /**
+     * Writes an integer field, unless the value is {@code null}.
+     *
+     * @param tag   The tag of the field.
+     * @param value The value.
+     * @return This writer.
+     */
+    public BinaryWriter intField(int tag, Integer value) {
+        if (value != null) {
+            writeVarint((long) tag << 3 | BinaryFormat.VARINT);
+            writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a double field, unless the value is {@code null}.
+     *
+     * @param tag   The tag of the field.
+     * @param value The value.
+     * @return This writer.
+     */
+    public BinaryWriter doubleField(int tag, Double value) {
+        if (value != null) {
+            writeVarint((long) tag << 3 | BinaryFormat.FIXED64);
+            long bits = Double.doubleToLongBits(value);
+            ensureCapacity(Long.BYTES);
+            for (int i = 0; i < Long.BYTES; i++) {
+                buffer[size++] = (byte) (bits >>> (8 * i));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes a string field, unless the value is {@code null}.
+     *
+     * @param tag   The tag of the field.
+     * @param value The value.
+     * @return This writer.
+     */
+    public BinaryWriter stringField(int tag, String value) {
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint((long) tag << 3 | BinaryFormat.LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+        return this;
+    }
+
+    /**
+     * Gets the written record.
+     *
+     * @return A copy of the written bytes.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
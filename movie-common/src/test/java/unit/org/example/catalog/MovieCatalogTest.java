@@ -0,0 +1,69 @@
+package org.example.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link MovieCatalog} class.
+ */
+class MovieCatalogTest {
+
+    /**
+     * Test case verifying ranked title searches, also with a padded query, and genre queries over replicated movies,
+     * including replaced and removed ones.
+     */
+    @Test
+    void searchesReplicatedMovies() {
+        // Given
+        MovieCatalog catalog = new MovieCatalog(true);
+        catalog.put(1, "Toy Story (1995)", "Adventure|Animation|Children|Comedy|Fantasy");
+        catalog.put(3078, "Toy Story 2 (1999)", "Adventure|Animation|Children|Comedy|Fantasy");
+        catalog.put(2, "Jumanji (1995)", "Adventure|Children|Fantasy");
+        catalog.put(5, "Heat (1995)", "Action|Crime|Thriller");
+        // When
+        catalog.put(2, "Jumanji (1995)", "Adventure|Fantasy");
+        catalog.remove(5);
+        // Then
+        assertEquals(List.of(new MovieChange(1, "Toy Story (1995)", "Adventure|Animation|Children|Comedy|Fantasy"),
+                new MovieChange(3078, "Toy Story 2 (1999)", "Adventure|Animation|Children|Comedy|Fantasy")),
+                catalog.searchTitle("toy story"));
+        assertEquals(List.of(1, 3078), catalog.searchGenres("Children").stream().map(MovieChange::Id).toList());
+        assertEquals(List.of(2), catalog.searchGenres("Fantasy,!Animation").stream().map(MovieChange::Id).toList());
+        assertTrue(catalog.searchTitle("heat").isEmpty());
+        assertEquals(List.of(2), catalog.searchTitle("  jumanji ").stream().map(MovieChange::Id).toList());
+        assertEquals(3, catalog.size());
+        assertSame(catalog.searchTitle("Toy Story (").get(0).genres(), catalog.searchTitle("Toy Story 2").get(0).genres());
+    }
+
+    /**
+     * Test case verifying that the catalog only answers searches while it follows the changelog, and that waiting
+     * callers are woken up once it is ready.
+     *
+     * @throws InterruptedException If the test is interrupted while waiting.
+     */
+    @Test
+    void tracksReadiness() throws InterruptedException {
+        // Given
+        MovieCatalog catalog = new MovieCatalog(false);
+        // When
+        boolean initially = catalog.isReady();
+        boolean readyInTime = catalog.awaitReady(Duration.ofMillis(10));
+        Thread replicator = new Thread(catalog::markReady);
+        replicator.start();
+        boolean awaited = catalog.awaitReady(Duration.ofSeconds(10));
+        replicator.join();
+        catalog.markStale();
+        // Then
+        assertFalse(initially);
+        assertFalse(readyInTime);
+        assertTrue(awaited);
+        assertFalse(catalog.isReady());
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link GenreIndex} class.
+ */
+class GenreIndexTest {
+
+    /**
+     * Test case verifying AND, OR and NOT clauses match whole genres ignoring case.
+     */
+    @Test
+    void evaluatesBooleanQueries() {
+        // Given
+        GenreIndex index = new GenreIndex();
+        index.put(1, "Adventure|Animation|Children|Comedy|Fantasy");
+        index.put(2, "Comedy|Romance");
+        index.put(3, "Comedy|Drama|Romance");
+        index.put(4, "Action|Crime|Thriller");
+        index.put(5, "Film-Noir");
+        // Then
+        assertEquals(List.of(2, 3), index.search("comedy,ROMANCE"));
+        assertEquals(List.of(2), index.search("Comedy,Romance,!Drama"));
+        assertEquals(List.of(1, 4), index.search("Action|Adventure"));
+        assertEquals(List.of(4, 5), index.search("!Comedy"));
+        assertEquals(List.of(), index.search("Com"));
+        assertEquals(List.of(5), index.search("film-noir"));
+        assertEquals(11, index.genreCount());
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Test case verifying replaced and removed movies leave their previous genres.
+     */
+    @Test
+    void followsUpdates() {
+        // Given
+        GenreIndex index = new GenreIndex();
+        index.put(1, "Comedy");
+        index.put(2, "Drama");
+        index.put(100_000, "Comedy|Drama");
+        // When
+        index.put(1, "Horror");
+        index.remove(2);
+        // Then
+        assertEquals(List.of(100_000), index.search("Comedy"));
+        assertEquals(List.of(100_000), index.search("Drama"));
+        assertEquals(List.of(1), index.search("Horror"));
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Test case verifying that huge and negative ids are indexed without bitmaps of their size, and that results stay
+     * in ascending order of id when ordinals are reused.
+     */
+    @Test
+    void indexesSparseIds() {
+        // Given
+        GenreIndex index = new GenreIndex();
+        index.put(2_000_000_000, "Comedy");
+        index.put(-5, "Comedy");
+        index.put(7, "Drama");
+        // When
+        index.remove(2_000_000_000);
+        index.put(Integer.MAX_VALUE, "Comedy|Drama");
+        index.put(3, "Comedy");
+        // Then
+        assertEquals(List.of(-5, 3, Integer.MAX_VALUE), index.search("Comedy"));
+        assertEquals(List.of(7, Integer.MAX_VALUE), index.search("Drama"));
+        assertEquals(List.of(-5, 3), index.search("Comedy,!Drama"));
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * Test case verifying that a single movie is matched without an index as the index would match it.
+     */
+    @Test
+    void matchesSingleMovies() {
+        // Then
+        assertTrue(GenreIndex.matches("comedy,ROMANCE", "Comedy|Drama|Romance"));
+        assertFalse(GenreIndex.matches("Comedy,Romance,!Drama", "Comedy|Drama|Romance"));
+        assertTrue(GenreIndex.matches("Action|Adventure,!Horror", "Adventure|Fantasy"));
+        assertFalse(GenreIndex.matches("Com", "Comedy"));
+        assertFalse(GenreIndex.matches(" , ", "Comedy"));
+        assertFalse(GenreIndex.matches("Comedy", null));
+    }
+}
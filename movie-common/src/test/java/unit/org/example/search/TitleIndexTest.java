@@ -0,0 +1,54 @@
+package org.example.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link TitleIndex} class.
+ */
+class TitleIndexTest {
+
+    /**
+     * Test case verifying substring search ignores case and follows updates and removals.
+     */
+    @Test
+    void searchFollowsUpdates() {
+        // Given
+        TitleIndex index = new TitleIndex();
+        index.put(1, "Toy Story (1995)");
+        index.put(2, "Toy Story 2 (1999)");
+        index.put(3, "Jumanji (1995)");
+        index.put(4, "Heat (1995)");
+        // When
+        index.put(3, "Jumanji: The Next Level (2019)");
+        index.remove(2);
+        // Then
+        assertEquals(List.of(1), index.search("toy STORY", false));
+        assertEquals(List.of(1, 4), index.search("(19", false));
+        assertEquals(List.of(3), index.search("next", false));
+        assertEquals(List.of(), index.search("1999", false));
+        assertEquals(List.of(4), index.search("ea", false));
+        assertEquals(3, index.size());
+    }
+
+    /**
+     * Test case verifying ranked results put exact titles, then prefixes, then word prefixes first.
+     */
+    @Test
+    void rankedSearchOrdersByMatchQuality() {
+        // Given
+        TitleIndex index = new TitleIndex();
+        index.put(1, "Batman Returns");
+        index.put(2, "The Batman");
+        index.put(3, "Batmania");
+        index.put(4, "batman");
+        index.put(5, "Superbatman");
+        // When
+        List<Integer> ranked = index.search("Batman", true);
+        // Then
+        assertEquals(List.of(4, 3, 1, 2, 5), ranked);
+    }
+}
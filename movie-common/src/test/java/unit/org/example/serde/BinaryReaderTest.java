@@ -0,0 +1,61 @@
+package org.example.serde;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the {@link BinaryReader} and {@link BinaryWriter} classes.
+ */
+class BinaryReaderTest {
+
+    /**
+     * Test case verifying written fields are read back in order, with null fields left out and extreme values intact.
+     */
+    @Test
+    void readsWrittenFields() {
+        // Given
+        byte[] record = new BinaryWriter(1)
+                .header(BinaryFormat.RATING)
+                .intField(1, Integer.MIN_VALUE)
+                .intField(2, null)
+                .doubleField(3, -0.5)
+                .stringField(4, "Amélie")
+                .toByteArray();
+        // When
+        BinaryReader reader = new BinaryReader(record, BinaryFormat.RATING);
+        // Then
+        assertEquals(1, reader.nextField());
+        assertEquals(Integer.MIN_VALUE, reader.readInt());
+        assertEquals(3, reader.nextField());
+        assertEquals(-0.5, reader.readDouble());
+        assertEquals(4, reader.nextField());
+        assertEquals("Amélie", reader.readString());
+        assertEquals(-1, reader.nextField());
+    }
+
+    /**
+     * Test case verifying other record types, wrong wire types and truncated records are rejected.
+     */
+    @Test
+    void rejectsMalformedRecords() {
+        // Given
+        byte[] record = new BinaryWriter(16)
+                .header(BinaryFormat.MOVIE)
+                .stringField(BinaryFormat.MOVIE_TITLE, "Heat (1995)")
+                .toByteArray();
+        byte[] truncated = Arrays.copyOf(record, record.length - 1);
+        BinaryReader wrongWireType = new BinaryReader(record, BinaryFormat.MOVIE);
+        wrongWireType.nextField();
+        BinaryReader truncatedReader = new BinaryReader(truncated, BinaryFormat.MOVIE);
+        truncatedReader.nextField();
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new BinaryReader(record, BinaryFormat.RATING));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryReader("{}".getBytes(), BinaryFormat.MOVIE));
+        assertThrows(IllegalArgumentException.class, wrongWireType::readInt);
+        assertThrows(IllegalArgumentException.class, truncatedReader::readString);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.Properties;
+
+/**
+ * Configuration class for the batch listener mode of the movie consumer.
+ * <p>
+ * When {@code consumer.batch.enabled} is set, the movies topic is consumed a whole poll at a time, so that the records
+ * of a poll can be persisted with a single query for the existing movies and batched JDBC statements.
+ * </p>
+ */
+@Configuration
+public class KafkaBatchConfig {
+
+    /**
+     * Creates the listener container factory delivering whole polls to batch listeners.
+     *
+     * @param configurer      The configurer applying the {@code spring.kafka.listener} properties, including the
+     *                        virtual listener threads of {@code spring.threads.virtual.enabled}.
+     * @param consumerFactory The consumer factory configured from the {@code spring.kafka.consumer} properties.
+     * @param maxPollRecords  The maximum number of records delivered in one batch.
+     * @return The batch listener container factory.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "consumer.batch.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${consumer.batch.max-poll-records:1000}") int maxPollRecords) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        return factory;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.example.producers.MovieChangelogProducer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Configuration class for the movie changelog topic written by the {@link MovieChangelogProducer}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "changelog.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaChangelogConfig {
+
+    /**
+     * Creates the changelog topic with log compaction, so that it keeps the latest state of every movie and drops
+     * deleted movies once their tombstones expire.
+     *
+     * @param changelogTopic The changelog topic.
+     * @param partitions     The number of partitions.
+     * @return The changelog topic.
+     */
+    @Bean
+    public NewTopic movieChangelogTopic(@Value("${spring.kafka.topics.changelog:movies-changelog}") String changelogTopic,
+                                        @Value("${changelog.partitions:3}") int partitions) {
+        return TopicBuilder.name(changelogTopic).partitions(partitions).compact().build();
+    }
+}
@@ -0,0 +1,83 @@
+package org.example;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.example.consumers.KeyOrderedExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Properties;
+
+/**
+ * Configuration class for the parallel processing mode of the movie consumer.
+ * <p>
+ * When {@code consumer.parallel.enabled} is set, the records of a partition are processed by a pool of workers, so
+ * that one consumer can use all cores even if the movies topic has few partitions. Records are acknowledged
+ * asynchronously and out of order; the container commits a partition only up to its first unacknowledged record and
+ * pauses fetching until the records of a poll are all acknowledged, which bounds the records in progress by
+ * {@code consumer.parallel.max-poll-records}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnExpression("${consumer.parallel.enabled:false} and !${consumer.batch.enabled:false}")
+public class KafkaParallelConfig {
+
+    /**
+     * Creates the listener container factory acknowledging records out of order.
+     *
+     * @param configurer      The configurer applying the {@code spring.kafka.listener} properties, including the
+     *                        virtual listener threads of {@code spring.threads.virtual.enabled}.
+     * @param consumerFactory The consumer factory configured from the {@code spring.kafka.consumer} properties.
+     * @param maxPollRecords  The maximum number of records fetched in one poll.
+     * @return The parallel listener container factory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${consumer.parallel.max-poll-records:500}") int maxPollRecords) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        return factory;
+    }
+
+    /**
+     * Creates the pool of the movie workers.
+     *
+     * @param workers The number of worker threads, 0 for one per available core.
+     * @return The movie worker executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor movieWorkerExecutor(@Value("${consumer.parallel.workers:0}") int workers) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("movie-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Creates the executor processing movie records in parallel while keeping the order per movie id.
+     *
+     * @param movieWorkerExecutor The pool of the movie workers.
+     * @return The key-ordered executor of the movie workers.
+     */
+    @Bean
+    public KeyOrderedExecutor movieWorkers(ThreadPoolTaskExecutor movieWorkerExecutor) {
+        return new KeyOrderedExecutor(movieWorkerExecutor);
+    }
+}
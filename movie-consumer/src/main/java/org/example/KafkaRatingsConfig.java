@@ -0,0 +1,89 @@
+package org.example;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.example.services.RatingService;
+import org.example.services.TrendingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Configuration class for the listener containers of the ratings topic and its retry topics.
+ * <p>
+ * Ratings are only aggregated in memory when consumed and written by the periodic flush of the {@link RatingService},
+ * so their offsets must not be committed before that flush. The containers commit manually acknowledged offsets only,
+ * and the service acknowledges a rating once it is written. Before partitions are revoked, e.g. on a rebalance or
+ * shutdown, the pending ratings are flushed, so their offsets are committed with the partitions. Once partitions are
+ * assigned, the aggregates are restored from the database, so that the averages of movies that moved from another
+ * instance continue from the values it flushed.
+ * </p>
+ */
+@Configuration
+public class KafkaRatingsConfig {
+
+    /**
+     * Creates the listener container factory of the ratings listener.
+     *
+     * @param configurer      The configurer applying the {@code spring.kafka.listener} properties, including the
+     *                        virtual listener threads of {@code spring.threads.virtual.enabled}.
+     * @param consumerFactory The consumer factory configured from the {@code spring.kafka.consumer} properties.
+     * @param ratingService   The service flushing the aggregated ratings.
+     * @param trendingService The service ranking the windows of the consumed ratings.
+     * @param ratingsTopic    The name of the ratings topic.
+     * @return The ratings listener container factory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> ratingsKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            RatingService ratingService,
+            TrendingService trendingService,
+            @Value("${spring.kafka.topics.ratings}") String ratingsTopic) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer,
+                                                        Collection<TopicPartition> partitions) {
+                ratingService.flush();
+                trendingService.revoked(ratingsPartitions(partitions));
+            }
+
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                trendingService.revoked(ratingsPartitions(partitions));
+            }
+
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    ratingService.restore();
+                }
+                if (consumer.subscription().contains(ratingsTopic)) {
+                    trendingService.assigned(ratingsPartitions(partitions),
+                            consumer.partitionsFor(ratingsTopic).size());
+                }
+            }
+
+            private List<Integer> ratingsPartitions(Collection<TopicPartition> partitions) {
+                return partitions.stream()
+                        .filter(partition -> partition.topic().equals(ratingsTopic))
+                        .map(TopicPartition::partition)
+                        .toList();
+            }
+        });
+        return factory;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.example.services.DeadLetterService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+/**
+ * Configuration class for retrying failed records and parking them in dead-letter topics.
+ * <p>
+ * The single-record listeners retry failed records on tiered retry topics with exponential backoff, so a failing
+ * record never blocks its partition, and park them in {@code <topic>-dlt} once the attempts are exhausted. Failed
+ * records of the batch and parallel processing modes are parked directly. Parked records keep their original key,
+ * payload and headers and are re-driven by {@link DeadLetterService#replay(String, int)}.
+ * </p>
+ */
+@Configuration
+public class KafkaRetryConfig {
+
+    /**
+     * Creates the template publishing records to the retry and dead-letter topics. It writes the original payloads
+     * unchanged, so it overrides the value serializer of the producer factory.
+     * <p>
+     * Declared as {@link KafkaOperations}, so that the auto-configured {@code KafkaTemplate} is still created.
+     * </p>
+     *
+     * @param producerFactory The producer factory configured from the {@code spring.kafka.producer} properties.
+     * @return The dead-letter template.
+     */
+    @Bean
+    public KafkaOperations<Object, Object> deadLetterKafkaTemplate(ProducerFactory<Object, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory,
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+    }
+
+    /**
+     * Creates the dead-letter topic of the movies topic in the batch and parallel processing modes, whose failed
+     * records skip the retry topics. In the single-record mode it is created with the retry topics.
+     *
+     * @param moviesTopic The movies topic.
+     * @return The movies dead-letter topic.
+     */
+    @Bean
+    @ConditionalOnExpression("${consumer.batch.enabled:false} or ${consumer.parallel.enabled:false}")
+    public NewTopic moviesDeadLetterTopic(@Value("${spring.kafka.topics.movies:movies}") String moviesTopic) {
+        return TopicBuilder.name(moviesTopic + DeadLetterService.DLT_SUFFIX).build();
+    }
+}
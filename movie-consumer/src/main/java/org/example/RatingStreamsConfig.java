@@ -0,0 +1,37 @@
+package org.example;
+
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.KTable;
+import org.example.streams.RatingStats;
+import org.example.streams.RatingsTopology;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+
+/**
+ * Configuration class for the optional Kafka Streams ratings aggregation.
+ *
+ * When {@code ratings.streams.enabled} is set, the ratings topic is additionally aggregated by a Kafka Streams
+ * topology configured from the {@code spring.kafka.streams} properties. Its state stores are partitioned like the
+ * input topic, so the aggregation scales out by starting more instances with the same application id.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ratings.streams.enabled", havingValue = "true")
+@EnableKafkaStreams
+public class RatingStreamsConfig {
+
+    /**
+     * Builds the ratings aggregation topology.
+     *
+     * @param streamsBuilder The builder of the application's topology.
+     * @param ratingsTopic   The topic the ratings are consumed from.
+     * @return The table of rating aggregates by movie id.
+     */
+    @Bean
+    public KTable<Integer, RatingStats> ratingStatsTable(StreamsBuilder streamsBuilder,
+                                                         @Value("${spring.kafka.topics.ratings}") String ratingsTopic) {
+        return RatingsTopology.build(streamsBuilder, ratingsTopic);
+    }
+}
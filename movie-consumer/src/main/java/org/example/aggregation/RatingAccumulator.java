@@ -0,0 +1,257 @@
+package org.example.aggregation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running rating count and sum per movie, keyed by the primitive movie id.
+ * <p>
+ * The accumulator is an open-addressing hash table over parallel primitive arrays, so adding a rating neither boxes
+ * the movie id nor allocates. Movies whose aggregate changed since the last {@link #drainChanged()} are tracked, so
+ * that only those have to be written back. The class is not thread-safe.
+ * </p>
+ */
+public final class RatingAccumulator {
+
+    /**
+     * Aggregate of the ratings of one movie.
+     *
+     * @param movieId The id of the movie.
+     * @param count   The number of ratings.
+     * @param sum     The sum of the ratings.
+     */
+    public record Aggregate(int movieId, long count, double sum) {
+
+        /**
+         * Gets the average rating.
+         *
+         * @return The average rating, or 0 if the movie has no ratings.
+         */
+        public double average() {
+            return count == 0 ? 0 : sum / count;
+        }
+    }
+
+    /**
+     * Visitor of the aggregates of all movies.
+     */
+    @FunctionalInterface
+    public interface AggregateVisitor {
+
+        /**
+         * Visits the aggregate of one movie.
+         *
+         * @param movieId The id of the movie.
+         * @param count   The number of ratings.
+         * @param sum     The sum of the ratings.
+         */
+        void visit(int movieId, long count, double sum);
+    }
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+
+    private boolean[] used;
+
+    private long[] counts;
+
+    private double[] sums;
+
+    private boolean[] changed;
+
+    private int[] changedKeys = new int[64];
+
+    private int changedSize;
+
+    private int size;
+
+    /**
+     * Constructs an empty RatingAccumulator.
+     *
+     * @param expectedMovies The number of movies expected, used to size the table.
+     */
+    public RatingAccumulator(int expectedMovies) {
+        allocate(Integer.highestOneBit(Math.max(16, (int) (expectedMovies / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    /**
+     * Adds a rating to the aggregate of its movie.
+     *
+     * @param movieId The id of the rated movie.
+     * @param rating  The rating.
+     * @return The number of ratings of the movie, including this one.
+     */
+    public long add(int movieId, double rating) {
+        int slot = slotOf(movieId);
+        sums[slot] += rating;
+        markSlotChanged(slot);
+        return ++counts[slot];
+    }
+
+    /**
+     * Sets the aggregate of a movie without marking it as changed, e.g. from values restored from the database.
+     *
+     * @param movieId The id of the movie.
+     * @param count   The number of ratings.
+     * @param sum     The sum of the ratings.
+     */
+    public void seed(int movieId, long count, double sum) {
+        int slot = slotOf(movieId);
+        counts[slot] = count;
+        sums[slot] = sum;
+    }
+
+    /**
+     * Tells whether the aggregate of a movie changed since the last {@link #drainChanged()}.
+     *
+     * @param movieId The id of the movie.
+     * @return {@code true} if the aggregate has to be written back.
+     */
+    public boolean isChanged(int movieId) {
+        int slot = find(movieId);
+        return slot >= 0 && changed[slot];
+    }
+
+    /**
+     * Marks the aggregate of a movie as changed again, e.g. because writing it back did not succeed.
+     *
+     * @param movieId The id of the movie.
+     */
+    public void markChanged(int movieId) {
+        markSlotChanged(slotOf(movieId));
+    }
+
+    /**
+     * Gets the aggregate of a movie.
+     *
+     * @param movieId The id of the movie.
+     * @return The aggregate, with a count of 0 if the movie has no ratings.
+     */
+    public Aggregate get(int movieId) {
+        int slot = find(movieId);
+        return slot < 0 ? new Aggregate(movieId, 0, 0) : new Aggregate(movieId, counts[slot], sums[slot]);
+    }
+
+    /**
+     * Visits the aggregates of all movies, in no particular order, without allocating.
+     *
+     * @param visitor The visitor.
+     */
+    public void forEach(AggregateVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                visitor.visit(keys[slot], counts[slot], sums[slot]);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of movies with ratings.
+     *
+     * @return The number of movies.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of movies whose aggregate changed since the last drain.
+     *
+     * @return The number of changed movies.
+     */
+    public int changedCount() {
+        return changedSize;
+    }
+
+    /**
+     * Returns the aggregates changed since the last call and resets the change tracking.
+     *
+     * @return The changed aggregates, in the order the movies first changed.
+     */
+    public List<Aggregate> drainChanged() {
+        List<Aggregate> drained = new ArrayList<>(changedSize);
+        for (int i = 0; i < changedSize; i++) {
+            int slot = find(changedKeys[i]);
+            changed[slot] = false;
+            drained.add(new Aggregate(keys[slot], counts[slot], sums[slot]));
+        }
+        changedSize = 0;
+        return drained;
+    }
+
+    private void markSlotChanged(int slot) {
+        if (!changed[slot]) {
+            changed[slot] = true;
+            if (changedSize == changedKeys.length) {
+                changedKeys = Arrays.copyOf(changedKeys, changedSize * 2);
+            }
+            changedKeys[changedSize++] = keys[slot];
+        }
+    }
+
+    private int slotOf(int movieId) {
+        int slot = find(movieId);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        slot = -find(movieId) - 1;
+        keys[slot] = movieId;
+        used[slot] = true;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Finds the slot of a movie.
+     *
+     * @return The slot, or {@code -(free slot) - 1} if the movie is not in the table.
+     */
+    private int find(int movieId) {
+        int mask = keys.length - 1;
+        int slot = mix(movieId) & mask;
+        while (used[slot]) {
+            if (keys[slot] == movieId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        long[] oldCounts = counts;
+        double[] oldSums = sums;
+        boolean[] oldChanged = changed;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = -find(oldKeys[i]) - 1;
+                keys[slot] = oldKeys[i];
+                used[slot] = true;
+                counts[slot] = oldCounts[i];
+                sums[slot] = oldSums[i];
+                changed[slot] = oldChanged[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        counts = new long[capacity];
+        sums = new double[capacity];
+        changed = new boolean[capacity];
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
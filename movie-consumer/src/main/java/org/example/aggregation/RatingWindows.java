@@ -0,0 +1,206 @@
+package org.example.aggregation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Rating aggregates per movie over time windows of the rating time stamps, updated as ratings arrive.
+ * <p>
+ * The windows have a fixed size and start at every multiple of the advance since the epoch: tumbling windows when the
+ * advance equals the size, overlapping hopping windows when it is smaller, in which case a rating is added to every
+ * window it falls in. Every window keeps the count and sum per movie and a {@link TopN} of its most rated movies,
+ * which stays exact because counts only grow. The highest averages depend on all movies of a window and are ranked
+ * when queried.
+ * </p>
+ * <p>
+ * The newest time stamp seen is the watermark. Windows that ended more than the retention before it are evicted, and
+ * ratings older than that are ignored, so the memory is bounded by the number of windows within the retention. The
+ * class is not thread-safe.
+ * </p>
+ */
+public final class RatingWindows {
+
+    /**
+     * The aggregates of one window.
+     */
+    private static final class Window {
+
+        private final RatingAccumulator aggregates = new RatingAccumulator(1024);
+
+        private final TopN mostRated;
+
+        Window(int topN) {
+            mostRated = new TopN(topN);
+        }
+    }
+
+    /**
+     * A ranked movie of a window.
+     *
+     * @param movieId The id of the movie.
+     * @param count   The number of ratings of the movie in the window.
+     * @param average The average rating of the movie in the window.
+     */
+    public record RankedMovie(int movieId, long count, double average) {
+    }
+
+    /**
+     * The top movies of a window.
+     *
+     * @param start  The first time stamp of the window in epoch seconds, inclusive.
+     * @param end    The end of the window in epoch seconds, exclusive.
+     * @param movies The ranked movies, best first.
+     */
+    public record Ranking(long start, long end, List<RankedMovie> movies) {
+    }
+
+    private final long size;
+
+    private final long advance;
+
+    private final long retention;
+
+    private final int topN;
+
+    /**
+     * The windows by start time stamp.
+     */
+    private final TreeMap<Long, Window> windows = new TreeMap<>();
+
+    private long watermark = Long.MIN_VALUE;
+
+    /**
+     * Constructs empty RatingWindows.
+     *
+     * @param size      The length of a window in seconds.
+     * @param advance   The time between the starts of two windows in seconds, a divisor of the size.
+     * @param retention How long windows are kept after they ended, in seconds.
+     * @param topN      The number of most rated movies kept per window, the maximum length of a ranking.
+     */
+    public RatingWindows(long size, long advance, long retention, int topN) {
+        if (advance <= 0 || size % advance != 0) {
+            throw new IllegalArgumentException("The window advance " + advance + " must be a positive divisor of "
+                    + "the window size " + size);
+        }
+        if (retention < 0) {
+            throw new IllegalArgumentException("The window retention must not be negative, not " + retention);
+        }
+        this.size = size;
+        this.advance = advance;
+        this.retention = retention;
+        this.topN = topN;
+    }
+
+    /**
+     * Adds a rating to the windows containing its time stamp and evicts the windows expired by it.
+     *
+     * @param movieId   The id of the rated movie.
+     * @param rating    The rating.
+     * @param timeStamp The time stamp of the rating in epoch seconds.
+     * @return {@code false} if all windows of the rating are expired and it was ignored.
+     */
+    public boolean add(int movieId, double rating, long timeStamp) {
+        if (timeStamp > watermark) {
+            watermark = timeStamp;
+            windows.headMap(watermark - retention - size, true).clear();
+        }
+        boolean added = false;
+        for (long start = lastStart(timeStamp); start > timeStamp - size && !expired(start); start -= advance) {
+            Window window = windows.computeIfAbsent(start, key -> new Window(topN));
+            window.mostRated.offer(movieId, window.aggregates.add(movieId, rating));
+            added = true;
+        }
+        return added;
+    }
+
+    /**
+     * Ranks the most rated movies of the window ending soonest after a time stamp, i.e. the one covering the most
+     * time up to it.
+     *
+     * @param at    The time stamp in epoch seconds, or {@code null} for the watermark.
+     * @param limit The maximum number of movies, at most the top N of the windows.
+     * @return The ranking, empty if the window is expired or has no ratings.
+     */
+    public Ranking mostRated(Long at, int limit) {
+        long start = firstStart(at);
+        Window window = windows.get(start);
+        List<RankedMovie> movies = new ArrayList<>();
+        if (window != null) {
+            for (int movieId : window.mostRated.idsDescending()) {
+                if (movies.size() == limit) {
+                    break;
+                }
+                movies.add(rankedMovie(window.aggregates.get(movieId)));
+            }
+        }
+        return new Ranking(start, start + size, movies);
+    }
+
+    /**
+     * Ranks the movies with the highest average rating in the window ending soonest after a time stamp, i.e. the one
+     * covering the most time up to it. The movies of the window are scanned into a {@link TopN} of the limit.
+     *
+     * @param at         The time stamp in epoch seconds, or {@code null} for the watermark.
+     * @param limit      The maximum number of movies, at most the top N of the windows.
+     * @param minRatings The number of ratings in the window a movie needs to be ranked.
+     * @return The ranking, empty if the window is expired or has no ratings.
+     */
+    public Ranking topRated(Long at, int limit, long minRatings) {
+        long start = firstStart(at);
+        Window window = windows.get(start);
+        List<RankedMovie> movies = new ArrayList<>();
+        if (window != null && limit > 0) {
+            TopN top = new TopN(limit);
+            window.aggregates.forEach((movieId, count, sum) -> {
+                if (count >= minRatings) {
+                    top.offer(movieId, sum / count);
+                }
+            });
+            for (int movieId : top.idsDescending()) {
+                movies.add(rankedMovie(window.aggregates.get(movieId)));
+            }
+        }
+        return new Ranking(start, start + size, movies);
+    }
+
+    /**
+     * Gets the number of retained windows.
+     *
+     * @return The number of windows.
+     */
+    public int windowCount() {
+        return windows.size();
+    }
+
+    /**
+     * Gets the newest time stamp seen.
+     *
+     * @return The watermark in epoch seconds, or {@link Long#MIN_VALUE} before the first rating.
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    private boolean expired(long start) {
+        return start + size + retention <= watermark;
+    }
+
+    /**
+     * Gets the start of the last window containing a time stamp.
+     */
+    private long lastStart(long timeStamp) {
+        return Math.floorDiv(timeStamp, advance) * advance;
+    }
+
+    /**
+     * Gets the start of the first window containing a time stamp, or the watermark if it is {@code null}.
+     */
+    private long firstStart(Long at) {
+        return lastStart(at != null ? at : Math.max(watermark, 0)) - size + advance;
+    }
+
+    private static RankedMovie rankedMovie(RatingAccumulator.Aggregate aggregate) {
+        return new RankedMovie(aggregate.movieId(), aggregate.count(), aggregate.average());
+    }
+}
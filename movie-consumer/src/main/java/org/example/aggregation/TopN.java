@@ -0,0 +1,129 @@
+package org.example.aggregation;
+
+import java.util.Arrays;
+
+/**
+ * The movies with the highest scores, kept in a min-heap bounded to a fixed number of movies.
+ * <p>
+ * The heap is stored in parallel primitive arrays with the lowest kept score at the root, so a movie scoring no
+ * higher than that is rejected after a single comparison once the heap is full. A movie already in the heap may be
+ * offered again with a higher score; as long as scores only grow, as the rating counts of a window do, the heap
+ * holds exactly the top movies at all times. The class is not thread-safe.
+ * </p>
+ */
+public final class TopN {
+
+    private final int[] ids;
+
+    private final double[] scores;
+
+    private int size;
+
+    /**
+     * Constructs an empty TopN.
+     *
+     * @param capacity The number of movies kept.
+     */
+    public TopN(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive, not " + capacity);
+        }
+        ids = new int[capacity];
+        scores = new double[capacity];
+    }
+
+    /**
+     * Offers a movie, replacing the lowest kept movie if the heap is full and the movie scores higher.
+     *
+     * @param id    The id of the movie.
+     * @param score The score of the movie, not lower than any score it was offered with before.
+     */
+    public void offer(int id, double score) {
+        if (size == ids.length && score <= scores[0]) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                scores[i] = score;
+                siftDown(i);
+                return;
+            }
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the kept movies, highest score first; movies with equal scores are ordered by id.
+     *
+     * @return The ids of the kept movies.
+     */
+    public int[] idsDescending() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Double.compare(scores[b], scores[a])
+                : Integer.compare(ids[a], ids[b]));
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = ids[order[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Gets the number of kept movies.
+     *
+     * @return The number of movies, at most the capacity.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Size-bounded cache of movie entities in front of {@link MovieRepository#findById}.
+ * <p>
+ * The cache uses Caffeine's W-TinyLFU eviction, which keeps frequently updated movies cached while a scan of one-off
+ * ids, such as a bulk import of new movies, cannot flush them out. Entries are replaced by every write of a movie and
+ * invalidated when it is deleted, or when its columns are written behind the entity's back, e.g. the rating
+ * aggregates. Absent movies are not cached, so that inserts by other instances are seen.
+ * </p>
+ * <p>
+ * Writes and deletes are only invalidated in the cache of the instance that made them. A movie another instance
+ * deleted or rewrote stays cached here until it is written by this instance, evicted, or expires
+ * {@code movie.cache.expire-after-write} after it was cached, which bounds how long a DELETE may still find it. The
+ * statistics are published as the {@code cache.*} meters tagged {@code cache=movies}.
+ * </p>
+ */
+@Component
+public class MovieCache {
+
+    private final MovieRepository movieRepository;
+
+    private final long maximumSize;
+
+    private final Cache<Integer, Movie> cache;
+
+    /**
+     * Constructs a MovieCache.
+     *
+     * @param movieRepository  The repository loading the movies missing from the cache.
+     * @param maximumSize      The maximum number of cached movies.
+     * @param expireAfterWrite How long a movie stays cached after it was loaded or written.
+     * @param registry         The registry the cache meters are registered in.
+     */
+    public MovieCache(MovieRepository movieRepository, @Value("${movie.cache.maximum-size:10000}") long maximumSize,
+                      @Value("${movie.cache.expire-after-write:5m}") Duration expireAfterWrite,
+                      MeterRegistry registry) {
+        this.movieRepository = movieRepository;
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "movies");
+    }
+
+    /**
+     * Finds a movie by id, loading it from the repository if it is not cached.
+     *
+     * @param movieId The id of the movie.
+     * @return The movie, or empty if it does not exist.
+     */
+    public Optional<Movie> findById(int movieId) {
+        return Optional.ofNullable(cache.get(movieId, id -> movieRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Caches a movie that has just been saved.
+     *
+     * @param movie The saved movie.
+     */
+    public void put(Movie movie) {
+        cache.put(movie.getId(), movie);
+    }
+
+    /**
+     * Replaces a cached movie by an update written without loading it, keeping the cached rating aggregate if the
+     * update carries none. Movies that are not cached stay uncached.
+     *
+     * @param movie The updated movie.
+     */
+    public void replaceIfCached(Movie movie) {
+        cache.asMap().computeIfPresent(movie.getId(), (id, cached) -> {
+            if (movie.getRatingCount() == null) {
+                movie.setAverageRating(cached.getAverageRating());
+                movie.setRatingCount(cached.getRatingCount());
+            }
+            return movie;
+        });
+    }
+
+    /**
+     * Removes a movie from the cache, e.g. because it was deleted.
+     *
+     * @param movieId The id of the movie.
+     */
+    public void invalidate(int movieId) {
+        cache.invalidate(movieId);
+    }
+
+    /**
+     * Removes several movies from the cache.
+     *
+     * @param movieIds The ids of the movies.
+     */
+    public void invalidateAll(Collection<Integer> movieIds) {
+        cache.invalidateAll(movieIds);
+    }
+
+    /**
+     * Gets the hit, miss and eviction statistics of the cache.
+     *
+     * @return The statistics since startup.
+     */
+    public MovieCacheStats stats() {
+        return MovieCacheStats.of(cache.estimatedSize(), maximumSize, cache.stats());
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Statistics of the movie entity cache.
+ *
+ * @param size          The approximate number of cached movies.
+ * @param maximumSize   The maximum number of cached movies.
+ * @param hitCount      The number of lookups answered from the cache.
+ * @param missCount     The number of lookups that went to the database.
+ * @param hitRatio      The ratio of lookups answered from the cache, 1 if there were no lookups.
+ * @param evictionCount The number of movies evicted to stay within the maximum size.
+ */
+public record MovieCacheStats(long size, long maximumSize, long hitCount, long missCount, double hitRatio,
+                              long evictionCount) {
+
+    static MovieCacheStats of(long size, long maximumSize, CacheStats stats) {
+        return new MovieCacheStats(size, maximumSize, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount());
+    }
+}
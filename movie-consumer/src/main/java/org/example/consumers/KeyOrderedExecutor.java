@@ -0,0 +1,68 @@
+package org.example.consumers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on a shared pool while keeping the tasks of each key in submission order.
+ * <p>
+ * Every task of a key is chained behind the previous task of the same key, so tasks of one key never overlap and run
+ * in the order they were submitted, while tasks of different keys run in parallel on all threads of the pool. A key
+ * is forgotten once its last task completed, so the bookkeeping only grows with the number of pending keys. Tasks
+ * without a key are not ordered at all.
+ * </p>
+ */
+public class KeyOrderedExecutor {
+
+    private final Executor executor;
+
+    private final Map<Object, CompletableFuture<Void>> tails = new HashMap<>();
+
+    /**
+     * Constructs a KeyOrderedExecutor.
+     *
+     * @param executor The pool running the tasks.
+     */
+    public KeyOrderedExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Submits a task to run after all previously submitted tasks of the same key.
+     * A failing task does not keep the following tasks of its key from running.
+     *
+     * @param key  The ordering key, or {@code null} for a task that may run at any time.
+     * @param task The task.
+     * @return The future completed when the task has run.
+     */
+    public CompletableFuture<Void> execute(Object key, Runnable task) {
+        if (key == null) {
+            return CompletableFuture.runAsync(task, executor);
+        }
+        synchronized (tails) {
+            CompletableFuture<Void> tail = tails.get(key);
+            CompletableFuture<Void> next = tail == null ? CompletableFuture.runAsync(task, executor)
+                    : tail.exceptionally(throwable -> null).thenRunAsync(task, executor);
+            tails.put(key, next);
+            next.whenComplete((result, throwable) -> {
+                synchronized (tails) {
+                    tails.remove(key, next);
+                }
+            });
+            return next;
+        }
+    }
+
+    /**
+     * Gets the number of keys with tasks that have not completed yet.
+     *
+     * @return The number of pending keys.
+     */
+    public int pendingKeys() {
+        synchronized (tails) {
+            return tails.size();
+        }
+    }
+}
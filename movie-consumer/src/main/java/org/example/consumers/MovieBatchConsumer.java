@@ -0,0 +1,78 @@
+package org.example.consumers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.services.DeadLetterService;
+import org.example.services.MovieBatchService;
+import org.example.services.MovieService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Kafka message consumer for movie data in batch listener mode.
+ * <p>
+ * Replaces {@link MovieConsumer} when {@code consumer.batch.enabled} is set. The writes of a whole poll are applied
+ * in one transaction by the {@link MovieBatchService}, and search requests of the poll are answered afterwards. If the
+ * batch cannot be written, the poll falls back to processing one record at a time, so that a single bad record only
+ * ends up in the dead-letter topic instead of failing its whole batch. Failed records are parked in the dead-letter
+ * topic directly, without retry topics.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "consumer.batch.enabled", havingValue = "true")
+@Slf4j
+public class MovieBatchConsumer {
+
+    private final MovieBatchService movieBatchService;
+
+    private final MovieService movieService;
+
+    private final DeadLetterService deadLetterService;
+
+    /**
+     * Constructs a MovieBatchConsumer.
+     *
+     * @param movieBatchService The service writing the movies of a poll in one transaction.
+     * @param movieService      The service answering the search requests and processing single records.
+     * @param deadLetterService The service parking the records that could not be processed.
+     */
+    public MovieBatchConsumer(MovieBatchService movieBatchService, MovieService movieService,
+                              DeadLetterService deadLetterService) {
+        this.movieBatchService = movieBatchService;
+        this.movieService = movieService;
+        this.deadLetterService = deadLetterService;
+    }
+
+    /**
+     * Listens for polls on the "movies" topic and processes them as one batch.
+     *
+     * @param consumerRecords The Kafka ConsumerRecords of one poll.
+     */
+    @KafkaListener(topics = {"movies"}, containerFactory = "batchKafkaListenerContainerFactory")
+    public void onMessages(List<ConsumerRecord<Integer, byte[]>> consumerRecords) {
+        log.debug("Received a batch of {} movie records", consumerRecords.size());
+        MovieBatchService.BatchResult result;
+        try {
+            result = movieBatchService.processMovies(consumerRecords);
+        } catch (Exception e) {
+            log.error("Could not write the batch of {} records, processing them one by one: {}",
+                    consumerRecords.size(), e.getMessage());
+            consumerRecords.forEach(this::processOne);
+            return;
+        }
+        result.rejected().forEach(rejection ->
+                deadLetterService.park(rejection.consumerRecord(), rejection.exception()));
+        result.searches().forEach(this::processOne);
+    }
+
+    private void processOne(ConsumerRecord<Integer, byte[]> consumerRecord) {
+        try {
+            movieService.processMovie(consumerRecord);
+        } catch (Exception e) {
+            deadLetterService.park(consumerRecord, e);
+        }
+    }
+}
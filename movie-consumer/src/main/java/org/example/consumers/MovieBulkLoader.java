@@ -0,0 +1,244 @@
+package org.example.consumers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.example.repositories.MovieBulkLoadLock;
+import org.example.services.DeadLetterService;
+import org.example.services.MovieBatchService;
+import org.example.services.MovieBulkLoadService;
+import org.example.services.MovieService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Backfills a cold movie table from the movies topic before the movie listeners start.
+ * <p>
+ * With {@code consumer.bulk-load.mode} set to {@code always}, or to {@code auto} while the movie table is empty, the
+ * loader reads the movies topic with the consumer group of the listeners, up to the end offsets recorded when it
+ * starts, and writes it in chunks of {@code consumer.bulk-load.chunk-size} records through the
+ * {@link MovieBulkLoadService}. A cold table is read from the first offsets, a filled one from the committed offsets
+ * of the group, or from the first offsets with {@code consumer.bulk-load.from-beginning}. The offsets are committed
+ * after every chunk, so the listeners, which are started in a later lifecycle phase, continue incrementally where the
+ * loader stopped. Startup blocks until the backfill is done.
+ * </p>
+ * <p>
+ * The loader reads all partitions, so instances starting together take the {@link MovieBulkLoadLock} first and load
+ * one after the other; a later instance finds the table filled in {@code auto} mode, or only the records written since
+ * in {@code always} mode.
+ * </p>
+ */
+@Component
+@Slf4j
+public class MovieBulkLoader implements SmartLifecycle {
+
+    /**
+     * When the loader runs.
+     */
+    public enum Mode {
+        /**
+         * Never; the listeners consume the topic one record or batch at a time.
+         */
+        NEVER,
+        /**
+         * When the movie table is empty on startup.
+         */
+        AUTO,
+        /**
+         * On every startup.
+         */
+        ALWAYS
+    }
+
+    private final MovieBulkLoadService movieBulkLoadService;
+
+    private final MovieBulkLoadLock movieBulkLoadLock;
+
+    private final MovieService movieService;
+
+    private final DeadLetterService deadLetterService;
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+
+    private final String moviesTopic;
+
+    private final Mode mode;
+
+    private final int chunkSize;
+
+    private final boolean fromBeginning;
+
+    private final Duration pollTimeout;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a MovieBulkLoader.
+     *
+     * @param movieBulkLoadService The service writing the chunks.
+     * @param movieBulkLoadLock    The lock letting one instance load at a time.
+     * @param movieService         The service processing the records of a chunk that cannot be written at once.
+     * @param deadLetterService    The service parking rejected records.
+     * @param consumerFactory      The consumer factory of the listeners.
+     * @param moviesTopic          The movies topic.
+     * @param mode                 When the loader runs.
+     * @param chunkSize            The number of records written at once.
+     * @param fromBeginning        Whether to read the topic from its first offset instead of the committed offsets.
+     * @param pollTimeout          The maximum time to wait for records in one poll.
+     */
+    public MovieBulkLoader(MovieBulkLoadService movieBulkLoadService, MovieBulkLoadLock movieBulkLoadLock,
+                           MovieService movieService,
+                           DeadLetterService deadLetterService, ConsumerFactory<Object, Object> consumerFactory,
+                           @Value("${spring.kafka.topics.movies:movies}") String moviesTopic,
+                           @Value("${consumer.bulk-load.mode:never}") Mode mode,
+                           @Value("${consumer.bulk-load.chunk-size:50000}") int chunkSize,
+                           @Value("${consumer.bulk-load.from-beginning:false}") boolean fromBeginning,
+                           @Value("${consumer.bulk-load.poll-timeout:1s}") Duration pollTimeout) {
+        this.movieBulkLoadService = movieBulkLoadService;
+        this.movieBulkLoadLock = movieBulkLoadLock;
+        this.movieService = movieService;
+        this.deadLetterService = deadLetterService;
+        this.consumerFactory = consumerFactory;
+        this.moviesTopic = moviesTopic;
+        this.mode = mode;
+        this.chunkSize = chunkSize;
+        this.fromBeginning = fromBeginning;
+        this.pollTimeout = pollTimeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (mode == Mode.NEVER) {
+            return;
+        }
+        try (MovieBulkLoadLock.Lock lock = movieBulkLoadLock.acquire()) {
+            if (mode == Mode.ALWAYS || movieBulkLoadService.isCold()) {
+                load();
+            } else {
+                log.info("The movie table is not empty, skipping the bulk load");
+            }
+        }
+    }
+
+    /**
+     * Loads the movies topic up to its current end offsets. Callers must hold the {@link MovieBulkLoadLock} if other
+     * instances may load concurrently.
+     *
+     * @return The offsets the listeners continue at.
+     */
+    public Map<TopicPartition, Long> load() {
+        Properties properties = new Properties();
+        properties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        properties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(chunkSize));
+        // partitions the group has not committed yet are read from their first offset
+        properties.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        long start = System.nanoTime();
+        long loaded = 0;
+        Map<TopicPartition, Long> positions = new HashMap<>();
+        try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(null, null, "-bulk-load",
+                properties)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo partition : consumer.partitionsFor(moviesTopic)) {
+                partitions.add(new TopicPartition(moviesTopic, partition.partition()));
+            }
+            consumer.assign(partitions);
+            if (fromBeginning || movieBulkLoadService.isCold()) {
+                consumer.seekToBeginning(partitions);
+            }
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            log.info("Bulk-loading {} up to the offsets {}", moviesTopic, endOffsets);
+            movieBulkLoadService.loadStoredIds();
+            List<ConsumerRecord<Integer, byte[]>> chunk = new ArrayList<>(chunkSize);
+            while (!caughtUp(consumer, endOffsets)) {
+                for (ConsumerRecord<Object, Object> consumerRecord : consumer.poll(pollTimeout)) {
+                    chunk.add(movieRecord(consumerRecord));
+                }
+                if (chunk.size() >= chunkSize || !chunk.isEmpty() && caughtUp(consumer, endOffsets)) {
+                    write(chunk);
+                    consumer.commitSync();
+                    loaded += chunk.size();
+                    chunk.clear();
+                }
+            }
+            partitions.forEach(partition -> positions.put(partition, consumer.position(partition)));
+        }
+        long millis = Math.max(1, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        log.info("Bulk-loaded {} records of {} in {} ms ({} records/s), continuing incrementally at {}",
+                loaded, moviesTopic, millis, loaded * 1000 / millis, positions);
+        return positions;
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+            if (consumer.position(endOffset.getKey()) < endOffset.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(List<ConsumerRecord<Integer, byte[]>> chunk) {
+        MovieBatchService.BatchResult result;
+        try {
+            result = movieBulkLoadService.loadChunk(chunk);
+        } catch (Exception e) {
+            log.error("Could not bulk-load the chunk of {} records, processing them one by one: {}",
+                    chunk.size(), e.getMessage());
+            chunk.forEach(this::processOne);
+            movieBulkLoadService.loadStoredIds();
+            return;
+        }
+        result.rejected().forEach(rejection ->
+                deadLetterService.park(rejection.consumerRecord(), rejection.exception()));
+        result.searches().forEach(this::processOne);
+    }
+
+    private void processOne(ConsumerRecord<Integer, byte[]> consumerRecord) {
+        try {
+            movieService.processMovie(consumerRecord);
+        } catch (Exception e) {
+            deadLetterService.park(consumerRecord, e);
+        }
+    }
+
+    /**
+     * Narrows a record of the shared consumer factory to the key and value types of the movies topic.
+     */
+    @SuppressWarnings("unchecked")
+    private static ConsumerRecord<Integer, byte[]> movieRecord(ConsumerRecord<Object, Object> consumerRecord) {
+        return (ConsumerRecord<Integer, byte[]>) (ConsumerRecord<?, ?>) consumerRecord;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs before the listener containers, which start in {@link AbstractMessageListenerContainer#DEFAULT_PHASE},
+     * and before the changelog is reconciled with the loaded table.
+     */
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 2;
+    }
+}
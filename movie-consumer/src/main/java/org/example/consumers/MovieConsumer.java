@@ -1,46 +1,70 @@
 package org.example.consumers;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.example.entities.Movie;
+import org.example.services.DeadLetterService;
 import org.example.services.MovieService;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+
 /**
  * Kafka message consumer for movie data.
+ * <p>
+ * Failed records are retried on the retry topics {@code movies-retry-0}, {@code movies-retry-1}, ... with exponential
+ * backoff, so the main partition keeps flowing while e.g. the database is unavailable. Records that cannot succeed,
+ * because they are malformed or refer to a missing movie, and records failing all attempts are parked in
+ * {@code movies-dlt}. Retried records may be applied after later messages of the same movie.
+ * </p>
  */
 @Component
+@ConditionalOnProperty(name = {"consumer.batch.enabled", "consumer.parallel.enabled"}, havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class MovieConsumer {
 
     MovieService movieService;
-    private final KafkaTemplate<Integer, String> kafkaTemplate;
+    private final DeadLetterService deadLetterService;
 
-    public MovieConsumer(MovieService movieService,KafkaTemplate<Integer,String> kafkaTemplate) {
+    public MovieConsumer(MovieService movieService, DeadLetterService deadLetterService) {
         this.movieService = movieService;
-        this.kafkaTemplate=kafkaTemplate;
+        this.deadLetterService = deadLetterService;
     }
 
     /**
-     * Listens for messages on the "movies" topic and processes them using the MovieService.
+     * Listens for messages on the "movies" topic and its retry topics and processes them using the MovieService.
      *
      * @param consumerRecord The Kafka ConsumerRecord containing movie data.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @throws IOException If the record cannot be decoded.
      */
+    @RetryableTopic(attempts = "${consumer.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${consumer.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${consumer.retry.multiplier:4}",
+                    maxDelayExpression = "${consumer.retry.max-delay-ms:60000}"),
+            exclude = {IOException.class, IllegalArgumentException.class, NullPointerException.class},
+            traversingCauses = "true",
+            kafkaTemplate = "deadLetterKafkaTemplate",
+            dltTopicSuffix = DeadLetterService.DLT_SUFFIX,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
     @KafkaListener(topics = {"movies"})
-    public void onMessage(ConsumerRecord<Integer, String> consumerRecord) throws JsonProcessingException {
-        try {
-            log.info("ConsumerRecord : {}", consumerRecord);
-            movieService.processMovie(consumerRecord);
-        } catch (Exception e) {
-            // Log the exception and send it to the error topic
-            log.error(e.getMessage());
-            kafkaTemplate.send("error-topic", e.getMessage());
-        }
+    public void onMessage(ConsumerRecord<Integer, byte[]> consumerRecord) throws IOException {
+        log.info("ConsumerRecord : {}", consumerRecord);
+        movieService.processMovie(consumerRecord);
+    }
+
+    /**
+     * Reports a record parked in the dead-letter topic on the error topic.
+     *
+     * @param consumerRecord The parked record.
+     */
+    @DltHandler
+    public void onDeadLetter(ConsumerRecord<Integer, byte[]> consumerRecord) {
+        deadLetterService.reportParked(consumerRecord);
     }
 }
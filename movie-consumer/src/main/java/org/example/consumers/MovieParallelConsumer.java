@@ -0,0 +1,67 @@
+package org.example.consumers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.services.DeadLetterService;
+import org.example.services.MovieService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka message consumer for movie data processing the records of a partition in parallel.
+ * <p>
+ * Replaces {@link MovieConsumer} when {@code consumer.parallel.enabled} is set. Records are handed to a
+ * {@link KeyOrderedExecutor}, so messages of different movies are processed on all worker threads while the messages
+ * of one movie id keep their order. Search requests, whose keys are negative, are not ordered. Every record is
+ * acknowledged once processed; the container acknowledges out of order and commits each partition up to the highest
+ * offset below which all records are processed, so a restart never skips an unprocessed record. Failed records are
+ * parked in the dead-letter topic directly, without retry topics.
+ * </p>
+ */
+@Component
+@ConditionalOnExpression("${consumer.parallel.enabled:false} and !${consumer.batch.enabled:false}")
+@Slf4j
+public class MovieParallelConsumer {
+
+    private final MovieService movieService;
+
+    private final KeyOrderedExecutor movieWorkers;
+
+    private final DeadLetterService deadLetterService;
+
+    /**
+     * Constructs a MovieParallelConsumer.
+     *
+     * @param movieService      The service processing the movie records.
+     * @param movieWorkers      The worker pool processing the records, ordered per movie id.
+     * @param deadLetterService The service parking the records that could not be processed.
+     */
+    public MovieParallelConsumer(MovieService movieService, KeyOrderedExecutor movieWorkers,
+                                 DeadLetterService deadLetterService) {
+        this.movieService = movieService;
+        this.movieWorkers = movieWorkers;
+        this.deadLetterService = deadLetterService;
+    }
+
+    /**
+     * Listens for messages on the "movies" topic and hands them to the worker pool.
+     *
+     * @param consumerRecord The Kafka ConsumerRecord containing movie data.
+     * @param acknowledgment The acknowledgment of the record, called once it is processed.
+     */
+    @KafkaListener(topics = {"movies"}, containerFactory = "parallelKafkaListenerContainerFactory")
+    public void onMessage(ConsumerRecord<Integer, byte[]> consumerRecord, Acknowledgment acknowledgment) {
+        Integer key = consumerRecord.key();
+        movieWorkers.execute(key != null && key >= 0 ? key : null, () -> {
+            try {
+                movieService.processMovie(consumerRecord);
+            } catch (Exception e) {
+                deadLetterService.park(consumerRecord, e);
+            } finally {
+                acknowledgment.acknowledge();
+            }
+        });
+    }
+}
@@ -1,34 +1,74 @@
 package org.example.consumers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.example.services.MovieService;
+import org.example.services.DeadLetterService;
+import org.example.services.RatingService;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 
+
+/**
+ * Kafka message consumer for rating data.
+ * <p>
+ * Failed records are retried on the retry topics of the ratings topic with exponential backoff, and parked in its
+ * dead-letter topic if they are malformed or fail all attempts. The offsets of the ratings are committed once the
+ * RatingService wrote them, see {@link org.example.KafkaRatingsConfig}.
+ * </p>
+ */
 @Component
 @Slf4j
 public class RatingConsumer {
-    MovieService movieService;
-    private final KafkaTemplate<Integer, String> kafkaTemplate;
+    RatingService ratingService;
+    private final DeadLetterService deadLetterService;
+
+    public RatingConsumer(RatingService ratingService, DeadLetterService deadLetterService) {
+        this.ratingService = ratingService;
+        this.deadLetterService = deadLetterService;
+    }
 
-    public RatingConsumer(MovieService movieService,KafkaTemplate<Integer,String> kafkaTemplate) {
-        this.movieService = movieService;
-        this.kafkaTemplate=kafkaTemplate;
+    /**
+     * Listens for messages on the ratings topic and its retry topics and adds them to the rating aggregates using the
+     * RatingService.
+     *
+     * @param consumerRecord The Kafka ConsumerRecord containing rating data.
+     * @param acknowledgment The acknowledgment committing the offset of the record once the rating is written.
+     * @throws IOException If the record cannot be decoded.
+     */
+    @RetryableTopic(attempts = "${consumer.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${consumer.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${consumer.retry.multiplier:4}",
+                    maxDelayExpression = "${consumer.retry.max-delay-ms:60000}"),
+            exclude = {IOException.class, IllegalArgumentException.class, NullPointerException.class},
+            traversingCauses = "true",
+            kafkaTemplate = "deadLetterKafkaTemplate",
+            listenerContainerFactory = "ratingsKafkaListenerContainerFactory",
+            dltTopicSuffix = DeadLetterService.DLT_SUFFIX,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+    @KafkaListener(topics = {"${spring.kafka.topics.ratings}"},
+            containerFactory = "ratingsKafkaListenerContainerFactory")
+    public void onMessage(ConsumerRecord<Integer, byte[]> consumerRecord, Acknowledgment acknowledgment)
+            throws IOException {
+        log.debug("ConsumerRecord : {}", consumerRecord);
+        ratingService.processRating(consumerRecord, acknowledgment);
     }
 
-    @KafkaListener(topics = {"${spring.kafka.topics.ratings}"})
-    public void onMessage(ConsumerRecord<Integer, String> consumerRecord) throws JsonProcessingException {
-        try {
-            log.info("ConsumerRecord : {}", consumerRecord);
-           // movieService.processMovie(consumerRecord);
-        } catch (Exception e) {
-            // Log the exception and send it to the error topic
-            log.error(e.getMessage());
-            kafkaTemplate.send("error-topic", e.getMessage());
-        }
+    /**
+     * Reports a record parked in the dead-letter topic on the error topic.
+     *
+     * @param consumerRecord The parked record.
+     * @param acknowledgment The acknowledgment committing the offset of the reported record.
+     */
+    @DltHandler
+    public void onDeadLetter(ConsumerRecord<Integer, byte[]> consumerRecord, Acknowledgment acknowledgment) {
+        deadLetterService.reportParked(consumerRecord);
+        acknowledgment.acknowledge();
     }
 }
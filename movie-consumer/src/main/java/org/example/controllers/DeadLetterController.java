@@ -0,0 +1,53 @@
+package org.example.controllers;
+
+import org.example.services.DeadLetterService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * REST controller class for re-driving records parked in the dead-letter topics.
+ */
+@RestController
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    private final Set<String> topics;
+
+    /**
+     * Constructor for DeadLetterController.
+     *
+     * @param deadLetterService The DeadLetterService to be injected.
+     * @param moviesTopic       The movies topic.
+     * @param ratingsTopic      The ratings topic.
+     */
+    public DeadLetterController(DeadLetterService deadLetterService,
+                                @Value("${spring.kafka.topics.movies:movies}") String moviesTopic,
+                                @Value("${spring.kafka.topics.ratings:ratings}") String ratingsTopic) {
+        this.deadLetterService = deadLetterService;
+        this.topics = Set.of(moviesTopic, ratingsTopic);
+    }
+
+    /**
+     * Sends the records parked in the dead-letter topic of a topic back to it.
+     *
+     * @param topic      The movies or ratings topic.
+     * @param maxRecords The maximum number of records to replay.
+     * @return ResponseEntity containing the number of replayed records, or 404 if the topic is unknown.
+     */
+    @PostMapping("/api/dlq/{topic}/replay")
+    public ResponseEntity<Map<String, Integer>> replay(@PathVariable String topic,
+                                                       @RequestParam(name = "max", defaultValue = "10000") int maxRecords) {
+        if (!topics.contains(topic)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("replayed", deadLetterService.replay(topic, maxRecords)));
+    }
+}
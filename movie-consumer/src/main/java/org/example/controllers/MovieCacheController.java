@@ -0,0 +1,34 @@
+package org.example.controllers;
+
+import org.example.cache.MovieCache;
+import org.example.cache.MovieCacheStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller class for monitoring the movie entity cache.
+ */
+@RestController
+public class MovieCacheController {
+
+    private final MovieCache movieCache;
+
+    /**
+     * Constructor for MovieCacheController.
+     *
+     * @param movieCache The MovieCache to be injected.
+     */
+    public MovieCacheController(MovieCache movieCache) {
+        this.movieCache = movieCache;
+    }
+
+    /**
+     * Retrieves the size, hit ratio and eviction statistics of the movie cache.
+     *
+     * @return The statistics since startup.
+     */
+    @GetMapping("/api/cache/movies/stats")
+    public MovieCacheStats getMovieCacheStats() {
+        return movieCache.stats();
+    }
+}
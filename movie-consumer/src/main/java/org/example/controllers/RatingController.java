@@ -0,0 +1,50 @@
+package org.example.controllers;
+
+import org.example.repositories.RatingRepository;
+import org.example.repositories.StoredRating;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller class for querying the ratings stored in the time-partitioned rating table.
+ */
+@RestController
+@ConditionalOnProperty(name = "ratings.store.enabled", havingValue = "true", matchIfMissing = true)
+public class RatingController {
+
+    private final RatingRepository ratingRepository;
+
+    /**
+     * Constructor for RatingController.
+     *
+     * @param ratingRepository The RatingRepository to be injected.
+     */
+    public RatingController(RatingRepository ratingRepository) {
+        this.ratingRepository = ratingRepository;
+    }
+
+    /**
+     * Retrieves the ratings of a movie in a time window, oldest first. Only the partitions overlapping the window
+     * are read.
+     *
+     * @param movieId The id of the movie.
+     * @param from    The start of the window in epoch seconds, inclusive.
+     * @param to      The end of the window in epoch seconds, exclusive.
+     * @return ResponseEntity containing the ratings, or 400 if the window is empty.
+     */
+    @GetMapping("/api/ratings/{movieId}")
+    public ResponseEntity<List<StoredRating>> getRatings(@PathVariable int movieId,
+                                                         @RequestParam(defaultValue = "0") long from,
+                                                         @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to) {
+        if (from >= to) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ratingRepository.findByMovieId(movieId, from, to));
+    }
+}
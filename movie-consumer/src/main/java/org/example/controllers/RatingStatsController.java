@@ -0,0 +1,62 @@
+package org.example.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.example.streams.RatingStatsQueryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * REST controller class for querying the rating aggregates of the Kafka Streams topology.
+ */
+@RestController
+@ConditionalOnProperty(name = "ratings.streams.enabled", havingValue = "true")
+@Slf4j
+public class RatingStatsController {
+
+    private final RatingStatsQueryService ratingStatsQueryService;
+
+    /**
+     * Constructor for RatingStatsController.
+     *
+     * @param ratingStatsQueryService The RatingStatsQueryService to be injected.
+     */
+    public RatingStatsController(RatingStatsQueryService ratingStatsQueryService) {
+        this.ratingStatsQueryService = ratingStatsQueryService;
+    }
+
+    /**
+     * Retrieves the rating count, average, minimum and maximum of a movie.
+     *
+     * @param movieId The id of the movie.
+     * @return ResponseEntity containing the aggregate, a redirect to the instance hosting it, 404 if the movie has no
+     * ratings, or 503 while the aggregates are not queryable.
+     */
+    @GetMapping("/api/ratings/{movieId}/stats")
+    public ResponseEntity<?> getRatingStats(@PathVariable int movieId) {
+        try {
+            Optional<HostInfo> remoteHost = ratingStatsQueryService.findRemoteHost(movieId);
+            if (remoteHost.isPresent()) {
+                HostInfo host = remoteHost.get();
+                return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                        .location(URI.create("http://" + host.host() + ":" + host.port()
+                                + "/api/ratings/" + movieId + "/stats"))
+                        .build();
+            }
+            return ratingStatsQueryService.findLocal(movieId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (InvalidStateStoreException e) {
+            log.warn("Rating aggregates are not queryable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Rating aggregates are not available yet");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.controllers;
+
+import org.example.services.TrendingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+
+/**
+ * REST controller class for ranking the trending movies of recent rating windows.
+ */
+@RestController
+public class TrendingController {
+
+    private final TrendingService trendingService;
+
+    /**
+     * Constructor for TrendingController.
+     *
+     * @param trendingService The TrendingService to be injected.
+     */
+    public TrendingController(TrendingService trendingService) {
+        this.trendingService = trendingService;
+    }
+
+    /**
+     * Retrieves the most rated or top rated movies of a tumbling or hopping window.
+     *
+     * @param window The window series, {@code tumbling} or {@code hopping}.
+     * @param order  {@code count} for the most rated movies, {@code average} for the top rated ones.
+     * @param at     A time stamp in epoch seconds the window ends after; the newest consumed one by default.
+     * @param limit  The maximum number of movies.
+     * @return ResponseEntity containing the window bounds and its ranked movies, or 400 if the window series or the
+     * order is unknown or the limit is not positive, or 503 if this instance does not consume every ratings partition.
+     */
+    @GetMapping("/api/movies/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(defaultValue = "hopping") String window,
+                                         @RequestParam(defaultValue = "count") String order,
+                                         @RequestParam(required = false) Long at,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        TrendingService.Window windowSeries;
+        TrendingService.Order rankingOrder;
+        try {
+            windowSeries = TrendingService.Window.valueOf(window.toUpperCase(Locale.ROOT));
+            rankingOrder = TrendingService.Order.valueOf(order.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!trendingService.isComplete()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Trending movies need a single consumer instance owning every ratings partition");
+        }
+        return ResponseEntity.ok(trendingService.rank(windowSeries, rankingOrder, at, limit));
+    }
+}
@@ -5,11 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.web.bind.annotation.PutMapping;
 
 import java.util.Collection;
 
 @Entity
+@DynamicUpdate
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -23,4 +25,5 @@ public class Movie {
     private String title;
     private String genres;
     private Double averageRating;
+    private Long ratingCount;
 }
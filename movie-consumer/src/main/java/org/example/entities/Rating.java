@@ -1,26 +1,26 @@
 package org.example.entities;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-@Entity
+/**
+ * A rating of a movie by a user, as decoded from the ratings topic.
+ * <p>
+ * A rating is identified by its user and movie; a user rating the same movie again produces a new rating with a later
+ * time stamp. Ratings are not mapped by JPA: they are appended to the time-partitioned rating table by
+ * {@link org.example.repositories.RatingRepository}, whose primary key is (userId, movieId, timeStamp).
+ * </p>
+ */
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 @Builder
 public class Rating {
 
-    @Id
     private Integer userId;
 
-    @ManyToOne
-    @JoinColumn(name = "movieId")
     private Movie Movie;
 
     private Double rating;
@@ -0,0 +1,94 @@
+package org.example.ids;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out unique ids from blocks reserved in a shared source, typically a database sequence.
+ * <p>
+ * Every call to the block source reserves {@code blockSize} consecutive ids starting at the returned value, so the
+ * source is only hit once per block and ids stay unique across all allocators sharing it. Once half of the current
+ * block is used, the next block is reserved in the background, so that callers rarely wait for the source. Ids of a
+ * block that are not used before shutdown are lost, which leaves gaps but never duplicates. Callers waiting for a
+ * block wait on a lock instead of a monitor, so that virtual threads do not pin their carrier thread meanwhile.
+ * </p>
+ */
+@Slf4j
+public class BlockIdAllocator {
+
+    private final LongSupplier blockSource;
+
+    private final int blockSize;
+
+    private final Executor refillExecutor;
+
+    private long next;
+
+    private long end;
+
+    private CompletableFuture<Long> nextBlock;
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Constructs a BlockIdAllocator.
+     *
+     * @param blockSource    Reserves the next block of ids and returns its first id.
+     * @param blockSize      The number of ids per block, which must match the increment of the source.
+     * @param refillExecutor The executor reserving the next block in the background.
+     */
+    public BlockIdAllocator(LongSupplier blockSource, int blockSize, Executor refillExecutor) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be positive: " + blockSize);
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+        this.refillExecutor = refillExecutor;
+    }
+
+    /**
+     * Allocates the next id.
+     *
+     * @return An id never returned before by any allocator sharing the block source.
+     * @throws IllegalStateException If the ids do not fit into an int anymore.
+     */
+    public int nextId() {
+        lock.lock();
+        try {
+            if (next == end) {
+                long start = takeNextBlock();
+                next = start;
+                end = start + blockSize;
+            }
+            if (nextBlock == null && end - next <= blockSize / 2) {
+                nextBlock = CompletableFuture.supplyAsync(blockSource::getAsLong, refillExecutor);
+            }
+            long id = next++;
+            if (id > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Movie ids are exhausted: " + id);
+            }
+            return (int) id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long takeNextBlock() {
+        CompletableFuture<Long> reserved = nextBlock;
+        nextBlock = null;
+        if (reserved != null) {
+            try {
+                return reserved.join();
+            } catch (CompletionException e) {
+                log.warn("Could not reserve the next block of ids in the background: {}", e.getCause().getMessage());
+            }
+        }
+        return blockSource.getAsLong();
+    }
+}
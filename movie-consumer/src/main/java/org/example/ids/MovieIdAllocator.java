@@ -0,0 +1,144 @@
+package org.example.ids;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repositories.MovieRepository;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntPredicate;
+
+/**
+ * Allocates the ids of new movies whose requested id is already taken.
+ * <p>
+ * The ids come in blocks from the {@value #SEQUENCE} database sequence, which is created on first startup to begin
+ * after the highest stored id and increments by the block size. Ids are therefore unique across listener threads and
+ * consumer instances, and allocating one costs no query apart from one sequence call per block. Since movies may also
+ * be inserted with an explicit id, callers skip allocated ids that are taken in the meantime.
+ * </p>
+ * <p>
+ * A sequence that already exists keeps its increment, e.g. one created by an instance with another block size. The
+ * blocks are always as large as the increment of the sequence, as larger ones would overlap the blocks of other
+ * instances, and startup fails if the increment is not a positive int.
+ * </p>
+ */
+@Component
+@Slf4j
+public class MovieIdAllocator {
+
+    /**
+     * Name of the database sequence the id blocks are reserved from.
+     */
+    public static final String SEQUENCE = "movie_id_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MovieRepository movieRepository;
+
+    private final Dialect dialect;
+
+    private final int configuredBlockSize;
+
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "movie-id-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BlockIdAllocator allocator;
+
+    /**
+     * Constructs a MovieIdAllocator.
+     *
+     * @param jdbcTemplate          The template the sequence is created and queried with.
+     * @param movieRepository       The repository the highest stored id is read from when creating the sequence.
+     * @param entityManagerFactory  The entity manager factory providing the SQL dialect of the database.
+     * @param blockSize             The number of ids reserved per sequence call, the increment of a created sequence.
+     */
+    public MovieIdAllocator(JdbcTemplate jdbcTemplate, MovieRepository movieRepository,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${movie.id-allocator.block-size:100}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieRepository = movieRepository;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.configuredBlockSize = blockSize;
+    }
+
+    /**
+     * Creates the sequence if it does not exist yet and reserves blocks of its increment.
+     *
+     * @throws IllegalStateException If the increment of the sequence is not a positive int.
+     */
+    @PostConstruct
+    void init() {
+        Integer maxId = movieRepository.findMaxId();
+        long start = maxId != null ? maxId + 1L : 1L;
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with " + start
+                + " increment by " + configuredBlockSize);
+        long increment = sequenceIncrement();
+        if (increment < 1 || increment > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The sequence " + SEQUENCE + " increments by " + increment
+                    + ", but movie ids are reserved in blocks of its increment, which must be a positive int; alter it"
+                    + " with 'alter sequence " + SEQUENCE + " increment by " + configuredBlockSize + "'");
+        }
+        int blockSize = (int) increment;
+        if (blockSize != configuredBlockSize) {
+            log.warn("The sequence {} increments by {}, not by the configured block size {}; reserving blocks of {}",
+                    SEQUENCE, blockSize, configuredBlockSize, blockSize);
+        }
+        String nextBlock = dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE);
+        allocator = new BlockIdAllocator(() -> jdbcTemplate.queryForObject(nextBlock, Long.class), blockSize,
+                refillExecutor);
+        log.info("Allocating movie ids in blocks of {} from sequence {}", blockSize, SEQUENCE);
+    }
+
+    /**
+     * Reads the increment of the sequence from the information schema, which H2 and PostgreSQL both provide.
+     */
+    private long sequenceIncrement() {
+        List<String> increments = jdbcTemplate.queryForList("select increment from information_schema.sequences "
+                + "where sequence_schema = current_schema and lower(sequence_name) = ?", String.class, SEQUENCE);
+        if (increments.isEmpty()) {
+            throw new IllegalStateException("Cannot read the increment of the sequence " + SEQUENCE);
+        }
+        return Long.parseLong(increments.get(0).strip());
+    }
+
+    /**
+     * Allocates an id that is not taken.
+     *
+     * @param taken Tells whether an id is already used by a movie.
+     * @return A fresh id for which {@code taken} is false.
+     */
+    public int nextFreeId(IntPredicate taken) {
+        int id = allocator.nextId();
+        while (taken.test(id)) {
+            log.debug("Skipping the allocated movie id {}, which is already taken", id);
+            id = allocator.nextId();
+        }
+        return id;
+    }
+
+    /**
+     * Allocates the next id of the sequence without checking whether it is taken, for callers that find out by
+     * inserting it.
+     *
+     * @return A fresh id.
+     */
+    public int nextId() {
+        return allocator.nextId();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics of the consumer side of the pipeline.
+ * <p>
+ * The producer stamps every record with the time it was created, i.e. parsed from an upload or received over REST,
+ * and the time it was handed to the Kafka producer, as epoch milliseconds in the {@link #CREATED_AT_HEADER} and
+ * {@link #SENT_AT_HEADER} headers. Records without them, e.g. from older producers, are left out of the queue and
+ * end-to-end timers. All timers and counters are tagged with the topic.
+ * </p>
+ * <ul>
+ *     <li>{@code pipeline.queue}: time from handing a record to the Kafka producer to the start of its processing</li>
+ *     <li>{@code pipeline.deserialize}: time to decode a record</li>
+ *     <li>{@code pipeline.db.write}: time to write a record, a poll in batch listener mode or a rating flush to the
+ *     database</li>
+ *     <li>{@code pipeline.end-to-end}: time from creating a record to its committed database write</li>
+ *     <li>{@code pipeline.records.consumed}: records consumed, per movie type</li>
+ * </ul>
+ */
+@Component
+public class PipelineMetrics {
+
+    /**
+     * Header holding the time a record was created, in epoch milliseconds.
+     */
+    public static final String CREATED_AT_HEADER = "pipeline-created-at";
+
+    /**
+     * Header holding the time a record was handed to the Kafka producer, in epoch milliseconds.
+     */
+    public static final String SENT_AT_HEADER = "pipeline-sent-at";
+
+    /**
+     * Movie type tag of records without a movie type, e.g. ratings.
+     */
+    public static final String NO_TYPE = "none";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, TopicMeters> topics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a PipelineMetrics.
+     *
+     * @param registry The registry the meters are registered in.
+     */
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records the time a record spent between the producer and the start of its processing.
+     *
+     * @param consumerRecord The record about to be processed.
+     */
+    public void recordQueueTime(ConsumerRecord<?, ?> consumerRecord) {
+        long sentAt = timestamp(consumerRecord, SENT_AT_HEADER);
+        if (sentAt > 0) {
+            meters(consumerRecord.topic()).queue.record(Math.max(0, System.currentTimeMillis() - sentAt),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Records the time it took to decode a record.
+     *
+     * @param topic The topic of the record.
+     * @param nanos The decoding time in nanoseconds.
+     */
+    public void recordDeserialize(String topic, long nanos) {
+        meters(topic).deserialize.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a consumed record.
+     *
+     * @param topic     The topic of the record.
+     * @param movieType The movie type of the record, or {@link #NO_TYPE}.
+     */
+    public void countConsumed(String topic, String movieType) {
+        meters(topic).consumed.computeIfAbsent(movieType, type -> Counter.builder("pipeline.records.consumed")
+                .description("Records consumed from Kafka")
+                .tag("topic", topic)
+                .tag("type", type)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Records the time it took to write to the database.
+     *
+     * @param topic The topic of the written records.
+     * @param nanos The write time in nanoseconds.
+     */
+    public void recordDbWrite(String topic, long nanos) {
+        meters(topic).dbWrite.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the end-to-end latency of a record whose database write was just committed.
+     *
+     * @param consumerRecord The written record.
+     */
+    public void recordEndToEnd(ConsumerRecord<?, ?> consumerRecord) {
+        recordEndToEnd(consumerRecord.topic(), createdAt(consumerRecord));
+    }
+
+    /**
+     * Records the end-to-end latency of a record whose database write was just committed.
+     *
+     * @param topic     The topic of the written record.
+     * @param createdAt The time the record was created, in epoch milliseconds, or 0 if unknown.
+     */
+    public void recordEndToEnd(String topic, long createdAt) {
+        if (createdAt > 0) {
+            meters(topic).endToEnd.record(Math.max(0, System.currentTimeMillis() - createdAt), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reads the creation time of a record.
+     *
+     * @param consumerRecord The record.
+     * @return The time the record was created, in epoch milliseconds, or 0 if the record does not carry it.
+     */
+    public static long createdAt(ConsumerRecord<?, ?> consumerRecord) {
+        return timestamp(consumerRecord, CREATED_AT_HEADER);
+    }
+
+    private static long timestamp(ConsumerRecord<?, ?> consumerRecord, String name) {
+        Header header = consumerRecord.headers().lastHeader(name);
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private TopicMeters meters(String topic) {
+        return topics.computeIfAbsent(topic, key -> new TopicMeters(registry, key));
+    }
+
+    /**
+     * Timers and counters of one topic.
+     */
+    private static final class TopicMeters {
+
+        private final Timer queue;
+
+        private final Timer deserialize;
+
+        private final Timer dbWrite;
+
+        private final Timer endToEnd;
+
+        private final Map<String, Counter> consumed = new ConcurrentHashMap<>();
+
+        TopicMeters(MeterRegistry registry, String topic) {
+            queue = timer(registry, "pipeline.queue", "Time from sending a record to the start of its processing",
+                    topic);
+            deserialize = timer(registry, "pipeline.deserialize", "Time to decode a record", topic);
+            dbWrite = timer(registry, "pipeline.db.write", "Time to write records to the database", topic);
+            endToEnd = timer(registry, "pipeline.end-to-end",
+                    "Time from creating a record to its committed database write", topic);
+        }
+
+        private static Timer timer(MeterRegistry registry, String name, String description, String topic) {
+            return Timer.builder(name).description(description).tag("topic", topic).register(registry);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.producers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.example.catalog.MovieCatalog;
+import org.example.catalog.MovieChange;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component publishing the committed changes of the movie catalog to the log-compacted changelog topic.
+ * <p>
+ * Every saved movie is published under its id as a JSON object of its id, title and genres, and every deleted movie
+ * as a tombstone, so that after compaction the topic holds the latest state of every movie in the catalog. Readers
+ * such as the catalog replicas of the producer and the consumer rebuild the catalog by reading the topic from its
+ * beginning.
+ * </p>
+ * <p>
+ * The sends are asynchronous and happen after the change was committed, so a change that cannot be published, e.g.
+ * because the brokers are unreachable, is not rolled back. Its movie id is queued instead, and every
+ * {@code changelog.republish-interval-ms} the current state of the queued movies is read from the database and
+ * published again, as a tombstone if the movie is no longer stored. A queued movie written again meanwhile is
+ * published in its latest state twice, which compaction collapses; a change published while its movie is read for
+ * republishing can still be overtaken by the state read, until the movie is written again or the changelog is
+ * reconciled on the next startup.
+ * </p>
+ */
+@Component
+@Slf4j
+public class MovieChangelogProducer {
+
+    private final KafkaTemplate<Integer, String> kafkaTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final MovieRepository movieRepository;
+
+    private final String changelogTopic;
+
+    private final boolean enabled;
+
+    /**
+     * The ids of the movies whose last change could not be published.
+     */
+    private final Set<Integer> unpublished = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a MovieChangelogProducer.
+     *
+     * @param kafkaTemplate  The KafkaTemplate for sending messages to Kafka topics.
+     * @param objectMapper    The object mapper serializing the changed movies.
+     * @param movieRepository The repository the current state of unpublished movies is read from.
+     * @param changelogTopic  The changelog topic.
+     * @param enabled         Whether changes are published at all.
+     */
+    public MovieChangelogProducer(KafkaTemplate<Integer, String> kafkaTemplate, ObjectMapper objectMapper,
+                                  MovieRepository movieRepository,
+                                  @Value("${spring.kafka.topics.changelog:movies-changelog}") String changelogTopic,
+                                  @Value("${changelog.enabled:true}") boolean enabled) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.movieRepository = movieRepository;
+        this.changelogTopic = changelogTopic;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Publishes the state of a saved movie.
+     *
+     * @param movie The saved movie.
+     */
+    public void publishSaved(Movie movie) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            send(movie.getId(), objectMapper.writeValueAsString(
+                    new MovieChange(movie.getId(), movie.getTitle(), movie.getGenres())));
+        } catch (JsonProcessingException e) {
+            failed(movie.getId(), e);
+        }
+    }
+
+    /**
+     * Publishes the deletion of a movie as a tombstone.
+     *
+     * @param movieId The id of the deleted movie.
+     */
+    public void publishDeleted(int movieId) {
+        if (enabled) {
+            send(movieId, null);
+        }
+    }
+
+    /**
+     * Publishes a snapshot marker to every partition of the changelog, after all changes sent so far.
+     * <p>
+     * The replicas only answer searches once they read a marker on every partition, see
+     * {@link MovieCatalog#SNAPSHOT_MARKER_KEY}. The value of a marker is the time it was published.
+     * </p>
+     */
+    public void publishSnapshotMarker() {
+        if (!enabled) {
+            return;
+        }
+        kafkaTemplate.flush();
+        String publishedAt = Instant.now().toString();
+        for (PartitionInfo partition : kafkaTemplate.partitionsFor(changelogTopic)) {
+            kafkaTemplate.send(new ProducerRecord<>(changelogTopic, partition.partition(),
+                            MovieCatalog.SNAPSHOT_MARKER_KEY, publishedAt))
+                    .whenComplete((sendResult, throwable) -> {
+                        if (throwable != null) {
+                            log.error("Could not publish the snapshot marker to partition {} of {}: {}",
+                                    partition.partition(), changelogTopic, throwable.getMessage());
+                        }
+                    });
+        }
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * Publishes the current state of the movies whose last change could not be published.
+     */
+    @Scheduled(fixedDelayString = "${changelog.republish-interval-ms:5000}")
+    public void republishFailed() {
+        if (unpublished.isEmpty()) {
+            return;
+        }
+        List<Integer> movieIds = new ArrayList<>(unpublished);
+        unpublished.removeAll(movieIds);
+        log.info("Publishing the changes of {} movies again", movieIds.size());
+        for (Integer movieId : movieIds) {
+            Optional<Movie> movie;
+            try {
+                movie = movieRepository.findById(movieId);
+            } catch (RuntimeException e) {
+                failed(movieId, e);
+                continue;
+            }
+            if (movie.isPresent()) {
+                publishSaved(movie.get());
+            } else {
+                publishDeleted(movieId);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of movies whose last change still has to be published again.
+     *
+     * @return The number of queued movies.
+     */
+    public int unpublishedCount() {
+        return unpublished.size();
+    }
+
+    private void send(int movieId, String value) {
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(changelogTopic, movieId, value))
+                    .whenComplete((sendResult, throwable) -> {
+                        if (throwable != null) {
+                            failed(movieId, throwable);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            failed(movieId, e);
+        }
+    }
+
+    private void failed(int movieId, Throwable cause) {
+        unpublished.add(movieId);
+        log.error("Could not publish the change of movie {} to {}, publishing it again later: {}", movieId,
+                changelogTopic, cause.getMessage());
+    }
+}
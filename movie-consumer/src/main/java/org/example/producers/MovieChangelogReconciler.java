@@ -0,0 +1,133 @@
+package org.example.producers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.catalog.MovieCatalog;
+import org.example.catalog.MovieCatalogReplicator;
+import org.example.catalog.MovieChange;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reconciles the movie changelog topic with the movie table on startup, before the movie listeners start.
+ * <p>
+ * The changelog outlives the database: after the table was replaced or wiped, the compacted topic still holds movies
+ * that are no longer stored, and movies written before the changelog existed were never published. With
+ * {@code changelog.snapshot-on-startup} (default) the reconciler waits for the {@link MovieCatalogReplicator} of this
+ * instance to catch up with the changelog, compares the replica with the table, publishes every movie that is missing
+ * or differs, publishes a tombstone for every movie that is no longer stored and finally publishes a snapshot marker
+ * to every partition. The replicas of all instances only answer searches once they read a marker, see
+ * {@link MovieCatalog#SNAPSHOT_MARKER_KEY}.
+ * </p>
+ * <p>
+ * The listeners of this instance start afterwards, so they cannot race with the reconciliation. Another instance
+ * rewriting a movie while the reconciliation publishes it can still have its change overtaken by the previous state,
+ * until the movie is written again. If the replica does not catch up within {@code changelog.snapshot-timeout}, e.g.
+ * because the brokers are unreachable, the reconciliation is skipped and startup continues.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "search.catalog.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MovieChangelogReconciler implements SmartLifecycle {
+
+    private final MovieCatalog movieCatalog;
+
+    private final MovieRepository movieRepository;
+
+    private final MovieChangelogProducer movieChangelogProducer;
+
+    private final boolean snapshotOnStartup;
+
+    private final Duration snapshotTimeout;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a MovieChangelogReconciler.
+     *
+     * @param movieCatalog           The replica of the changelog of this instance.
+     * @param movieRepository        The repository of the stored movies.
+     * @param movieChangelogProducer The producer publishing the differences.
+     * @param snapshotOnStartup      Whether the changelog is reconciled on startup.
+     * @param snapshotTimeout        The maximum time to wait for the replica to catch up.
+     */
+    public MovieChangelogReconciler(MovieCatalog movieCatalog, MovieRepository movieRepository,
+                                    MovieChangelogProducer movieChangelogProducer,
+                                    @Value("${changelog.snapshot-on-startup:true}") boolean snapshotOnStartup,
+                                    @Value("${changelog.snapshot-timeout:2m}") Duration snapshotTimeout) {
+        this.movieCatalog = movieCatalog;
+        this.movieRepository = movieRepository;
+        this.movieChangelogProducer = movieChangelogProducer;
+        this.snapshotOnStartup = snapshotOnStartup;
+        this.snapshotTimeout = snapshotTimeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!snapshotOnStartup) {
+            return;
+        }
+        try {
+            if (!movieCatalog.awaitCaughtUp(snapshotTimeout)) {
+                log.warn("The changelog was not replicated within {}, skipping its reconciliation", snapshotTimeout);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        reconcile();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs after the bulk load and before the listener containers, which start in
+     * {@link AbstractMessageListenerContainer#DEFAULT_PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * Compares the replica with the movie table and publishes the differences followed by a snapshot marker. The
+     * replica must have caught up with the changelog before, see {@link MovieCatalog#awaitCaughtUp(Duration)}.
+     */
+    public void reconcile() {
+        long start = System.nanoTime();
+        // taken before the table is read, so that a movie committed and published meanwhile is read from the table
+        Map<Integer, MovieChange> published = movieCatalog.snapshot();
+        int changed = 0;
+        for (Movie movie : movieRepository.findAll()) {
+            MovieChange change = published.remove(movie.getId());
+            if (change == null || !Objects.equals(change.title(), movie.getTitle())
+                    || !Objects.equals(change.genres(), movie.getGenres())) {
+                movieChangelogProducer.publishSaved(movie);
+                changed++;
+            }
+        }
+        published.keySet().forEach(movieChangelogProducer::publishDeleted);
+        movieChangelogProducer.publishSnapshotMarker();
+        log.info("Reconciled the changelog in {} ms: {} movies published, {} tombstones",
+                (System.nanoTime() - start) / 1_000_000, changed, published.size());
+    }
+}
@@ -1,46 +1,132 @@
 package org.example.producers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.example.entities.Movie;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
  * Component responsible for producing (sending) responses to movie search requests.
+ * <p>
+ * The movies found by a search are sent as JSON arrays of {@link MovieSearchResult}, packed into as few messages as
+ * fit into {@code search.response.max-batch-bytes} each. Responses to a search carrying a correlation id echo that id
+ * in the {@link KafkaHeaders#CORRELATION_ID} header and are keyed by it, so that all responses of one search land on
+ * the same partition in order. The last response of such a search carries the end-of-results marker header and the
+ * total number of movies found in the result-count header; it is sent even if nothing was found.
+ * </p>
  */
 @Component
 @Slf4j
 public class MovieGetResponseProducer {
 
+    /**
+     * Header marking the last response of a search.
+     */
+    public static final String END_OF_RESULTS_HEADER = "end-of-results";
+
+    /**
+     * Header of the last response of a search holding the total number of movies found.
+     */
+    public static final String RESULT_COUNT_HEADER = "result-count";
+
+    private static final String RESPONSE_TOPIC = "movie-response-topic";
+
     /**
      * KafkaTemplate for sending messages to Kafka topics.
      */
     private final KafkaTemplate<Integer, String> kafkaTemplate;
 
+    private final ObjectMapper objectMapper;
+
+    private final int maxBatchBytes;
+
     /**
      * Constructs a MovieGetResponseProducer with the provided KafkaTemplate.
      *
      * @param kafkaTemplate The KafkaTemplate for sending messages to Kafka topics.
+     * @param objectMapper  The object mapper serializing the found movies.
+     * @param maxBatchBytes The maximum size of one response message, unless a single movie is larger.
      */
-    public MovieGetResponseProducer(KafkaTemplate<Integer, String> kafkaTemplate) {
+    public MovieGetResponseProducer(KafkaTemplate<Integer, String> kafkaTemplate, ObjectMapper objectMapper,
+                                    @Value("${search.response.max-batch-bytes:262144}") int maxBatchBytes) {
         this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.maxBatchBytes = maxBatchBytes;
     }
 
     /**
-     * Sends a movie entity to the "movie-response-topic" after a successful search.
+     * Sends the movies found by a search to the "movie-response-topic" in size-capped batches.
      * If an exception occurs during the process, logs the exception and sends it to the "error-topic".
      *
-     * @param movie The Movie entity found in the database.
+     * @param movies        The movies found in the database.
+     * @param correlationId The correlation id of the search, or {@code null} for an uncorrelated search.
      */
-    public void sendFoundEntity(Movie movie) {
+    public void sendResults(List<Movie> movies, String correlationId) {
         try {
-            log.debug("Found the movie entity in the database!");
-            kafkaTemplate.send("movie-response-topic", movie.toString());
-        } catch (Exception e) {
+            StringBuilder batch = new StringBuilder("[");
+            int batchBytes = 2;
+            int batchSize = 0;
+            for (Movie movie : movies) {
+                String json = objectMapper.writeValueAsString(MovieSearchResult.of(movie));
+                int jsonBytes = utf8Length(json);
+                if (batchSize > 0 && batchBytes + 1 + jsonBytes > maxBatchBytes) {
+                    kafkaTemplate.send(response(correlationId, batch.append(']').toString()));
+                    batch.setLength(1);
+                    batchBytes = 2;
+                    batchSize = 0;
+                }
+                if (batchSize > 0) {
+                    batch.append(',');
+                    batchBytes++;
+                }
+                batch.append(json);
+                batchBytes += jsonBytes;
+                batchSize++;
+            }
+            if (batchSize > 0 || correlationId != null) {
+                ProducerRecord<Integer, String> last = response(correlationId, batch.append(']').toString());
+                if (correlationId != null) {
+                    last.headers().add(END_OF_RESULTS_HEADER, new byte[0]);
+                    last.headers().add(RESULT_COUNT_HEADER,
+                            Integer.toString(movies.size()).getBytes(StandardCharsets.UTF_8));
+                }
+                kafkaTemplate.send(last);
+            }
+            log.debug("Sent {} found movies", movies.size());
+        } catch (JsonProcessingException | RuntimeException e) {
             // Log the exception and send it to the error topic
             log.error(e.getMessage());
             kafkaTemplate.send("error-topic", e.getMessage());
         }
     }
-}
 
+    private ProducerRecord<Integer, String> response(String correlationId, String value) {
+        if (correlationId == null) {
+            return new ProducerRecord<>(RESPONSE_TOPIC, value);
+        }
+        ProducerRecord<Integer, String> record = new ProducerRecord<>(RESPONSE_TOPIC, correlationId.hashCode(), value);
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private static int utf8Length(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)) {
+                length += 2;
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+}
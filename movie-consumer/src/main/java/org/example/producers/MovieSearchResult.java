@@ -0,0 +1,19 @@
+package org.example.producers;
+
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+
+/**
+ * A movie as sent in the response batches of a search, matching the producer's movie record.
+ *
+ * @param Id        The id of the movie.
+ * @param movieType Always {@link MovieType#GET}.
+ * @param title     The title of the movie.
+ * @param genres    The pipe-separated genres of the movie.
+ */
+public record MovieSearchResult(Integer Id, MovieType movieType, String title, String genres) {
+
+    static MovieSearchResult of(Movie movie) {
+        return new MovieSearchResult(movie.getId(), MovieType.GET, movie.getTitle(), movie.getGenres());
+    }
+}
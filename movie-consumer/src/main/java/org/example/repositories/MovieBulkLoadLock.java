@@ -0,0 +1,116 @@
+package org.example.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Repository holding the database-wide lock of the bulk load, so that only one consumer instance backfills the movie
+ * table at a time.
+ * <p>
+ * The lock is the row of the single-row {@code movie_bulk_load_lock} table, selected {@code FOR UPDATE} in a
+ * transaction of a dedicated connection that stays open until the lock is released. Instances starting together
+ * therefore load one after the other, and the later ones find the table filled and the offsets committed. The lock
+ * is released with the connection if an instance dies, and waited for again after a lock timeout of the database.
+ * </p>
+ */
+@Repository
+@Slf4j
+public class MovieBulkLoadLock {
+
+    private static final String CREATE_TABLE = "create table if not exists movie_bulk_load_lock (id integer primary key)";
+
+    private static final String INSERT_ROW = "insert into movie_bulk_load_lock (id) values (1)";
+
+    private static final String LOCK_ROW = "select id from movie_bulk_load_lock where id = 1 for update";
+
+    private final DataSource dataSource;
+
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    /**
+     * Constructs a MovieBulkLoadLock.
+     *
+     * @param dataSource The data source the lock connection is taken from.
+     */
+    public MovieBulkLoadLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    /**
+     * A held lock, released when closed.
+     */
+    public static final class Lock implements AutoCloseable {
+
+        private final Connection connection;
+
+        private Lock(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() {
+            try (connection) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                log.warn("Could not release the bulk load lock cleanly: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Waits until no other instance holds the lock and takes it.
+     *
+     * @return The held lock.
+     * @throws DataAccessException If the lock table cannot be accessed.
+     */
+    public Lock acquire() {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_TABLE);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(INSERT_ROW);
+            } catch (SQLException e) {
+                // the row exists, inserted by an earlier or a concurrent instance
+            }
+            connection.setAutoCommit(false);
+            while (true) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeQuery(LOCK_ROW).close();
+                    return new Lock(connection);
+                } catch (SQLException e) {
+                    DataAccessException translated = exceptionTranslator.translate("lock", LOCK_ROW, e);
+                    if (!(translated instanceof PessimisticLockingFailureException)) {
+                        throw e;
+                    }
+                    connection.rollback();
+                    log.info("Waiting for the bulk load of another instance");
+                }
+            }
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            DataAccessException translated = exceptionTranslator.translate("lock", LOCK_ROW, e);
+            throw translated != null ? translated : new IllegalStateException(e);
+        }
+    }
+}
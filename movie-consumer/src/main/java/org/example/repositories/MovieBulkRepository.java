@@ -0,0 +1,134 @@
+package org.example.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entities.Movie;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository loading large numbers of new movies into the movie table through the bulk path of the database.
+ * <p>
+ * On PostgreSQL the movies are streamed with {@code COPY movie FROM STDIN} in CSV format, which skips the parsing,
+ * planning and round trip of every single insert. Other databases receive one JDBC batch of plain inserts per call.
+ * The movies must not exist yet; unlike {@link MovieUpsertRepository}, an existing id fails the whole call.
+ * </p>
+ */
+@Repository
+public class MovieBulkRepository {
+
+    private static final String COLUMNS = "id, movie_type, title, genres, average_rating, rating_count";
+
+    private static final String COPY = "copy movie (" + COLUMNS + ") from stdin with (format csv)";
+
+    private static final String INSERT = "insert into movie (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE = "delete from movie where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean copySupported;
+
+    /**
+     * Constructs a MovieBulkRepository.
+     *
+     * @param jdbcTemplate         The template the statements are executed with.
+     * @param entityManagerFactory The entity manager factory providing the SQL dialect of the database.
+     */
+    public MovieBulkRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copySupported = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * Inserts new movies with {@code COPY} on PostgreSQL or one JDBC batch elsewhere.
+     *
+     * @param movies The movies to insert, none of which may exist.
+     * @return The number of inserted movies.
+     */
+    public long insertAll(Collection<Movie> movies) {
+        if (movies.isEmpty()) {
+            return 0;
+        }
+        if (copySupported) {
+            String csv = toCsv(movies);
+            return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY, new StringReader(csv));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT, List.copyOf(movies), movies.size(), (ps, movie) -> {
+            ps.setInt(1, movie.getId());
+            ps.setString(2, movie.getMovieType().name());
+            ps.setString(3, movie.getTitle());
+            ps.setString(4, movie.getGenres());
+            ps.setObject(5, movie.getAverageRating(), Types.DOUBLE);
+            ps.setObject(6, movie.getRatingCount(), Types.BIGINT);
+        });
+        return movies.size();
+    }
+
+    /**
+     * Deletes movies by id in one JDBC batch.
+     *
+     * @param movieIds The ids of the movies to delete.
+     */
+    public void deleteAllById(Collection<Integer> movieIds) {
+        if (!movieIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE, List.copyOf(movieIds), movieIds.size(),
+                    (ps, movieId) -> ps.setInt(1, movieId));
+        }
+    }
+
+    /**
+     * Writes movies as CSV rows of the {@code COPY} columns. Strings are always quoted, so that an unquoted empty
+     * field stands for {@code NULL}.
+     */
+    static String toCsv(Collection<Movie> movies) {
+        StringBuilder csv = new StringBuilder(movies.size() * 96);
+        for (Movie movie : movies) {
+            csv.append(movie.getId()).append(',');
+            quote(csv, movie.getMovieType().name()).append(',');
+            quote(csv, movie.getTitle()).append(',');
+            quote(csv, movie.getGenres()).append(',');
+            if (movie.getAverageRating() != null) {
+                csv.append(movie.getAverageRating());
+            }
+            csv.append(',');
+            if (movie.getRatingCount() != null) {
+                csv.append(movie.getRatingCount());
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder quote(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.repositories;
 
 import org.example.entities.Movie;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -51,4 +52,28 @@ public interface MovieRepository extends CrudRepository<Movie, Integer> {
      * @return An Optional containing the movie with the specified ID, or empty if not found.
      */
     Optional<Movie> findById(Integer Id);
+
+    /**
+     * Finds the highest movie ID in use.
+     *
+     * @return The highest ID, or null if there are no movies.
+     */
+    @Query("select max(m.Id) from Movie m")
+    Integer findMaxId();
+
+    /**
+     * Finds the IDs of all movies.
+     *
+     * @return The IDs of all movies.
+     */
+    @Query("select m.Id from Movie m")
+    List<Integer> findAllIds();
+
+    /**
+     * Finds the rating aggregates of all rated movies.
+     *
+     * @return Rows of movie ID, rating count and average rating.
+     */
+    @Query("select m.Id, m.ratingCount, m.averageRating from Movie m where m.ratingCount > 0")
+    List<Object[]> findRatingAggregates();
 }
@@ -0,0 +1,155 @@
+package org.example.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entities.Movie;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Repository writing movies with single native statements instead of the load-then-save of JPA.
+ * <p>
+ * Saving a movie with an assigned id through JPA first selects it to decide between insert and update, so every
+ * write costs a lookup and a write, and deleting a movie loads it before removing it. The statements of this
+ * repository let the database make that decision instead: a new movie is inserted unless its id is taken, an update
+ * only touches an existing row, a delete removes the row by id, and a batch of final states is upserted. The rating aggregate of a movie is kept when the written movie carries none. The insert and
+ * upsert statements use the native syntax of the database: {@code MERGE} on H2 and {@code INSERT ... ON CONFLICT} on
+ * PostgreSQL, the databases the consumer supports.
+ * </p>
+ */
+@Repository
+public class MovieUpsertRepository {
+
+    private static final String H2_INSERT_IF_ABSENT = "merge into movie m using (values (cast(? as integer), "
+            + "cast(? as varchar), cast(? as varchar), cast(? as varchar), cast(? as double precision), "
+            + "cast(? as bigint))) s(id, movie_type, title, genres, average_rating, rating_count) on m.id = s.id "
+            + "when not matched then insert (id, movie_type, title, genres, average_rating, rating_count) "
+            + "values (s.id, s.movie_type, s.title, s.genres, s.average_rating, s.rating_count)";
+
+    private static final String H2_UPSERT = "merge into movie m using (values (cast(? as integer), "
+            + "cast(? as varchar), cast(? as varchar), cast(? as varchar), cast(? as double precision), "
+            + "cast(? as bigint))) s(id, movie_type, title, genres, average_rating, rating_count) on m.id = s.id "
+            + "when matched then update set movie_type = s.movie_type, title = s.title, genres = s.genres, "
+            + "average_rating = coalesce(s.average_rating, m.average_rating), "
+            + "rating_count = coalesce(s.rating_count, m.rating_count) "
+            + "when not matched then insert (id, movie_type, title, genres, average_rating, rating_count) "
+            + "values (s.id, s.movie_type, s.title, s.genres, s.average_rating, s.rating_count)";
+
+    private static final String INSERT = "insert into movie (id, movie_type, title, genres, average_rating, "
+            + "rating_count) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String POSTGRES_INSERT_IF_ABSENT = INSERT + " on conflict (id) do nothing";
+
+    private static final String POSTGRES_UPSERT = INSERT + " on conflict (id) do update set "
+            + "movie_type = excluded.movie_type, title = excluded.title, genres = excluded.genres, "
+            + "average_rating = coalesce(excluded.average_rating, movie.average_rating), "
+            + "rating_count = coalesce(excluded.rating_count, movie.rating_count)";
+
+    private static final String UPDATE = "update movie set movie_type = ?, title = ?, genres = ?, "
+            + "average_rating = coalesce(?, average_rating), rating_count = coalesce(?, rating_count) where id = ?";
+
+    private static final String DELETE = "delete from movie where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    private final String insertIfAbsent;
+
+    private final String upsert;
+
+    /**
+     * Constructs a MovieUpsertRepository.
+     *
+     * @param jdbcTemplate         The template the statements are executed with.
+     * @param entityManagerFactory The entity manager factory providing the SQL dialect of the database.
+     */
+    public MovieUpsertRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        this.batchSize = Math.max(1, sessionFactory.getSessionFactoryOptions().getJdbcBatchSize());
+        if (dialect instanceof H2Dialect) {
+            this.insertIfAbsent = H2_INSERT_IF_ABSENT;
+            this.upsert = H2_UPSERT;
+        } else if (dialect instanceof PostgreSQLDialect) {
+            this.insertIfAbsent = POSTGRES_INSERT_IF_ABSENT;
+            this.upsert = POSTGRES_UPSERT;
+        } else {
+            throw new IllegalStateException("Native movie upserts are not supported for " + dialect
+                    + "; use H2 or PostgreSQL");
+        }
+    }
+
+    /**
+     * Inserts a movie unless a movie with its id exists.
+     *
+     * @param movie The movie to insert.
+     * @return {@code true} if the movie was inserted, {@code false} if its id is taken.
+     */
+    public boolean insertIfAbsent(Movie movie) {
+        return jdbcTemplate.update(insertIfAbsent, ps -> setRow(ps, movie)) > 0;
+    }
+
+    /**
+     * Updates an existing movie, keeping its rating aggregate if the update carries none.
+     *
+     * @param movie The updated movie.
+     * @return {@code true} if the movie was updated, {@code false} if it does not exist.
+     */
+    public boolean update(Movie movie) {
+        return jdbcTemplate.update(UPDATE, ps -> {
+            ps.setString(1, movie.getMovieType().name());
+            ps.setString(2, movie.getTitle());
+            ps.setString(3, movie.getGenres());
+            setNullable(ps, 4, movie.getAverageRating(), Types.DOUBLE);
+            setNullable(ps, 5, movie.getRatingCount(), Types.BIGINT);
+            ps.setInt(6, movie.getId());
+        }) > 0;
+    }
+
+    /**
+     * Deletes a movie by id.
+     *
+     * @param movieId The id of the movie.
+     * @return {@code true} if the movie was deleted, {@code false} if it does not exist.
+     */
+    public boolean delete(int movieId) {
+        return jdbcTemplate.update(DELETE, movieId) > 0;
+    }
+
+    /**
+     * Inserts or updates movies in JDBC batches of the configured Hibernate batch size, keeping the rating aggregate
+     * of existing movies the written movie carries none of.
+     *
+     * @param movies The movies to write, at most one per id.
+     */
+    public void upsertAll(List<Movie> movies) {
+        jdbcTemplate.batchUpdate(upsert, movies, batchSize, MovieUpsertRepository::setRow);
+    }
+
+    private static void setRow(PreparedStatement ps, Movie movie) throws SQLException {
+        ps.setInt(1, movie.getId());
+        ps.setString(2, movie.getMovieType().name());
+        ps.setString(3, movie.getTitle());
+        ps.setString(4, movie.getGenres());
+        setNullable(ps, 5, movie.getAverageRating(), Types.DOUBLE);
+        setNullable(ps, 6, movie.getRatingCount(), Types.BIGINT);
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+}
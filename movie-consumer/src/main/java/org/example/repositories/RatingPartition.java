@@ -0,0 +1,67 @@
+package org.example.repositories;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A time range of the rating table, stored as a native partition on PostgreSQL or as a bucket table elsewhere.
+ *
+ * @param table The name of the partition or bucket table, {@code rating_<yyyy>} or {@code rating_<yyyymm>}.
+ * @param from  The first time stamp of the range in epoch seconds, inclusive.
+ * @param to    The end of the range in epoch seconds, exclusive.
+ */
+public record RatingPartition(String table, long from, long to) {
+
+    /**
+     * Finds the partition of a time stamp.
+     *
+     * @param timeStamp The time stamp in epoch seconds.
+     * @param unit      The length of the partitions, {@link ChronoUnit#YEARS} or {@link ChronoUnit#MONTHS}.
+     * @return The partition the time stamp belongs to.
+     */
+    public static RatingPartition of(long timeStamp, ChronoUnit unit) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(timeStamp, 86_400L));
+        LocalDate start = switch (unit) {
+            case YEARS -> date.withDayOfYear(1);
+            case MONTHS -> date.withDayOfMonth(1);
+            default -> throw new IllegalArgumentException("Ratings are partitioned by years or months, not " + unit);
+        };
+        String suffix = unit == ChronoUnit.YEARS ? "%04d".formatted(start.getYear())
+                : "%04d%02d".formatted(start.getYear(), start.getMonthValue());
+        return new RatingPartition("rating_" + suffix, epochSecond(start), epochSecond(start.plus(1, unit)));
+    }
+
+    /**
+     * Recognizes the partition of a table name, whatever the configured partition length.
+     *
+     * @param table The name of a table.
+     * @return The partition, or {@code null} if the table is not a rating partition.
+     */
+    public static RatingPartition parse(String table) {
+        String name = table.toLowerCase();
+        if (!name.matches("rating_(\\d{4}|\\d{6})")) {
+            return null;
+        }
+        int year = Integer.parseInt(name.substring(7, 11));
+        if (name.length() == 11) {
+            return of(epochSecond(LocalDate.of(year, 1, 1)), ChronoUnit.YEARS);
+        }
+        return of(epochSecond(LocalDate.of(year, Integer.parseInt(name.substring(11)), 1)), ChronoUnit.MONTHS);
+    }
+
+    /**
+     * Tells whether the partition holds time stamps of a range.
+     *
+     * @param rangeFrom The first time stamp of the range, inclusive.
+     * @param rangeTo   The end of the range, exclusive.
+     * @return {@code true} if the ranges overlap.
+     */
+    public boolean overlaps(long rangeFrom, long rangeTo) {
+        return from < rangeTo && rangeFrom < to;
+    }
+
+    private static long epochSecond(LocalDate date) {
+        return date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+}
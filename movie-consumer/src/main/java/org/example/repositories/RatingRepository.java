@@ -0,0 +1,182 @@
+package org.example.repositories;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entities.Rating;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository appending ratings to the rating table, range-partitioned by their time stamp.
+ * <p>
+ * On PostgreSQL the {@code rating} table is natively partitioned by range of {@code time_stamp}, one partition per
+ * year or month ({@code ratings.store.partition}); rows are inserted into the parent table and routed by the
+ * database, and queries of a time window only scan the partitions it overlaps. On H2 every range is a bucket table
+ * {@code rating_<yyyy>} or {@code rating_<yyyymm>}; inserts are grouped by bucket and queries union the buckets
+ * overlapping the window. Partitions and buckets are created when the first rating of their range arrives.
+ * </p>
+ * <p>
+ * The table is append-only: its primary key is (user_id, movie_id, time_stamp), so a user rating a movie again adds
+ * a row, while a rating consumed twice after a redelivery is written once. Every partition is indexed by
+ * (movie_id, time_stamp) for the window queries of a movie.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "ratings.store.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RatingRepository {
+
+    private static final String COLUMNS = "user_id, movie_id, rating, time_stamp";
+
+    private static final String TABLE_DEFINITION = " (user_id integer not null, movie_id integer not null, "
+            + "rating double precision not null, time_stamp bigint not null, "
+            + "primary key (user_id, movie_id, time_stamp))";
+
+    private static final RowMapper<StoredRating> STORED_RATING = (rs, rowNum) ->
+            new StoredRating(rs.getInt(1), rs.getInt(2), rs.getDouble(3), rs.getLong(4));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean nativePartitions;
+
+    private final ChronoUnit partitionUnit;
+
+    /**
+     * The partitions or bucket tables known to exist, by table name.
+     */
+    private final Map<String, RatingPartition> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a RatingRepository.
+     *
+     * @param jdbcTemplate         The template the statements are executed with.
+     * @param entityManagerFactory The entity manager factory providing the SQL dialect of the database.
+     * @param partitionUnit        The length of a partition, years or months.
+     */
+    public RatingRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                            @Value("${ratings.store.partition:years}") ChronoUnit partitionUnit) {
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (!(dialect instanceof PostgreSQLDialect) && !(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("The rating store supports PostgreSQL and H2, not " + dialect
+                    + "; disable it with ratings.store.enabled=false");
+        }
+        this.nativePartitions = dialect instanceof PostgreSQLDialect;
+        // validates the unit
+        RatingPartition.of(0, partitionUnit);
+        this.partitionUnit = partitionUnit;
+    }
+
+    /**
+     * Creates the partitioned parent table on PostgreSQL and finds the existing partitions or bucket tables.
+     */
+    @PostConstruct
+    void init() {
+        if (nativePartitions) {
+            jdbcTemplate.execute("create table if not exists rating" + TABLE_DEFINITION
+                    + " partition by range (time_stamp)");
+            jdbcTemplate.execute("create index if not exists rating_movie_time on rating (movie_id, time_stamp)");
+        }
+        for (String table : jdbcTemplate.queryForList("select table_name from information_schema.tables "
+                + "where lower(table_name) like 'rating\\_%' escape '\\'", String.class)) {
+            RatingPartition partition = RatingPartition.parse(table);
+            if (partition != null) {
+                partitions.put(partition.table(), partition);
+            }
+        }
+        log.info("Storing ratings in {} {} of {}", partitions.size(), nativePartitions ? "partitions" : "bucket tables",
+                partitionUnit.toString().toLowerCase());
+    }
+
+    /**
+     * Appends ratings in JDBC batches, creating the partitions of new time ranges first. Ratings that are stored
+     * already are skipped.
+     *
+     * @param ratings   The ratings to append; their user, movie, rating and time stamp must be set.
+     * @param batchSize The number of ratings per JDBC batch.
+     */
+    public void appendAll(List<Rating> ratings, int batchSize) {
+        Map<RatingPartition, List<Rating>> byPartition = new LinkedHashMap<>();
+        for (Rating rating : ratings) {
+            byPartition.computeIfAbsent(RatingPartition.of(rating.getTimeStamp(), partitionUnit),
+                    partition -> new ArrayList<>()).add(rating);
+        }
+        byPartition.keySet().forEach(this::createPartition);
+        if (nativePartitions) {
+            insert("insert into rating (" + COLUMNS + ") values (?, ?, ?, ?) on conflict do nothing", ratings,
+                    batchSize);
+        } else {
+            byPartition.forEach((partition, rows) -> insert("merge into " + partition.table() + " (" + COLUMNS
+                    + ") key (user_id, movie_id, time_stamp) values (?, ?, ?, ?)", rows, batchSize));
+        }
+    }
+
+    /**
+     * Finds the ratings of a movie in a time window, oldest first.
+     *
+     * @param movieId The id of the movie.
+     * @param from    The start of the window in epoch seconds, inclusive.
+     * @param to      The end of the window in epoch seconds, exclusive.
+     * @return The ratings of the movie in the window.
+     */
+    public List<StoredRating> findByMovieId(int movieId, long from, long to) {
+        if (nativePartitions) {
+            return jdbcTemplate.query("select " + COLUMNS + " from rating where movie_id = ? and time_stamp >= ? "
+                    + "and time_stamp < ? order by time_stamp", STORED_RATING, movieId, from, to);
+        }
+        List<String> selects = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        for (RatingPartition partition : partitions.values()) {
+            if (partition.overlaps(from, to)) {
+                selects.add("select " + COLUMNS + " from " + partition.table()
+                        + " where movie_id = ? and time_stamp >= ? and time_stamp < ?");
+                args.addAll(List.of(movieId, from, to));
+            }
+        }
+        if (selects.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.join(" union all ", selects) + " order by time_stamp", STORED_RATING,
+                args.toArray());
+    }
+
+    private void createPartition(RatingPartition partition) {
+        if (partitions.containsKey(partition.table())) {
+            return;
+        }
+        if (nativePartitions) {
+            jdbcTemplate.execute("create table if not exists " + partition.table() + " partition of rating "
+                    + "for values from (" + partition.from() + ") to (" + partition.to() + ")");
+        } else {
+            jdbcTemplate.execute("create table if not exists " + partition.table() + TABLE_DEFINITION);
+            jdbcTemplate.execute("create index if not exists " + partition.table() + "_movie_time on "
+                    + partition.table() + " (movie_id, time_stamp)");
+        }
+        partitions.put(partition.table(), partition);
+        log.info("Created the rating {} {}", nativePartitions ? "partition" : "bucket table", partition.table());
+    }
+
+    private void insert(String sql, List<Rating> ratings, int batchSize) {
+        jdbcTemplate.batchUpdate(sql, ratings, batchSize, (ps, rating) -> {
+            ps.setInt(1, rating.getUserId());
+            ps.setInt(2, rating.getMovie().getId());
+            ps.setDouble(3, rating.getRating());
+            ps.setLong(4, rating.getTimeStamp());
+        });
+    }
+}
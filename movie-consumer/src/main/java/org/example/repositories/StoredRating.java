@@ -0,0 +1,12 @@
+package org.example.repositories;
+
+/**
+ * A rating as stored in the rating table.
+ *
+ * @param userId    The id of the user.
+ * @param movieId   The id of the movie.
+ * @param rating    The rating.
+ * @param timeStamp The time of the rating in epoch seconds.
+ */
+public record StoredRating(int userId, int movieId, double rating, long timeStamp) {
+}
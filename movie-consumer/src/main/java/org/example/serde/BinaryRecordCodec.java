@@ -0,0 +1,130 @@
+package org.example.serde;
+
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.entities.Rating;
+
+/**
+ * Compact binary encoding of the movie and rating records on the Kafka topics.
+ * <p>
+ * The format, its tags and its reader and writer live in the shared {@link BinaryFormat}; this codec only maps
+ * the entities of this service onto it.
+ * </p>
+ */
+public final class BinaryRecordCodec {
+
+    private BinaryRecordCodec() {
+    }
+
+    /**
+     * Tells whether a serialized value is in the binary format rather than JSON.
+     *
+     * @param value The serialized value.
+     * @return Whether the value starts with the magic byte.
+     */
+    public static boolean isBinary(byte[] value) {
+        return BinaryFormat.isBinary(value);
+    }
+
+    /**
+     * Encodes a movie.
+     *
+     * @param movie The movie.
+     * @return The binary record.
+     */
+    public static byte[] writeMovie(Movie movie) {
+        return new BinaryWriter(16 + length(movie.getTitle()) + length(movie.getGenres()))
+                .header(BinaryFormat.MOVIE)
+                .intField(BinaryFormat.MOVIE_ID, movie.getId())
+                .intField(BinaryFormat.MOVIE_TYPE, movie.getMovieType() != null ? movieTypeCode(movie.getMovieType()) : null)
+                .stringField(BinaryFormat.MOVIE_TITLE, movie.getTitle())
+                .stringField(BinaryFormat.MOVIE_GENRES, movie.getGenres())
+                .toByteArray();
+    }
+
+    /**
+     * Decodes a movie.
+     *
+     * @param value The binary record.
+     * @return The movie.
+     * @throws IllegalArgumentException If the value is not a binary movie record of a supported version.
+     */
+    public static Movie readMovie(byte[] value) {
+        BinaryReader reader = new BinaryReader(value, BinaryFormat.MOVIE);
+        Movie movie = new Movie();
+        for (int tag = reader.nextField(); tag >= 0; tag = reader.nextField()) {
+            switch (tag) {
+                case BinaryFormat.MOVIE_ID -> movie.setId(reader.readInt());
+                case BinaryFormat.MOVIE_TYPE -> movie.setMovieType(movieType(reader.readInt()));
+                case BinaryFormat.MOVIE_TITLE -> movie.setTitle(reader.readString());
+                case BinaryFormat.MOVIE_GENRES -> movie.setGenres(reader.readString());
+                default -> reader.skip();
+            }
+        }
+        return movie;
+    }
+
+    /**
+     * Encodes a rating.
+     *
+     * @param rating The rating.
+     * @return The binary record.
+     */
+    public static byte[] writeRating(Rating rating) {
+        return new BinaryWriter(32)
+                .header(BinaryFormat.RATING)
+                .intField(BinaryFormat.RATING_USER_ID, rating.getUserId())
+                .intField(BinaryFormat.RATING_MOVIE_ID, rating.getMovie() != null ? rating.getMovie().getId() : null)
+                .doubleField(BinaryFormat.RATING_RATING, rating.getRating())
+                .intField(BinaryFormat.RATING_TIMESTAMP, rating.getTimeStamp())
+                .toByteArray();
+    }
+
+    /**
+     * Decodes a rating. The rated movie only carries its id.
+     *
+     * @param value The binary record.
+     * @return The rating.
+     * @throws IllegalArgumentException If the value is not a binary rating record of a supported version.
+     */
+    public static Rating readRating(byte[] value) {
+        BinaryReader reader = new BinaryReader(value, BinaryFormat.RATING);
+        Rating rating = new Rating();
+        for (int tag = reader.nextField(); tag >= 0; tag = reader.nextField()) {
+            switch (tag) {
+                case BinaryFormat.RATING_USER_ID -> rating.setUserId(reader.readInt());
+                case BinaryFormat.RATING_MOVIE_ID -> rating.setMovie(Movie.builder().Id(reader.readInt()).build());
+                case BinaryFormat.RATING_RATING -> rating.setRating(reader.readDouble());
+                case BinaryFormat.RATING_TIMESTAMP -> rating.setTimeStamp(reader.readInt());
+                default -> reader.skip();
+            }
+        }
+        return rating;
+    }
+
+    /**
+     * Maps the movie types to stable codes, independent of the declaration order of the enum.
+     */
+    private static int movieTypeCode(MovieType movieType) {
+        return switch (movieType) {
+            case NEW -> 1;
+            case UPDATE -> 2;
+            case DELETE -> 3;
+            case GET -> 4;
+        };
+    }
+
+    private static MovieType movieType(int code) {
+        return switch (code) {
+            case 1 -> MovieType.NEW;
+            case 2 -> MovieType.UPDATE;
+            case 3 -> MovieType.DELETE;
+            case 4 -> MovieType.GET;
+            default -> null;
+        };
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+}
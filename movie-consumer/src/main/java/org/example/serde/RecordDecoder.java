@@ -0,0 +1,79 @@
+package org.example.serde;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.entities.Movie;
+import org.example.entities.Rating;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Decoder of the movie and rating records consumed from Kafka.
+ * <p>
+ * The producer selects JSON or the binary format of {@link BinaryRecordCodec} per topic. Every record is decoded in
+ * the format it was written in, so the format of a topic can be switched while records of the other one are still
+ * being consumed.
+ * </p>
+ */
+@Component
+public class RecordDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a RecordDecoder.
+     *
+     * @param objectMapper The object mapper for the JSON records.
+     */
+    public RecordDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decodes a movie record.
+     *
+     * @param value The record value.
+     * @return The movie.
+     * @throws IOException If the record is malformed.
+     */
+    public Movie readMovie(byte[] value) throws IOException {
+        if (BinaryRecordCodec.isBinary(value)) {
+            return BinaryRecordCodec.readMovie(value);
+        }
+        return objectMapper.readValue(value, Movie.class);
+    }
+
+    /**
+     * Decodes a rating record. The rated movie only carries its id, and fields missing or of the wrong type in the
+     * record are left {@code null}.
+     *
+     * @param value The record value.
+     * @return The rating.
+     * @throws IOException If the record is malformed.
+     */
+    public Rating readRating(byte[] value) throws IOException {
+        if (BinaryRecordCodec.isBinary(value)) {
+            return BinaryRecordCodec.readRating(value);
+        }
+        JsonNode json = objectMapper.readTree(value);
+        Rating rating = new Rating();
+        JsonNode userId = json.get("userId");
+        JsonNode movieId = json.get("movieId");
+        JsonNode score = json.get("rating");
+        JsonNode timeStamp = json.get("timeStamp");
+        if (userId != null && userId.canConvertToInt()) {
+            rating.setUserId(userId.intValue());
+        }
+        if (movieId != null && movieId.canConvertToInt()) {
+            rating.setMovie(Movie.builder().Id(movieId.intValue()).build());
+        }
+        if (score != null && score.isNumber()) {
+            rating.setRating(score.doubleValue());
+        }
+        if (timeStamp != null && timeStamp.canConvertToInt()) {
+            rating.setTimeStamp(timeStamp.intValue());
+        }
+        return rating;
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for parking failed records in dead-letter topics and re-driving them.
+ * <p>
+ * A record is parked in {@code <topic>-dlt} with its original key, payload and headers, together with the headers
+ * of {@link DeadLetterPublishingRecoverer} describing its origin and the exception class, message and stack trace.
+ * The error topic additionally receives a short description of every parked record. Replaying reads the parked
+ * records with a dedicated consumer group and sends them back to their original topic without the dead-letter and
+ * retry headers.
+ * </p>
+ */
+@Service
+@Slf4j
+public class DeadLetterService {
+
+    /**
+     * Suffix of the dead-letter topic of a topic.
+     */
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private static final String ERROR_TOPIC = "error-topic";
+
+    /**
+     * Prefixes of the headers added by the dead-letter publishing and the retry topics.
+     */
+    private static final List<String> PARKING_HEADER_PREFIXES =
+            List.of("kafka_exception-", "kafka_original-", "kafka_dlt-", "retry_topic-");
+
+    private final KafkaOperations<Object, Object> deadLetterKafkaTemplate;
+
+    private final KafkaTemplate<Integer, String> kafkaTemplate;
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+
+    private final DeadLetterPublishingRecoverer recoverer;
+
+    private final String replayGroup;
+
+    private final Duration pollTimeout;
+
+    /**
+     * Constructs a DeadLetterService.
+     *
+     * @param deadLetterKafkaTemplate The template writing the original payloads.
+     * @param kafkaTemplate           The template for the error topic.
+     * @param consumerFactory         The consumer factory the dead-letter topics are read with.
+     * @param replayGroup             The consumer group whose committed offsets mark the replayed records.
+     * @param pollTimeout             The time a replay waits for more parked records.
+     */
+    public DeadLetterService(@Qualifier("deadLetterKafkaTemplate") KafkaOperations<Object, Object> deadLetterKafkaTemplate,
+                             KafkaTemplate<Integer, String> kafkaTemplate,
+                             ConsumerFactory<Object, Object> consumerFactory,
+                             @Value("${consumer.dlq.replay-group:dlq-replay}") String replayGroup,
+                             @Value("${consumer.dlq.poll-timeout:1s}") Duration pollTimeout) {
+        this.deadLetterKafkaTemplate = deadLetterKafkaTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.consumerFactory = consumerFactory;
+        this.replayGroup = replayGroup;
+        this.pollTimeout = pollTimeout;
+        this.recoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+    }
+
+    /**
+     * Parks a failed record in the dead-letter topic of its topic, waiting until it is written.
+     *
+     * @param consumerRecord The failed record.
+     * @param exception      The exception the record failed with.
+     */
+    public void park(ConsumerRecord<?, ?> consumerRecord, Exception exception) {
+        recoverer.accept(consumerRecord, exception);
+        report(consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(),
+                exception.getClass().getName(), exception.getMessage());
+    }
+
+    /**
+     * Reports a record parked by the retry topics on the error topic.
+     *
+     * @param parked The record read from a dead-letter topic.
+     */
+    public void reportParked(ConsumerRecord<?, ?> parked) {
+        byte[] partition = header(parked, KafkaHeaders.ORIGINAL_PARTITION);
+        byte[] offset = header(parked, KafkaHeaders.ORIGINAL_OFFSET);
+        report(text(parked, KafkaHeaders.ORIGINAL_TOPIC),
+                partition != null ? ByteBuffer.wrap(partition).getInt() : null,
+                offset != null ? ByteBuffer.wrap(offset).getLong() : null,
+                Objects.requireNonNullElse(text(parked, KafkaHeaders.EXCEPTION_CAUSE_FQCN),
+                        text(parked, KafkaHeaders.EXCEPTION_FQCN)),
+                text(parked, KafkaHeaders.EXCEPTION_MESSAGE));
+    }
+
+    /**
+     * Sends parked records of a topic back to it, oldest first. The replayed records are committed for the replay
+     * group only after they were written, so a failed replay is repeated by the next one.
+     *
+     * @param topic      The original topic of the records.
+     * @param maxRecords The maximum number of records to replay.
+     * @return The number of replayed records.
+     */
+    public synchronized int replay(String topic, int maxRecords) {
+        String deadLetterTopic = topic + DLT_SUFFIX;
+        Properties properties = new Properties();
+        properties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        properties.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        int replayed = 0;
+        try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(replayGroup, null, null, properties)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo partition : consumer.partitionsFor(deadLetterTopic)) {
+                partitions.add(new TopicPartition(deadLetterTopic, partition.partition()));
+            }
+            consumer.assign(partitions);
+            while (!partitions.isEmpty() && replayed < maxRecords) {
+                ConsumerRecords<Object, Object> records = consumer.poll(pollTimeout);
+                if (records.isEmpty()) {
+                    break;
+                }
+                List<CompletableFuture<SendResult<Object, Object>>> sends = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<Object, Object> parked : records) {
+                    if (replayed == maxRecords) {
+                        break;
+                    }
+                    sends.add(deadLetterKafkaTemplate.send(new ProducerRecord<>(topic, null, parked.key(),
+                            parked.value(), originalHeaders(parked))));
+                    offsets.put(new TopicPartition(parked.topic(), parked.partition()),
+                            new OffsetAndMetadata(parked.offset() + 1));
+                    replayed++;
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                consumer.commitSync(offsets);
+            }
+        }
+        log.info("Replayed {} records from {} to {}", replayed, deadLetterTopic, topic);
+        return replayed;
+    }
+
+    private void report(String topic, Object partition, Object offset, String exceptionClass, String message) {
+        String report = "Parked record " + topic + "-" + partition + "@" + offset + " in " + topic + DLT_SUFFIX
+                + ": " + exceptionClass + ": " + message;
+        // Log the exception and send it to the error topic
+        log.error(report);
+        kafkaTemplate.send(ERROR_TOPIC, report);
+    }
+
+    /**
+     * Copies the headers of a parked record except the ones added by the dead-letter and retry topics.
+     */
+    private static RecordHeaders originalHeaders(ConsumerRecord<?, ?> parked) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : parked.headers()) {
+            if (PARKING_HEADER_PREFIXES.stream().noneMatch(header.key()::startsWith)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? header.value() : null;
+    }
+
+    private static String text(ConsumerRecord<?, ?> record, String name) {
+        byte[] value = header(record, name);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+}
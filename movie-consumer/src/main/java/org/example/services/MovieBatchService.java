@@ -0,0 +1,229 @@
+package org.example.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.cache.MovieCache;
+import org.example.entities.Movie;
+import org.example.ids.MovieIdAllocator;
+import org.example.metrics.PipelineMetrics;
+import org.example.entities.MovieType;
+import org.example.repositories.MovieRepository;
+import org.example.repositories.MovieUpsertRepository;
+import org.example.serde.RecordDecoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for persisting a whole poll of movie messages at once.
+ * <p>
+ * The movies referenced by a batch are loaded with a single {@code IN} query, the NEW, UPDATE and DELETE messages are
+ * replayed in order against that snapshot, and only the final state of every movie is written in one transaction:
+ * new and updated movies as one batched native upsert, deleted movies as batched JDBC deletes. The outcome matches
+ * processing the messages one by one with {@link MovieService}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class MovieBatchService {
+
+    /**
+     * Outcome of processing a batch.
+     *
+     * @param inserted The number of movies inserted.
+     * @param updated  The number of movies updated.
+     * @param deleted  The number of movies deleted.
+     * @param rejected The records that could not be applied.
+     * @param searches The GET records of the batch, to be answered once the batch is committed.
+     */
+    public record BatchResult(int inserted, int updated, int deleted, List<Rejection> rejected,
+                              List<ConsumerRecord<Integer, byte[]>> searches) {
+    }
+
+    /**
+     * A record of a batch that could not be applied.
+     *
+     * @param consumerRecord The record.
+     * @param exception      The reason the record was rejected.
+     */
+    public record Rejection(ConsumerRecord<Integer, byte[]> consumerRecord, Exception exception) {
+    }
+
+    private final RecordDecoder recordDecoder;
+
+    private final MovieRepository movieRepository;
+
+    private final MovieUpsertRepository movieUpsertRepository;
+
+    private final MovieIndexService movieIndexService;
+
+    private final MovieCache movieCache;
+
+    private final MovieIdAllocator movieIdAllocator;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructs a MovieBatchService with the provided dependencies.
+     *
+     * @param recordDecoder         The decoder of the movie records.
+     * @param movieRepository       The repository for interacting with the movie data storage.
+     * @param movieUpsertRepository The repository upserting the new and updated movies in batches.
+     * @param movieIndexService     The searches of the movie catalog, told once the batch is committed.
+     * @param movieCache            The cache of the stored movies, invalidated once the batch is committed.
+     * @param movieIdAllocator      The allocator of ids for new movies whose id is taken.
+     * @param pipelineMetrics       The metrics of the decoding of every record and the database write of the batch.
+     */
+    public MovieBatchService(RecordDecoder recordDecoder, MovieRepository movieRepository,
+                             MovieUpsertRepository movieUpsertRepository, MovieIndexService movieIndexService,
+                             MovieCache movieCache, MovieIdAllocator movieIdAllocator, PipelineMetrics pipelineMetrics) {
+        this.recordDecoder = recordDecoder;
+        this.movieRepository = movieRepository;
+        this.movieUpsertRepository = movieUpsertRepository;
+        this.movieIndexService = movieIndexService;
+        this.movieCache = movieCache;
+        this.movieIdAllocator = movieIdAllocator;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    /**
+     * Applies the NEW, UPDATE and DELETE messages of a batch in one transaction.
+     *
+     * @param consumerRecords The Kafka ConsumerRecords of one poll.
+     * @return The outcome of the batch, including the records that were rejected and the searches left to answer.
+     */
+    @Transactional
+    public BatchResult processMovies(List<ConsumerRecord<Integer, byte[]>> consumerRecords) {
+        List<Rejection> rejected = new ArrayList<>();
+        List<ConsumerRecord<Integer, byte[]>> searches = new ArrayList<>();
+        List<Movie> writes = new ArrayList<>(consumerRecords.size());
+        List<ConsumerRecord<Integer, byte[]>> writeRecords = new ArrayList<>(consumerRecords.size());
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (ConsumerRecord<Integer, byte[]> consumerRecord : consumerRecords) {
+            pipelineMetrics.recordQueueTime(consumerRecord);
+            Movie movie;
+            long decodeStart = System.nanoTime();
+            try {
+                movie = recordDecoder.readMovie(consumerRecord.value());
+            } catch (IOException | IllegalArgumentException e) {
+                rejected.add(new Rejection(consumerRecord, e));
+                continue;
+            }
+            pipelineMetrics.recordDeserialize(consumerRecord.topic(), System.nanoTime() - decodeStart);
+            movie.setId(consumerRecord.key());
+            pipelineMetrics.countConsumed(consumerRecord.topic(), movie.getMovieType() != null
+                    ? movie.getMovieType().name() : PipelineMetrics.NO_TYPE);
+            if (movie.getMovieType() == null) {
+                rejected.add(new Rejection(consumerRecord, new IllegalArgumentException("Invalid Movie Type")));
+            } else if (movie.getMovieType() == MovieType.GET) {
+                searches.add(consumerRecord);
+            } else if (movie.getId() == null) {
+                rejected.add(new Rejection(consumerRecord, new IllegalArgumentException("Movie Id is missing")));
+            } else {
+                writes.add(movie);
+                writeRecords.add(consumerRecord);
+                ids.add(movie.getId());
+            }
+        }
+
+        long writeStart = System.nanoTime();
+        Map<Integer, Movie> stored = new HashMap<>();
+        if (!ids.isEmpty()) {
+            movieRepository.findAllById(ids).forEach(movie -> stored.put(movie.getId(), movie));
+        }
+        Map<Integer, Movie> current = new LinkedHashMap<>(stored);
+        List<ConsumerRecord<Integer, byte[]>> applied = new ArrayList<>(writes.size());
+        for (int i = 0; i < writes.size(); i++) {
+            Movie movie = writes.get(i);
+            ConsumerRecord<Integer, byte[]> consumerRecord = writeRecords.get(i);
+            switch (movie.getMovieType()) {
+                case NEW -> {
+                    if (current.get(movie.getId()) != null) {
+                        int requestedId = movie.getId();
+                        movie.setId(movieIdAllocator.nextFreeId(
+                                id -> current.containsKey(id) || movieRepository.existsById(id)));
+                        log.info("Movie with ID {} already exists. Saving it with ID {}.", requestedId, movie.getId());
+                    }
+                    current.put(movie.getId(), movie);
+                    applied.add(consumerRecord);
+                }
+                case UPDATE -> {
+                    Movie previous = current.get(movie.getId());
+                    if (previous == null) {
+                        rejected.add(new Rejection(consumerRecord, new IllegalArgumentException(
+                                "No movie in the database was found. Please insert firstly a movie!")));
+                    } else {
+                        MovieService.keepRatings(movie, previous);
+                        current.put(movie.getId(), movie);
+                        applied.add(consumerRecord);
+                    }
+                }
+                case DELETE -> {
+                    if (current.get(movie.getId()) == null) {
+                        rejected.add(new Rejection(consumerRecord, new IllegalArgumentException(
+                                "No movie in the database was found. Please insert firstly a movie!")));
+                    } else {
+                        current.put(movie.getId(), null);
+                        applied.add(consumerRecord);
+                    }
+                }
+                default -> rejected.add(new Rejection(consumerRecord, new IllegalArgumentException("Invalid Movie Type")));
+            }
+        }
+
+        int inserted = 0;
+        int updated = 0;
+        int deleted = 0;
+        List<Movie> saved = new ArrayList<>();
+        List<Integer> removed = new ArrayList<>();
+        for (Map.Entry<Integer, Movie> entry : current.entrySet()) {
+            Movie storedMovie = stored.get(entry.getKey());
+            Movie movie = entry.getValue();
+            if (movie != null && storedMovie == null) {
+                saved.add(movie);
+                inserted++;
+            } else if (movie != null && movie != storedMovie) {
+                saved.add(movie);
+                updated++;
+            } else if (movie == null && storedMovie != null) {
+                entityManager.remove(storedMovie);
+                removed.add(entry.getKey());
+                deleted++;
+            }
+        }
+        movieUpsertRepository.upsertAll(saved);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                movieCache.invalidateAll(current.keySet());
+                saved.forEach(movieIndexService::indexMovie);
+                removed.forEach(movieIndexService::removeMovie);
+                if (!applied.isEmpty()) {
+                    pipelineMetrics.recordDbWrite(applied.get(0).topic(), System.nanoTime() - writeStart);
+                    applied.forEach(pipelineMetrics::recordEndToEnd);
+                }
+            }
+        });
+        entityManager.flush();
+        entityManager.clear();
+        log.info("Persisted a batch of {} records: {} inserted, {} updated, {} deleted, {} rejected",
+                consumerRecords.size(), inserted, updated, deleted, rejected.size());
+        return new BatchResult(inserted, updated, deleted, rejected, searches);
+    }
+
+}
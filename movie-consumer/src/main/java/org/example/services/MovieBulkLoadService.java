@@ -0,0 +1,240 @@
+package org.example.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.cache.MovieCache;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.ids.MovieIdAllocator;
+import org.example.metrics.PipelineMetrics;
+import org.example.repositories.MovieBulkRepository;
+import org.example.repositories.MovieRepository;
+import org.example.repositories.MovieUpsertRepository;
+import org.example.serde.RecordDecoder;
+import org.example.services.MovieBatchService.BatchResult;
+import org.example.services.MovieBatchService.Rejection;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for loading large chunks of movie messages into a cold movie table.
+ * <p>
+ * Unlike {@link MovieBatchService}, which loads the movies of every batch to apply the messages to them, this service
+ * keeps the ids of all stored movies in memory, so a chunk is folded into its final state without reading the
+ * table. New movies are then written through the bulk path of the database, i.e. {@code COPY} on PostgreSQL, updates
+ * of movies stored by earlier chunks as batched upserts and deletions as batched deletes, all in one transaction. The
+ * outcome matches processing the messages one by one with {@link MovieService}, as long as no other writer changes
+ * the table meanwhile.
+ * </p>
+ */
+@Service
+@Slf4j
+public class MovieBulkLoadService {
+
+    private final RecordDecoder recordDecoder;
+
+    private final MovieRepository movieRepository;
+
+    private final MovieBulkRepository movieBulkRepository;
+
+    private final MovieUpsertRepository movieUpsertRepository;
+
+    private final MovieIndexService movieIndexService;
+
+    private final MovieCache movieCache;
+
+    private final MovieIdAllocator movieIdAllocator;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    /**
+     * Ids of the stored movies, updated once a chunk is committed. A set rather than a bitmap, since the ids come from
+     * the record keys and may be arbitrarily large.
+     */
+    private Set<Integer> storedIds = new HashSet<>();
+
+    /**
+     * Constructs a MovieBulkLoadService with the provided dependencies.
+     *
+     * @param recordDecoder         The decoder of the movie records.
+     * @param movieRepository       The repository the stored ids are read from.
+     * @param movieBulkRepository   The repository inserting the new movies through the bulk path of the database.
+     * @param movieUpsertRepository The repository upserting movies stored by earlier chunks.
+     * @param movieIndexService     The searches of the movie catalog, told once a chunk is committed.
+     * @param movieCache            The cache of the stored movies, invalidated once a chunk is committed.
+     * @param movieIdAllocator      The allocator of ids for new movies whose id is taken.
+     * @param pipelineMetrics       The metrics of the decoding of every record and the database write of a chunk.
+     */
+    public MovieBulkLoadService(RecordDecoder recordDecoder, MovieRepository movieRepository,
+                                MovieBulkRepository movieBulkRepository, MovieUpsertRepository movieUpsertRepository,
+                                MovieIndexService movieIndexService, MovieCache movieCache,
+                                MovieIdAllocator movieIdAllocator, PipelineMetrics pipelineMetrics) {
+        this.recordDecoder = recordDecoder;
+        this.movieRepository = movieRepository;
+        this.movieBulkRepository = movieBulkRepository;
+        this.movieUpsertRepository = movieUpsertRepository;
+        this.movieIndexService = movieIndexService;
+        this.movieCache = movieCache;
+        this.movieIdAllocator = movieIdAllocator;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    /**
+     * Tells whether the movie table is empty.
+     *
+     * @return {@code true} if no movie is stored.
+     */
+    public boolean isCold() {
+        return movieRepository.findMaxId() == null;
+    }
+
+    /**
+     * Reads the ids of the stored movies, before the first chunk or after the table was written by other means.
+     */
+    public void loadStoredIds() {
+        storedIds = new HashSet<>(movieRepository.findAllIds());
+    }
+
+    /**
+     * Applies the NEW, UPDATE and DELETE messages of a chunk in one transaction.
+     *
+     * @param consumerRecords The Kafka ConsumerRecords of one chunk.
+     * @return The outcome of the chunk, including the records that were rejected and the searches left to answer.
+     */
+    @Transactional
+    public BatchResult loadChunk(List<ConsumerRecord<Integer, byte[]>> consumerRecords) {
+        List<Rejection> rejected = new ArrayList<>();
+        List<ConsumerRecord<Integer, byte[]>> searches = new ArrayList<>();
+        List<ConsumerRecord<Integer, byte[]>> applied = new ArrayList<>(consumerRecords.size());
+        ChunkIds ids = new ChunkIds(storedIds);
+        Map<Integer, Movie> inserts = new LinkedHashMap<>();
+        Map<Integer, Movie> rewrites = new LinkedHashMap<>();
+        Set<Integer> deletes = new LinkedHashSet<>();
+        for (ConsumerRecord<Integer, byte[]> consumerRecord : consumerRecords) {
+            pipelineMetrics.recordQueueTime(consumerRecord);
+            Movie movie;
+            long decodeStart = System.nanoTime();
+            try {
+                movie = recordDecoder.readMovie(consumerRecord.value());
+            } catch (IOException | IllegalArgumentException e) {
+                rejected.add(new Rejection(consumerRecord, e));
+                continue;
+            }
+            pipelineMetrics.recordDeserialize(consumerRecord.topic(), System.nanoTime() - decodeStart);
+            movie.setId(consumerRecord.key());
+            pipelineMetrics.countConsumed(consumerRecord.topic(), movie.getMovieType() != null
+                    ? movie.getMovieType().name() : PipelineMetrics.NO_TYPE);
+            if (movie.getMovieType() == null) {
+                rejected.add(new Rejection(consumerRecord, new IllegalArgumentException("Invalid Movie Type")));
+            } else if (movie.getMovieType() == MovieType.GET) {
+                searches.add(consumerRecord);
+            } else if (movie.getId() == null) {
+                rejected.add(new Rejection(consumerRecord, new IllegalArgumentException("Movie Id is missing")));
+            } else if (movie.getMovieType() == MovieType.NEW) {
+                if (ids.contains(movie.getId())) {
+                    int requestedId = movie.getId();
+                    int id = movieIdAllocator.nextId();
+                    while (ids.contains(id)) {
+                        id = movieIdAllocator.nextId();
+                    }
+                    movie.setId(id);
+                    log.info("Movie with ID {} already exists. Saving it with ID {}.", requestedId, id);
+                }
+                ids.add(movie.getId());
+                inserts.put(movie.getId(), movie);
+                applied.add(consumerRecord);
+            } else if (!ids.contains(movie.getId())) {
+                rejected.add(new Rejection(consumerRecord, new IllegalArgumentException(
+                        "No movie in the database was found. Please insert firstly a movie!")));
+            } else if (movie.getMovieType() == MovieType.UPDATE) {
+                Map<Integer, Movie> writes = inserts.containsKey(movie.getId()) ? inserts : rewrites;
+                Movie previous = writes.get(movie.getId());
+                if (previous != null) {
+                    MovieService.keepRatings(movie, previous);
+                }
+                writes.put(movie.getId(), movie);
+                applied.add(consumerRecord);
+            } else if (movie.getMovieType() == MovieType.DELETE) {
+                ids.remove(movie.getId());
+                if (inserts.remove(movie.getId()) == null) {
+                    rewrites.remove(movie.getId());
+                    deletes.add(movie.getId());
+                }
+                applied.add(consumerRecord);
+            } else {
+                rejected.add(new Rejection(consumerRecord, new IllegalArgumentException("Invalid Movie Type")));
+            }
+        }
+
+        long writeStart = System.nanoTime();
+        movieBulkRepository.deleteAllById(deletes);
+        movieBulkRepository.insertAll(inserts.values());
+        movieUpsertRepository.upsertAll(new ArrayList<>(rewrites.values()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.commit();
+                movieCache.invalidateAll(deletes);
+                movieCache.invalidateAll(inserts.keySet());
+                movieCache.invalidateAll(rewrites.keySet());
+                deletes.forEach(movieIndexService::removeMovie);
+                inserts.values().forEach(movieIndexService::indexMovie);
+                rewrites.values().forEach(movieIndexService::indexMovie);
+                if (!applied.isEmpty()) {
+                    pipelineMetrics.recordDbWrite(applied.get(0).topic(), System.nanoTime() - writeStart);
+                    applied.forEach(pipelineMetrics::recordEndToEnd);
+                }
+            }
+        });
+        log.info("Bulk-loaded a chunk of {} records: {} inserted, {} updated, {} deleted, {} rejected",
+                consumerRecords.size(), inserts.size(), rewrites.size(), deletes.size(), rejected.size());
+        return new BatchResult(inserts.size(), rewrites.size(), deletes.size(), rejected, searches);
+    }
+
+    /**
+     * The ids of the stored movies as changed by a chunk, recorded apart from the stored ids so that a chunk does
+     * not copy them, and applied to them once the chunk is committed.
+     */
+    private static final class ChunkIds {
+
+        private final Set<Integer> stored;
+
+        private final Set<Integer> added = new HashSet<>();
+
+        private final Set<Integer> removed = new HashSet<>();
+
+        ChunkIds(Set<Integer> stored) {
+            this.stored = stored;
+        }
+
+        boolean contains(int id) {
+            return added.contains(id) || !removed.contains(id) && stored.contains(id);
+        }
+
+        void add(int id) {
+            added.add(id);
+            removed.remove(id);
+        }
+
+        void remove(int id) {
+            added.remove(id);
+            removed.add(id);
+        }
+
+        void commit() {
+            stored.removeAll(removed);
+            stored.addAll(added);
+        }
+    }
+}
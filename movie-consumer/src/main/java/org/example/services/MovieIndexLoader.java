@@ -0,0 +1,76 @@
+package org.example.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.catalog.MovieCatalog;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the {@link MovieCatalog} from the movie table on startup when it is not replicated from the changelog, i.e.
+ * with {@code search.catalog.enabled=false}, so that searches are still answered from the in-memory indexes.
+ * <p>
+ * The {@link MovieIndexService} keeps the catalog current with the writes of this instance afterwards. Writes of other
+ * instances sharing the database are only found after a restart.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "search.catalog.enabled", havingValue = "false")
+@Slf4j
+public class MovieIndexLoader implements SmartLifecycle {
+
+    private final MovieCatalog movieCatalog;
+
+    private final MovieRepository movieRepository;
+
+    private final MovieIndexService movieIndexService;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a MovieIndexLoader.
+     *
+     * @param movieCatalog      The catalog to fill.
+     * @param movieRepository   The repository of the stored movies.
+     * @param movieIndexService The service answering searches from the catalog once it is filled.
+     */
+    public MovieIndexLoader(MovieCatalog movieCatalog, MovieRepository movieRepository,
+                            MovieIndexService movieIndexService) {
+        this.movieCatalog = movieCatalog;
+        this.movieRepository = movieRepository;
+        this.movieIndexService = movieIndexService;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        long start = System.nanoTime();
+        for (Movie movie : movieRepository.findAll()) {
+            movieCatalog.put(movie.getId(), movie.getTitle(), movie.getGenres());
+        }
+        movieIndexService.markLoaded();
+        log.info("Indexed {} movies in {} ms", movieCatalog.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs after the bulk load and before the listener containers, which start in
+     * {@link AbstractMessageListenerContainer#DEFAULT_PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 1;
+    }
+}
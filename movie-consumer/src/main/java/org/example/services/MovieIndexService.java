@@ -0,0 +1,173 @@
+package org.example.services;
+
+import org.example.catalog.MovieCatalog;
+import org.example.catalog.MovieCatalogReplicator;
+import org.example.catalog.MovieChange;
+import org.example.entities.Movie;
+import org.example.producers.MovieChangelogProducer;
+import org.example.producers.MovieChangelogReconciler;
+import org.example.repositories.MovieRepository;
+import org.example.search.GenreIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Service answering the title and genre searches of the movie catalog.
+ * <p>
+ * Searches are answered from the {@link MovieCatalog} replica, which the {@link MovieCatalogReplicator} fills from
+ * the changelog topic. Every consumer instance therefore searches the changes of all instances, not only the ones it
+ * wrote itself. The replica only returns movie ids; the movies themselves are loaded from the repository by primary
+ * key. Until the replica is ready, i.e. caught up with the changelog on startup and past a snapshot marker, searches
+ * run against the database instead, unranked and with a table scan for genre queries.
+ * </p>
+ * <p>
+ * The NEW, UPDATE and DELETE paths of {@link MovieService}, {@link MovieBatchService} and
+ * {@link MovieBulkLoadService} report every committed change here. The change is applied to the catalog at once, so
+ * that this instance finds its own writes without waiting for the changelog, and published to the changelog topic by
+ * the {@link MovieChangelogProducer}, from which the other instances apply it. Their changes are therefore only
+ * found once replicated. The {@link MovieChangelogReconciler} publishes the movies the changelog misses on startup.
+ * With {@code changelog.enabled=false} there is no replica: the {@link MovieIndexLoader} fills the catalog from the
+ * repository on startup, and from then on it only follows the writes of this instance.
+ * </p>
+ */
+@Service
+public class MovieIndexService {
+
+    private final MovieRepository movieRepository;
+
+    private final MovieChangelogProducer movieChangelogProducer;
+
+    private final MovieCatalog movieCatalog;
+
+    private volatile boolean loaded;
+
+    /**
+     * Constructs a MovieIndexService.
+     *
+     * @param movieRepository        The repository the movies are loaded from.
+     * @param movieChangelogProducer The producer publishing the committed changes to the changelog topic.
+     * @param movieCatalog           The replica of the changelog answering the searches.
+     */
+    public MovieIndexService(MovieRepository movieRepository, MovieChangelogProducer movieChangelogProducer,
+                             MovieCatalog movieCatalog) {
+        this.movieRepository = movieRepository;
+        this.movieChangelogProducer = movieChangelogProducer;
+        this.movieCatalog = movieCatalog;
+    }
+
+    /**
+     * Indexes a saved movie and publishes it to the changelog topic, from which the other replicas index it.
+     *
+     * @param movie The saved movie.
+     */
+    public void indexMovie(Movie movie) {
+        movieCatalog.put(movie.getId(), movie.getTitle(), movie.getGenres());
+        movieChangelogProducer.publishSaved(movie);
+    }
+
+    /**
+     * Removes a deleted movie from the index and publishes its deletion to the changelog topic, from which the other
+     * replicas remove it.
+     *
+     * @param movieId The id of the deleted movie.
+     */
+    public void removeMovie(int movieId) {
+        movieCatalog.remove(movieId);
+        movieChangelogProducer.publishDeleted(movieId);
+    }
+
+    /**
+     * Marks the catalog as filled from the repository without a replica, so that it answers the searches.
+     */
+    void markLoaded() {
+        loaded = true;
+    }
+
+    /**
+     * Finds the movies whose title contains the query, ignoring case.
+     *
+     * @param title The substring to search for.
+     * @return The matching movies, best matches first if the replica answers and ranks them.
+     */
+    public List<Movie> searchTitle(String title) {
+        if (title == null) {
+            return List.of();
+        }
+        if (searchesCatalog()) {
+            return findAllInOrder(movieCatalog.searchTitle(title));
+        }
+        return movieRepository.findByTitleContainingIgnoreCase(title.strip());
+    }
+
+    /**
+     * Finds the movies matching a genre query such as {@code Comedy,Romance,!Drama}.
+     *
+     * @param genres The genre query, see {@link GenreIndex}.
+     * @return The matching movies in ascending order of id.
+     */
+    public List<Movie> searchGenres(String genres) {
+        if (genres == null) {
+            return List.of();
+        }
+        if (searchesCatalog()) {
+            return findAllInOrder(movieCatalog.searchGenres(genres));
+        }
+        String requiredGenre = requiredGenre(genres);
+        Iterable<Movie> candidates = requiredGenre != null
+                ? movieRepository.findByGenresContainingIgnoreCase(requiredGenre)
+                : movieRepository.findAll();
+        List<Movie> found = new ArrayList<>();
+        for (Movie movie : candidates) {
+            if (GenreIndex.matches(genres, movie.getGenres())) {
+                found.add(movie);
+            }
+        }
+        found.sort(Comparator.comparing(Movie::getId));
+        return found;
+    }
+
+    private boolean searchesCatalog() {
+        return loaded || movieCatalog.isReady();
+    }
+
+    /**
+     * Picks a genre every match must have, so that the database only returns the movies containing it.
+     *
+     * @return The genre of the first clause without alternatives or negation, or {@code null} if there is none.
+     */
+    private static String requiredGenre(String query) {
+        for (String clause : query.split(",")) {
+            String genre = clause.strip();
+            if (!genre.isEmpty() && !genre.startsWith("!") && !genre.contains("|")) {
+                return genre.toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the found movies, keeping their order.
+     *
+     * @param found The movies found in the replica.
+     * @return The movies that are still stored, in the order they were found.
+     */
+    private List<Movie> findAllInOrder(List<MovieChange> found) {
+        List<Integer> ids = found.stream().map(MovieChange::Id).toList();
+        Map<Integer, Movie> movies = new HashMap<>();
+        movieRepository.findAllById(ids).forEach(movie -> movies.put(movie.getId(), movie));
+        List<Movie> ordered = new ArrayList<>(movies.size());
+        for (Integer id : ids) {
+            Movie movie = movies.get(id);
+            if (movie != null) {
+                ordered.add(movie);
+            }
+        }
+        return ordered;
+    }
+}
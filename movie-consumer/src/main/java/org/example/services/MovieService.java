@@ -1,14 +1,21 @@
 package org.example.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.example.cache.MovieCache;
 import org.example.entities.Movie;
-import org.example.repositories.MovieRepository;
+import org.example.ids.MovieIdAllocator;
+import org.example.metrics.PipelineMetrics;
+import org.example.repositories.MovieUpsertRepository;
 import org.example.producers.MovieGetResponseProducer;
+import org.example.serde.RecordDecoder;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,9 +37,9 @@ public class MovieService {
     final int searchMovieByGenres = -2;
 
     /**
-     * Object mapper for JSON serialization and deserialization.
+     * Decoder of the movie records in JSON or binary format.
      */
-    ObjectMapper objectMapper;
+    private final RecordDecoder recordDecoder;
 
     /**
      * Producer for sending movie response messages.
@@ -40,56 +47,94 @@ public class MovieService {
     private MovieGetResponseProducer movieGetResponseProducer;
 
     /**
-     * Repository for interacting with the movie data storage.
+     * Repository writing NEW, UPDATE and DELETE messages with one native statement each.
      */
-    private MovieRepository movieRepository;
+    private final MovieUpsertRepository movieUpsertRepository;
+
+    /**
+     * Searches of the movie catalog, and the changelog of its committed changes.
+     */
+    private final MovieIndexService movieIndexService;
+
+    /**
+     * Cache of the stored movies in front of the repository lookups.
+     */
+    private final MovieCache movieCache;
+
+    /**
+     * Allocator of the ids of new movies whose requested id is taken.
+     */
+    private final MovieIdAllocator movieIdAllocator;
+
+    /**
+     * Metrics of the decoding and database write of every record.
+     */
+    private final PipelineMetrics pipelineMetrics;
 
     /**
      * Constructs a MovieService with the provided dependencies.
      *
-     * @param objectMapper          The object mapper for JSON serialization and deserialization.
+     * @param recordDecoder         The decoder of the movie records.
      * @param movieGetResponseProducer The producer for sending movie response messages.
-     * @param movieRepository       The repository for interacting with the movie data storage.
+     * @param movieUpsertRepository The repository writing and deleting movies without loading them first.
+     * @param movieIndexService     The searches of the movie catalog, told about every committed change.
+     * @param movieCache            The cache of the stored movies.
+     * @param movieIdAllocator      The allocator of ids for new movies whose id is taken.
+     * @param pipelineMetrics       The metrics of the decoding and database write of every record.
      */
-    public MovieService(ObjectMapper objectMapper, MovieGetResponseProducer movieGetResponseProducer, MovieRepository movieRepository) {
-        this.objectMapper = objectMapper;
+    public MovieService(RecordDecoder recordDecoder, MovieGetResponseProducer movieGetResponseProducer,
+                        MovieUpsertRepository movieUpsertRepository, MovieIndexService movieIndexService,
+                        MovieCache movieCache, MovieIdAllocator movieIdAllocator, PipelineMetrics pipelineMetrics) {
+        this.recordDecoder = recordDecoder;
         this.movieGetResponseProducer = movieGetResponseProducer;
-        this.movieRepository = movieRepository;
+        this.movieUpsertRepository = movieUpsertRepository;
+        this.movieIndexService = movieIndexService;
+        this.movieCache = movieCache;
+        this.movieIdAllocator = movieIdAllocator;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     /**
      * Processes a movie received from Kafka, handling different movie types.
      *
      * @param consumerRecord The Kafka ConsumerRecord containing movie data.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @throws IOException If the record cannot be decoded.
      */
-    public void processMovie(ConsumerRecord<Integer, String> consumerRecord) throws JsonProcessingException {
-        // Deserialize the JSON string into a Movie object
-        Movie movie = objectMapper.readValue(consumerRecord.value(), Movie.class);
+    public void processMovie(ConsumerRecord<Integer, byte[]> consumerRecord) throws IOException {
+        pipelineMetrics.recordQueueTime(consumerRecord);
+        // Decode the JSON or binary record into a Movie object
+        long start = System.nanoTime();
+        Movie movie = recordDecoder.readMovie(consumerRecord.value());
+        pipelineMetrics.recordDeserialize(consumerRecord.topic(), System.nanoTime() - start);
         // Set the ID from Kafka record key
         movie.setId(consumerRecord.key());
         log.debug("Received Movie: {} ", movie);
+        pipelineMetrics.countConsumed(consumerRecord.topic(), movie.getMovieType() != null
+                ? movie.getMovieType().name() : PipelineMetrics.NO_TYPE);
 
         // Handle different Movie types
+        start = System.nanoTime();
         switch (movie.getMovieType()) {
             case NEW:
                 // Save the movie if the ID does not exist
                 saveIfIdNotExists(movie);
+                recordWritten(consumerRecord, start);
                 break;
             case UPDATE:
-                // Validate the movie and update it
-                validate(movie);
+                // Update the movie if it exists, keeping its rating aggregate
                 log.info("Updating the movie: {} ", movie);
-                save(movie);
+                update(movie);
+                recordWritten(consumerRecord, start);
                 break;
             case DELETE:
                 // Validate the movie and delete it
                 validate(movie);
                 delete(movie);
+                recordWritten(consumerRecord, start);
                 break;
             case GET:
                 // Handle the GET type with different search criteria
-                handleGetRequest(movie);
+                handleGetRequest(movie, correlationId(consumerRecord));
                 break;
             default:
                 log.error("Invalid Movie Type");
@@ -97,47 +142,92 @@ public class MovieService {
     }
 
     /**
-     * Handles the GET type of Movie, performing searches based on title or genres.
+     * Records the database write of a record and its end-to-end latency.
+     *
+     * @param consumerRecord The written record.
+     * @param start          The {@link System#nanoTime()} the write started at.
+     */
+    private void recordWritten(ConsumerRecord<Integer, byte[]> consumerRecord, long start) {
+        pipelineMetrics.recordDbWrite(consumerRecord.topic(), System.nanoTime() - start);
+        pipelineMetrics.recordEndToEnd(consumerRecord);
+    }
+
+    /**
+     * Handles the GET type of Movie, performing searches based on title or genres and sending the found movies to
+     * the response topic. Searches carrying a correlation id are answered with an end-of-results marker.
      *
-     * @param movie The Movie object with GET type.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @param movie         The Movie object with GET type.
+     * @param correlationId The correlation id of the search, or {@code null} if the request has none.
      */
-    private void handleGetRequest(Movie movie) throws JsonProcessingException {
+    private void handleGetRequest(Movie movie, String correlationId) {
+        List<Movie> found;
         if (movie.getId() == searchMovieByTitle) {
-            // Search movies by title and send found entities to response topic
-            handleSearchByTitle(movie);
+            found = handleSearchByTitle(movie);
         } else if (movie.getId() == searchMovieByGenres) {
-            // Search movies by genres and send found entities to response topic
-            handleSearchByGenres(movie);
+            found = handleSearchByGenres(movie);
+        } else {
+            found = List.of();
         }
+        movieGetResponseProducer.sendResults(found, correlationId);
     }
 
     /**
-     * Searches movies by title and sends found entities to the response topic.
+     * Searches movies by title.
      *
      * @param movie The Movie object with GET type and search by title.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @return The movies found, best matches first.
      */
-    private void handleSearchByTitle(Movie movie) throws JsonProcessingException {
-        for (Movie foundMovieFromTitle : movieRepository.findByTitleContainingIgnoreCase(movie.getTitle())) {
-            movieGetResponseProducer.sendFoundEntity(foundMovieFromTitle);
-        }
+    private List<Movie> handleSearchByTitle(Movie movie) {
+        return movieIndexService.searchTitle(movie.getTitle());
     }
 
     /**
-     * Searches movies by genres and sends found entities to the response topic.
+     * Searches movies by genres.
      *
      * @param movie The Movie object with GET type and search by genres.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @return The movies found.
+     */
+    private List<Movie> handleSearchByGenres(Movie movie) {
+        return movieIndexService.searchGenres(movie.getGenres());
+    }
+
+    /**
+     * Reads the correlation id of a search request.
+     *
+     * @param consumerRecord The Kafka ConsumerRecord containing the request.
+     * @return The correlation id, or {@code null} if the request has none.
+     */
+    private String correlationId(ConsumerRecord<Integer, byte[]> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Copies the rating aggregate of the stored movie to an update, which never carries one itself.
+     *
+     * @param movie  The updated movie.
+     * @param stored The movie as stored in the database.
      */
-    private void handleSearchByGenres(Movie movie) throws JsonProcessingException {
-        for (Movie foundMovieFromGenres : movieRepository.findByGenresContainingIgnoreCase(movie.getGenres())) {
-            movieGetResponseProducer.sendFoundEntity(foundMovieFromGenres);
+    static void keepRatings(Movie movie, Movie stored) {
+        if (movie.getRatingCount() == null) {
+            movie.setAverageRating(stored.getAverageRating());
+            movie.setRatingCount(stored.getRatingCount());
         }
     }
 
+    /**
+     * Deletes a movie with a single statement, after its existence was checked through the cache.
+     *
+     * @param movie The deleted movie.
+     * @throws IllegalArgumentException if the movie was deleted meanwhile.
+     */
     private void delete(Movie movie) {
-        movieRepository.delete(movie);
+        if (!movieUpsertRepository.delete(movie.getId())) {
+            movieCache.invalidate(movie.getId());
+            throw new IllegalArgumentException("No movie in the database was found. Please insert firstly a movie!");
+        }
+        movieCache.invalidate(movie.getId());
+        movieIndexService.removeMovie(movie.getId());
         log.info("successfully deleted the movie {} ", movie);
     }
 
@@ -152,7 +242,7 @@ public class MovieService {
             throw new IllegalArgumentException("Movie Id is missing");
         }
 
-        Optional<Movie> movieOptional = movieRepository.findById(movie.getId());
+        Optional<Movie> movieOptional = movieCache.findById(movie.getId());
         if (!movieOptional.isPresent()) {
             throw new IllegalArgumentException("No movie in the database was found. Please insert firstly a movie!");
         }
@@ -160,31 +250,41 @@ public class MovieService {
     }
 
     /**
-     * Saves a movie to the repository.
+     * Updates an existing movie with a single statement, without loading it first.
      *
-     * @param movie The movie to be saved.
+     * @param movie The updated movie.
+     * @throws IllegalArgumentException if the movie.Id is missing or not found.
      */
-    private void save(Movie movie) {
-        movieRepository.save(movie);
+    private void update(Movie movie) {
+        if (movie.getId() == null) {
+            throw new IllegalArgumentException("Movie Id is missing");
+        }
+        if (!movieUpsertRepository.update(movie)) {
+            throw new IllegalArgumentException("No movie in the database was found. Please insert firstly a movie!");
+        }
+        movieCache.replaceIfCached(movie);
+        movieIndexService.indexMovie(movie);
 
         log.info("successfully persisted the movie {} ", movie);
     }
 
     /**
-     * Save the movie only if the ID does not already exist.
+     * Saves the movie under its ID, or under a newly allocated ID if its ID already exists. The insert itself tells
+     * whether the ID is taken, so no lookup precedes it.
      *
      * @param movie The movie to be saved.
      */
     private void saveIfIdNotExists(Movie movie) {
-        Optional<Movie> existingMovie = movieRepository.findById(movie.getId());
-        if (existingMovie.isPresent()) {
-            log.info("Movie with ID {} already exists. Skipping save.", movie.getId());
-            log.debug("movieRepository.count {}", movieRepository.count());
-
-            movie.setId((int) (movieRepository.count() + 1));
-            movieRepository.save(movie);
-        } else {
-            save(movie);
+        int requestedId = movie.getId();
+        while (!movieUpsertRepository.insertIfAbsent(movie)) {
+            movie.setId(movieIdAllocator.nextId());
+        }
+        if (movie.getId() != requestedId) {
+            log.info("Movie with ID {} already exists. Saving it with ID {}.", requestedId, movie.getId());
         }
+        movieCache.put(movie);
+        movieIndexService.indexMovie(movie);
+
+        log.info("successfully persisted the movie {} ", movie);
     }
 }
@@ -1,14 +1,373 @@
 package org.example.services;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.aggregation.RatingAccumulator;
+import org.example.cache.MovieCache;
+import org.example.metrics.PipelineMetrics;
+import org.example.entities.Rating;
+import org.example.repositories.MovieRepository;
+import org.example.repositories.RatingRepository;
+import org.example.serde.RecordDecoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for aggregating ratings received from Kafka into the average rating of every movie.
+ * <p>
+ * Ratings only update an in-memory running count and sum per movie. The averages of the movies that changed are
+ * written to the movie table periodically as one JDBC batch, instead of one write per rating. The rating count is
+ * stored next to the average, so that the aggregates are restored without rescanning the ratings.
+ * </p>
+ * <p>
+ * The averages are written as absolute values, which is only correct while a single instance aggregates the ratings
+ * of a movie. The producer therefore keys the ratings by movie id, so the ratings of a movie are consumed by the one
+ * instance owning its partition. When partitions are assigned, e.g. after a rebalance moved them from another
+ * instance, the aggregates are restored from the database again, since the previous owner flushed them before its
+ * partitions were revoked. Aggregates with unwritten ratings of this instance are kept.
+ * </p>
+ * <p>
+ * The offset of a rating is only acknowledged once a flush wrote it, and the ratings listener commits acknowledged
+ * offsets only, so ratings consumed since the last flush are redelivered after a crash instead of being lost. Ratings
+ * are flushed before their partitions are revoked. Delivery is at least once: a rating redelivered after a crash
+ * between a write and the commit of its offset is counted twice. While flushes fail, at most
+ * {@code ratings.aggregation.max-pending} ratings are held; the listener then waits for a flush for up to
+ * {@code ratings.aggregation.max-pending-wait} and fails the rating, which sends it to the retry topics.
+ * </p>
+ * <p>
+ * The average of a movie that does not exist yet is retried on the next {@code ratings.aggregation.max-missing-flushes}
+ * flushes. Then it is only kept in memory, and written with the next rating of the movie.
+ * </p>
+ * <p>
+ * Unless {@code ratings.store.enabled} is false, every rating is also buffered and appended to the time-partitioned
+ * rating table by the same flush, in JDBC batches of the flush batch size. A rating without time stamp is stored with
+ * the time stamp of its record. Ratings are also added by time stamp to the windows of the {@link TrendingService}.
+ * </p>
+ * <p>
+ * The end-to-end latency of the ratings is recorded per flush, as the age of the oldest rating written by it.
+ * </p>
+ */
+@Service
+@Slf4j
 public class RatingService {
-    /*
-    private double averageRating;
-    public void calculateAverageRating(){
-       while(true){
-            averageRating +=
+
+    private static final String UPDATE_AVERAGE = "update movie set average_rating = ?, rating_count = ? where id = ?";
+
+    private final RecordDecoder recordDecoder;
+
+    private final MovieRepository movieRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MovieCache movieCache;
+
+    private final int flushBatchSize;
+
+    private final RatingAccumulator accumulator;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    private final String ratingsTopic;
+
+    private final TrendingService trendingService;
+
+    private final RatingRepository ratingRepository;
+
+    private final int maxPending;
+
+    private final Duration maxPendingWait;
+
+    private final int maxMissingFlushes;
+
+    /**
+     * Serializes the flushes, so that offsets are acknowledged in the order the ratings were consumed.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Ratings received since the last flush, to be appended to the rating table.
+     */
+    private List<Rating> pendingRatings = new ArrayList<>();
+
+    /**
+     * Acknowledgments of the ratings received since the last flush, in the order the ratings were consumed.
+     */
+    private List<Acknowledgment> pendingAcks = new ArrayList<>();
+
+    /**
+     * Number of ratings consumed but not written by a flush yet.
+     */
+    private int unflushed;
+
+    /**
+     * Number of consecutive flushes that found no row for a movie, by movie id.
+     */
+    private final Map<Integer, Integer> missingFlushes = new HashMap<>();
+
+    /**
+     * Creation time of the oldest rating added since the last flush, in epoch milliseconds, or 0 if unknown.
+     */
+    private long oldestPending;
+
+    /**
+     * Constructs a RatingService with the provided dependencies.
+     *
+     * @param recordDecoder    The decoder of the rating records.
+     * @param movieRepository  The repository the stored aggregates are restored from.
+     * @param jdbcTemplate     The template the changed averages are written with.
+     * @param movieCache       The cache of the movies whose averages are written.
+     * @param expectedMovies   The number of movies the aggregate table is sized for.
+     * @param flushBatchSize   The number of movies or ratings written per JDBC batch.
+     * @param pipelineMetrics  The metrics of the decoding of every rating and the database write of every flush.
+     * @param ratingsTopic     The topic the ratings are consumed from.
+     * @param trendingService  The service ranking the movies of recent rating windows.
+     * @param ratingRepository The repository the ratings are appended to, absent if the rating store is disabled.
+     * @param maxPending        The number of unwritten ratings after which the listener waits for a flush.
+     * @param maxPendingWait    How long the listener waits for a flush before failing a rating.
+     * @param maxMissingFlushes The number of flushes the average of a movie that does not exist yet is retried on.
+     */
+    public RatingService(RecordDecoder recordDecoder, MovieRepository movieRepository, JdbcTemplate jdbcTemplate,
+                         MovieCache movieCache,
+                         @Value("${ratings.aggregation.expected-movies:100000}") int expectedMovies,
+                         @Value("${ratings.aggregation.flush-batch-size:1000}") int flushBatchSize,
+                         PipelineMetrics pipelineMetrics,
+                         @Value("${spring.kafka.topics.ratings:ratings}") String ratingsTopic,
+                         TrendingService trendingService,
+                         Optional<RatingRepository> ratingRepository,
+                         @Value("${ratings.aggregation.max-pending:100000}") int maxPending,
+                         @Value("${ratings.aggregation.max-pending-wait:30s}") Duration maxPendingWait,
+                         @Value("${ratings.aggregation.max-missing-flushes:10}") int maxMissingFlushes) {
+        this.recordDecoder = recordDecoder;
+        this.movieRepository = movieRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieCache = movieCache;
+        this.flushBatchSize = flushBatchSize;
+        this.accumulator = new RatingAccumulator(expectedMovies);
+        this.pipelineMetrics = pipelineMetrics;
+        this.ratingsTopic = ratingsTopic;
+        this.trendingService = trendingService;
+        this.ratingRepository = ratingRepository.orElse(null);
+        this.maxPending = maxPending;
+        this.maxPendingWait = maxPendingWait;
+        this.maxMissingFlushes = maxMissingFlushes;
+    }
+
+    /**
+     * Restores the aggregates stored with the movies, on startup and whenever rating partitions are assigned. The
+     * aggregates of movies with ratings not written yet are kept, since the stored values lack those ratings.
+     */
+    @PostConstruct
+    public void restore() {
+        List<Object[]> stored = movieRepository.findRatingAggregates();
+        int restored = 0;
+        synchronized (this) {
+            for (Object[] row : stored) {
+                int movieId = ((Number) row[0]).intValue();
+                if (accumulator.isChanged(movieId)) {
+                    continue;
+                }
+                long count = ((Number) row[1]).longValue();
+                double average = row[2] != null ? ((Number) row[2]).doubleValue() : 0;
+                accumulator.seed(movieId, count, average * count);
+                restored++;
+            }
         }
+        log.info("Restored the rating aggregates of {} movies", restored);
     }
-*/
 
+    /**
+     * Adds a rating received from Kafka to the aggregate of its movie.
+     *
+     * @param consumerRecord The Kafka ConsumerRecord containing rating data.
+     * @param acknowledgment The acknowledgment of the record, called once a flush wrote the rating.
+     * @throws IOException              If the record cannot be decoded.
+     * @throws IllegalArgumentException If the movie id or the rating is missing.
+     * @throws IllegalStateException    If too many ratings are unwritten and no flush succeeded in time.
+     */
+    public void processRating(ConsumerRecord<Integer, byte[]> consumerRecord, Acknowledgment acknowledgment)
+            throws IOException {
+        pipelineMetrics.recordQueueTime(consumerRecord);
+        long start = System.nanoTime();
+        Rating rating = recordDecoder.readRating(consumerRecord.value());
+        pipelineMetrics.recordDeserialize(consumerRecord.topic(), System.nanoTime() - start);
+        if (rating.getMovie() == null || rating.getRating() == null) {
+            throw new IllegalArgumentException("Invalid rating: " + rating);
+        }
+        pipelineMetrics.countConsumed(consumerRecord.topic(), PipelineMetrics.NO_TYPE);
+        long createdAt = PipelineMetrics.createdAt(consumerRecord);
+        if (rating.getTimeStamp() == null) {
+            rating.setTimeStamp((int) (consumerRecord.timestamp() / 1000));
+        }
+        synchronized (this) {
+            awaitCapacity();
+            accumulator.add(rating.getMovie().getId(), rating.getRating());
+            if (ratingRepository != null) {
+                pendingRatings.add(rating);
+            }
+            pendingAcks.add(acknowledgment);
+            unflushed++;
+            if (createdAt > 0 && (oldestPending == 0 || createdAt < oldestPending)) {
+                oldestPending = createdAt;
+            }
+        }
+        trendingService.add(rating.getMovie().getId(), rating.getRating(), rating.getTimeStamp());
+    }
+
+    /**
+     * Gets the current aggregate of a movie, including ratings not written to the database yet.
+     *
+     * @param movieId The id of the movie.
+     * @return The aggregate of the movie.
+     */
+    public synchronized RatingAccumulator.Aggregate getAggregate(int movieId) {
+        return accumulator.get(movieId);
+    }
+
+    /**
+     * Appends the ratings received since the last flush to the rating table, writes the averages changed since then
+     * to the movie table and acknowledges the offsets of the ratings once both succeeded. Ratings and averages that
+     * cannot be written are retried on the next flush, with their offsets unacknowledged.
+     */
+    @Scheduled(fixedDelayString = "${ratings.aggregation.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<RatingAccumulator.Aggregate> changed;
+            List<Rating> ratings;
+            List<Acknowledgment> acknowledgments;
+            long oldest;
+            synchronized (this) {
+                changed = accumulator.drainChanged();
+                ratings = pendingRatings;
+                pendingRatings = new ArrayList<>();
+                acknowledgments = pendingAcks;
+                pendingAcks = new ArrayList<>();
+                oldest = oldestPending;
+                oldestPending = 0;
+            }
+            boolean appended = ratings.isEmpty() || appendRatings(ratings);
+            boolean written = changed.isEmpty() || writeAverages(changed, oldest);
+            synchronized (this) {
+                if (!appended) {
+                    pendingRatings.addAll(0, ratings);
+                }
+                if (!written) {
+                    changed.forEach(aggregate -> accumulator.markChanged(aggregate.movieId()));
+                }
+                if (!appended || !written) {
+                    pendingAcks.addAll(0, acknowledgments);
+                    return;
+                }
+                unflushed -= acknowledgments.size();
+                notifyAll();
+            }
+            acknowledgments.forEach(Acknowledgment::acknowledge);
+        }
+    }
+
+    /**
+     * Writes the pending averages before shutting down.
+     */
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * Waits until a flush made room for another rating, while the monitor of this service is held.
+     */
+    private void awaitCapacity() {
+        long deadline = System.nanoTime() + maxPendingWait.toNanos();
+        while (unflushed >= maxPending) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Could not flush the " + unflushed + " pending ratings within "
+                        + maxPendingWait);
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a flush of the pending ratings", e);
+            }
+        }
+    }
+
+    private boolean appendRatings(List<Rating> ratings) {
+        try {
+            ratingRepository.appendAll(ratings, flushBatchSize);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Could not append {} ratings: {}", ratings.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes changed averages, retrying those of movies that do not exist yet on the next flushes.
+     */
+    private boolean writeAverages(List<RatingAccumulator.Aggregate> changed, long oldest) {
+        long start = System.nanoTime();
+        int[][] updated;
+        try {
+            updated = jdbcTemplate.batchUpdate(UPDATE_AVERAGE, changed, flushBatchSize, (ps, aggregate) -> {
+                ps.setDouble(1, aggregate.average());
+                ps.setLong(2, aggregate.count());
+                ps.setInt(3, aggregate.movieId());
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not write the average ratings of {} movies: {}", changed.size(), e.getMessage());
+            return false;
+        }
+        pipelineMetrics.recordDbWrite(ratingsTopic, System.nanoTime() - start);
+        pipelineMetrics.recordEndToEnd(ratingsTopic, oldest);
+        int missing = 0;
+        int dropped = 0;
+        int index = 0;
+        List<Integer> written = new ArrayList<>(changed.size());
+        synchronized (this) {
+            for (int[] batch : updated) {
+                for (int rows : batch) {
+                    int movieId = changed.get(index).movieId();
+                    if (rows == 0) {
+                        missing++;
+                        if (missingFlushes.merge(movieId, 1, Integer::sum) < maxMissingFlushes) {
+                            accumulator.markChanged(movieId);
+                        } else {
+                            missingFlushes.remove(movieId);
+                            dropped++;
+                        }
+                    } else {
+                        if (!missingFlushes.isEmpty()) {
+                            missingFlushes.remove(movieId);
+                        }
+                        written.add(movieId);
+                    }
+                    index++;
+                }
+            }
+        }
+        movieCache.invalidateAll(written);
+        if (missing < changed.size()) {
+            log.info("Flushed the average ratings of {} movies, {} movies not found yet", changed.size() - missing, missing);
+        }
+        if (dropped > 0) {
+            log.warn("Stopped retrying the average ratings of {} movies not found in {} flushes", dropped,
+                    maxMissingFlushes);
+        }
+        return true;
+    }
 }
@@ -0,0 +1,151 @@
+package org.example.services;
+
+import org.example.aggregation.RatingWindows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service ranking the most rated and the top rated movies of recent time windows of the consumed ratings.
+ * <p>
+ * Every rating is added by its time stamp to a tumbling window series ({@code trending.tumbling.size}, e.g. "most
+ * rated this week") and a hopping window series ({@code trending.hopping.size} advancing by
+ * {@code trending.hopping.advance}, e.g. "top rated in the last 7 days"). Both keep their aggregates in memory for
+ * {@code trending.retention} after a window ended, so rankings are answered without touching the database. The
+ * aggregates start empty on startup and fill up with the ratings consumed from then on.
+ * </p>
+ * <p>
+ * The windows only see the ratings of the partitions this instance consumes, so rankings are only complete on a
+ * single consumer instance. The service tracks the ratings partitions assigned to this instance and is
+ * {@link #isComplete() complete} only while it owns all of them; with several instances in the group, none of them
+ * answers rankings.
+ * </p>
+ */
+@Service
+public class TrendingService {
+
+    /**
+     * The window series a ranking is taken from.
+     */
+    public enum Window {
+        /**
+         * Adjacent windows of {@code trending.tumbling.size}.
+         */
+        TUMBLING,
+        /**
+         * Overlapping windows of {@code trending.hopping.size}, starting every {@code trending.hopping.advance}.
+         */
+        HOPPING
+    }
+
+    /**
+     * What movies are ranked by.
+     */
+    public enum Order {
+        /**
+         * The number of ratings in the window.
+         */
+        COUNT,
+        /**
+         * The average rating in the window, of the movies with at least {@code trending.min-ratings} ratings.
+         */
+        AVERAGE
+    }
+
+    private final RatingWindows tumbling;
+
+    private final RatingWindows hopping;
+
+    private final int topN;
+
+    private final long minRatings;
+
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+
+    private volatile int partitionCount;
+
+    /**
+     * Constructs a TrendingService.
+     *
+     * @param tumblingSize   The length of a tumbling window.
+     * @param hoppingSize    The length of a hopping window.
+     * @param hoppingAdvance The time between the starts of two hopping windows, a divisor of their length.
+     * @param retention      How long windows are kept after they ended.
+     * @param topN           The maximum length of a ranking.
+     * @param minRatings     The number of ratings in a window a movie needs to be ranked by its average.
+     */
+    public TrendingService(@Value("${trending.tumbling.size:7d}") Duration tumblingSize,
+                           @Value("${trending.hopping.size:7d}") Duration hoppingSize,
+                           @Value("${trending.hopping.advance:1d}") Duration hoppingAdvance,
+                           @Value("${trending.retention:28d}") Duration retention,
+                           @Value("${trending.top-n:100}") int topN,
+                           @Value("${trending.min-ratings:10}") long minRatings) {
+        this.tumbling = new RatingWindows(tumblingSize.toSeconds(), tumblingSize.toSeconds(), retention.toSeconds(),
+                topN);
+        this.hopping = new RatingWindows(hoppingSize.toSeconds(), hoppingAdvance.toSeconds(), retention.toSeconds(),
+                topN);
+        this.topN = topN;
+        this.minRatings = minRatings;
+    }
+
+    /**
+     * Adds a rating to the windows of its time stamp.
+     *
+     * @param movieId   The id of the rated movie.
+     * @param rating    The rating.
+     * @param timeStamp The time stamp of the rating in epoch seconds.
+     */
+    public synchronized void add(int movieId, double rating, long timeStamp) {
+        tumbling.add(movieId, rating, timeStamp);
+        hopping.add(movieId, rating, timeStamp);
+    }
+
+    /**
+     * Records ratings topic partitions assigned to this instance.
+     *
+     * @param partitions     The numbers of the assigned partitions.
+     * @param partitionCount The number of partitions of the ratings topic.
+     */
+    public void assigned(Collection<Integer> partitions, int partitionCount) {
+        ownedPartitions.addAll(partitions);
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Records ratings topic partitions revoked from or lost by this instance.
+     *
+     * @param partitions The numbers of the revoked partitions.
+     */
+    public void revoked(Collection<Integer> partitions) {
+        ownedPartitions.removeAll(partitions);
+    }
+
+    /**
+     * Tells whether this instance consumes every partition of the ratings topic, so its windows hold all consumed
+     * ratings.
+     *
+     * @return Whether the rankings of this instance are complete.
+     */
+    public boolean isComplete() {
+        return partitionCount > 0 && ownedPartitions.size() >= partitionCount;
+    }
+
+    /**
+     * Ranks the movies of the window of a series ending soonest after a time stamp.
+     *
+     * @param window The window series.
+     * @param order  What the movies are ranked by.
+     * @param at     The time stamp in epoch seconds, or {@code null} for the newest time stamp consumed.
+     * @param limit  The maximum number of movies, capped at {@code trending.top-n}.
+     * @return The ranking, best first.
+     */
+    public synchronized RatingWindows.Ranking rank(Window window, Order order, Long at, int limit) {
+        RatingWindows windows = window == Window.TUMBLING ? tumbling : hopping;
+        int capped = Math.min(limit, topN);
+        return order == Order.COUNT ? windows.mostRated(at, capped) : windows.topRated(at, capped, minRatings);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.streams;
+
+/**
+ * Rating aggregate of a movie as returned by the interactive-query endpoint.
+ *
+ * @param movieId The id of the movie.
+ * @param count   The number of ratings.
+ * @param average The average rating.
+ * @param min     The lowest rating.
+ * @param max     The highest rating.
+ */
+public record MovieRatingStats(int movieId, long count, double average, double min, double max) {
+
+    /**
+     * Creates the view of a stored aggregate.
+     *
+     * @param movieId The id of the movie.
+     * @param stats   The stored aggregate.
+     * @return The view of the aggregate.
+     */
+    public static MovieRatingStats of(int movieId, RatingStats stats) {
+        return new MovieRatingStats(movieId, stats.count(), stats.average(), stats.min(), stats.max());
+    }
+}
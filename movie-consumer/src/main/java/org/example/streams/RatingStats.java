@@ -0,0 +1,68 @@
+package org.example.streams;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Aggregate of the ratings of one movie as kept in the ratings state store.
+ *
+ * @param count The number of ratings.
+ * @param sum   The sum of the ratings.
+ * @param min   The lowest rating.
+ * @param max   The highest rating.
+ */
+public record RatingStats(long count, double sum, double min, double max) {
+
+    /**
+     * Size of the serialized form: a long followed by three doubles.
+     */
+    private static final int SERIALIZED_SIZE = Long.BYTES + 3 * Double.BYTES;
+
+    /**
+     * Aggregate of a movie without ratings.
+     */
+    public static final RatingStats EMPTY = new RatingStats(0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    /**
+     * Adds a rating to the aggregate.
+     *
+     * @param rating The rating.
+     * @return The new aggregate.
+     */
+    public RatingStats add(double rating) {
+        return new RatingStats(count + 1, sum + rating, Math.min(min, rating), Math.max(max, rating));
+    }
+
+    /**
+     * Gets the average rating.
+     *
+     * @return The average rating, or 0 if there are no ratings.
+     */
+    public double average() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Creates the serde storing the aggregate in a fixed-size binary form.
+     *
+     * @return The serde for rating aggregates.
+     */
+    public static Serde<RatingStats> serde() {
+        Serializer<RatingStats> serializer = (topic, stats) -> stats == null ? null
+                : ByteBuffer.allocate(SERIALIZED_SIZE)
+                .putLong(stats.count()).putDouble(stats.sum()).putDouble(stats.min()).putDouble(stats.max())
+                .array();
+        Deserializer<RatingStats> deserializer = (topic, bytes) -> {
+            if (bytes == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new RatingStats(buffer.getLong(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+        };
+        return Serdes.serdeFrom(serializer, deserializer);
+    }
+}
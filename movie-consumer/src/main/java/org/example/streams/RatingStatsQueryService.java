@@ -0,0 +1,85 @@
+package org.example.streams;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Service for interactive queries against the rating aggregates of the Kafka Streams topology.
+ * <p>
+ * Every instance only holds the aggregates of the partitions assigned to it. When the instances advertise their
+ * endpoint through {@code spring.kafka.streams.properties.application.server}, the service tells which instance
+ * hosts the aggregate of a movie, so that requests can be forwarded there.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "ratings.streams.enabled", havingValue = "true")
+public class RatingStatsQueryService {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    private final HostInfo self;
+
+    /**
+     * Constructs a RatingStatsQueryService.
+     *
+     * @param streamsBuilderFactoryBean The factory bean owning the running KafkaStreams instance.
+     * @param applicationServer         The {@code host:port} this instance advertises, or empty for a single instance.
+     */
+    public RatingStatsQueryService(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                                   @Value("${spring.kafka.streams.properties.application.server:}") String applicationServer) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+        this.self = applicationServer.isBlank() ? null : HostInfo.buildFromEndpoint(applicationServer);
+    }
+
+    /**
+     * Finds the instance hosting the aggregate of a movie, if it is not this one.
+     *
+     * @param movieId The id of the movie.
+     * @return The host of the aggregate, or empty if it is hosted locally or only one instance is running.
+     * @throws InvalidStateStoreException If the streams application is not running.
+     */
+    public Optional<HostInfo> findRemoteHost(int movieId) {
+        if (self == null) {
+            return Optional.empty();
+        }
+        KeyQueryMetadata metadata = kafkaStreams().queryMetadataForKey(RatingsTopology.STATS_STORE, movieId,
+                Serdes.Integer().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new InvalidStateStoreException("The rating aggregates are not available yet");
+        }
+        return self.equals(metadata.activeHost()) ? Optional.empty() : Optional.of(metadata.activeHost());
+    }
+
+    /**
+     * Finds the aggregate of a movie in the local state store.
+     *
+     * @param movieId The id of the movie.
+     * @return The aggregate, or empty if the movie has no ratings in the local partitions.
+     * @throws InvalidStateStoreException If the store is not queryable, e.g. while the application is rebalancing.
+     */
+    public Optional<MovieRatingStats> findLocal(int movieId) {
+        ReadOnlyKeyValueStore<Integer, RatingStats> store = kafkaStreams().store(StoreQueryParameters.fromNameAndType(
+                RatingsTopology.STATS_STORE, QueryableStoreTypes.<Integer, RatingStats>keyValueStore()));
+        return Optional.ofNullable(store.get(movieId)).map(stats -> MovieRatingStats.of(movieId, stats));
+    }
+
+    private KafkaStreams kafkaStreams() {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null) {
+            throw new InvalidStateStoreException("The streams application has not been started");
+        }
+        return kafkaStreams;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.example.entities.Rating;
+import org.example.serde.RecordDecoder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Kafka Streams topology aggregating the ratings topic per movie.
+ * <p>
+ * Ratings are re-keyed by their movie id, so that all ratings of a movie meet in the same partition of the
+ * repartition topic, and folded into a {@link RatingStats} per movie. The aggregates live in the persistent
+ * {@value #STATS_STORE} state store, which is backed by a changelog topic and can be queried interactively.
+ * Ratings are read in JSON or binary format; malformed ratings are dropped.
+ * </p>
+ */
+@Slf4j
+public final class RatingsTopology {
+
+    /**
+     * Name of the state store holding the rating aggregates by movie id.
+     */
+    public static final String STATS_STORE = "movie-rating-stats";
+
+    private static final RecordDecoder RECORD_DECODER = new RecordDecoder(new ObjectMapper());
+
+    private RatingsTopology() {
+    }
+
+    /**
+     * Adds the ratings aggregation to a streams builder.
+     *
+     * @param builder      The builder of the topology.
+     * @param ratingsTopic The topic the ratings are consumed from.
+     * @return The table of rating aggregates by movie id.
+     */
+    public static KTable<Integer, RatingStats> build(StreamsBuilder builder, String ratingsTopic) {
+        return builder.stream(ratingsTopic, Consumed.with(Serdes.Integer(), Serdes.ByteArray()))
+                .flatMap((key, value) -> {
+                    KeyValue<Integer, Double> rating = parse(value);
+                    return rating == null ? List.<KeyValue<Integer, Double>>of() : List.of(rating);
+                })
+                .groupByKey(Grouped.with("ratings-by-movie", Serdes.Integer(), Serdes.Double()))
+                .aggregate(() -> RatingStats.EMPTY,
+                        (movieId, rating, stats) -> stats.add(rating),
+                        Materialized.<Integer, RatingStats, KeyValueStore<Bytes, byte[]>>as(STATS_STORE)
+                                .withKeySerde(Serdes.Integer())
+                                .withValueSerde(RatingStats.serde()));
+    }
+
+    /**
+     * Parses a rating into its movie id and rating.
+     *
+     * @param value The JSON or binary rating.
+     * @return The movie id and rating, or {@code null} if the rating is malformed.
+     */
+    private static KeyValue<Integer, Double> parse(byte[] value) {
+        try {
+            Rating rating = RECORD_DECODER.readRating(value);
+            if (rating.getMovie() != null && rating.getRating() != null) {
+                return KeyValue.pair(rating.getMovie().getId(), rating.getRating());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Malformed rating: {}", e.getMessage());
+            return null;
+        }
+        log.debug("Malformed rating without movie id or rating");
+        return null;
+    }
+}
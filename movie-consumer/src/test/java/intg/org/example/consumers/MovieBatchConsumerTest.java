@@ -0,0 +1,143 @@
+package org.example.consumers;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.example.services.MovieBatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test class for the MovieBatchConsumer component.
+ * <p>
+ * Runs the movie consumer in batch listener mode against an embedded Kafka broker and verifies that a mix of NEW,
+ * UPDATE and DELETE messages ends up in the same state as processing them one at a time would.
+ * </p>
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "consumer.batch.enabled=true"})
+class MovieBatchConsumerTest {
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    KafkaTemplate<Integer, String> kafkaTemplate;
+
+    @Autowired
+    KafkaListenerEndpointRegistry endpointRegistry;
+
+    @Autowired
+    MovieBatchService movieBatchService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    /**
+     * Waits for the Kafka message listener containers to be assigned to partitions.
+     */
+    @BeforeEach
+    void setUp() {
+        for (MessageListenerContainer messageListenerContainer : endpointRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(messageListenerContainer, embeddedKafkaBroker.getPartitionsPerTopic());
+        }
+    }
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests publishing many movies followed by updates and deletes and verifies the persisted state.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the consumer.
+     */
+    @Test
+    void publishMoviesInBatches() throws InterruptedException {
+        // Given
+        int movies = 2000;
+        // When
+        for (int id = 1; id <= movies; id++) {
+            send(id, "NEW", "Movie " + id);
+        }
+        send(1, "UPDATE", "Updated");
+        send(2, "DELETE", "Movie 2");
+        send(movies + 1, "UPDATE", "Unknown");
+        // Then
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (movieRepository.count() != movies - 1 || !movieRepository.findById(2).isEmpty()
+                || !"Updated".equals(movieRepository.findById(1).map(Movie::getTitle).orElse(null))) {
+            assertTrue(System.currentTimeMillis() < deadline, "movies were not persisted in time");
+            Thread.sleep(100);
+        }
+        assertEquals("Movie " + movies, movieRepository.findById(movies).orElseThrow().getTitle());
+        assertFalse(movieRepository.findById(movies + 1).isPresent());
+    }
+
+    /**
+     * Tests that messages within one batch see each other: the second NEW movie with id 10 gets an allocated id, the
+     * NEW movie with id 11 is deleted again, and the delete frees the id for the next NEW movie.
+     */
+    @Test
+    void replaysBatchInOrder() {
+        // Given
+        List<ConsumerRecord<Integer, byte[]>> batch = new ArrayList<>();
+        batch.add(record(10, "NEW", "First"));
+        batch.add(record(10, "NEW", "Second"));
+        batch.add(record(11, "NEW", "Third"));
+        batch.add(record(11, "DELETE", "Third"));
+        batch.add(record(11, "NEW", "Fourth"));
+        batch.add(record(99, "UPDATE", "Missing"));
+        // When
+        MovieBatchService.BatchResult result = movieBatchService.processMovies(batch);
+        // Then
+        assertEquals(3, result.inserted());
+        assertEquals(1, result.rejected().size());
+        assertEquals("First", movieRepository.findById(10).orElseThrow().getTitle());
+        assertEquals("Fourth", movieRepository.findById(11).orElseThrow().getTitle());
+        List<Movie> second = movieRepository.findByTitleContainingIgnoreCase("Second");
+        assertEquals(1, second.size());
+        assertFalse(List.of(10, 11, 99).contains(second.get(0).getId()));
+        assertTrue(movieRepository.findByTitleContainingIgnoreCase("Third").isEmpty());
+        assertFalse(movieRepository.findById(99).isPresent());
+    }
+
+    private void send(int id, String movieType, String title) {
+        kafkaTemplate.send(new ProducerRecord<>("movies", id, json(movieType, title)));
+    }
+
+    private static ConsumerRecord<Integer, byte[]> record(int id, String movieType, String title) {
+        return new ConsumerRecord<>("movies", 0, 0, id, json(movieType, title).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String json(String movieType, String title) {
+        return "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}";
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.consumers;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.example.entities.Movie;
+import org.example.repositories.MovieBulkLoadLock;
+import org.example.repositories.MovieRepository;
+import org.example.services.DeadLetterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration test class for the MovieBulkLoader component.
+ * <p>
+ * Fills the movies topic of an embedded Kafka broker while the listeners are stopped, bulk-loads it in several chunks
+ * and verifies the persisted state, the committed offsets and that the listeners continue incrementally afterwards.
+ * </p>
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 2)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.properties.bootstrap.servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=false",
+        "consumer.bulk-load.chunk-size=50"})
+class MovieBulkLoaderTest {
+
+    private static final int MOVIES = 120;
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    KafkaTemplate<Integer, String> kafkaTemplate;
+
+    @Autowired
+    KafkaListenerEndpointRegistry endpointRegistry;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    MovieBulkLoader movieBulkLoader;
+
+    @Autowired
+    MovieBulkLoadLock movieBulkLoadLock;
+
+    @SpyBean
+    DeadLetterService deadLetterServiceSpy;
+
+    /**
+     * Stops the listeners and deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        endpointRegistry.stop();
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests bulk-loading NEW, UPDATE and DELETE messages spread over several chunks, followed by incremental
+     * processing of a later message.
+     *
+     * @throws Exception If an error occurs while waiting for the consumer.
+     */
+    @Test
+    void bulkLoadsAndContinuesIncrementally() throws Exception {
+        // Given
+        for (int id = 1; id <= MOVIES; id++) {
+            send(id, "NEW", "Movie " + id);
+        }
+        for (int id = 1; id <= MOVIES; id += 3) {
+            send(id, "UPDATE", "Updated " + id);
+        }
+        for (int id = 2; id <= 20; id += 2) {
+            send(id, "DELETE", "Movie " + id);
+        }
+        send(1, "NEW", "Duplicate");
+        send(500, "UPDATE", "Missing");
+        kafkaTemplate.flush();
+        int records = MOVIES + MOVIES / 3 + 10 + 2;
+        // When
+        Map<TopicPartition, Long> positions = movieBulkLoader.load();
+        // Then
+        assertEquals(records, positions.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(records, committedOffsets());
+        assertEquals(MOVIES - 10 + 1, movieRepository.count());
+        assertEquals("Updated 1", title(1));
+        assertEquals("Movie 3", title(3));
+        assertFalse(movieRepository.findById(20).isPresent());
+        assertEquals(1, movieRepository.findByTitle("Duplicate").size());
+        verify(deadLetterServiceSpy, times(1)).park(argThat(consumerRecord -> consumerRecord.key().equals(500)), any());
+        // When
+        endpointRegistry.start();
+        send(3, "UPDATE", "Incremental");
+        // Then
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (!"Incremental".equals(title(3))) {
+            assertTrue(System.currentTimeMillis() < deadline, "the listeners did not continue after the bulk load");
+            Thread.sleep(100);
+        }
+        assertEquals(MOVIES - 10 + 1, movieRepository.count());
+    }
+
+    /**
+     * Tests that the bulk load lock is held by one caller at a time, so that instances starting together load one
+     * after the other.
+     *
+     * @throws Exception If an error occurs while waiting for the lock.
+     */
+    @Test
+    void bulkLoadLockIsExclusive() throws Exception {
+        // Given
+        CompletableFuture<MovieBulkLoadLock.Lock> second;
+        try (MovieBulkLoadLock.Lock first = movieBulkLoadLock.acquire()) {
+            // When
+            second = CompletableFuture.supplyAsync(movieBulkLoadLock::acquire);
+            // Then
+            assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+        }
+        second.get(20, TimeUnit.SECONDS).close();
+    }
+
+    private long committedOffsets() throws Exception {
+        long committed = 0;
+        for (int partition = 0; partition < embeddedKafkaBroker.getPartitionsPerTopic(); partition++) {
+            OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(embeddedKafkaBroker.getBrokersAsString(),
+                    "movies-listener-group", "movies", partition);
+            committed += offset == null ? 0 : offset.offset();
+        }
+        return committed;
+    }
+
+    private String title(int id) {
+        return movieRepository.findById(id).map(Movie::getTitle).orElse(null);
+    }
+
+    private void send(int id, String movieType, String title) {
+        kafkaTemplate.send(new ProducerRecord<>("movies", id,
+                "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}"));
+    }
+}
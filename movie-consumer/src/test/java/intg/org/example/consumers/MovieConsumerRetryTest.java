@@ -0,0 +1,168 @@
+package org.example.consumers;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.IntegerDeserializer;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.example.services.DeadLetterService;
+import org.example.services.MovieService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration test class for the retry and dead-letter topics of the MovieConsumer component.
+ * <p>
+ * Runs the movie consumer against an embedded Kafka broker with short retry delays and verifies that transient
+ * failures are retried on the retry topics, that records which cannot succeed are parked in {@code movies-dlt} with
+ * their original payload and headers, and that parked records are re-driven by a replay.
+ * </p>
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.properties.bootstrap.servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "consumer.retry.initial-delay-ms=100",
+        "consumer.retry.multiplier=2"})
+class MovieConsumerRetryTest {
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    KafkaTemplate<Integer, String> kafkaTemplate;
+
+    @Autowired
+    KafkaListenerEndpointRegistry endpointRegistry;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    DeadLetterService deadLetterService;
+
+    @SpyBean
+    MovieService movieServiceSpy;
+
+    /**
+     * Waits for the Kafka message listener containers to be assigned to partitions.
+     */
+    @BeforeEach
+    void setUp() {
+        for (MessageListenerContainer messageListenerContainer : endpointRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(messageListenerContainer, embeddedKafkaBroker.getPartitionsPerTopic());
+        }
+    }
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests that a record failing with a transient database error is applied by a retry, without parking it.
+     *
+     * @throws Exception If an error occurs while waiting for the consumer.
+     */
+    @Test
+    void retriesTransientFailure() throws Exception {
+        // Given
+        doThrow(new TransientDataAccessResourceException("database unavailable"))
+                .doCallRealMethod()
+                .when(movieServiceSpy).processMovie(any());
+        // When
+        kafkaTemplate.send(new ProducerRecord<>("movies", 21, movie("NEW", "Retried")));
+        // Then
+        awaitTitle(21, "Retried");
+        verify(movieServiceSpy, atLeast(2)).processMovie(any());
+        doCallRealMethod().when(movieServiceSpy).processMovie(any());
+    }
+
+    /**
+     * Tests that an update of a missing movie is parked in the dead-letter topic with its payload, headers and
+     * exception class, and applied once it is replayed after the movie was added.
+     *
+     * @throws Exception If an error occurs while waiting for the consumer.
+     */
+    @Test
+    void parksAndReplaysRecord() throws Exception {
+        // Given
+        String update = movie("UPDATE", "Replayed");
+        ProducerRecord<Integer, String> producerRecord = new ProducerRecord<>("movies", 42, update);
+        producerRecord.headers().add("trace-id", "abc".getBytes(StandardCharsets.UTF_8));
+        // When
+        kafkaTemplate.send(producerRecord);
+        // Then
+        ConsumerRecord<Integer, byte[]> parked = readDeadLetter();
+        assertEquals(42, parked.key());
+        assertArrayEquals(update.getBytes(StandardCharsets.UTF_8), parked.value());
+        assertArrayEquals("abc".getBytes(StandardCharsets.UTF_8), parked.headers().lastHeader("trace-id").value());
+        assertEquals(IllegalArgumentException.class.getName(),
+                new String(parked.headers().lastHeader(KafkaHeaders.EXCEPTION_CAUSE_FQCN).value(), StandardCharsets.UTF_8));
+        // When
+        kafkaTemplate.send(new ProducerRecord<>("movies", 42, movie("NEW", "Original")));
+        awaitTitle(42, "Original");
+        int replayed = deadLetterService.replay("movies", 100);
+        // Then
+        assertEquals(1, replayed);
+        awaitTitle(42, "Replayed");
+        assertEquals(0, deadLetterService.replay("movies", 100));
+    }
+
+    private ConsumerRecord<Integer, byte[]> readDeadLetter() {
+        try (Consumer<Integer, byte[]> consumer = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("dlt-reader", "false", embeddedKafkaBroker),
+                new IntegerDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of("movies-dlt"));
+            return KafkaTestUtils.getSingleRecord(consumer, "movies-dlt", Duration.ofSeconds(20));
+        }
+    }
+
+    private void awaitTitle(int id, String title) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (!Optional.of(title).equals(movieRepository.findById(id).map(Movie::getTitle))) {
+            assertTrue(System.currentTimeMillis() < deadline, "movie " + id + " was not stored as " + title);
+            Thread.sleep(100);
+        }
+    }
+
+    private static String movie(String movieType, String title) {
+        return "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}";
+    }
+}
@@ -1,6 +1,6 @@
 package org.example.consumers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.example.entities.Movie;
@@ -96,10 +96,10 @@ class MovieConsumerTest {
      *
      * @throws ExecutionException      If an execution exception occurs.
      * @throws InterruptedException    If the thread is interrupted.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @throws IOException If the record cannot be decoded.
      */
     @Test
-    void publishNewMovie() throws ExecutionException, InterruptedException, JsonProcessingException {
+    void publishNewMovie() throws ExecutionException, InterruptedException, IOException {
         // Given a JSON representation of a movie
         String json= "{\"Id\":1,\"movieType\":\"NEW\",\"title\":\"Inception\",\"genres\":\"Sci-Fi\"}";
         // When publishing the movie to the "movies" topic
@@ -0,0 +1,120 @@
+package org.example.consumers;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test class for the MovieParallelConsumer component.
+ * <p>
+ * Runs the movie consumer in parallel processing mode against an embedded Kafka broker with a single partition and
+ * verifies that the NEW, UPDATE and DELETE messages of every movie are applied in order and that the offsets of all
+ * processed records are committed.
+ * </p>
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "consumer.parallel.enabled=true",
+        "consumer.parallel.workers=4"})
+class MovieParallelConsumerTest {
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    KafkaTemplate<Integer, String> kafkaTemplate;
+
+    @Autowired
+    KafkaListenerEndpointRegistry endpointRegistry;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    /**
+     * Waits for the Kafka message listener containers to be assigned to partitions.
+     */
+    @BeforeEach
+    void setUp() {
+        for (MessageListenerContainer messageListenerContainer : endpointRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(messageListenerContainer, embeddedKafkaBroker.getPartitionsPerTopic());
+        }
+    }
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests publishing interleaved messages of many movies to one partition and verifies the persisted state and the
+     * committed offset.
+     *
+     * @throws Exception If an error occurs while waiting for the consumer.
+     */
+    @Test
+    void processesPartitionInParallel() throws Exception {
+        // Given
+        int movies = 200;
+        // When
+        for (int id = 1; id <= movies; id++) {
+            send(id, "NEW", "Movie " + id);
+        }
+        for (int id = 1; id <= movies; id++) {
+            send(id, "UPDATE", "Updated " + id);
+        }
+        for (int id = 2; id <= movies; id += 2) {
+            send(id, "DELETE", "Updated " + id);
+        }
+        int records = movies * 2 + movies / 2;
+        // Then
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (committedOffset() < records) {
+            assertTrue(System.currentTimeMillis() < deadline, "offsets were not committed in time");
+            Thread.sleep(100);
+        }
+        assertEquals(records, committedOffset());
+        assertEquals(movies / 2, movieRepository.count());
+        for (int id = 1; id <= movies; id++) {
+            if (id % 2 == 0) {
+                assertFalse(movieRepository.findById(id).isPresent());
+            } else {
+                assertEquals("Updated " + id, movieRepository.findById(id).map(Movie::getTitle).orElse(null));
+            }
+        }
+    }
+
+    private long committedOffset() throws Exception {
+        OffsetAndMetadata committed = KafkaTestUtils.getCurrentOffset(embeddedKafkaBroker.getBrokersAsString(),
+                "movies-listener-group", "movies", 0);
+        return committed == null ? 0 : committed.offset();
+    }
+
+    private void send(int id, String movieType, String title) {
+        kafkaTemplate.send(new ProducerRecord<>("movies", id,
+                "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}"));
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.consumers;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.repositories.MovieRepository;
+import org.example.repositories.RatingRepository;
+import org.example.repositories.StoredRating;
+import org.example.aggregation.RatingWindows;
+import org.example.services.RatingService;
+import org.example.services.TrendingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test class for the RatingConsumer component.
+ * <p>
+ * Publishes ratings to the embedded "ratings" topic and verifies that the RatingService aggregates them and writes
+ * the average rating and the rating count of the movie on its next flush, and appends the ratings to the
+ * time-partitioned rating table.
+ * </p>
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "ratings", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "ratings.aggregation.flush-interval-ms=3600000"})
+class RatingConsumerTest {
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    KafkaTemplate<Integer, String> kafkaTemplate;
+
+    @Autowired
+    KafkaListenerEndpointRegistry endpointRegistry;
+
+    @Autowired
+    RatingService ratingService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    RatingRepository ratingRepository;
+
+    @Autowired
+    TrendingService trendingService;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    String groupId;
+
+    /**
+     * Waits for the Kafka message listener containers to be assigned to partitions.
+     */
+    @BeforeEach
+    void setUp() {
+        for (MessageListenerContainer messageListenerContainer : endpointRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(messageListenerContainer, embeddedKafkaBroker.getPartitionsPerTopic());
+        }
+    }
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests publishing ratings for a movie and verifies its stored average after a flush.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the consumer.
+     */
+    @Test
+    void publishRatings() throws InterruptedException {
+        // Given
+        movieRepository.save(Movie.builder().Id(7).movieType(MovieType.NEW).title("Heat").genres("Action").build());
+        double[] ratings = {4.0, 3.5, 5.0, 2.5};
+        // When
+        for (int userId = 0; userId < ratings.length; userId++) {
+            String json = "{\"userId\":" + userId + ",\"movieId\":7,\"rating\":" + ratings[userId]
+                    + ",\"timeStamp\":964982703}";
+            kafkaTemplate.send(new ProducerRecord<>("ratings", 7, json));
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ratingService.getAggregate(7).count() < ratings.length) {
+            assertTrue(System.currentTimeMillis() < deadline, "ratings were not consumed in time");
+            Thread.sleep(100);
+        }
+        ratingService.flush();
+        // Then
+        Movie movie = movieRepository.findById(7).orElseThrow();
+        assertEquals(3.75, movie.getAverageRating(), 1e-9);
+        assertEquals(4, movie.getRatingCount());
+    }
+
+    /**
+     * Tests that a flush appends the ratings to the partitions of their time stamps, writes a redelivered rating
+     * once, that a time window only returns the ratings inside it, and that the trending window of the newest
+     * ratings counts them as consumed by the single instance owning the ratings partition.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the consumer.
+     */
+    @Test
+    void storeRatingsByTimeStamp() throws InterruptedException {
+        // Given
+        String[] jsons = {"{\"userId\":1,\"movieId\":8,\"rating\":4.0,\"timeStamp\":964982703}",
+                "{\"userId\":1,\"movieId\":8,\"rating\":2.0,\"timeStamp\":1500000000}",
+                "{\"userId\":1,\"movieId\":8,\"rating\":2.0,\"timeStamp\":1500000000}"};
+        // When
+        for (String json : jsons) {
+            kafkaTemplate.send(new ProducerRecord<>("ratings", 8, json));
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ratingService.getAggregate(8).count() < jsons.length) {
+            assertTrue(System.currentTimeMillis() < deadline, "ratings were not consumed in time");
+            Thread.sleep(100);
+        }
+        ratingService.flush();
+        // Then
+        assertEquals(List.of(new StoredRating(1, 8, 4.0, 964982703), new StoredRating(1, 8, 2.0, 1500000000)),
+                ratingRepository.findByMovieId(8, 0, Long.MAX_VALUE));
+        assertEquals(List.of(new StoredRating(1, 8, 2.0, 1500000000)),
+                ratingRepository.findByMovieId(8, 1483228800, 1514764800));
+        assertTrue(trendingService.isComplete());
+        assertEquals(List.of(new RatingWindows.RankedMovie(8, 2, 2.0)), trendingService.rank(
+                TrendingService.Window.TUMBLING, TrendingService.Order.COUNT, 1500000000L, 10).movies());
+    }
+
+    /**
+     * Tests that restoring the aggregates, as on a partition assignment, continues from the average and count another
+     * instance flushed for a movie that moved to this instance.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the consumer.
+     */
+    @Test
+    void restoreAggregatesFlushedElsewhere() throws InterruptedException {
+        // Given
+        movieRepository.save(Movie.builder().Id(10).movieType(MovieType.NEW).title("Casino").genres("Crime")
+                .averageRating(4.0).ratingCount(3L).build());
+        // When
+        ratingService.restore();
+        kafkaTemplate.send(new ProducerRecord<>("ratings", 10,
+                "{\"userId\":1,\"movieId\":10,\"rating\":2.0,\"timeStamp\":964982703}"));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ratingService.getAggregate(10).count() < 4) {
+            assertTrue(System.currentTimeMillis() < deadline, "the rating was not consumed in time");
+            Thread.sleep(100);
+        }
+        ratingService.flush();
+        // Then
+        Movie movie = movieRepository.findById(10).orElseThrow();
+        assertEquals(3.5, movie.getAverageRating(), 1e-9);
+        assertEquals(4, movie.getRatingCount());
+    }
+
+    /**
+     * Tests that the offsets of consumed ratings are only committed once a flush wrote them, so that a crash before
+     * the flush redelivers them.
+     *
+     * @throws Exception If the ratings cannot be sent or the committed offsets cannot be read.
+     */
+    @Test
+    void commitOffsetsAfterFlush() throws Exception {
+        // Given
+        movieRepository.save(Movie.builder().Id(9).movieType(MovieType.NEW).title("Ronin").genres("Action").build());
+        long lastOffset = 0;
+        // When
+        for (int userId = 0; userId < 3; userId++) {
+            String json = "{\"userId\":" + userId + ",\"movieId\":9,\"rating\":4.0,\"timeStamp\":964982703}";
+            lastOffset = kafkaTemplate.send(new ProducerRecord<>("ratings", 9, json)).get().getRecordMetadata().offset();
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ratingService.getAggregate(9).count() < 3) {
+            assertTrue(System.currentTimeMillis() < deadline, "ratings were not consumed in time");
+            Thread.sleep(100);
+        }
+        Thread.sleep(500);
+        long committedBeforeFlush = committedOffset();
+        ratingService.flush();
+        // Then
+        assertTrue(committedBeforeFlush <= lastOffset, "offsets were committed before the flush");
+        while (committedOffset() != lastOffset + 1) {
+            assertTrue(System.currentTimeMillis() < deadline, "offsets were not committed after the flush");
+            Thread.sleep(100);
+        }
+        assertEquals(3, movieRepository.findById(9).orElseThrow().getRatingCount());
+    }
+
+    private long committedOffset() throws Exception {
+        OffsetAndMetadata committed = KafkaTestUtils.getCurrentOffset(embeddedKafkaBroker.getBrokersAsString(),
+                groupId, "ratings", 0);
+        return committed != null ? committed.offset() : 0;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.ids;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration test class for the {@link MovieIdAllocator}, checking that allocators configured with another block
+ * size than the increment of the existing sequence still hand out unique ids.
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=false",
+        "movie.id-allocator.block-size=100"})
+class MovieIdAllocatorTest {
+
+    @Autowired
+    MovieIdAllocator movieIdAllocator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Restores the increment of the sequence after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("alter sequence " + MovieIdAllocator.SEQUENCE + " increment by 100");
+    }
+
+    /**
+     * Tests that an allocator configured with a larger block size reserves blocks of the increment of the existing
+     * sequence, so its ids do not overlap the ones of an allocator sharing the sequence.
+     */
+    @Test
+    void useIncrementOfExistingSequence() {
+        // Given
+        MovieIdAllocator largerBlocks = new MovieIdAllocator(jdbcTemplate, movieRepository, entityManagerFactory, 1000);
+        largerBlocks.init();
+        Set<Integer> ids = new HashSet<>();
+        // When
+        ids.add(largerBlocks.nextId());
+        ids.add(movieIdAllocator.nextId());
+        for (int i = 0; i < 150; i++) {
+            ids.add(largerBlocks.nextId());
+        }
+        for (int i = 0; i < 150; i++) {
+            ids.add(movieIdAllocator.nextId());
+        }
+        largerBlocks.shutdown();
+        // Then
+        assertEquals(302, ids.size(), "the allocators handed out the same ids");
+    }
+
+    /**
+     * Tests that startup fails if the existing sequence does not increment by a positive number.
+     */
+    @Test
+    void rejectNonPositiveIncrement() {
+        // Given
+        jdbcTemplate.execute("alter sequence " + MovieIdAllocator.SEQUENCE + " increment by -1");
+        MovieIdAllocator allocator = new MovieIdAllocator(jdbcTemplate, movieRepository, entityManagerFactory, 100);
+        // Expect
+        assertThrows(IllegalStateException.class, allocator::init);
+        allocator.shutdown();
+    }
+}
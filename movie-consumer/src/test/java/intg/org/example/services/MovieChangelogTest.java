@@ -0,0 +1,184 @@
+package org.example.services;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.IntegerDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.catalog.MovieCatalog;
+import org.example.catalog.MovieChange;
+import org.example.entities.Movie;
+import org.example.producers.MovieChangelogProducer;
+import org.example.producers.MovieChangelogReconciler;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test class for the changes {@link MovieService} publishes to the "movies-changelog" topic.
+ * <p>
+ * Every test runs on a fresh context and broker, so the changelog only holds the changes of the test. The startup
+ * reconciliation is disabled, so no snapshot marker is published before a test publishes one itself.
+ * </p>
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic", "movies-changelog"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.properties.bootstrap.servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=false",
+        "changelog.partitions=1", "changelog.snapshot-on-startup=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MovieChangelogTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    MovieService movieService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    MovieIndexService movieIndexService;
+
+    @Autowired
+    MovieCatalog movieCatalog;
+
+    @Autowired
+    MovieChangelogProducer movieChangelogProducer;
+
+    @Autowired
+    MovieChangelogReconciler movieChangelogReconciler;
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests that saved movies are published with their latest state and deleted movies as tombstones.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void publishSavedAndDeletedMovies() throws Exception {
+        // When
+        movieService.processMovie(record(1, "NEW", "Heat"));
+        movieService.processMovie(record(1, "UPDATE", "Heat (1995)"));
+        movieService.processMovie(record(1, "DELETE", "Heat (1995)"));
+        // Then
+        List<ConsumerRecord<Integer, String>> changes = readChangelog(3);
+        assertEquals("{\"Id\":1,\"title\":\"Heat\",\"genres\":\"Drama\"}", changes.get(0).value());
+        assertEquals("{\"Id\":1,\"title\":\"Heat (1995)\",\"genres\":\"Drama\"}", changes.get(1).value());
+        assertNull(changes.get(2).value());
+    }
+
+    /**
+     * Tests that searches are answered from the changelog replica, including the movies another instance wrote.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void searchReplicatedChanges() throws Exception {
+        // Given
+        movieService.processMovie(record(10, "NEW", "Heat (1995)"));
+        Movie writtenElsewhere = movieRepository.save(Movie.builder().Id(11).title("Heat").genres("Action").build());
+        movieChangelogProducer.publishSaved(writtenElsewhere);
+        // the changes precede the marker on every partition, so the ready replica has applied them
+        movieChangelogProducer.publishSnapshotMarker();
+        assertTrue(movieCatalog.awaitReady(TIMEOUT), "the snapshot marker was not replicated");
+        // When
+        List<Movie> byTitle = movieIndexService.searchTitle("heat");
+        List<Movie> byGenres = movieIndexService.searchGenres("drama|action,!comedy");
+        // Then
+        assertEquals(List.of(11, 10), byTitle.stream().map(Movie::getId).toList());
+        assertEquals(List.of(10, 11), byGenres.stream().map(Movie::getId).toList());
+    }
+
+    /**
+     * Tests that the changes of this instance are indexed at once, before they are replicated from the changelog.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void indexOwnChangesAtOnce() throws Exception {
+        // When
+        movieService.processMovie(record(30, "NEW", "Ronin (1998)"));
+        movieService.processMovie(record(31, "NEW", "Ronin"));
+        movieService.processMovie(record(31, "DELETE", "Ronin"));
+        // Then
+        assertEquals(List.of(30), movieCatalog.searchTitle(" ronin ").stream().map(MovieChange::Id).toList());
+    }
+
+    /**
+     * Tests that the reconciliation publishes the stored movies the changelog misses and tombstones the movies that are
+     * no longer stored.
+     *
+     * @throws Exception If the changelog is not replicated.
+     */
+    @Test
+    void reconcileWithTable() throws Exception {
+        // Given
+        movieRepository.save(Movie.builder().Id(20).title("Casino").genres("Crime").build());
+        movieChangelogProducer.publishSaved(Movie.builder().Id(21).title("Ronin").genres("Action").build());
+        movieChangelogProducer.publishSnapshotMarker();
+        assertTrue(movieCatalog.awaitReady(TIMEOUT), "the snapshot marker was not replicated");
+        // When
+        movieChangelogReconciler.reconcile();
+        // Then
+        List<ConsumerRecord<Integer, String>> changes = readChangelog(5);
+        assertEquals(List.of(21, MovieCatalog.SNAPSHOT_MARKER_KEY, 20, 21, MovieCatalog.SNAPSHOT_MARKER_KEY),
+                changes.stream().map(ConsumerRecord::key).toList());
+        assertEquals("{\"Id\":20,\"title\":\"Casino\",\"genres\":\"Crime\"}", changes.get(2).value());
+        assertNull(changes.get(3).value());
+    }
+
+    /**
+     * Reads the changelog from the beginning.
+     *
+     * @param count The number of records the changelog is expected to hold.
+     * @return The records in offset order.
+     */
+    private List<ConsumerRecord<Integer, String>> readChangelog(int count) {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("changelog-test", "false",
+                embeddedKafkaBroker);
+        consumerProps.put("auto.offset.reset", "earliest");
+        try (Consumer<Integer, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new IntegerDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, "movies-changelog");
+            List<ConsumerRecord<Integer, String>> changes = new ArrayList<>();
+            KafkaTestUtils.getRecords(consumer, TIMEOUT, count).forEach(changes::add);
+            assertEquals(count, changes.size());
+            return changes;
+        }
+    }
+
+    private static ConsumerRecord<Integer, byte[]> record(int id, String movieType, String title) {
+        String json = "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}";
+        return new ConsumerRecord<>("movies", 0, id, id, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.services;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration test class for the {@link MovieIndexLoader}, which fills the search indexes from the movie table when
+ * the changelog is disabled.
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=false",
+        "changelog.enabled=false"})
+class MovieIndexLoaderTest {
+
+    @Autowired
+    MovieIndexLoader movieIndexLoader;
+
+    @Autowired
+    MovieIndexService movieIndexService;
+
+    @Autowired
+    MovieService movieService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests that searches are answered from the indexes filled from the table and kept current by the movie
+     * listener.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void searchStoredAndProcessedMovies() throws Exception {
+        // Given
+        movieRepository.save(Movie.builder().Id(1).title("Heat").genres("Action").build());
+        movieIndexLoader.start();
+        // When
+        movieService.processMovie(record(2, "NEW", "Heat (1995)"));
+        // Then
+        assertEquals(List.of(1, 2), movieIndexService.searchTitle(" heat ").stream().map(Movie::getId).toList());
+        assertEquals(List.of(2), movieIndexService.searchGenres("Drama").stream().map(Movie::getId).toList());
+    }
+
+    private static ConsumerRecord<Integer, byte[]> record(int id, String movieType, String title) {
+        String json = "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}";
+        return new ConsumerRecord<>("movies", 0, id, id, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
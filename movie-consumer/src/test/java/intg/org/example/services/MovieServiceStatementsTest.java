@@ -0,0 +1,226 @@
+package org.example.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.cache.MovieCache;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration test class counting the SQL statements the NEW, UPDATE and DELETE messages of {@link MovieService} send
+ * to the database.
+ * <p>
+ * The data source is wrapped in a proxy counting every statement executed on the test thread, so statements of the
+ * listener and flush threads are not counted. A JDBC batch counts as one statement.
+ * </p>
+ */
+@Slf4j
+@SpringBootTest
+@EmbeddedKafka(topics = {"movies", "error-topic", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.properties.bootstrap.servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=false"})
+class MovieServiceStatementsTest {
+
+    private static final int MOVIES = 100;
+
+    @Autowired
+    MovieService movieService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    MovieCache movieCache;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    /**
+     * Deletes all movies from the MovieRepository after each test execution.
+     */
+    @AfterEach
+    void tearDown() {
+        movieRepository.findAll().forEach(movie -> movieCache.invalidate(movie.getId()));
+        movieRepository.deleteAll();
+    }
+
+    /**
+     * Tests that NEW and UPDATE messages of movies that are not cached cost one statement each.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void newAndUpdateCostOneStatementEach() throws Exception {
+        // Given
+        statementCounter.reset();
+        // When
+        for (int id = 1; id <= MOVIES; id++) {
+            movieService.processMovie(record(id, "NEW", "Movie " + id));
+        }
+        double perNew = statementCounter.reset() / (double) MOVIES;
+        for (int id = 1; id <= MOVIES; id++) {
+            movieCache.invalidate(id);
+        }
+        for (int id = 1; id <= MOVIES; id++) {
+            movieService.processMovie(record(id, "UPDATE", "Updated " + id));
+        }
+        double perUpdate = statementCounter.reset() / (double) MOVIES;
+        // Then
+        log.info("Statements per message: {} per NEW, {} per UPDATE", perNew, perUpdate);
+        assertEquals(1.0, perNew);
+        assertEquals(1.0, perUpdate);
+        assertEquals(MOVIES, movieRepository.count());
+        assertEquals("Updated 7", movieRepository.findById(7).map(Movie::getTitle).orElse(null));
+    }
+
+    /**
+     * Tests that DELETE messages of cached movies cost one statement each, and that a movie deleted meanwhile is
+     * rejected.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void deleteOfCachedMovieCostsOneStatement() throws Exception {
+        // Given
+        for (int id = 1; id <= MOVIES; id++) {
+            movieService.processMovie(record(id, "NEW", "Movie " + id));
+        }
+        jdbcTemplate.update("delete from movie where id = 1");
+        statementCounter.reset();
+        // When
+        for (int id = 2; id <= MOVIES; id++) {
+            movieService.processMovie(record(id, "DELETE", "Movie " + id));
+        }
+        double perDelete = statementCounter.reset() / (double) (MOVIES - 1);
+        // Then
+        log.info("Statements per message: {} per DELETE", perDelete);
+        assertEquals(1.0, perDelete);
+        assertEquals(0, movieRepository.count());
+        assertThrows(IllegalArgumentException.class, () -> movieService.processMovie(record(1, "DELETE", "Movie 1")));
+    }
+
+    /**
+     * Tests that the native writes keep the NEW and UPDATE semantics: a taken id is replaced by an allocated one, an
+     * update keeps the rating aggregate and an update of a missing movie is rejected.
+     *
+     * @throws Exception If a record cannot be processed.
+     */
+    @Test
+    void keepsNewAndUpdateSemantics() throws Exception {
+        // Given
+        movieService.processMovie(record(1, "NEW", "Heat"));
+        jdbcTemplate.update("update movie set average_rating = 4.5, rating_count = 2 where id = 1");
+        // When
+        movieService.processMovie(record(1, "NEW", "Heat again"));
+        movieService.processMovie(record(1, "UPDATE", "Heat (1995)"));
+        // Then
+        assertEquals(2, movieRepository.count());
+        Movie updated = movieRepository.findById(1).orElseThrow();
+        assertEquals("Heat (1995)", updated.getTitle());
+        assertEquals(4.5, updated.getAverageRating());
+        assertEquals(2L, updated.getRatingCount());
+        assertThrows(IllegalArgumentException.class, () -> movieService.processMovie(record(MOVIES + 1, "UPDATE", "Missing")));
+        assertFalse(movieRepository.findById(MOVIES + 1).isPresent());
+    }
+
+    private static ConsumerRecord<Integer, byte[]> record(int id, String movieType, String title) {
+        String json = "{\"movieType\":\"" + movieType + "\",\"title\":\"" + title + "\",\"genres\":\"Drama\"}";
+        return new ConsumerRecord<>("movies", 0, id, id, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts the statements executed on the thread that last reset the counter.
+     */
+    static class StatementCounter {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private volatile Thread thread;
+
+        int reset() {
+            thread = Thread.currentThread();
+            return count.getAndSet(0);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource);
+        }
+
+        private <T> T proxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> invoke(target, method, args)));
+        }
+
+        private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")
+                    && Thread.currentThread() == thread) {
+                count.incrementAndGet();
+            }
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return proxy(Connection.class, connection);
+            }
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(statementType(method.getReturnType()), statement);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Class<T> statementType(Class<?> returnType) {
+            return (Class<T>) returnType;
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+
+        @Bean
+        static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource(StatementCounter statementCounter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? statementCounter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
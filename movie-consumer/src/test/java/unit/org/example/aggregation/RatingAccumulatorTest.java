@@ -0,0 +1,63 @@
+package org.example.aggregation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link RatingAccumulator} class.
+ */
+class RatingAccumulatorTest {
+
+    /**
+     * Test case verifying the aggregates survive growing the table far beyond its initial size.
+     */
+    @Test
+    void aggregatesManyMovies() {
+        // Given
+        RatingAccumulator accumulator = new RatingAccumulator(4);
+        int movies = 10_000;
+        // When
+        for (int round = 0; round < 3; round++) {
+            for (int movieId = 1; movieId <= movies; movieId++) {
+                accumulator.add(movieId, round + 1);
+            }
+        }
+        // Then
+        assertEquals(movies, accumulator.size());
+        RatingAccumulator.Aggregate aggregate = accumulator.get(4711);
+        assertEquals(3, aggregate.count());
+        assertEquals(2.0, aggregate.average(), 1e-9);
+        assertEquals(0, accumulator.get(movies + 1).count());
+    }
+
+    /**
+     * Test case verifying that only movies changed since the last drain are returned, once each.
+     */
+    @Test
+    void drainsChangedMoviesOnly() {
+        // Given
+        RatingAccumulator accumulator = new RatingAccumulator(16);
+        accumulator.seed(1, 4, 14.0);
+        accumulator.add(2, 5.0);
+        accumulator.add(2, 3.0);
+        // When
+        boolean seededChanged = accumulator.isChanged(1);
+        List<RatingAccumulator.Aggregate> first = accumulator.drainChanged();
+        accumulator.add(1, 1.0);
+        boolean addedChanged = accumulator.isChanged(1);
+        List<RatingAccumulator.Aggregate> second = accumulator.drainChanged();
+        // Then
+        assertFalse(seededChanged);
+        assertTrue(addedChanged);
+        assertEquals(List.of(new RatingAccumulator.Aggregate(2, 2, 8.0)), first);
+        assertEquals(List.of(new RatingAccumulator.Aggregate(1, 5, 15.0)), second);
+        assertEquals(3.0, second.get(0).average(), 1e-9);
+        assertTrue(accumulator.drainChanged().isEmpty());
+        assertFalse(accumulator.isChanged(1));
+    }
+}
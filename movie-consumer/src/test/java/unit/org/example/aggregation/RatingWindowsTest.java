@@ -0,0 +1,86 @@
+package org.example.aggregation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link RatingWindows} class.
+ */
+class RatingWindowsTest {
+
+    private static final long DAY = 86_400;
+
+    /**
+     * Test case verifying that a tumbling window only counts the ratings of its own period.
+     */
+    @Test
+    void ranksTumblingWindow() {
+        // Given
+        RatingWindows windows = new RatingWindows(7 * DAY, 7 * DAY, 7 * DAY, 10);
+        // When
+        windows.add(1, 4.0, 7 * DAY - 1);
+        windows.add(2, 5.0, 7 * DAY);
+        windows.add(2, 3.0, 8 * DAY);
+        windows.add(3, 1.0, 9 * DAY);
+        // Then
+        RatingWindows.Ranking ranking = windows.mostRated(null, 10);
+        assertEquals(7 * DAY, ranking.start());
+        assertEquals(14 * DAY, ranking.end());
+        assertEquals(List.of(new RatingWindows.RankedMovie(2, 2, 4.0), new RatingWindows.RankedMovie(3, 1, 1.0)),
+                ranking.movies());
+        assertEquals(List.of(new RatingWindows.RankedMovie(1, 1, 4.0)), windows.mostRated(0L, 10).movies());
+    }
+
+    /**
+     * Test case verifying that a hopping window covers the last days up to the queried time stamp and that top rated
+     * movies need the minimum number of ratings.
+     */
+    @Test
+    void ranksHoppingWindow() {
+        // Given
+        RatingWindows windows = new RatingWindows(3 * DAY, DAY, 3 * DAY, 10);
+        // When
+        windows.add(1, 5.0, DAY / 2);
+        windows.add(2, 4.0, 2 * DAY);
+        windows.add(2, 3.0, 3 * DAY);
+        windows.add(3, 2.0, 3 * DAY);
+        windows.add(3, 2.0, 3 * DAY);
+        windows.add(3, 2.0, 3 * DAY);
+        // Then
+        RatingWindows.Ranking ranking = windows.topRated(null, 10, 2);
+        assertEquals(DAY, ranking.start());
+        assertEquals(4 * DAY, ranking.end());
+        assertEquals(List.of(new RatingWindows.RankedMovie(2, 2, 3.5), new RatingWindows.RankedMovie(3, 3, 2.0)),
+                ranking.movies());
+        assertEquals(List.of(new RatingWindows.RankedMovie(1, 1, 5.0)), windows.topRated(DAY - 1, 10, 1).movies());
+        assertEquals(List.of(new RatingWindows.RankedMovie(3, 3, 2.0)), windows.mostRated(null, 1).movies());
+    }
+
+    /**
+     * Test case verifying that windows ended longer than the retention ago are evicted and their late ratings ignored.
+     */
+    @Test
+    void evictsExpiredWindows() {
+        // Given
+        RatingWindows windows = new RatingWindows(DAY, DAY, 2 * DAY, 10);
+        for (int day = 0; day < 3; day++) {
+            windows.add(1, 3.0, day * DAY);
+        }
+        // When
+        windows.add(1, 3.0, 10 * DAY);
+        boolean late = windows.add(1, 3.0, 5 * DAY);
+        boolean retained = windows.add(1, 3.0, 8 * DAY);
+        // Then
+        assertFalse(late);
+        assertTrue(retained);
+        assertEquals(2, windows.windowCount());
+        assertTrue(windows.mostRated(0L, 10).movies().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new RatingWindows(7 * DAY, 2 * DAY, DAY, 10));
+    }
+}
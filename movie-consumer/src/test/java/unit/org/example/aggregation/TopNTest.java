@@ -0,0 +1,51 @@
+package org.example.aggregation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the {@link TopN} class.
+ */
+class TopNTest {
+
+    /**
+     * Test case verifying that growing counts offered one increment at a time keep exactly the most counted movies.
+     */
+    @Test
+    void keepsMostCountedMovies() {
+        // Given
+        TopN top = new TopN(3);
+        int[] counts = new int[11];
+        // When
+        for (int round = 0; round < 10; round++) {
+            for (int movieId = 1; movieId <= 10; movieId++) {
+                if (movieId > round) {
+                    top.offer(movieId, ++counts[movieId]);
+                }
+            }
+        }
+        // Then
+        assertEquals(3, top.size());
+        assertArrayEquals(new int[]{10, 9, 8}, top.idsDescending());
+    }
+
+    /**
+     * Test case verifying that equal scores are ordered by id and that a full heap rejects lower scores.
+     */
+    @Test
+    void ordersTiesById() {
+        // Given
+        TopN top = new TopN(2);
+        // When
+        top.offer(5, 4.5);
+        top.offer(3, 4.5);
+        top.offer(7, 2.0);
+        top.offer(9, 4.0);
+        // Then
+        assertArrayEquals(new int[]{3, 5}, top.idsDescending());
+        assertThrows(IllegalArgumentException.class, () -> new TopN(0));
+    }
+}
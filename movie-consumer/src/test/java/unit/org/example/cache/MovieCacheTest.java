@@ -0,0 +1,59 @@
+package org.example.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link MovieCache} class.
+ */
+class MovieCacheTest {
+
+    /**
+     * Test case verifying repeated lookups hit the repository once, writes replace or invalidate the entry and the
+     * statistics are published as meters.
+     */
+    @Test
+    void cachesLookupsUntilInvalidated() {
+        // Given
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        Movie stored = Movie.builder().Id(1).title("Heat (1995)").build();
+        when(movieRepository.findById(1)).thenReturn(Optional.of(stored));
+        when(movieRepository.findById(2)).thenReturn(Optional.empty());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MovieCache movieCache = new MovieCache(movieRepository, 100, Duration.ofMinutes(5), registry);
+        // When
+        movieCache.findById(1);
+        movieCache.findById(1);
+        Movie updated = Movie.builder().Id(1).title("Heat").build();
+        movieCache.put(updated);
+        Movie afterUpdate = movieCache.findById(1).orElseThrow();
+        movieCache.invalidate(1);
+        movieCache.findById(1);
+        boolean absentFound = movieCache.findById(2).isPresent() || movieCache.findById(2).isPresent();
+        // Then
+        assertSame(updated, afterUpdate);
+        assertFalse(absentFound);
+        verify(movieRepository, times(2)).findById(1);
+        verify(movieRepository, times(2)).findById(2);
+        MovieCacheStats stats = movieCache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(4, stats.missCount());
+        assertEquals(1, stats.size());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "movies").tag("result", "hit").functionCounter()
+                .count());
+    }
+}
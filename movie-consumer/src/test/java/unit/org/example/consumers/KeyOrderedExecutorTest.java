@@ -0,0 +1,103 @@
+package org.example.consumers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link KeyOrderedExecutor} class.
+ */
+class KeyOrderedExecutorTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Test case verifying that the tasks of every key run in submission order, also after a failing task.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void tasksOfOneKeyRunInOrder() throws Exception {
+        // Given
+        int keys = 20;
+        int tasksPerKey = 500;
+        Map<Integer, List<Integer>> runs = new HashMap<>();
+        for (int key = 0; key < keys; key++) {
+            runs.put(key, Collections.synchronizedList(new ArrayList<>()));
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // When
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                int task = i;
+                List<Integer> run = runs.get(key);
+                futures.add(executor.execute(key, () -> {
+                    run.add(task);
+                    if (task % 100 == 0) {
+                        throw new IllegalStateException("task " + task + " failed");
+                    }
+                }));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(throwable -> null)
+                .get(10, TimeUnit.SECONDS);
+        // Then
+        for (List<Integer> run : runs.values()) {
+            assertEquals(tasksPerKey, run.size());
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, run.get(i));
+            }
+        }
+        assertEquals(0, executor.pendingKeys());
+    }
+
+    /**
+     * Test case verifying that a blocked key does not hold up the tasks of other keys.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void otherKeysRunWhileOneKeyIsBlocked() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherKeys = new CountDownLatch(9);
+        executor.execute(1, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Void> behindBlocked = executor.execute(1, () -> { });
+        // When
+        for (int key = 2; key < 11; key++) {
+            executor.execute(key, otherKeys::countDown);
+        }
+        // Then
+        assertTrue(otherKeys.await(5, TimeUnit.SECONDS));
+        assertFalse(behindBlocked.isDone());
+        release.countDown();
+        behindBlocked.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link BlockIdAllocator} class.
+ */
+class BlockIdAllocatorTest {
+
+    /**
+     * Test case verifying allocators sharing a source hand out unique ids to concurrent callers, with one source call
+     * per block.
+     */
+    @Test
+    void allocatesUniqueIdsAcrossThreadsAndAllocators() throws InterruptedException {
+        // Given
+        int blockSize = 100;
+        AtomicLong sequence = new AtomicLong(1);
+        AtomicInteger sourceCalls = new AtomicInteger();
+        ExecutorService refillExecutor = Executors.newSingleThreadExecutor();
+        BlockIdAllocator first = new BlockIdAllocator(() -> {
+            sourceCalls.incrementAndGet();
+            return sequence.getAndAdd(blockSize);
+        }, blockSize, refillExecutor);
+        BlockIdAllocator second = new BlockIdAllocator(() -> {
+            sourceCalls.incrementAndGet();
+            return sequence.getAndAdd(blockSize);
+        }, blockSize, refillExecutor);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        int idsPerThread = 10_000;
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        // When
+        for (int thread = 0; thread < 4; thread++) {
+            BlockIdAllocator allocator = thread % 2 == 0 ? first : second;
+            callers.execute(() -> {
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids.add(allocator.nextId());
+                }
+            });
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(10, TimeUnit.SECONDS));
+        refillExecutor.shutdown();
+        // Then
+        assertEquals(4 * idsPerThread, ids.size());
+        assertTrue(sourceCalls.get() <= 4 * idsPerThread / blockSize + 2);
+    }
+}
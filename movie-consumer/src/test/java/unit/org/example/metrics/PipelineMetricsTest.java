@@ -0,0 +1,83 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link PipelineMetrics} class.
+ */
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final PipelineMetrics pipelineMetrics = new PipelineMetrics(registry);
+
+    /**
+     * Test case verifying that the queue time and the end-to-end latency are measured from the producer's timestamp
+     * headers.
+     */
+    @Test
+    void latenciesFromTimestampHeaders() {
+        // Given
+        long now = System.currentTimeMillis();
+        ConsumerRecord<Integer, byte[]> record = record(now - 5000, now - 2000);
+        // When
+        pipelineMetrics.recordQueueTime(record);
+        pipelineMetrics.recordEndToEnd(record);
+        // Then
+        double queue = registry.get("pipeline.queue").tag("topic", "movies").timer().totalTime(TimeUnit.MILLISECONDS);
+        double endToEnd = registry.get("pipeline.end-to-end").tag("topic", "movies").timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+        assertTrue(queue >= 2000 && queue < 5000, "queue time " + queue);
+        assertTrue(endToEnd >= 5000, "end-to-end latency " + endToEnd);
+        assertEquals(now - 5000, PipelineMetrics.createdAt(record));
+    }
+
+    /**
+     * Test case verifying that records without timestamp headers are left out of the queue and end-to-end timers.
+     */
+    @Test
+    void recordsWithoutTimestampsAreNotTimed() {
+        // Given
+        ConsumerRecord<Integer, byte[]> record = new ConsumerRecord<>("movies", 0, 0, 1, new byte[0]);
+        // When
+        pipelineMetrics.recordQueueTime(record);
+        pipelineMetrics.recordEndToEnd(record);
+        // Then
+        assertNull(registry.find("pipeline.queue").timer());
+        assertNull(registry.find("pipeline.end-to-end").timer());
+        assertEquals(0, PipelineMetrics.createdAt(record));
+    }
+
+    /**
+     * Test case verifying that consumed records are counted per topic and movie type.
+     */
+    @Test
+    void countConsumedPerTopicAndType() {
+        // When
+        pipelineMetrics.countConsumed("movies", "NEW");
+        pipelineMetrics.countConsumed("movies", "NEW");
+        pipelineMetrics.countConsumed("movies", "UPDATE");
+        pipelineMetrics.countConsumed("ratings", PipelineMetrics.NO_TYPE);
+        // Then
+        assertEquals(2, registry.get("pipeline.records.consumed").tags("topic", "movies", "type", "NEW").counter().count());
+        assertEquals(1, registry.get("pipeline.records.consumed").tags("topic", "movies", "type", "UPDATE").counter()
+                .count());
+        assertEquals(1, registry.get("pipeline.records.consumed").tags("topic", "ratings").counter().count());
+    }
+
+    private static ConsumerRecord<Integer, byte[]> record(long createdAt, long sentAt) {
+        ConsumerRecord<Integer, byte[]> record = new ConsumerRecord<>("movies", 0, 0, 1, new byte[0]);
+        record.headers().add(PipelineMetrics.CREATED_AT_HEADER, Long.toString(createdAt).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(PipelineMetrics.SENT_AT_HEADER, Long.toString(sentAt).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
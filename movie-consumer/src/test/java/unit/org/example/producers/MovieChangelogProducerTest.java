@@ -0,0 +1,69 @@
+package org.example.producers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.example.entities.Movie;
+import org.example.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link MovieChangelogProducer} class.
+ */
+class MovieChangelogProducerTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<Integer, String> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+
+    private final MovieChangelogProducer producer = new MovieChangelogProducer(kafkaTemplate, new ObjectMapper(),
+            movieRepository, "movies-changelog", true);
+
+    /**
+     * Test case verifying that changes which could not be published are published again in the current state of
+     * their movies, as a tombstone for a movie that is no longer stored.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void republishFailedChanges() {
+        // Given
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("brokers unreachable")))
+                .thenThrow(new KafkaException("buffer exhausted"))
+                .thenReturn(new CompletableFuture<SendResult<Integer, String>>());
+        when(movieRepository.findById(1)).thenReturn(Optional.of(
+                Movie.builder().Id(1).title("Heat (1995)").genres("Action").build()));
+        when(movieRepository.findById(2)).thenReturn(Optional.empty());
+        producer.publishSaved(Movie.builder().Id(1).title("Heat").genres("Action").build());
+        producer.publishDeleted(2);
+        // When
+        int queued = producer.unpublishedCount();
+        producer.republishFailed();
+        // Then
+        assertEquals(2, queued);
+        assertEquals(0, producer.unpublishedCount());
+        ArgumentCaptor<ProducerRecord<Integer, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(4)).send(sent.capture());
+        List<ProducerRecord<Integer, String>> republished = sent.getAllValues().subList(2, 4);
+        assertEquals(1, republished.get(0).key());
+        assertEquals("{\"Id\":1,\"title\":\"Heat (1995)\",\"genres\":\"Action\"}", republished.get(0).value());
+        assertEquals(2, republished.get(1).key());
+        assertNull(republished.get(1).value());
+    }
+}
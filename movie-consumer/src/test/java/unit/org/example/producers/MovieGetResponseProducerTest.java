@@ -0,0 +1,87 @@
+package org.example.producers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.entities.Movie;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the {@link MovieGetResponseProducer} class.
+ */
+class MovieGetResponseProducerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<Integer, String> kafkaTemplate = mock(KafkaTemplate.class);
+
+    /**
+     * Test case verifying found movies are packed into size-capped JSON arrays, the last one carrying the marker.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsSizeCappedBatchesWithMarker() throws Exception {
+        // Given
+        int maxBatchBytes = 1024;
+        MovieGetResponseProducer producer = new MovieGetResponseProducer(kafkaTemplate, objectMapper, maxBatchBytes);
+        List<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            movies.add(Movie.builder().Id(id).title("Movie é " + id).genres("Comedy|Drama").build());
+        }
+        // When
+        producer.sendResults(movies, "search");
+        // Then
+        ArgumentCaptor<ProducerRecord<Integer, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, atLeastOnce()).send(sent.capture());
+        List<ProducerRecord<Integer, String>> records = sent.getAllValues();
+        assertTrue(records.size() > 1);
+        int received = 0;
+        for (ProducerRecord<Integer, String> record : records) {
+            assertTrue(record.value().getBytes(StandardCharsets.UTF_8).length <= maxBatchBytes);
+            List<Map<String, Object>> batch = objectMapper.readValue(record.value(), new TypeReference<>() {
+            });
+            assertEquals(received + 1, batch.get(0).get("Id"));
+            assertEquals("GET", batch.get(0).get("movieType"));
+            received += batch.size();
+        }
+        assertEquals(100, received);
+        ProducerRecord<Integer, String> last = records.get(records.size() - 1);
+        assertNotNull(last.headers().lastHeader(MovieGetResponseProducer.END_OF_RESULTS_HEADER));
+        assertEquals("100", new String(last.headers().lastHeader(MovieGetResponseProducer.RESULT_COUNT_HEADER).value(),
+                StandardCharsets.UTF_8));
+        assertNull(records.get(0).headers().lastHeader(MovieGetResponseProducer.END_OF_RESULTS_HEADER));
+    }
+
+    /**
+     * Test case verifying a correlated search without results is still answered with the marker.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void answersEmptySearchWithMarker() {
+        // Given
+        MovieGetResponseProducer producer = new MovieGetResponseProducer(kafkaTemplate, objectMapper, 1024);
+        // When
+        producer.sendResults(List.of(), "search");
+        // Then
+        ArgumentCaptor<ProducerRecord<Integer, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertEquals("[]", sent.getValue().value());
+        assertNotNull(sent.getValue().headers().lastHeader(MovieGetResponseProducer.END_OF_RESULTS_HEADER));
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.repositories;
+
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link MovieBulkRepository} class.
+ */
+class MovieBulkRepositoryTest {
+
+    /**
+     * Test case verifying the CSV rows streamed to {@code COPY}: strings quoted with doubled quotes, nulls as empty
+     * unquoted fields.
+     */
+    @Test
+    void writesCopyRows() {
+        // Given
+        Movie quoted = Movie.builder().Id(11).movieType(MovieType.NEW).title("American President, The \"1995\"")
+                .genres("Comedy|Drama").build();
+        Movie rated = Movie.builder().Id(12).movieType(MovieType.UPDATE).title("Heat").averageRating(4.5)
+                .ratingCount(2L).build();
+        // When
+        String csv = MovieBulkRepository.toCsv(List.of(quoted, rated));
+        // Then
+        assertEquals("11,\"NEW\",\"American President, The \"\"1995\"\"\",\"Comedy|Drama\",,\n"
+                + "12,\"UPDATE\",\"Heat\",,4.5,2\n", csv);
+    }
+}
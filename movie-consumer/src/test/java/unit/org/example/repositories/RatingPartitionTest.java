@@ -0,0 +1,59 @@
+package org.example.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link RatingPartition} class.
+ */
+class RatingPartitionTest {
+
+    /**
+     * Test case verifying the yearly and monthly partitions of a time stamp and their UTC bounds.
+     */
+    @Test
+    void findsPartitionOfTimeStamp() {
+        // Given
+        long timeStamp = 964982703;
+        // When
+        RatingPartition year = RatingPartition.of(timeStamp, ChronoUnit.YEARS);
+        RatingPartition month = RatingPartition.of(timeStamp, ChronoUnit.MONTHS);
+        // Then
+        assertEquals(new RatingPartition("rating_2000", 946684800, 978307200), year);
+        assertEquals(new RatingPartition("rating_200007", 962409600, 965088000), month);
+        assertThrows(IllegalArgumentException.class, () -> RatingPartition.of(timeStamp, ChronoUnit.DAYS));
+    }
+
+    /**
+     * Test case verifying that partition tables are recognized by name, whatever their case, and other tables not.
+     */
+    @Test
+    void parsesTableNames() {
+        // When / Then
+        assertEquals(RatingPartition.of(964982703, ChronoUnit.YEARS), RatingPartition.parse("RATING_2000"));
+        assertEquals(RatingPartition.of(964982703, ChronoUnit.MONTHS), RatingPartition.parse("rating_200007"));
+        assertNull(RatingPartition.parse("rating"));
+        assertNull(RatingPartition.parse("rating_movie_time"));
+    }
+
+    /**
+     * Test case verifying that a partition overlaps a window sharing at least one second with it.
+     */
+    @Test
+    void overlapsWindows() {
+        // Given
+        RatingPartition partition = new RatingPartition("rating_2000", 946684800, 978307200);
+        // When / Then
+        assertTrue(partition.overlaps(0, 946684801));
+        assertTrue(partition.overlaps(978307199, Long.MAX_VALUE));
+        assertFalse(partition.overlaps(0, 946684800));
+        assertFalse(partition.overlaps(978307200, Long.MAX_VALUE));
+    }
+}
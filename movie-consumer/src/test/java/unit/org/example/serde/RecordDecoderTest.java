@@ -0,0 +1,65 @@
+package org.example.serde;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.entities.Movie;
+import org.example.entities.MovieType;
+import org.example.entities.Rating;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the {@link RecordDecoder} class.
+ */
+class RecordDecoderTest {
+
+    private final RecordDecoder recordDecoder = new RecordDecoder(new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    /**
+     * Test case verifying JSON and binary records decode to the same entities.
+     */
+    @Test
+    void decodesBothFormats() throws IOException {
+        // Given
+        Movie movie = Movie.builder().Id(1).movieType(MovieType.UPDATE).title("Amélie (2001)").genres("Comedy|Romance").build();
+        Rating rating = Rating.builder().userId(7).Movie(Movie.builder().Id(31).build()).rating(2.5).timeStamp(1260759144).build();
+        String movieJson = "{\"Id\":1,\"movieType\":\"UPDATE\",\"title\":\"Amélie (2001)\",\"genres\":\"Comedy|Romance\"}";
+        String ratingJson = "{\"userId\":7,\"movieId\":31,\"rating\":2.5,\"timeStamp\":1260759144}";
+        // Then
+        Movie fromBinary = recordDecoder.readMovie(BinaryRecordCodec.writeMovie(movie));
+        Movie fromJson = recordDecoder.readMovie(movieJson.getBytes(StandardCharsets.UTF_8));
+        assertEquals(movie.getTitle(), fromBinary.getTitle());
+        assertEquals(movie.getMovieType(), fromBinary.getMovieType());
+        assertEquals(movie.getTitle(), fromJson.getTitle());
+        assertEquals(movie.getGenres(), fromJson.getGenres());
+        assertEquals(rating, recordDecoder.readRating(BinaryRecordCodec.writeRating(rating)));
+        assertEquals(rating, recordDecoder.readRating(ratingJson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test case verifying fields unknown to this version are skipped and missing fields stay empty.
+     */
+    @Test
+    void toleratesSchemaChanges() throws IOException {
+        // Given
+        byte[] written = BinaryRecordCodec.writeRating(Rating.builder().Movie(Movie.builder().Id(5).build()).rating(4.0).build());
+        byte[] extraFields = new BinaryWriter(16).stringField(12, "tag").intField(13, 42).toByteArray();
+        byte[] newer = Arrays.copyOf(written, written.length + extraFields.length);
+        System.arraycopy(extraFields, 0, newer, written.length, extraFields.length);
+        // When
+        Rating rating = recordDecoder.readRating(newer);
+        // Then
+        assertEquals(5, rating.getMovie().getId());
+        assertEquals(4.0, rating.getRating());
+        assertNull(rating.getUserId());
+        assertThrows(IllegalArgumentException.class, () -> recordDecoder.readMovie(written));
+    }
+}
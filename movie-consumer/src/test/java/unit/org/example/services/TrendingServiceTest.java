@@ -0,0 +1,34 @@
+package org.example.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link TrendingService} class.
+ */
+class TrendingServiceTest {
+
+    /**
+     * Test case verifying that the rankings are only complete while every ratings partition is assigned to this
+     * instance.
+     */
+    @Test
+    void completeOnlyWithAllPartitions() {
+        // Given
+        TrendingService trendingService = new TrendingService(Duration.ofDays(7), Duration.ofDays(7),
+                Duration.ofDays(1), Duration.ofDays(28), 100, 10);
+        // Expect
+        assertFalse(trendingService.isComplete());
+        trendingService.assigned(List.of(0, 1), 3);
+        assertFalse(trendingService.isComplete());
+        trendingService.assigned(List.of(2), 3);
+        assertTrue(trendingService.isComplete());
+        trendingService.revoked(List.of(1));
+        assertFalse(trendingService.isComplete());
+    }
+}
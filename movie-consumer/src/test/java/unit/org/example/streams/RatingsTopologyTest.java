@@ -0,0 +1,87 @@
+package org.example.streams;
+
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the {@link RatingsTopology} class using the Kafka Streams topology test driver.
+ */
+class RatingsTopologyTest {
+
+    private TopologyTestDriver driver;
+
+    private TestInputTopic<Integer, String> ratings;
+
+    private KeyValueStore<Integer, RatingStats> store;
+
+    /**
+     * Builds the topology and opens a test driver on it.
+     */
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        RatingsTopology.build(builder, "ratings");
+        Properties properties = new Properties();
+        properties.put(StreamsConfig.APPLICATION_ID_CONFIG, "ratings-topology-test");
+        properties.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), properties);
+        ratings = driver.createInputTopic("ratings", new IntegerSerializer(), new StringSerializer());
+        store = driver.getKeyValueStore(RatingsTopology.STATS_STORE);
+    }
+
+    /**
+     * Closes the test driver and its state stores.
+     */
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    /**
+     * Test case verifying that unkeyed ratings are re-keyed by movie id and aggregated into count, sum, min and max.
+     */
+    @Test
+    void aggregatesRatingsPerMovie() {
+        // When
+        ratings.pipeInput(rating(1, 7, 4.0));
+        ratings.pipeInput(rating(2, 7, 2.5));
+        ratings.pipeInput(rating(3, 8, 5.0));
+        ratings.pipeInput(rating(4, 7, 3.0));
+        // Then
+        assertEquals(new RatingStats(3, 9.5, 2.5, 4.0), store.get(7));
+        assertEquals(new RatingStats(1, 5.0, 5.0, 5.0), store.get(8));
+        assertEquals(9.5 / 3, store.get(7).average(), 1e-9);
+    }
+
+    /**
+     * Test case verifying that malformed ratings are dropped without stopping the topology.
+     */
+    @Test
+    void dropsMalformedRatings() {
+        // When
+        ratings.pipeInput("not json");
+        ratings.pipeInput("{\"userId\":1,\"rating\":4.0}");
+        ratings.pipeInput(rating(1, 9, 1.5));
+        // Then
+        assertEquals(new RatingStats(1, 1.5, 1.5, 1.5), store.get(9));
+        assertNull(store.get(0));
+    }
+
+    private static String rating(int userId, int movieId, double rating) {
+        return "{\"userId\":" + userId + ",\"movieId\":" + movieId + ",\"rating\":" + rating
+                + ",\"timeStamp\":964982703}";
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import org.example.metrics.PipelineMetrics;
+import org.example.producers.BatchingPolicy;
+import org.example.producers.ProducerChannel;
+import org.example.producers.ProducerSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the Kafka producers of interactive and bulk traffic.
+ *
+ * Both channels share the {@code spring.kafka.producer} configuration and override its batching settings: single
+ * records sent by REST calls leave immediately, while uploads wait for large, compressed batches whose settings are
+ * retuned to the observed throughput.
+ */
+@Configuration
+@EnableScheduling
+public class KafkaProducerConfig {
+
+    /**
+     * Creates the channel of single-record sends.
+     *
+     * @param kafkaProperties The Kafka properties of the application.
+     * @param sslBundles      The SSL bundles referenced by the Kafka properties.
+     * @param lingerMs        The linger time.
+     * @param batchSize       The batch size.
+     * @param compressionType The compression codec.
+     * @param pipelineMetrics The metrics the statistics of the channel are registered in.
+     * @return The interactive producer channel.
+     */
+    @Bean
+    public ProducerChannel interactiveProducer(KafkaProperties kafkaProperties, SslBundles sslBundles,
+                                               @Value("${producer.interactive.linger-ms:0}") int lingerMs,
+                                               @Value("${producer.interactive.batch-size:16384}") int batchSize,
+                                               @Value("${producer.interactive.compression-type:none}") String compressionType,
+                                               PipelineMetrics pipelineMetrics) {
+        return channel("interactive", kafkaProperties, sslBundles, new ProducerSettings(lingerMs, batchSize, compressionType),
+                pipelineMetrics);
+    }
+
+    /**
+     * Creates the channel of upload sends.
+     *
+     * @param kafkaProperties The Kafka properties of the application.
+     * @param sslBundles      The SSL bundles referenced by the Kafka properties.
+     * @param lingerMs        The initial linger time.
+     * @param batchSize       The initial batch size.
+     * @param compressionType The initial compression codec.
+     * @param pipelineMetrics The metrics the statistics of the channel are registered in.
+     * @return The bulk producer channel.
+     */
+    @Bean
+    public ProducerChannel bulkProducer(KafkaProperties kafkaProperties, SslBundles sslBundles,
+                                        @Value("${producer.bulk.linger-ms:20}") int lingerMs,
+                                        @Value("${producer.bulk.batch-size:262144}") int batchSize,
+                                        @Value("${producer.bulk.compression-type:lz4}") String compressionType,
+                                        PipelineMetrics pipelineMetrics) {
+        return channel("bulk", kafkaProperties, sslBundles, new ProducerSettings(lingerMs, batchSize, compressionType),
+                pipelineMetrics);
+    }
+
+    /**
+     * Creates the policy retuning the bulk channel.
+     *
+     * @param minLingerMs                        The lower bound of the linger time.
+     * @param maxLingerMs                        The upper bound of the linger time.
+     * @param minBatchSize                       The lower bound of the batch size.
+     * @param maxBatchSize                       The upper bound of the batch size.
+     * @param compressionType                    The compression codec used for sustained traffic.
+     * @param compressionThresholdBytesPerSecond The byte rate from which batches are compressed.
+     * @param targetAckLatencyMillis             The mean acknowledgement latency the batch size is steered to.
+     * @param minSampleRecords                   The number of records an interval needs to be considered.
+     * @return The bulk batching policy.
+     */
+    @Bean
+    public BatchingPolicy bulkBatchingPolicy(@Value("${producer.bulk.min-linger-ms:5}") int minLingerMs,
+                                             @Value("${producer.bulk.max-linger-ms:100}") int maxLingerMs,
+                                             @Value("${producer.bulk.min-batch-size:65536}") int minBatchSize,
+                                             @Value("${producer.bulk.max-batch-size:1048576}") int maxBatchSize,
+                                             @Value("${producer.bulk.compression-type:lz4}") String compressionType,
+                                             @Value("${producer.bulk.compression-threshold-bytes-per-second:1048576}") long compressionThresholdBytesPerSecond,
+                                             @Value("${producer.bulk.target-ack-latency-ms:200}") double targetAckLatencyMillis,
+                                             @Value("${producer.bulk.min-sample-records:1000}") long minSampleRecords) {
+        return new BatchingPolicy(minLingerMs, maxLingerMs, minBatchSize, maxBatchSize, compressionType,
+                compressionThresholdBytesPerSecond, targetAckLatencyMillis, minSampleRecords);
+    }
+
+    private static ProducerChannel channel(String name, KafkaProperties kafkaProperties, SslBundles sslBundles,
+                                           ProducerSettings settings, PipelineMetrics pipelineMetrics) {
+        Map<String, Object> base = kafkaProperties.buildProducerProperties(sslBundles);
+        ProducerChannel channel = new ProducerChannel(name, settings, producerSettings -> {
+            Map<String, Object> config = new HashMap<>(base);
+            config.putAll(producerSettings.toConfig());
+            return new DefaultKafkaProducerFactory<>(config);
+        });
+        pipelineMetrics.registerProducerChannel(channel);
+        return channel;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the executor running background upload jobs.
+ *
+ * Upload jobs run on their own bounded pool, so that long CSV uploads never occupy the web server threads. With
+ * {@code spring.threads.virtual.enabled} on Java 21 or later the workers are virtual threads, which release their
+ * carrier thread while waiting for disk reads and broker acknowledgements.
+ */
+@Configuration
+public class UploadJobConfig {
+
+    /**
+     * Creates the executor running background upload jobs.
+     *
+     * @param workers       The number of uploads processed concurrently.
+     * @param queueCapacity The number of accepted uploads that may wait for a free worker.
+     * @param environment   The environment telling whether virtual threads are enabled.
+     * @return The upload job executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor uploadJobExecutor(@Value("${ingestion.jobs.workers:2}") int workers,
+                                                    @Value("${ingestion.jobs.queue-capacity:16}") int queueCapacity,
+                                                    Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-job-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("upload-job-").getVirtualThreadFactory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -4,6 +4,7 @@ package org.example.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ingestion.UploadResult;
 import org.example.records.Movie;
 import org.example.records.MovieType;
 import org.example.services.MovieService;
@@ -14,9 +15,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 
 /**
@@ -51,12 +53,14 @@ public class MovieController {
         if (csvFile.isEmpty()) {
             return ResponseEntity.badRequest().body("Please select a file to upload");
         }
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csvFile.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                movieService.sendMovie(movieService.parseMoviesCsvLine(line));
+        try (InputStream csv = csvFile.getInputStream()) {
+            UploadResult result = movieService.uploadMoviesFromCsv(csv);
+            log.info("Movies file {} processed: {}", csvFile.getOriginalFilename(), result);
+            if (!result.successful()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Error processing the file: " + result.sends().failed() + " of "
+                                + result.sends().sent() + " records could not be sent");
             }
-
             return ResponseEntity.status(HttpStatus.CREATED).body("File processed successfully");
         } catch (IOException e) {
             e.printStackTrace(); // Handle the exception appropriately in your application
@@ -144,16 +148,13 @@ public class MovieController {
      * @param genres The genres to search for.
      * @return ResponseEntity containing a JSON list of movies matching the given genres.
      * @throws JsonProcessingException If there is an issue processing JSON.
-     * @throws InterruptedException    If the thread is interrupted while sleeping.
+     * @throws InterruptedException    If the thread is interrupted while waiting for the search results.
      */
     @GetMapping("/get/movies/genres/{genres}")
     public ResponseEntity<?> searchMoviesByGenres(@PathVariable String genres) throws JsonProcessingException, InterruptedException {
         final int movieIdForSearchingGenres = -2;
         Movie movieGetRequestByGenres = new Movie(movieIdForSearchingGenres, MovieType.GET, "", genres);
-        movieService.sendMovie(movieGetRequestByGenres);
-        Thread.sleep(300);
-        String jsonMoviesResponseList = movieService.getJsonResponse();
-        return ResponseEntity.status(HttpStatus.OK).body(jsonMoviesResponseList);
+        return search(movieGetRequestByGenres);
     }
 
     /**
@@ -162,15 +163,33 @@ public class MovieController {
      * @param title The title to search for.
      * @return ResponseEntity containing a JSON list of movies matching the given title.
      * @throws JsonProcessingException If there is an issue processing JSON.
-     * @throws InterruptedException    If the thread is interrupted while sleeping.
+     * @throws InterruptedException    If the thread is interrupted while waiting for the search results.
      */
     @GetMapping("/get/movies/title/{title}")
     public ResponseEntity<?> searchMoviesByTitle(@PathVariable String title) throws JsonProcessingException, InterruptedException {
         final int movieIdForSearchingTitle = -1;
         Movie movieGetRequestByTitle = new Movie(movieIdForSearchingTitle, MovieType.GET, title, ""); // Create a Movie object with necessary details
-        movieService.sendMovie(movieGetRequestByTitle);
-        Thread.sleep(300);
-        String jsonMoviesResponseList = movieService.getJsonResponse();
-        return ResponseEntity.status(HttpStatus.OK).body(jsonMoviesResponseList);
+        return search(movieGetRequestByTitle);
+    }
+
+    /**
+     * Runs a search and maps its outcome to a response.
+     *
+     * @param movieGetRequest The Movie object of type GET describing the search.
+     * @return ResponseEntity containing a JSON list of the movies found, or an error message.
+     * @throws JsonProcessingException If there is an issue processing JSON.
+     * @throws InterruptedException    If the thread is interrupted while waiting for the search results.
+     */
+    private ResponseEntity<?> search(Movie movieGetRequest) throws JsonProcessingException, InterruptedException {
+        try {
+            String jsonMoviesResponseList = movieService.searchMovies(movieGetRequest);
+            return ResponseEntity.status(HttpStatus.OK).body(jsonMoviesResponseList);
+        } catch (TimeoutException e) {
+            log.warn("Search {} timed out", movieGetRequest);
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("The search did not complete in time");
+        } catch (ExecutionException e) {
+            log.error("Search {} failed: {}", movieGetRequest, e.getCause().getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing the search");
+        }
     }
 }
@@ -0,0 +1,47 @@
+package org.example.controllers;
+
+import org.example.producers.ProducerChannel;
+import org.example.producers.ProducerChannelStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller class exposing the effective settings and throughput of the producer channels.
+ */
+@RestController
+public class ProducerStatsController {
+
+    private final ProducerChannel interactiveProducer;
+
+    private final ProducerChannel bulkProducer;
+
+    /**
+     * Constructor for ProducerStatsController.
+     *
+     * @param interactiveProducer The channel of single-record sends.
+     * @param bulkProducer        The channel of upload sends.
+     */
+    public ProducerStatsController(@Qualifier("interactiveProducer") ProducerChannel interactiveProducer,
+                                   @Qualifier("bulkProducer") ProducerChannel bulkProducer) {
+        this.interactiveProducer = interactiveProducer;
+        this.bulkProducer = bulkProducer;
+    }
+
+    /**
+     * Retrieves the batching settings, the throughput of the last measurement interval and the send totals of both
+     * producer channels.
+     *
+     * @return The statistics by channel name.
+     */
+    @GetMapping("/api/producer/stats")
+    public Map<String, ProducerChannelStats> getProducerStats() {
+        Map<String, ProducerChannelStats> stats = new LinkedHashMap<>();
+        stats.put(interactiveProducer.name(), interactiveProducer.stats());
+        stats.put(bulkProducer.name(), bulkProducer.stats());
+        return stats;
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.controllers;
 
+import lombok.extern.slf4j.Slf4j;
+import org.example.ingestion.UploadResult;
 import org.example.services.RatingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,11 +11,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 
 @RestController
+@Slf4j
 public class RatingController {
 
 
@@ -28,10 +30,13 @@ public class RatingController {
         if (csvFile.isEmpty()) {
             return ResponseEntity.badRequest().body("Please select a file to upload");
         }
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csvFile.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                ratingService.sendRatingRecord(ratingService.parseRatingCsvLine(line));
+        try (InputStream csv = csvFile.getInputStream()) {
+            UploadResult result = ratingService.uploadRatingsFromCsv(csv);
+            log.info("Ratings file {} processed: {}", csvFile.getOriginalFilename(), result);
+            if (!result.successful()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Error processing the file: " + result.sends().failed() + " of "
+                                + result.sends().sent() + " records could not be sent");
             }
             return ResponseEntity.status(HttpStatus.CREATED).body("File processed successfully");
         } catch (IOException e) {
@@ -0,0 +1,109 @@
+package org.example.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ingestion.UploadJob;
+import org.example.ingestion.UploadJobStatus;
+import org.example.services.UploadJobService;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST controller class for CSV uploads processed as background jobs.
+ */
+@RestController
+@Slf4j
+public class UploadJobController {
+
+    private final UploadJobService uploadJobService;
+
+    /**
+     * Constructor for UploadJobController.
+     *
+     * @param uploadJobService The UploadJobService to be injected.
+     */
+    public UploadJobController(UploadJobService uploadJobService) {
+        this.uploadJobService = uploadJobService;
+    }
+
+    /**
+     * Endpoint for accepting a movies CSV file as a background job.
+     *
+     * @param csvFile The CSV file containing movie data.
+     * @return ResponseEntity with the status of the accepted job and its location.
+     */
+    @PostMapping("/api/upload-jobs/movies")
+    public ResponseEntity<?> submitMovies(@RequestParam("file") MultipartFile csvFile) {
+        if (csvFile.isEmpty()) {
+            return ResponseEntity.badRequest().body("Please select a file to upload");
+        }
+        try {
+            return accepted(uploadJobService.submitMovies(csvFile));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many uploads in progress, please retry later");
+        } catch (IOException e) {
+            log.error("Could not accept the movies file: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing the file");
+        }
+    }
+
+    /**
+     * Endpoint for accepting a ratings CSV file as a background job.
+     *
+     * @param csvFile The CSV file containing rating data.
+     * @return ResponseEntity with the status of the accepted job and its location.
+     */
+    @PostMapping("/api/upload-jobs/ratings")
+    public ResponseEntity<?> submitRatings(@RequestParam("file") MultipartFile csvFile) {
+        if (csvFile.isEmpty()) {
+            return ResponseEntity.badRequest().body("Please select a file to upload");
+        }
+        try {
+            return accepted(uploadJobService.submitRatings(csvFile));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many uploads in progress, please retry later");
+        } catch (IOException e) {
+            log.error("Could not accept the ratings file: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing the file");
+        }
+    }
+
+    /**
+     * Retrieves the progress of an upload job.
+     *
+     * @param id The id of the job.
+     * @return ResponseEntity containing the status of the job, or 404 if the job is unknown.
+     */
+    @GetMapping("/api/upload-jobs/{id}")
+    public ResponseEntity<UploadJobStatus> getJob(@PathVariable String id) {
+        return uploadJobService.find(id)
+                .map(job -> ResponseEntity.ok(job.status()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the progress of all known upload jobs.
+     *
+     * @return ResponseEntity containing the status of every queued, running and retained finished job.
+     */
+    @GetMapping("/api/upload-jobs")
+    public ResponseEntity<List<UploadJobStatus>> getJobs() {
+        return ResponseEntity.ok(uploadJobService.findAll().stream().map(UploadJob::status).toList());
+    }
+
+    private ResponseEntity<UploadJobStatus> accepted(UploadJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/upload-jobs/" + job.getId()))
+                .body(job.status());
+    }
+}
@@ -0,0 +1,274 @@
+package org.example.ingestion;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.metrics.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Parallel CSV ingestion engine.
+ * <p>
+ * The input is read sequentially into line-aligned chunks which are parsed in parallel on a bounded
+ * worker pool. Parsed chunks are handed to the sink strictly in file order, so records sharing a key
+ * reach the {@link org.example.producers.RecordsProducer} in the same order as they appear in the file.
+ * The number of chunks in flight per run is bounded, which keeps memory usage independent of the file size.
+ * </p>
+ * <p>
+ * Records are tokenized with {@link CsvTokenizer}, so quoted fields may contain delimiters and line breaks.
+ * The first record of the input is treated as a header row and skipped if its first field is not a number,
+ * which is the case for the MovieLens files.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CsvIngestionEngine {
+
+    /**
+     * Turns the current record of a {@link CsvTokenizer} into a typed record.
+     *
+     * @param <T> The type of the parsed record.
+     */
+    @FunctionalInterface
+    public interface RowParser<T> {
+
+        /**
+         * Parses the current record of the tokenizer.
+         *
+         * @param row The tokenizer positioned on the record to parse.
+         * @return The parsed record.
+         * @throws IllegalArgumentException If the record is malformed.
+         */
+        T parse(CsvTokenizer row);
+    }
+
+    /**
+     * Receives parsed records in file order.
+     *
+     * @param <T> The type of the parsed record.
+     */
+    @FunctionalInterface
+    public interface RecordSink<T> {
+
+        /**
+         * Accepts a parsed record.
+         *
+         * @param record The parsed record.
+         * @throws IOException If the record could not be handed over.
+         */
+        void accept(T record) throws IOException;
+    }
+
+    /**
+     * Records of a single parsed chunk together with the number of skipped lines.
+     */
+    private record ParsedChunk<T>(List<T> records, int malformed) {
+    }
+
+    private final ExecutorService workers;
+
+    private final int chunkSize;
+
+    private final int maxChunksInFlight;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    /**
+     * Constructs a CsvIngestionEngine.
+     *
+     * @param workerCount     The number of parser threads, or 0 to use one thread per available core.
+     * @param chunkSize       The number of characters read per chunk before it is cut at the last line break.
+     * @param pipelineMetrics The metrics the parse time of every chunk is recorded in.
+     */
+    public CsvIngestionEngine(@Value("${ingestion.workers:0}") int workerCount,
+                              @Value("${ingestion.chunk-size:1048576}") int chunkSize,
+                              PipelineMetrics pipelineMetrics) {
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.pipelineMetrics = pipelineMetrics;
+        this.maxChunksInFlight = threads * 2;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new WorkerThreadFactory());
+    }
+
+    /**
+     * Reads the given CSV input, parses its records in parallel and hands them to the sink in file order.
+     * Blank lines and a leading header row are ignored, records rejected by the tokenizer or the parser are
+     * counted as malformed and skipped.
+     *
+     * @param input  The CSV input. It is not closed by this method.
+     * @param parser The parser applied to every record.
+     * @param sink   The sink receiving the parsed records on the calling thread.
+     * @param <T>    The type of the parsed record.
+     * @return The summary of the ingestion run.
+     * @throws IOException If reading the input or handing over a record fails.
+     */
+    public <T> IngestionResult ingest(InputStream input, RowParser<T> parser, RecordSink<T> sink) throws IOException {
+        return ingest(input, parser, sink, rows -> {
+        });
+    }
+
+    /**
+     * Reads the given CSV input, parses its records in parallel and hands them to the sink in file order, reporting
+     * the progress of the parser. Parsing runs ahead of the sink by up to the number of chunks in flight.
+     *
+     * @param input      The CSV input. It is not closed by this method.
+     * @param parser     The parser applied to every record.
+     * @param sink       The sink receiving the parsed records on the calling thread.
+     * @param parsedRows Receives the number of well-formed rows of every chunk once it is parsed, on the worker thread.
+     * @param <T>        The type of the parsed record.
+     * @return The summary of the ingestion run.
+     * @throws IOException If reading the input or handing over a record fails.
+     */
+    public <T> IngestionResult ingest(InputStream input, RowParser<T> parser, RecordSink<T> sink,
+                                      LongConsumer parsedRows) throws IOException {
+        long start = System.nanoTime();
+        ArrayDeque<CompletableFuture<ParsedChunk<T>>> inFlight = new ArrayDeque<>();
+        long[] totals = new long[2];
+        long chunks = 0;
+
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        char[] buffer = new char[chunkSize];
+        int filled = 0;
+        int read;
+        try {
+            while ((read = reader.read(buffer, filled, buffer.length - filled)) != -1) {
+                filled += read;
+                if (filled < buffer.length) {
+                    continue;
+                }
+                int cut = CsvTokenizer.lastRecordEnd(buffer, filled);
+                if (cut < 0) {
+                    // A single record is longer than the buffer, grow it instead of cutting the record
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+                char[] next = new char[Math.max(chunkSize, filled - cut)];
+                System.arraycopy(buffer, cut, next, 0, filled - cut);
+                submit(inFlight, buffer, cut, chunks == 0, parser, parsedRows);
+                chunks++;
+                buffer = next;
+                filled -= cut;
+                while (inFlight.size() >= maxChunksInFlight) {
+                    drainHead(inFlight, sink, totals);
+                }
+            }
+            if (filled > 0) {
+                submit(inFlight, buffer, filled, chunks == 0, parser, parsedRows);
+                chunks++;
+            }
+            while (!inFlight.isEmpty()) {
+                drainHead(inFlight, sink, totals);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(false));
+        }
+
+        IngestionResult result = new IngestionResult(totals[0], totals[1], chunks, System.nanoTime() - start);
+        log.info("Ingested {} rows ({} malformed) in {} chunks at {} rows/sec",
+                result.rows(), result.malformedRows(), result.chunks(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Schedules the parsing of a chunk on the worker pool.
+     */
+    private <T> void submit(ArrayDeque<CompletableFuture<ParsedChunk<T>>> inFlight, char[] chunk, int length,
+                            boolean first, RowParser<T> parser, LongConsumer parsedRows) {
+        inFlight.addLast(CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            ParsedChunk<T> parsed = parseChunk(chunk, length, first, parser);
+            pipelineMetrics.recordParse(System.nanoTime() - start);
+            parsedRows.accept(parsed.records().size());
+            return parsed;
+        }, workers));
+    }
+
+    /**
+     * Waits for the oldest chunk in flight and hands its records to the sink.
+     */
+    private <T> void drainHead(ArrayDeque<CompletableFuture<ParsedChunk<T>>> inFlight, RecordSink<T> sink,
+                               long[] totals) throws IOException {
+        ParsedChunk<T> parsed;
+        try {
+            parsed = inFlight.removeFirst().join();
+        } catch (CompletionException e) {
+            throw new IOException("Failed to parse CSV chunk", e.getCause());
+        }
+        for (T record : parsed.records()) {
+            sink.accept(record);
+        }
+        totals[0] += parsed.records().size();
+        totals[1] += parsed.malformed();
+    }
+
+    /**
+     * Tokenizes a chunk and parses its records. Runs on a worker thread.
+     */
+    private static <T> ParsedChunk<T> parseChunk(char[] chunk, int length, boolean first, RowParser<T> parser) {
+        List<T> records = new ArrayList<>(length / 32);
+        CsvTokenizer row = new CsvTokenizer().reset(chunk, 0, length);
+        int malformed = 0;
+        boolean headerCandidate = first;
+        while (true) {
+            try {
+                if (!row.nextRecord()) {
+                    break;
+                }
+                if (headerCandidate) {
+                    headerCandidate = false;
+                    if (!row.isInt(0)) {
+                        continue;
+                    }
+                }
+                records.add(parser.parse(row));
+            } catch (IllegalArgumentException e) {
+                malformed++;
+                log.debug("Skipping malformed CSV record: {}", e.getMessage());
+            }
+        }
+        return new ParsedChunk<>(records, malformed);
+    }
+
+    /**
+     * Stops the worker pool when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Creates named daemon threads for the worker pool.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "csv-ingest-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
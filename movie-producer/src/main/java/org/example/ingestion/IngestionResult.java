@@ -0,0 +1,26 @@
+package org.example.ingestion;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a single CSV ingestion run.
+ *
+ * @param rows          Number of rows that were parsed and handed to the sink.
+ * @param malformedRows Number of rows that could not be parsed and were skipped.
+ * @param chunks        Number of line-aligned chunks the input was split into.
+ * @param elapsedNanos  Wall-clock time of the whole run in nanoseconds.
+ */
+public record IngestionResult(long rows, long malformedRows, long chunks, long elapsedNanos) {
+
+    /**
+     * Calculates the throughput of the run.
+     *
+     * @return The number of parsed rows per second, or 0 if no time has elapsed.
+     */
+    public double rowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.ingestion;
+
+import org.example.producers.SendWindow;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A CSV upload processed in the background.
+ * <p>
+ * The job tracks how many bytes of the file were read, how many rows the {@link CsvIngestionEngine} parsed and,
+ * through its {@link SendWindow}, how many rows were acknowledged or failed. The current throughput is sampled
+ * whenever the {@link #status()} is requested, and the ETA is derived from the unread part of the file while parsing
+ * and from the outstanding acknowledgements afterwards.
+ * </p>
+ */
+public class UploadJob {
+
+    /**
+     * Lifecycle states of an upload job.
+     */
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private static final long MIN_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final String type;
+
+    private final String fileName;
+
+    private final long totalBytes;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+
+    private volatile State state = State.QUEUED;
+
+    private volatile SendWindow window;
+
+    private volatile long startNanos;
+
+    private volatile long finishNanos;
+
+    private volatile UploadResult result;
+
+    private volatile String error;
+
+    private long sampleNanos;
+
+    private long sampleRows;
+
+    private double currentRate;
+
+    /**
+     * Constructs an UploadJob.
+     *
+     * @param type       The kind of records the file contains.
+     * @param fileName   The original name of the uploaded file.
+     * @param totalBytes The size of the uploaded file.
+     */
+    public UploadJob(String type, String fileName, long totalBytes) {
+        this.type = type;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the point in time the job finished at.
+     *
+     * @return The {@link System#nanoTime()} the job finished at, or 0 if it is still queued or running.
+     */
+    public long getFinishedAt() {
+        return finishNanos;
+    }
+
+    /**
+     * Gets the result of the upload.
+     *
+     * @return The result once the job has succeeded, otherwise {@code null}.
+     */
+    public UploadResult getResult() {
+        return result;
+    }
+
+    /**
+     * Marks the job as running.
+     *
+     * @param window The send window the rows of this job are sent through.
+     */
+    public synchronized void start(SendWindow window) {
+        this.window = window;
+        this.startNanos = System.nanoTime();
+        this.sampleNanos = startNanos;
+        this.state = State.RUNNING;
+    }
+
+    /**
+     * Accounts for bytes read from the uploaded file.
+     *
+     * @param bytes The number of bytes read.
+     */
+    public void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    /**
+     * Accounts for rows parsed from the uploaded file.
+     *
+     * @param rows The number of rows parsed.
+     */
+    public void addRowsParsed(long rows) {
+        rowsParsed.addAndGet(rows);
+    }
+
+    /**
+     * Marks the job as finished. The job fails if some of its records could not be sent.
+     *
+     * @param result The result of the upload.
+     */
+    public void complete(UploadResult result) {
+        this.result = result;
+        this.finishNanos = System.nanoTime();
+        this.state = result.successful() ? State.SUCCEEDED : State.FAILED;
+        if (!result.successful()) {
+            this.error = result.sends().failed() + " of " + result.sends().sent() + " records could not be sent";
+        }
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param cause The reason the job failed.
+     */
+    public void fail(Throwable cause) {
+        this.error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        this.finishNanos = System.nanoTime();
+        this.state = State.FAILED;
+    }
+
+    /**
+     * Checks whether the job has finished, successfully or not.
+     *
+     * @return {@code true} if the job has finished.
+     */
+    public boolean isFinished() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    /**
+     * Takes a snapshot of the progress of the job.
+     *
+     * @return The current status.
+     */
+    public synchronized UploadJobStatus status() {
+        State currentState = state;
+        SendWindow sendWindow = window;
+        long parsed = rowsParsed.get();
+        long acked = sendWindow != null ? sendWindow.acked() : 0;
+        long failed = sendWindow != null ? sendWindow.failed() : 0;
+        long read = bytesRead.get();
+        double rate = 0;
+        long eta = -1;
+        if (currentState == State.RUNNING) {
+            long now = System.nanoTime();
+            if (now - sampleNanos >= MIN_SAMPLE_NANOS) {
+                currentRate = (acked - sampleRows) * (double) TimeUnit.SECONDS.toNanos(1) / (now - sampleNanos);
+                sampleNanos = now;
+                sampleRows = acked;
+            }
+            rate = currentRate;
+            eta = estimateSecondsLeft(now, read, parsed - acked - failed);
+        } else if (isFinished()) {
+            rate = finishNanos > startNanos
+                    ? acked * (double) TimeUnit.SECONDS.toNanos(1) / (finishNanos - startNanos) : 0;
+            eta = 0;
+        }
+        return new UploadJobStatus(id, type, fileName, currentState, totalBytes, read, parsed, acked, failed,
+                rate, eta, error);
+    }
+
+    private long estimateSecondsLeft(long now, long read, long pendingAcks) {
+        long elapsed = now - startNanos;
+        if (read > 0 && read < totalBytes) {
+            return TimeUnit.NANOSECONDS.toSeconds((long) (elapsed * ((totalBytes - read) / (double) read)));
+        }
+        if (read >= totalBytes && currentRate > 0) {
+            return (long) Math.ceil(pendingAcks / currentRate);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.ingestion;
+
+/**
+ * Snapshot of the progress of a background upload job.
+ *
+ * @param id            The id of the job.
+ * @param type          The kind of records the uploaded file contains, {@code movies} or {@code ratings}.
+ * @param fileName      The original name of the uploaded file.
+ * @param state         The lifecycle state of the job.
+ * @param totalBytes    The size of the uploaded file.
+ * @param bytesRead     The number of bytes of the file read so far.
+ * @param rowsParsed    The number of well-formed rows parsed so far, including the ones not yet handed to Kafka.
+ * @param rowsAcked     The number of rows acknowledged by Kafka so far.
+ * @param rowsFailed    The number of rows that could not be sent so far.
+ * @param rowsPerSecond The current acknowledgement rate, or the average rate once the job has finished.
+ * @param etaSeconds    The estimated number of seconds until the job finishes, or -1 if unknown.
+ * @param error         The reason the job failed, or {@code null}.
+ */
+public record UploadJobStatus(String id,
+                              String type,
+                              String fileName,
+                              UploadJob.State state,
+                              long totalBytes,
+                              long bytesRead,
+                              long rowsParsed,
+                              long rowsAcked,
+                              long rowsFailed,
+                              double rowsPerSecond,
+                              long etaSeconds,
+                              String error) {
+}
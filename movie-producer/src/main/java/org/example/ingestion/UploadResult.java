@@ -0,0 +1,21 @@
+package org.example.ingestion;
+
+import org.example.producers.SendSummary;
+
+/**
+ * Outcome of a CSV upload: how the file was parsed and how the resulting records were acknowledged by Kafka.
+ *
+ * @param ingestion The summary of parsing the file.
+ * @param sends     The aggregated result of sending the parsed records, available once all of them were acked.
+ */
+public record UploadResult(IngestionResult ingestion, SendSummary sends) {
+
+    /**
+     * Checks whether every parsed record reached Kafka.
+     *
+     * @return {@code true} if no send failed.
+     */
+    public boolean successful() {
+        return sends.successful();
+    }
+}
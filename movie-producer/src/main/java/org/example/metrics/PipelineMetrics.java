@@ -0,0 +1,167 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.producers.ProducerChannel;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics of the producer side of the pipeline.
+ * <p>
+ * Every record sent to Kafka is stamped with the time it was created, i.e. parsed from an upload or received over
+ * REST, and the time it was handed to the Kafka producer, both as epoch milliseconds in the {@link #CREATED_AT_HEADER}
+ * and {@link #SENT_AT_HEADER} headers. The consumer measures its queue time and the end-to-end latency from them.
+ * </p>
+ * <ul>
+ *     <li>{@code pipeline.parse}: time to parse one chunk of an uploaded CSV file</li>
+ *     <li>{@code pipeline.send.ack}: time from handing a record to the Kafka producer to its acknowledgement, per
+ *     topic</li>
+ *     <li>{@code pipeline.records.sent}: records acknowledged or failed, per topic, movie type and outcome</li>
+ *     <li>{@code pipeline.producer.linger}, {@code pipeline.producer.batch.size} and
+ *     {@code pipeline.producer.compressed}: the effective batching settings, per producer channel</li>
+ *     <li>{@code pipeline.producer.records.rate}, {@code pipeline.producer.bytes.rate} and
+ *     {@code pipeline.producer.ack.latency}: the throughput of the last tuning interval, per producer channel</li>
+ *     <li>{@code pipeline.producer.records}: records acknowledged or failed since startup, per producer channel and
+ *     outcome</li>
+ * </ul>
+ */
+@Component
+public class PipelineMetrics {
+
+    /**
+     * Header holding the time a record was created, in epoch milliseconds.
+     */
+    public static final String CREATED_AT_HEADER = "pipeline-created-at";
+
+    /**
+     * Header holding the time a record was handed to the Kafka producer, in epoch milliseconds.
+     */
+    public static final String SENT_AT_HEADER = "pipeline-sent-at";
+
+    /**
+     * Movie type tag of records without a movie type, e.g. ratings.
+     */
+    public static final String NO_TYPE = "none";
+
+    private final MeterRegistry registry;
+
+    private final Timer parseTimer;
+
+    private final Map<String, Timer> ackTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> sentCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a PipelineMetrics.
+     *
+     * @param registry The registry the meters are registered in.
+     */
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.parseTimer = Timer.builder("pipeline.parse")
+                .description("Time to parse one chunk of an uploaded CSV file")
+                .register(registry);
+    }
+
+    /**
+     * Records the time it took to parse a chunk of an uploaded CSV file.
+     *
+     * @param nanos The parse time in nanoseconds.
+     */
+    public void recordParse(long nanos) {
+        parseTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers the settings, throughput and totals of a producer channel, as reported by
+     * {@link ProducerChannel#stats()}.
+     *
+     * @param channel The producer channel.
+     */
+    public void registerProducerChannel(ProducerChannel channel) {
+        String producer = channel.name();
+        Gauge.builder("pipeline.producer.linger", channel, c -> c.stats().settings().lingerMs())
+                .description("Linger time of the producer channel")
+                .baseUnit("milliseconds")
+                .tag("producer", producer)
+                .register(registry);
+        Gauge.builder("pipeline.producer.batch.size", channel, c -> c.stats().settings().batchSize())
+                .description("Batch size of the producer channel")
+                .baseUnit("bytes")
+                .tag("producer", producer)
+                .register(registry);
+        Gauge.builder("pipeline.producer.compressed", channel,
+                        c -> "none".equals(c.stats().settings().compressionType()) ? 0 : 1)
+                .description("Whether the producer channel compresses its batches")
+                .tag("producer", producer)
+                .register(registry);
+        Gauge.builder("pipeline.producer.records.rate", channel, c -> c.stats().lastInterval().recordsPerSecond())
+                .description("Records acknowledged per second in the last tuning interval")
+                .tag("producer", producer)
+                .register(registry);
+        Gauge.builder("pipeline.producer.bytes.rate", channel, c -> c.stats().lastInterval().bytesPerSecond())
+                .description("Bytes acknowledged per second in the last tuning interval")
+                .tag("producer", producer)
+                .register(registry);
+        Gauge.builder("pipeline.producer.ack.latency", channel, c -> c.stats().lastInterval().avgAckLatencyMillis())
+                .description("Mean acknowledgement latency in the last tuning interval")
+                .baseUnit("milliseconds")
+                .tag("producer", producer)
+                .register(registry);
+        FunctionCounter.builder("pipeline.producer.records", channel, c -> c.stats().totalRecords())
+                .description("Records sent through the producer channel")
+                .tag("producer", producer)
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("pipeline.producer.records", channel, c -> c.stats().totalFailed())
+                .description("Records sent through the producer channel")
+                .tag("producer", producer)
+                .tag("outcome", "failure")
+                .register(registry);
+    }
+
+    /**
+     * Stamps a record about to be sent with its creation time and the current time as send time.
+     *
+     * @param record    The record to stamp.
+     * @param createdAt The time the record was created, in epoch milliseconds.
+     */
+    public void stamp(ProducerRecord<?, ?> record, long createdAt) {
+        record.headers().add(CREATED_AT_HEADER, Long.toString(createdAt).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(SENT_AT_HEADER,
+                Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records the outcome of a send.
+     *
+     * @param topic     The topic the record was sent to.
+     * @param movieType The movie type of the record, or {@link #NO_TYPE}.
+     * @param ackNanos  The time from handing the record to the Kafka producer to its acknowledgement, in nanoseconds.
+     * @param failure   The failure of the send, or {@code null} if it was acknowledged.
+     */
+    public void recordSent(String topic, String movieType, long ackNanos, Throwable failure) {
+        if (failure == null) {
+            ackTimers.computeIfAbsent(topic, key -> Timer.builder("pipeline.send.ack")
+                    .description("Time from handing a record to the Kafka producer to its acknowledgement")
+                    .tag("topic", key)
+                    .register(registry)).record(ackNanos, TimeUnit.NANOSECONDS);
+        }
+        String outcome = failure == null ? "success" : "failure";
+        sentCounters.computeIfAbsent(topic + '|' + movieType + '|' + outcome, key -> Counter.builder("pipeline.records.sent")
+                .description("Records sent to Kafka")
+                .tag("topic", topic)
+                .tag("type", movieType)
+                .tag("outcome", outcome)
+                .register(registry)).increment();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.producers;
+
+/**
+ * Derives the batching settings of the bulk producer from its observed throughput.
+ * <p>
+ * The batch size follows the acknowledgement latency: above the target the broker is the bottleneck and fewer, larger
+ * requests relieve it, far below the target smaller batches cut the time a record waits. The linger time is about
+ * the time the observed send rate takes to fill a batch, so that batches leave full but never wait longer than that.
+ * Compression only pays off for sustained traffic and is switched off below a byte rate threshold. Intervals with
+ * too few acknowledged records say nothing about the load and keep the current settings, as do linger changes of
+ * less than a quarter, so that the producer is not replaced for noise.
+ * </p>
+ */
+public class BatchingPolicy {
+
+    private final int minLingerMs;
+
+    private final int maxLingerMs;
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    private final String compressionType;
+
+    private final long compressionThresholdBytesPerSecond;
+
+    private final double targetAckLatencyMillis;
+
+    private final long minSampleRecords;
+
+    /**
+     * Constructs a BatchingPolicy.
+     *
+     * @param minLingerMs                        The lower bound of the linger time.
+     * @param maxLingerMs                        The upper bound of the linger time.
+     * @param minBatchSize                       The lower bound of the batch size.
+     * @param maxBatchSize                       The upper bound of the batch size.
+     * @param compressionType                    The compression codec used for sustained traffic.
+     * @param compressionThresholdBytesPerSecond The byte rate from which batches are compressed.
+     * @param targetAckLatencyMillis             The mean acknowledgement latency the batch size is steered to.
+     * @param minSampleRecords                   The number of records an interval needs to be considered.
+     */
+    public BatchingPolicy(int minLingerMs, int maxLingerMs, int minBatchSize, int maxBatchSize, String compressionType,
+                          long compressionThresholdBytesPerSecond, double targetAckLatencyMillis, long minSampleRecords) {
+        if (minLingerMs < 0 || maxLingerMs < minLingerMs || minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Invalid linger or batch size bounds");
+        }
+        this.minLingerMs = minLingerMs;
+        this.maxLingerMs = maxLingerMs;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.compressionType = compressionType;
+        this.compressionThresholdBytesPerSecond = compressionThresholdBytesPerSecond;
+        this.targetAckLatencyMillis = targetAckLatencyMillis;
+        this.minSampleRecords = minSampleRecords;
+    }
+
+    /**
+     * Derives the settings for the next interval.
+     *
+     * @param current The settings in effect during the sampled interval.
+     * @param sample  The sends observed during the interval.
+     * @return The settings to apply, {@code current} itself if they should not change.
+     */
+    public ProducerSettings next(ProducerSettings current, ThroughputSample sample) {
+        if (sample.records() < minSampleRecords || sample.bytesPerSecond() <= 0) {
+            return current;
+        }
+        int batchSize = current.batchSize();
+        if (sample.avgAckLatencyMillis() > targetAckLatencyMillis) {
+            batchSize = (int) Math.min(maxBatchSize, 2L * batchSize);
+        } else if (sample.avgAckLatencyMillis() < targetAckLatencyMillis / 4) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+        }
+        batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+
+        double fillMillis = batchSize / sample.bytesPerSecond() * 1000;
+        int lingerMs = (int) Math.max(minLingerMs, Math.min(maxLingerMs, Math.ceil(fillMillis)));
+        if (batchSize == current.batchSize() && Math.abs(lingerMs - current.lingerMs()) * 4 <= current.lingerMs()) {
+            lingerMs = current.lingerMs();
+        }
+
+        String compression = sample.bytesPerSecond() >= compressionThresholdBytesPerSecond ? compressionType : "none";
+        ProducerSettings next = new ProducerSettings(lingerMs, batchSize, compression);
+        return next.equals(current) ? current : next;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.producers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component closing the measurement intervals of both producer channels and retuning the bulk channel.
+ * <p>
+ * After every interval the throughput of the bulk channel is handed to its {@link BatchingPolicy}, and the bulk
+ * producer is reconfigured if the policy asks for other settings. The interactive channel keeps its settings and is
+ * only measured. Tuning can be switched off with {@code producer.bulk.adaptive}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class BulkBatchingTuner {
+
+    private final ProducerChannel interactiveProducer;
+
+    private final ProducerChannel bulkProducer;
+
+    private final BatchingPolicy bulkBatchingPolicy;
+
+    private final boolean adaptive;
+
+    /**
+     * Constructs a BulkBatchingTuner.
+     *
+     * @param interactiveProducer The channel of single-record sends.
+     * @param bulkProducer        The channel of upload sends.
+     * @param bulkBatchingPolicy  The policy deriving the bulk settings.
+     * @param adaptive            Whether the bulk settings are adjusted to the observed throughput.
+     */
+    public BulkBatchingTuner(@Qualifier("interactiveProducer") ProducerChannel interactiveProducer,
+                             @Qualifier("bulkProducer") ProducerChannel bulkProducer,
+                             BatchingPolicy bulkBatchingPolicy,
+                             @Value("${producer.bulk.adaptive:true}") boolean adaptive) {
+        this.interactiveProducer = interactiveProducer;
+        this.bulkProducer = bulkProducer;
+        this.bulkBatchingPolicy = bulkBatchingPolicy;
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Closes the current measurement interval and applies the settings the policy derives from it.
+     */
+    @Scheduled(fixedDelayString = "${producer.bulk.adjust-interval-ms:5000}",
+            initialDelayString = "${producer.bulk.adjust-interval-ms:5000}")
+    public void adjust() {
+        interactiveProducer.sample();
+        ThroughputSample sample = bulkProducer.sample();
+        if (!adaptive) {
+            return;
+        }
+        ProducerSettings current = bulkProducer.settings();
+        ProducerSettings next = bulkBatchingPolicy.next(current, sample);
+        if (!next.equals(current)) {
+            log.info("Bulk producer sent {} records/s with a mean ack latency of {} ms",
+                    Math.round(sample.recordsPerSecond()), Math.round(sample.avgAckLatencyMillis()));
+            bulkProducer.reconfigure(next);
+        }
+    }
+}
@@ -1,102 +1,159 @@
 package org.example.producers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.example.records.Movie;
-import org.example.records.MovieType;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Kafka listener collecting the responses to movie search requests.
+ * <p>
+ * Every search registers its correlation id before the request is sent. Responses are routed to the pending search
+ * by the {@link KafkaHeaders#CORRELATION_ID} header. Every response is a JSON array of movies; the last one carries
+ * the end-of-results marker and the total number of movies found, and the search completes as soon as that marker and
+ * all the movies it announces have arrived. Responses of unknown or abandoned searches are dropped.
+ * </p>
+ * <p>
+ * The pending searches are only known to this instance, so every instance consumes all responses in a consumer group
+ * of its own, named after {@code spring.kafka.consumer.group-id} with a random suffix, and drops the responses of the
+ * other instances' searches. The group starts at the latest offset, as earlier responses have no pending search.
+ * </p>
+ */
 @Component
 @Slf4j
 public class MovieRequestListener {
 
-    // List to store received movies
-    private List<Movie> receivedMoviesList = new ArrayList<>();
-
-    // Variable to store the latest received movie
-    private Movie receivedMovie;
+    /**
+     * Header marking the last response of a search.
+     */
+    public static final String END_OF_RESULTS_HEADER = "end-of-results";
 
     /**
-     * Kafka listener method to process movie responses from the GET requests.
-     *
-     * @param movie The raw movie information received from Kafka.
+     * Header of the last response of a search holding the total number of movies found.
      */
-    @KafkaListener(topics = "movie-response-topic")
-    public void processMovieRequest(String movie) {
-        // Extract and save movie information from the received raw data
-        Movie movieInfo = extractAndSaveMovieInfo(movie);
-
-        // Check if extraction was successful
-        if (movieInfo != null) {
-            log.info("Received Movie: title - {}, genres - {}", movieInfo.title(), movieInfo.genres());
-        }
-    }
+    public static final String RESULT_COUNT_HEADER = "result-count";
+
+    private static final TypeReference<List<Movie>> MOVIE_LIST = new TypeReference<>() {
+    };
+
+    private final Map<String, PendingSearch> pendingSearches = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
 
     /**
-     * Extracts and saves movie information from the raw movie data.
+     * Constructs a MovieRequestListener.
      *
-     * @param movie The raw movie information.
-     * @return The Movie object with extracted data, or null if extraction fails.
+     * @param objectMapper The object mapper deserializing the response batches.
      */
-    private Movie extractAndSaveMovieInfo(String movie) {
-        Pattern pattern = Pattern.compile("title=([^,]+), genres=([^)]+)");
-        Matcher matcher = pattern.matcher(movie);
-
-        // Check if the pattern is found
-        if (matcher.find()) {
-            // Group 1 of the match contains the captured title
-            // Group 2 of the match contains the captured genres
-            receivedMovie = new Movie(0, MovieType.GET, matcher.group(1).trim(), matcher.group(2).trim());
-            setReceivedMovie(receivedMovie);
-            addReceivedMovieToList();
-            return getReceivedMovie();
-        }
-        return null;
+    public MovieRequestListener(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Gets the list of received movies.
+     * Registers a search whose responses are about to be requested.
      *
-     * @return The list of received movies.
+     * @param correlationId The correlation id sent with the search request.
+     * @return A future completed with the movies found once all responses arrived.
      */
-    public List<Movie> getReceivedMoviesList() {
-        return this.receivedMoviesList;
+    public CompletableFuture<List<Movie>> register(String correlationId) {
+        PendingSearch search = new PendingSearch();
+        pendingSearches.put(correlationId, search);
+        return search.result;
     }
 
     /**
-     * Gets the latest received movie.
+     * Abandons a search, e.g. after it timed out. Late responses to it are dropped.
      *
-     * @return The latest received movie.
+     * @param correlationId The correlation id of the search.
      */
-    public Movie getReceivedMovie() {
-        return this.receivedMovie;
+    public void abandon(String correlationId) {
+        pendingSearches.remove(correlationId);
     }
 
     /**
-     * Adds the latest received movie to the list.
+     * Gets the number of searches waiting for responses.
+     *
+     * @return The number of pending searches.
      */
-    public void addReceivedMovieToList() {
-        this.receivedMoviesList.add(getReceivedMovie());
+    public int pendingSearches() {
+        return pendingSearches.size();
     }
 
     /**
-     * Sets the latest received movie.
+     * Kafka listener method to process movie responses from the GET requests.
      *
-     * @param receivedMovie The latest received movie.
+     * @param response The response received from Kafka.
      */
-    public void setReceivedMovie(Movie receivedMovie) {
-        this.receivedMovie = receivedMovie;
+    @KafkaListener(topics = "movie-response-topic",
+            groupId = "${spring.kafka.consumer.group-id}-responses-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void processMovieRequest(ConsumerRecord<Integer, String> response) {
+        String correlationId = header(response, KafkaHeaders.CORRELATION_ID);
+        PendingSearch search = correlationId != null ? pendingSearches.get(correlationId) : null;
+        if (search == null) {
+            log.debug("Dropping response without a pending search: {}", correlationId);
+            return;
+        }
+        List<Movie> movies;
+        try {
+            movies = objectMapper.readValue(response.value(), MOVIE_LIST);
+        } catch (JsonProcessingException e) {
+            log.error("Dropping malformed response of search {}: {}", correlationId, e.getMessage());
+            return;
+        }
+        log.debug("Received {} movies for search {}", movies.size(), correlationId);
+        boolean complete = search.add(movies);
+        if (response.headers().lastHeader(END_OF_RESULTS_HEADER) != null) {
+            String resultCount = header(response, RESULT_COUNT_HEADER);
+            complete = search.expect(resultCount != null ? Integer.parseInt(resultCount) : 0);
+        }
+        if (complete) {
+            pendingSearches.remove(correlationId);
+            search.complete();
+        }
+    }
+
+    private static String header(ConsumerRecord<Integer, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
     }
 
     /**
-     * Clears the list of received movies.
+     * Movies received so far for one search.
      */
-    public void clearList() {
-        this.receivedMoviesList.clear();
+    private static final class PendingSearch {
+
+        private final CompletableFuture<List<Movie>> result = new CompletableFuture<>();
+
+        private final List<Movie> movies = new ArrayList<>();
+
+        private int expected = -1;
+
+        synchronized boolean add(List<Movie> batch) {
+            movies.addAll(batch);
+            return expected == movies.size();
+        }
+
+        synchronized boolean expect(int count) {
+            expected = count;
+            return expected <= movies.size();
+        }
+
+        synchronized void complete() {
+            result.complete(List.copyOf(movies));
+        }
     }
 }
@@ -0,0 +1,209 @@
+package org.example.producers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Kafka producer with its own batching settings, measuring the throughput of its sends.
+ * <p>
+ * The settings of a Kafka producer are fixed when it is created, so {@link #reconfigure(ProducerSettings)} starts a
+ * new producer and closes the old one. While it switches, new sends wait until every record handed to the old
+ * producer is acknowledged; only then does the new producer take over. Records of the same key therefore never
+ * overtake each other across producers, and reconfiguring never fails or loses a record.
+ * </p>
+ */
+@Slf4j
+public class ProducerChannel implements DisposableBean {
+
+    private final String name;
+
+    private final Function<ProducerSettings, ProducerFactory<Integer, byte[]>> producerFactories;
+
+    private volatile Generation current;
+
+    /**
+     * Held for reading by every send and for writing while the producer is switched.
+     */
+    private final ReadWriteLock switchLock = new ReentrantReadWriteLock();
+
+    private final LongAdder intervalRecords = new LongAdder();
+
+    private final LongAdder intervalBytes = new LongAdder();
+
+    private final LongAdder intervalFailed = new LongAdder();
+
+    private final LongAdder intervalAckNanos = new LongAdder();
+
+    private final LongAdder totalRecords = new LongAdder();
+
+    private final LongAdder totalFailed = new LongAdder();
+
+    private long intervalStart = System.nanoTime();
+
+    private volatile ThroughputSample lastSample = ThroughputSample.EMPTY;
+
+    /**
+     * Constructs a ProducerChannel.
+     *
+     * @param name              The name of the channel, used in logs and statistics.
+     * @param settings          The initial batching settings.
+     * @param producerFactories Creates a producer factory applying the given settings.
+     */
+    public ProducerChannel(String name, ProducerSettings settings,
+                           Function<ProducerSettings, ProducerFactory<Integer, byte[]>> producerFactories) {
+        this.name = name;
+        this.producerFactories = producerFactories;
+        this.current = new Generation(settings, producerFactories.apply(settings));
+    }
+
+    /**
+     * Gets the name of the channel.
+     *
+     * @return The name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Gets the batching settings of the current producer.
+     *
+     * @return The effective settings.
+     */
+    public ProducerSettings settings() {
+        return current.settings;
+    }
+
+    /**
+     * Asynchronously sends a record.
+     *
+     * @param producerRecord The record to send.
+     * @return A CompletableFuture representing the result of the send operation.
+     */
+    public CompletableFuture<SendResult<Integer, byte[]>> send(ProducerRecord<Integer, byte[]> producerRecord) {
+        int bytes = (producerRecord.key() == null ? 0 : Integer.BYTES)
+                + (producerRecord.value() == null ? 0 : producerRecord.value().length);
+        long start = System.nanoTime();
+        switchLock.readLock().lock();
+        try {
+            return current.template.send(producerRecord)
+                    .whenComplete((result, throwable) -> record(bytes, start, throwable));
+        } finally {
+            switchLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the producer by one applying new batching settings. Does nothing if the settings are unchanged.
+     *
+     * @param settings The new settings.
+     */
+    public synchronized void reconfigure(ProducerSettings settings) {
+        Generation previous = current;
+        if (previous.settings.equals(settings)) {
+            return;
+        }
+        Generation next = new Generation(settings, producerFactories.apply(settings));
+        long start = System.nanoTime();
+        switchLock.writeLock().lock();
+        try {
+            // no send is in progress, and none starts before the records of the old producer are acknowledged
+            previous.template.flush();
+            current = next;
+        } finally {
+            switchLock.writeLock().unlock();
+        }
+        log.info("Reconfigured the {} producer from {} to {}, sends paused for {} ms", name, previous.settings,
+                settings, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        previous.close();
+    }
+
+    /**
+     * Ends the current measurement interval and starts the next one.
+     *
+     * @return The sends observed during the ended interval.
+     */
+    public synchronized ThroughputSample sample() {
+        long now = System.nanoTime();
+        long records = intervalRecords.sumThenReset();
+        long ackNanos = intervalAckNanos.sumThenReset();
+        lastSample = new ThroughputSample(records, intervalBytes.sumThenReset(), intervalFailed.sumThenReset(),
+                (now - intervalStart) / (double) TimeUnit.SECONDS.toNanos(1),
+                records == 0 ? 0 : ackNanos / (double) records / TimeUnit.MILLISECONDS.toNanos(1));
+        intervalStart = now;
+        return lastSample;
+    }
+
+    /**
+     * Gets the effective settings and throughput of the channel.
+     *
+     * @return The statistics of the channel.
+     */
+    public ProducerChannelStats stats() {
+        return new ProducerChannelStats(settings(), lastSample, totalRecords.sum(), totalFailed.sum());
+    }
+
+    /**
+     * Closes the current producer, flushing its pending sends.
+     */
+    @Override
+    public synchronized void destroy() {
+        switchLock.writeLock().lock();
+        try {
+            current.close();
+        } finally {
+            switchLock.writeLock().unlock();
+        }
+    }
+
+    private void record(int bytes, long start, Throwable throwable) {
+        if (throwable == null) {
+            intervalRecords.increment();
+            intervalBytes.add(bytes);
+            intervalAckNanos.add(System.nanoTime() - start);
+            totalRecords.increment();
+        } else {
+            intervalFailed.increment();
+            totalFailed.increment();
+        }
+    }
+
+    /**
+     * A producer factory and its template.
+     */
+    private final class Generation {
+
+        private final ProducerSettings settings;
+
+        private final ProducerFactory<Integer, byte[]> producerFactory;
+
+        private final KafkaTemplate<Integer, byte[]> template;
+
+        Generation(ProducerSettings settings, ProducerFactory<Integer, byte[]> producerFactory) {
+            this.settings = settings;
+            this.producerFactory = producerFactory;
+            this.template = new KafkaTemplate<>(producerFactory);
+        }
+
+        void close() {
+            if (producerFactory instanceof DisposableBean disposable) {
+                try {
+                    disposable.destroy();
+                } catch (Exception e) {
+                    log.warn("Could not close the {} producer: {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+}
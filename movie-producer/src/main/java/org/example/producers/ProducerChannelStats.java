@@ -0,0 +1,13 @@
+package org.example.producers;
+
+/**
+ * Effective settings and throughput of a {@link ProducerChannel}.
+ *
+ * @param settings     The batching settings of the current producer.
+ * @param lastInterval The sends observed during the last completed measurement interval.
+ * @param totalRecords Number of records acknowledged since start-up.
+ * @param totalFailed  Number of records that could not be sent since start-up.
+ */
+public record ProducerChannelStats(ProducerSettings settings, ThroughputSample lastInterval,
+                                   long totalRecords, long totalFailed) {
+}
@@ -0,0 +1,26 @@
+package org.example.producers;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Batching settings of a Kafka producer.
+ *
+ * @param lingerMs        Time the producer waits for more records before sending a partially filled batch.
+ * @param batchSize       Upper bound of the bytes of a batch sent to one partition.
+ * @param compressionType Compression codec applied to whole batches, e.g. {@code none} or {@code lz4}.
+ */
+public record ProducerSettings(int lingerMs, int batchSize, String compressionType) {
+
+    /**
+     * Gets the settings as producer configuration overrides.
+     *
+     * @return The producer configuration entries.
+     */
+    public Map<String, Object> toConfig() {
+        return Map.of(ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+    }
+}
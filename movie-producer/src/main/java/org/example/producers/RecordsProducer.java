@@ -4,17 +4,40 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.metrics.PipelineMetrics;
 import org.example.records.Movie;
 import org.example.records.Rating;
+import org.example.serde.BinaryRecordCodec;
+import org.example.serde.RecordFormat;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Component class for producing messages to a Kafka topic related to movies.
+ * <p>
+ * Records are written as JSON or in the compact binary format of {@link BinaryRecordCodec}, selected per topic with
+ * {@code serde.movies} and {@code serde.ratings}. The consumer reads both formats on every topic.
+ * </p>
+ * <p>
+ * Single records are sent through the interactive {@link ProducerChannel}, which does not wait for batches to fill.
+ * Sends through a {@link SendWindow} belong to uploads and use the bulk channel, whose batching is tuned for
+ * throughput by {@link BulkBatchingTuner}.
+ * </p>
+ * <p>
+ * Every record is stamped with its creation and send time and its acknowledgement is timed by
+ * {@link PipelineMetrics}.
+ * </p>
+ * <p>
+ * Movies and ratings are keyed by movie id, so all records of a movie land on the same partition and are aggregated
+ * by the one consumer instance owning it.
+ * </p>
  */
 @Component
 @Slf4j
@@ -26,11 +49,28 @@ public class RecordsProducer {
 
     @Value("${spring.kafka.topics.ratings}")
     private String ratingsTopic;
-    private KafkaTemplate<Integer, String> kafkaTemplate;
 
-    public RecordsProducer(KafkaTemplate<Integer, String> kafkaTemplate, ObjectMapper objectMapper) {
-        this.kafkaTemplate = kafkaTemplate;
+    @Value("${serde.movies:json}")
+    private RecordFormat moviesFormat;
+
+    @Value("${serde.ratings:json}")
+    private RecordFormat ratingsFormat;
+
+    @Value("${ingestion.max-in-flight-sends:10000}")
+    private int maxInFlightSends;
+    private ProducerChannel interactiveProducer;
+
+    private ProducerChannel bulkProducer;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    public RecordsProducer(@Qualifier("interactiveProducer") ProducerChannel interactiveProducer,
+                           @Qualifier("bulkProducer") ProducerChannel bulkProducer, ObjectMapper objectMapper,
+                           PipelineMetrics pipelineMetrics) {
+        this.interactiveProducer = interactiveProducer;
+        this.bulkProducer = bulkProducer;
         this.objectMapper = objectMapper;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     /**
@@ -39,34 +79,54 @@ public class RecordsProducer {
      * @param movie The Movie object to be sent.
      * @return A CompletableFuture representing the result of the send operation.
      */
-    public CompletableFuture<SendResult<Integer, String>> sendMovieRecord(Movie movie) throws JsonProcessingException {
+    public CompletableFuture<SendResult<Integer, byte[]>> sendMovieRecord(Movie movie) throws JsonProcessingException {
+        long createdAt = System.currentTimeMillis();
         Integer key = movie.Id();
-        String jsonValue = objectMapper.writeValueAsString(movie);
+        byte[] value = serialize(movie);
 
-        ProducerRecord<Integer, String> producerRecord = new ProducerRecord<>(moviesTopic, key, jsonValue);
-        var completableFuture = kafkaTemplate.send(producerRecord);
+        ProducerRecord<Integer, byte[]> producerRecord = new ProducerRecord<>(moviesTopic, key, value);
+        var completableFuture = send(interactiveProducer, producerRecord, createdAt, movieType(movie));
         return completableFuture
                 .whenComplete((sendResult, throwable) -> {
                     if (throwable != null) {
                         handleFailure( throwable);
                     } else {
-                        handleSuccess(key, jsonValue);
+                        handleSuccess(key, movie);
                     }
                 });
     }
 
-    public CompletableFuture<SendResult<Integer, String>> sendRatingRecord(Rating rating) throws JsonProcessingException {
-        //try {
-            String jsonValue = objectMapper.writeValueAsString(rating);
+    /**
+     * Asynchronously sends a movie search request carrying a correlation id, which the consumer echoes in its responses.
+     *
+     * @param movie         The Movie object of type GET describing the search.
+     * @param correlationId The correlation id of the search.
+     * @return A CompletableFuture representing the result of the send operation.
+     * @throws JsonProcessingException If the request cannot be serialized.
+     */
+    public CompletableFuture<SendResult<Integer, byte[]>> sendMovieRequest(Movie movie, String correlationId) throws JsonProcessingException {
+        long createdAt = System.currentTimeMillis();
+        ProducerRecord<Integer, byte[]> producerRecord = new ProducerRecord<>(moviesTopic, movie.Id(), serialize(movie));
+        producerRecord.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        return send(interactiveProducer, producerRecord, createdAt, movieType(movie))
+                .whenComplete((sendResult, throwable) -> {
+                    if (throwable != null) {
+                        handleFailure(throwable);
+                    }
+                });
+    }
 
-            ProducerRecord<Integer, String> producerRecord = new ProducerRecord<>(ratingsTopic, jsonValue);
-            var completableFuture = kafkaTemplate.send(producerRecord);
+    public CompletableFuture<SendResult<Integer, byte[]>> sendRatingRecord(Rating rating) throws JsonProcessingException {
+        //try {
+            long createdAt = System.currentTimeMillis();
+            ProducerRecord<Integer, byte[]> producerRecord = new ProducerRecord<>(ratingsTopic, rating.movieId(), serialize(rating));
+            var completableFuture = send(interactiveProducer, producerRecord, createdAt, PipelineMetrics.NO_TYPE);
             return completableFuture
                     .whenComplete((sendResult, throwable) -> {
                         if (throwable != null) {
                             handleFailure(throwable);
                         } else {
-                            handleSuccess(jsonValue);
+                            handleSuccess(rating);
                         }
                     });
        // }
@@ -78,6 +138,94 @@ public class RecordsProducer {
 
 
 
+    /**
+     * Opens a flow-controlled send window for a bulk upload.
+     *
+     * @return A new send window limited to the configured number of in-flight sends.
+     */
+    public SendWindow openSendWindow() {
+        return new SendWindow(maxInFlightSends);
+    }
+
+    /**
+     * Sends a movie record through a send window, blocking while the window is full.
+     * Results are accounted for by the window instead of being logged per record.
+     *
+     * @param movie  The Movie object to be sent.
+     * @param window The send window limiting the outstanding sends.
+     * @return A CompletableFuture representing the result of the send operation.
+     * @throws IOException If the movie cannot be serialized or the caller is interrupted while waiting.
+     */
+    public CompletableFuture<SendResult<Integer, byte[]>> sendMovieRecord(Movie movie, SendWindow window) throws IOException {
+        long createdAt = System.currentTimeMillis();
+        byte[] value = serialize(movie);
+        return window.send(() -> send(bulkProducer, new ProducerRecord<>(moviesTopic, movie.Id(), value), createdAt,
+                movieType(movie)));
+    }
+
+    /**
+     * Sends a rating record through a send window, blocking while the window is full.
+     * Results are accounted for by the window instead of being logged per record.
+     *
+     * @param rating The Rating object to be sent.
+     * @param window The send window limiting the outstanding sends.
+     * @return A CompletableFuture representing the result of the send operation.
+     * @throws IOException If the rating cannot be serialized or the caller is interrupted while waiting.
+     */
+    public CompletableFuture<SendResult<Integer, byte[]>> sendRatingRecord(Rating rating, SendWindow window) throws IOException {
+        long createdAt = System.currentTimeMillis();
+        byte[] value = serialize(rating);
+        return window.send(() -> send(bulkProducer, new ProducerRecord<>(ratingsTopic, rating.movieId(), value),
+                createdAt, PipelineMetrics.NO_TYPE));
+    }
+
+    /**
+     * Stamps a record with its creation and send time and sends it through a producer channel, recording the time
+     * until it is acknowledged.
+     *
+     * @param channel        The producer channel to send the record through.
+     * @param producerRecord The record to send.
+     * @param createdAt      The time the record was created, in epoch milliseconds.
+     * @param movieType      The movie type tag of the record.
+     * @return A CompletableFuture representing the result of the send operation.
+     */
+    private CompletableFuture<SendResult<Integer, byte[]>> send(ProducerChannel channel,
+                                                                ProducerRecord<Integer, byte[]> producerRecord,
+                                                                long createdAt, String movieType) {
+        pipelineMetrics.stamp(producerRecord, createdAt);
+        long sentAt = System.nanoTime();
+        return channel.send(producerRecord).whenComplete((sendResult, throwable) -> pipelineMetrics.recordSent(
+                producerRecord.topic(), movieType, System.nanoTime() - sentAt, throwable));
+    }
+
+    private static String movieType(Movie movie) {
+        return movie.movieType() != null ? movie.movieType().name() : PipelineMetrics.NO_TYPE;
+    }
+
+    /**
+     * Serializes a movie in the format of the movies topic.
+     *
+     * @param movie The Movie object to be serialized.
+     * @return The record value.
+     * @throws JsonProcessingException If the movie cannot be written as JSON.
+     */
+    private byte[] serialize(Movie movie) throws JsonProcessingException {
+        return moviesFormat == RecordFormat.BINARY ? BinaryRecordCodec.writeMovie(movie)
+                : objectMapper.writeValueAsBytes(movie);
+    }
+
+    /**
+     * Serializes a rating in the format of the ratings topic.
+     *
+     * @param rating The Rating object to be serialized.
+     * @return The record value.
+     * @throws JsonProcessingException If the rating cannot be written as JSON.
+     */
+    private byte[] serialize(Rating rating) throws JsonProcessingException {
+        return ratingsFormat == RecordFormat.BINARY ? BinaryRecordCodec.writeRating(rating)
+                : objectMapper.writeValueAsBytes(rating);
+    }
+
     /**
      * Handles failure during the asynchronous send operation.
      *
@@ -96,11 +244,11 @@ public class RecordsProducer {
      * @param value  The value of the message.
      * @param result The result of the send operation.
      */
-    private void handleSuccess(Integer key, String value) {
+    private void handleSuccess(Integer key, Object value) {
         log.info("Message sent successfully for the key : {} and the value is {} , partition is {}", key, value);
     }
 
-    private void handleSuccess(String value) {
+    private void handleSuccess(Object value) {
         handleSuccess(null, value);
     }
 }
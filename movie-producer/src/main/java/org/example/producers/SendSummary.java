@@ -0,0 +1,21 @@
+package org.example.producers;
+
+/**
+ * Aggregated outcome of all sends issued through a {@link SendWindow}.
+ *
+ * @param sent                Number of records handed to Kafka.
+ * @param acked               Number of records acknowledged by the broker.
+ * @param failed              Number of records that could not be sent.
+ * @param p99AckLatencyMillis 99th percentile of the time between sending a record and its acknowledgement.
+ */
+public record SendSummary(long sent, long acked, long failed, double p99AckLatencyMillis) {
+
+    /**
+     * Checks whether every record was acknowledged.
+     *
+     * @return {@code true} if no send failed.
+     */
+    public boolean successful() {
+        return failed == 0;
+    }
+}
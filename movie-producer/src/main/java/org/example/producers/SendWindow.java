@@ -0,0 +1,204 @@
+package org.example.producers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Flow-controlled send window.
+ * <p>
+ * At most {@code maxInFlight} sends may be outstanding at any time. When the window is full, {@link #send(Supplier)}
+ * blocks the caller until the broker acknowledges an earlier record, which slows an upload down to the rate Kafka
+ * can absorb instead of piling up futures and buffer memory. Once all records are handed over,
+ * {@link #awaitCompletion()} waits for the remaining acknowledgements and returns the aggregated result.
+ * </p>
+ */
+@Slf4j
+public class SendWindow {
+
+    private final int maxInFlight;
+
+    private final Semaphore permits;
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong acked = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final LatencyHistogram ackLatencies = new LatencyHistogram();
+
+    /**
+     * Constructs a SendWindow.
+     *
+     * @param maxInFlight The maximum number of outstanding sends.
+     */
+    public SendWindow(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Issues a send once the window has room for it.
+     * A send that fails synchronously is counted as failed and reported through the returned future.
+     *
+     * @param sender Issues the actual send and returns its future.
+     * @param <T>    The type of the send result.
+     * @return The future of the send, completed after the window has accounted for the result.
+     * @throws InterruptedIOException If the caller is interrupted while waiting for room in the window.
+     */
+    public <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> sender) throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for in-flight sends");
+        }
+        sent.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = sender.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, throwable) -> complete(start, throwable));
+    }
+
+    private void complete(long start, Throwable throwable) {
+        if (throwable == null) {
+            acked.incrementAndGet();
+            ackLatencies.record(System.nanoTime() - start);
+        } else {
+            failed.incrementAndGet();
+            log.error("Error sending the Message and the exception is {}", throwable.getMessage());
+        }
+        permits.release();
+    }
+
+    /**
+     * Gets the number of sends that have not been acknowledged yet.
+     *
+     * @return The number of outstanding sends.
+     */
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Gets the number of records handed to Kafka so far.
+     *
+     * @return The number of sent records.
+     */
+    public long sent() {
+        return sent.get();
+    }
+
+    /**
+     * Gets the number of records acknowledged so far.
+     *
+     * @return The number of acknowledged records.
+     */
+    public long acked() {
+        return acked.get();
+    }
+
+    /**
+     * Gets the number of records that failed so far.
+     *
+     * @return The number of failed records.
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * Waits until every send issued through this window has been acknowledged or has failed.
+     *
+     * @return The aggregated result of all sends.
+     * @throws InterruptedIOException If the caller is interrupted while waiting.
+     */
+    public SendSummary awaitCompletion() throws InterruptedIOException {
+        try {
+            permits.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for in-flight sends");
+        }
+        permits.release(maxInFlight);
+        return summary();
+    }
+
+    /**
+     * Gets the aggregated result of the sends completed so far.
+     *
+     * @return The current send summary.
+     */
+    public SendSummary summary() {
+        double p99Millis = ackLatencies.percentile(0.99) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        return new SendSummary(sent.get(), acked.get(), failed.get(), p99Millis);
+    }
+
+    /**
+     * Lock-free latency histogram with logarithmic buckets, each split into 16 linear sub-buckets.
+     * Percentiles are accurate to about 6 % which is plenty for acknowledgement latencies.
+     */
+    private static final class LatencyHistogram {
+
+        private static final int SUB_BUCKET_BITS = 5;
+
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+        private final AtomicLong total = new AtomicLong();
+
+        void record(long nanos) {
+            counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+            total.incrementAndGet();
+        }
+
+        long percentile(double percentile) {
+            long count = total.get();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+            return upperBoundOf(counts.length() - 1);
+        }
+
+        private static int indexOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+            int subBucket = (int) (value >>> exponent) - SUB_BUCKETS / 2;
+            return exponent * SUB_BUCKETS / 2 + SUB_BUCKETS / 2 + subBucket;
+        }
+
+        private static long upperBoundOf(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = (index - SUB_BUCKETS / 2) / (SUB_BUCKETS / 2);
+            int subBucket = (index - SUB_BUCKETS / 2) % (SUB_BUCKETS / 2) + SUB_BUCKETS / 2;
+            return ((long) (subBucket + 1) << exponent) - 1;
+        }
+    }
+}
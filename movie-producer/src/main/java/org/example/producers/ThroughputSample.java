@@ -0,0 +1,36 @@
+package org.example.producers;
+
+/**
+ * Sends observed by a {@link ProducerChannel} during one measurement interval.
+ *
+ * @param records             Number of records acknowledged by the broker.
+ * @param bytes               Serialized size of the acknowledged keys and values.
+ * @param failed              Number of records that could not be sent.
+ * @param seconds             Length of the interval.
+ * @param avgAckLatencyMillis Mean time between sending a record and its acknowledgement.
+ */
+public record ThroughputSample(long records, long bytes, long failed, double seconds, double avgAckLatencyMillis) {
+
+    /**
+     * Sample of an interval without any sends.
+     */
+    public static final ThroughputSample EMPTY = new ThroughputSample(0, 0, 0, 0, 0);
+
+    /**
+     * Gets the number of records acknowledged per second.
+     *
+     * @return The record rate, 0 for an empty interval.
+     */
+    public double recordsPerSecond() {
+        return seconds > 0 ? records / seconds : 0;
+    }
+
+    /**
+     * Gets the number of bytes acknowledged per second.
+     *
+     * @return The byte rate, 0 for an empty interval.
+     */
+    public double bytesPerSecond() {
+        return seconds > 0 ? bytes / seconds : 0;
+    }
+}
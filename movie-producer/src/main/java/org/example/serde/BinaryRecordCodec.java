@@ -0,0 +1,136 @@
+package org.example.serde;
+
+import org.example.records.Movie;
+import org.example.records.MovieType;
+import org.example.records.Rating;
+
+/**
+ * Compact binary encoding of the movie and rating records.
+ * <p>
+ * The format, its tags and its reader and writer live in the shared {@link BinaryFormat}; this codec only maps
+ * the records of this service onto it.
+ * </p>
+ */
+public final class BinaryRecordCodec {
+
+    private BinaryRecordCodec() {
+    }
+
+    /**
+     * Tells whether a serialized value is in the binary format rather than JSON.
+     *
+     * @param value The serialized value.
+     * @return Whether the value starts with the magic byte.
+     */
+    public static boolean isBinary(byte[] value) {
+        return BinaryFormat.isBinary(value);
+    }
+
+    /**
+     * Encodes a movie.
+     *
+     * @param movie The movie.
+     * @return The binary record.
+     */
+    public static byte[] writeMovie(Movie movie) {
+        return new BinaryWriter(16 + length(movie.title()) + length(movie.genres()))
+                .header(BinaryFormat.MOVIE)
+                .intField(BinaryFormat.MOVIE_ID, movie.Id())
+                .intField(BinaryFormat.MOVIE_TYPE, movie.movieType() != null ? movieTypeCode(movie.movieType()) : null)
+                .stringField(BinaryFormat.MOVIE_TITLE, movie.title())
+                .stringField(BinaryFormat.MOVIE_GENRES, movie.genres())
+                .toByteArray();
+    }
+
+    /**
+     * Decodes a movie.
+     *
+     * @param value The binary record.
+     * @return The movie.
+     * @throws IllegalArgumentException If the value is not a binary movie record of a supported version.
+     */
+    public static Movie readMovie(byte[] value) {
+        BinaryReader reader = new BinaryReader(value, BinaryFormat.MOVIE);
+        Integer id = null;
+        MovieType movieType = null;
+        String title = null;
+        String genres = null;
+        for (int tag = reader.nextField(); tag >= 0; tag = reader.nextField()) {
+            switch (tag) {
+                case BinaryFormat.MOVIE_ID -> id = reader.readInt();
+                case BinaryFormat.MOVIE_TYPE -> movieType = movieType(reader.readInt());
+                case BinaryFormat.MOVIE_TITLE -> title = reader.readString();
+                case BinaryFormat.MOVIE_GENRES -> genres = reader.readString();
+                default -> reader.skip();
+            }
+        }
+        return new Movie(id, movieType, title, genres);
+    }
+
+    /**
+     * Encodes a rating.
+     *
+     * @param rating The rating.
+     * @return The binary record.
+     */
+    public static byte[] writeRating(Rating rating) {
+        return new BinaryWriter(32)
+                .header(BinaryFormat.RATING)
+                .intField(BinaryFormat.RATING_USER_ID, rating.userId())
+                .intField(BinaryFormat.RATING_MOVIE_ID, rating.movieId())
+                .doubleField(BinaryFormat.RATING_RATING, rating.rating())
+                .intField(BinaryFormat.RATING_TIMESTAMP, rating.timeStamp())
+                .toByteArray();
+    }
+
+    /**
+     * Decodes a rating.
+     *
+     * @param value The binary record.
+     * @return The rating.
+     * @throws IllegalArgumentException If the value is not a binary rating record of a supported version.
+     */
+    public static Rating readRating(byte[] value) {
+        BinaryReader reader = new BinaryReader(value, BinaryFormat.RATING);
+        Integer userId = null;
+        Integer movieId = null;
+        Double rating = null;
+        Integer timeStamp = null;
+        for (int tag = reader.nextField(); tag >= 0; tag = reader.nextField()) {
+            switch (tag) {
+                case BinaryFormat.RATING_USER_ID -> userId = reader.readInt();
+                case BinaryFormat.RATING_MOVIE_ID -> movieId = reader.readInt();
+                case BinaryFormat.RATING_RATING -> rating = reader.readDouble();
+                case BinaryFormat.RATING_TIMESTAMP -> timeStamp = reader.readInt();
+                default -> reader.skip();
+            }
+        }
+        return new Rating(userId, movieId, rating, timeStamp);
+    }
+
+    /**
+     * Maps the movie types to stable codes, independent of the declaration order of the enum.
+     */
+    private static int movieTypeCode(MovieType movieType) {
+        return switch (movieType) {
+            case NEW -> 1;
+            case UPDATE -> 2;
+            case DELETE -> 3;
+            case GET -> 4;
+        };
+    }
+
+    private static MovieType movieType(int code) {
+        return switch (code) {
+            case 1 -> MovieType.NEW;
+            case 2 -> MovieType.UPDATE;
+            case 3 -> MovieType.DELETE;
+            case 4 -> MovieType.GET;
+            default -> null;
+        };
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+}
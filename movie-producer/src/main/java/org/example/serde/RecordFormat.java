@@ -0,0 +1,17 @@
+package org.example.serde;
+
+/**
+ * Wire format of the records sent to a topic.
+ */
+public enum RecordFormat {
+
+    /**
+     * JSON text as written by Jackson.
+     */
+    JSON,
+
+    /**
+     * The compact tagged encoding of {@link BinaryRecordCodec}.
+     */
+    BINARY
+}
@@ -3,20 +3,46 @@ package org.example.services;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.example.catalog.MovieCatalog;
+import org.example.catalog.MovieChange;
+import org.example.ingestion.CsvIngestionEngine;
+import org.example.ingestion.CsvTokenizer;
+import org.example.ingestion.IngestionResult;
+import org.example.ingestion.UploadResult;
 import org.example.producers.RecordsProducer;
+import org.example.producers.SendWindow;
 import org.example.producers.MovieRequestListener;
 import org.example.records.Movie;
 import org.example.records.MovieType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
 
 @Service
 @Slf4j
 public class MovieService {
 
+    /**
+     * Id of a search request by title.
+     */
+    private static final int SEARCH_BY_TITLE = -1;
+
+    /**
+     * Id of a search request by genres.
+     */
+    private static final int SEARCH_BY_GENRES = -2;
+
     /**
      * Movie producer instance responsible for sending movie records to Kafka.
      */
@@ -27,15 +53,42 @@ public class MovieService {
      */
    private final MovieRequestListener movieRequestListener;
 
+    /**
+     * Ingestion engine used to parse uploaded CSV files in parallel.
+     */
+    private final CsvIngestionEngine ingestionEngine;
+
+    /**
+     * Maximum time a search waits for the consumer's responses.
+     */
+    private final Duration searchTimeout;
+
+    /**
+     * Local replica of the movie catalog answering searches once it caught up with the changelog.
+     */
+    private final MovieCatalog movieCatalog;
+
+    private final ObjectMapper objectMapper;
+
     /**
      * Constructs a MovieService with the specified movie producer and movie request listener.
      *
      * @param recordsProducer       The movie producer instance.
      * @param movieRequestListener The movie request listener instance.
+     * @param ingestionEngine      The engine used to ingest uploaded CSV files.
+     * @param searchTimeout        The maximum time a search waits for the consumer's responses.
+     * @param movieCatalog         The local replica of the movie catalog.
+     * @param objectMapper         The object mapper serializing the movies found.
      */
-    public MovieService(RecordsProducer recordsProducer, MovieRequestListener movieRequestListener) {
+    public MovieService(RecordsProducer recordsProducer, MovieRequestListener movieRequestListener,
+                        CsvIngestionEngine ingestionEngine, @Value("${search.timeout:5s}") Duration searchTimeout,
+                        MovieCatalog movieCatalog, ObjectMapper objectMapper) {
         this.recordsProducer = recordsProducer;
         this.movieRequestListener = movieRequestListener;
+        this.ingestionEngine = ingestionEngine;
+        this.searchTimeout = searchTimeout;
+        this.movieCatalog = movieCatalog;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -46,63 +99,108 @@ public class MovieService {
      * @throws IllegalArgumentException If the CSV line is invalid.
      */
     public Movie parseMoviesCsvLine(String csvLine) {
-        String[] values = csvLine.split(",");
-        if (values.length >= 3) {
-            return new Movie(Integer.parseInt(values[0]), MovieType.NEW, values[1], values[2]);
-        } else {
-            // Handle invalid CSV lines appropriately
+        CsvTokenizer row = CsvTokenizer.of(csvLine);
+        if (!row.nextRecord()) {
             throw new IllegalArgumentException("Invalid CSV line: " + csvLine);
         }
+        return parseMovie(row);
     }
 
     /**
-     * Sends a movie to Kafka using the movie producer.
+     * Creates a Movie object from the current record of a CSV tokenizer.
+     * Titles containing commas must be quoted, e.g. {@code "American President, The (1995)"}.
      *
-     * @param movie The movie to send.
-     * @return A CompletableFuture representing the result of the send operation.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @param row The tokenizer positioned on a {@code movieId,title,genres} record.
+     * @return A Movie object created from the CSV data.
+     * @throws IllegalArgumentException If the record is invalid.
      */
-    public CompletableFuture<SendResult<Integer, String>> sendMovie(Movie movie) throws JsonProcessingException {
-        return recordsProducer.sendMovieRecord(movie);
+    public Movie parseMovie(CsvTokenizer row) {
+        if (row.fieldCount() < 3) {
+            throw new IllegalArgumentException("Invalid CSV line: expected 3 fields but got " + row.fieldCount());
+        }
+        return new Movie(row.getInt(0), MovieType.NEW, row.getString(1), row.getString(2));
     }
 
     /**
-     * Retrieves the list of movies from the movie request listener.
+     * Parses an uploaded movies CSV file in parallel and sends every movie to Kafka in file order.
+     * The upload is slowed down whenever the configured number of sends is waiting for acknowledgement,
+     * and the method only returns once every sent movie was acknowledged or has failed.
      *
-     * @return The list of movies received from the consumer.
+     * @param csv The content of the CSV file.
+     * @return The summary of parsing and sending the file.
+     * @throws IOException If the file could not be read or a movie could not be serialized.
      */
-   private List<Movie> getMovieListResponseFromConsumer(){
-        return movieRequestListener.getReceivedMoviesList();
+    public UploadResult uploadMoviesFromCsv(InputStream csv) throws IOException {
+        return uploadMoviesFromCsv(csv, recordsProducer.openSendWindow(), rows -> {
+        });
     }
 
     /**
-     * Retrieves a JSON representation of the received movies.
+     * Parses an uploaded movies CSV file in parallel and sends every movie through the given send window.
      *
-     * @return A JSON string representing the received movies.
-     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @param csv        The content of the CSV file.
+     * @param window     The send window the movies are sent through, e.g. to observe the progress of the upload.
+     * @param parsedRows Receives the number of movies of every chunk once it is parsed, ahead of their sends.
+     * @return The summary of parsing and sending the file.
+     * @throws IOException If the file could not be read or a movie could not be serialized.
      */
-    public String getJsonResponse() throws JsonProcessingException {
-       return extractJsonFromMoviesList();
+    public UploadResult uploadMoviesFromCsv(InputStream csv, SendWindow window, LongConsumer parsedRows)
+            throws IOException {
+        IngestionResult ingestion = ingestionEngine.ingest(csv, this::parseMovie,
+                movie -> recordsProducer.sendMovieRecord(movie, window), parsedRows);
+        return new UploadResult(ingestion, window.awaitCompletion());
     }
 
     /**
-     * Extracts a JSON representation from the list of received movies and clears the list.
+     * Sends a movie to Kafka using the movie producer.
      *
-     * @return A JSON string representing the received movies.
+     * @param movie The movie to send.
+     * @return A CompletableFuture representing the result of the send operation.
      * @throws JsonProcessingException If there's an issue processing JSON data.
      */
-    private String extractJsonFromMoviesList() throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        List<Movie> movies = getMovieListResponseFromConsumer();
-        String jsonList = objectMapper.writeValueAsString(movies);
-        clearListFromConsumer();
-        return jsonList;
+    public CompletableFuture<SendResult<Integer, byte[]>> sendMovie(Movie movie) throws JsonProcessingException {
+        return recordsProducer.sendMovieRecord(movie);
     }
 
     /**
-     * Clears the list of received movies from the consumer.
+     * Searches movies by title (id -1) or genres (id -2). Once the local catalog replica caught up with the
+     * changelog, it answers the search directly. Otherwise a search request is sent and the method waits for the
+     * consumer's responses to it: the request carries a fresh correlation id, so concurrent searches never see each
+     * other's results, and the method returns as soon as the consumer's end-of-results marker arrived.
+     *
+     * @param request The Movie object of type GET describing the search.
+     * @return A JSON string representing the movies found.
+     * @throws JsonProcessingException If there's an issue processing JSON data.
+     * @throws InterruptedException    If the thread is interrupted while waiting for the responses.
+     * @throws ExecutionException      If the search request could not be sent.
+     * @throws TimeoutException        If the responses did not arrive within the configured search timeout.
      */
-    private void clearListFromConsumer() {
-        movieRequestListener.clearList();
+    public String searchMovies(Movie request)
+            throws JsonProcessingException, InterruptedException, ExecutionException, TimeoutException {
+        if (movieCatalog.isReady()) {
+            List<MovieChange> found = switch (request.Id()) {
+                case SEARCH_BY_TITLE -> movieCatalog.searchTitle(request.title());
+                case SEARCH_BY_GENRES -> movieCatalog.searchGenres(request.genres());
+                default -> throw new IllegalArgumentException("Unknown search: " + request);
+            };
+            List<Movie> movies = found.stream()
+                    .map(movie -> new Movie(movie.Id(), MovieType.GET, movie.title(), movie.genres()))
+                    .toList();
+            return objectMapper.writeValueAsString(movies);
+        }
+        String correlationId = UUID.randomUUID().toString();
+        CompletableFuture<List<Movie>> reply = movieRequestListener.register(correlationId);
+        try {
+            recordsProducer.sendMovieRequest(request, correlationId)
+                    .whenComplete((sendResult, throwable) -> {
+                        if (throwable != null) {
+                            reply.completeExceptionally(throwable);
+                        }
+                    });
+            List<Movie> movies = reply.get(searchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return objectMapper.writeValueAsString(movies);
+        } finally {
+            movieRequestListener.abandon(correlationId);
+        }
     }
 }
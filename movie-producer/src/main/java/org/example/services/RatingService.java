@@ -1,11 +1,20 @@
 package org.example.services;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import org.example.ingestion.CsvIngestionEngine;
+import org.example.ingestion.CsvTokenizer;
+import org.example.ingestion.IngestionResult;
+import org.example.ingestion.UploadResult;
 import org.example.producers.RecordsProducer;
+import org.example.producers.SendWindow;
 import org.example.records.Rating;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
 
 @Service
 public class RatingService {
@@ -13,23 +22,73 @@ public class RatingService {
 
     private final RecordsProducer recordsProducer;
 
-    public RatingService(RecordsProducer recordsProducer) {
+    private final CsvIngestionEngine ingestionEngine;
+
+    public RatingService(RecordsProducer recordsProducer, CsvIngestionEngine ingestionEngine) {
         this.recordsProducer = recordsProducer;
+        this.ingestionEngine = ingestionEngine;
     }
 
 
+    /**
+     * Parses a CSV line and creates a Rating object.
+     *
+     * @param csvLine The CSV line to parse.
+     * @return A Rating object created from the CSV data.
+     * @throws IllegalArgumentException If the CSV line is invalid.
+     */
     public Rating parseRatingCsvLine(String csvLine) {
-        String[] values = csvLine.split(",");
-        // String regex = "[a-zA-Z]";
-        //if (!values[0].matches(regex)) {
-        if (values.length >= 3) {
-            return new Rating(Integer.parseInt(values[0]), Integer.parseInt(values[1]), Double.parseDouble(values[2]), Integer.parseInt(values[3]));
-        } else {
-            // Handle invalid CSV lines appropriately
+        CsvTokenizer row = CsvTokenizer.of(csvLine);
+        if (!row.nextRecord()) {
             throw new IllegalArgumentException("Invalid CSV line: " + csvLine);
         }
+        return parseRating(row);
+    }
+
+    /**
+     * Creates a Rating object from the current record of a CSV tokenizer.
+     * The numeric fields are parsed directly from the tokenizer buffer.
+     *
+     * @param row The tokenizer positioned on a {@code userId,movieId,rating,timestamp} record.
+     * @return A Rating object created from the CSV data.
+     * @throws IllegalArgumentException If the record is invalid.
+     */
+    public Rating parseRating(CsvTokenizer row) {
+        if (row.fieldCount() < 4) {
+            throw new IllegalArgumentException("Invalid CSV line: expected 4 fields but got " + row.fieldCount());
+        }
+        return new Rating(row.getInt(0), row.getInt(1), row.getDouble(2), row.getInt(3));
+    }
+
+    /**
+     * Parses an uploaded ratings CSV file in parallel and sends every rating to Kafka in file order.
+     * The upload is slowed down whenever the configured number of sends is waiting for acknowledgement,
+     * and the method only returns once every sent rating was acknowledged or has failed.
+     *
+     * @param csv The content of the CSV file.
+     * @return The summary of parsing and sending the file.
+     * @throws IOException If the file could not be read or a rating could not be serialized.
+     */
+    public UploadResult uploadRatingsFromCsv(InputStream csv) throws IOException {
+        return uploadRatingsFromCsv(csv, recordsProducer.openSendWindow(), rows -> {
+        });
     }
 
+    /**
+     * Parses an uploaded ratings CSV file in parallel and sends every rating through the given send window.
+     *
+     * @param csv        The content of the CSV file.
+     * @param window     The send window the ratings are sent through, e.g. to observe the progress of the upload.
+     * @param parsedRows Receives the number of ratings of every chunk once it is parsed, ahead of their sends.
+     * @return The summary of parsing and sending the file.
+     * @throws IOException If the file could not be read or a rating could not be serialized.
+     */
+    public UploadResult uploadRatingsFromCsv(InputStream csv, SendWindow window, LongConsumer parsedRows)
+            throws IOException {
+        IngestionResult ingestion = ingestionEngine.ingest(csv, this::parseRating,
+                rating -> recordsProducer.sendRatingRecord(rating, window), parsedRows);
+        return new UploadResult(ingestion, window.awaitCompletion());
+    }
 
     public void sendRatingRecord(Rating rating) throws JsonProcessingException {
         recordsProducer.sendRatingRecord(rating);
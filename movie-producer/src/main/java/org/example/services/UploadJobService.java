@@ -0,0 +1,200 @@
+package org.example.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ingestion.UploadJob;
+import org.example.ingestion.UploadResult;
+import org.example.producers.RecordsProducer;
+import org.example.producers.SendWindow;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Service for running CSV uploads as background jobs.
+ * <p>
+ * The uploaded file is spooled to a temporary file, so the HTTP request can return right away with the job id,
+ * and is then ingested on the dedicated upload job executor. Finished jobs are kept for status queries until the
+ * configured number of finished jobs is exceeded.
+ * </p>
+ */
+@Service
+@Slf4j
+public class UploadJobService {
+
+    /**
+     * Functional interface for the upload methods of the movie and rating services.
+     */
+    @FunctionalInterface
+    private interface Upload {
+        UploadResult run(InputStream csv, SendWindow window, LongConsumer parsedRows) throws IOException;
+    }
+
+    private final MovieService movieService;
+
+    private final RatingService ratingService;
+
+    private final RecordsProducer recordsProducer;
+
+    private final TaskExecutor uploadJobExecutor;
+
+    private final int retainedJobs;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an UploadJobService.
+     *
+     * @param movieService      The service uploading movies.
+     * @param ratingService     The service uploading ratings.
+     * @param recordsProducer   The producer opening the send windows of the jobs.
+     * @param uploadJobExecutor The executor running the jobs.
+     * @param retainedJobs      The number of finished jobs kept for status queries.
+     */
+    public UploadJobService(MovieService movieService, RatingService ratingService, RecordsProducer recordsProducer,
+                            @Qualifier("uploadJobExecutor") TaskExecutor uploadJobExecutor,
+                            @Value("${ingestion.jobs.retained:100}") int retainedJobs) {
+        this.movieService = movieService;
+        this.ratingService = ratingService;
+        this.recordsProducer = recordsProducer;
+        this.uploadJobExecutor = uploadJobExecutor;
+        this.retainedJobs = retainedJobs;
+    }
+
+    /**
+     * Accepts a movies CSV file for background processing.
+     *
+     * @param csvFile The uploaded CSV file.
+     * @return The accepted job.
+     * @throws IOException If the file could not be spooled to disk.
+     * @throws org.springframework.core.task.TaskRejectedException If too many uploads are waiting already.
+     */
+    public UploadJob submitMovies(MultipartFile csvFile) throws IOException {
+        return submit("movies", csvFile, movieService::uploadMoviesFromCsv);
+    }
+
+    /**
+     * Accepts a ratings CSV file for background processing.
+     *
+     * @param csvFile The uploaded CSV file.
+     * @return The accepted job.
+     * @throws IOException If the file could not be spooled to disk.
+     * @throws org.springframework.core.task.TaskRejectedException If too many uploads are waiting already.
+     */
+    public UploadJob submitRatings(MultipartFile csvFile) throws IOException {
+        return submit("ratings", csvFile, ratingService::uploadRatingsFromCsv);
+    }
+
+    /**
+     * Finds a job by its id.
+     *
+     * @param id The id of the job.
+     * @return The job, or empty if it is unknown or has been evicted.
+     */
+    public Optional<UploadJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Gets all known jobs.
+     *
+     * @return The running, queued and retained finished jobs.
+     */
+    public Collection<UploadJob> findAll() {
+        return jobs.values();
+    }
+
+    private UploadJob submit(String type, MultipartFile csvFile, Upload upload) throws IOException {
+        Path spooled = Files.createTempFile(type + "-upload-", ".csv");
+        try {
+            csvFile.transferTo(spooled);
+            UploadJob job = new UploadJob(type, csvFile.getOriginalFilename(), Files.size(spooled));
+            jobs.put(job.getId(), job);
+            try {
+                uploadJobExecutor.execute(() -> run(job, spooled, upload));
+            } catch (RuntimeException e) {
+                jobs.remove(job.getId());
+                throw e;
+            }
+            evictFinishedJobs();
+            log.info("Accepted {} upload job {} for file {}", type, job.getId(), csvFile.getOriginalFilename());
+            return job;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    private void run(UploadJob job, Path spooled, Upload upload) {
+        SendWindow window = recordsProducer.openSendWindow();
+        job.start(window);
+        try (InputStream csv = new CountingInputStream(Files.newInputStream(spooled), job)) {
+            job.complete(upload.run(csv, window, job::addRowsParsed));
+            log.info("Upload job {} finished: {}", job.getId(), job.getResult());
+        } catch (Exception e) {
+            log.error("Upload job {} failed: {}", job.getId(), e.getMessage());
+            job.fail(e);
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled upload {}", spooled);
+            }
+        }
+    }
+
+    private void evictFinishedJobs() {
+        long finished = jobs.values().stream().filter(UploadJob::isFinished).count();
+        if (finished > retainedJobs) {
+            jobs.values().stream()
+                    .filter(UploadJob::isFinished)
+                    .sorted(Comparator.comparingLong(UploadJob::getFinishedAt))
+                    .limit(finished - retainedJobs)
+                    .forEach(job -> jobs.remove(job.getId()));
+        }
+    }
+
+    /**
+     * Input stream reporting the number of bytes read to the job.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final UploadJob job;
+
+        CountingInputStream(InputStream in, UploadJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                job.addBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                job.addBytesRead(read);
+            }
+            return read;
+        }
+    }
+}
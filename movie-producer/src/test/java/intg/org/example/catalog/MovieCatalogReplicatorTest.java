@@ -0,0 +1,109 @@
+package org.example.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.records.Movie;
+import org.example.records.MovieType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test class for the MovieCatalogReplicator component.
+ * <p>
+ * Publishes movie changes, a tombstone and the snapshot markers to the embedded "movies-changelog" topic, as the
+ * consumer does, and verifies that title and genre searches are answered from the local catalog replica. No consumer answers search
+ * requests, so a search through Kafka would time out.
+ * </p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(topics = {"movies", "movie-response-topic", "movies-changelog"}, partitions = 2)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.properties.bootstrap.servers=${spring.embedded.kafka.brokers}",
+        "search.timeout=500ms"})
+class MovieCatalogReplicatorTest {
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    MovieCatalog movieCatalog;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    /**
+     * Tests that changes published to the changelog are searchable locally once the snapshot markers were read, and
+     * that deleted movies disappear.
+     *
+     * @throws Exception If the changes cannot be sent or the response cannot be parsed.
+     */
+    @Test
+    void searchReplicatedCatalog() throws Exception {
+        // Given
+        try (Producer<Integer, String> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafkaBroker), new IntegerSerializer(), new StringSerializer())
+                .createProducer()) {
+            producer.send(change(1, "{\"Id\":1,\"title\":\"Toy Story (1995)\",\"genres\":\"Animation|Comedy\"}"));
+            producer.send(change(2, "{\"Id\":2,\"title\":\"Jumanji (1995)\",\"genres\":\"Adventure|Fantasy\"}"));
+            producer.send(change(3078, "{\"Id\":3078,\"title\":\"Toy Story 2 (1999)\",\"genres\":\"Animation\"}"));
+            producer.send(change(3078, null));
+            producer.flush();
+            assertTrue(movieCatalog.awaitCaughtUp(Duration.ofSeconds(10)), "the changelog was not replicated in time");
+            assertFalse(movieCatalog.isReady(), "the catalog was trusted without snapshot markers");
+            producer.send(marker(0));
+            producer.send(marker(1));
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!movieCatalog.isReady() || movieCatalog.size() != 2) {
+            assertTrue(System.currentTimeMillis() < deadline, "the snapshot markers were not read in time");
+            Thread.sleep(100);
+        }
+        // When
+        ResponseEntity<String> byTitle = restTemplate.getForEntity("/get/movies/title/toy story", String.class);
+        ResponseEntity<String> byGenres = restTemplate.getForEntity("/get/movies/genres/Adventure", String.class);
+        // Then
+        assertEquals(HttpStatus.OK, byTitle.getStatusCode());
+        assertEquals(List.of(new Movie(1, MovieType.GET, "Toy Story (1995)", "Animation|Comedy")),
+                movies(byTitle.getBody()));
+        assertEquals(List.of(new Movie(2, MovieType.GET, "Jumanji (1995)", "Adventure|Fantasy")),
+                movies(byGenres.getBody()));
+    }
+
+    private static ProducerRecord<Integer, String> change(int movieId, String json) {
+        return new ProducerRecord<>("movies-changelog", movieId, json);
+    }
+
+    private static ProducerRecord<Integer, String> marker(int partition) {
+        return new ProducerRecord<>("movies-changelog", partition, MovieCatalog.SNAPSHOT_MARKER_KEY,
+                "2026-01-01T00:00:00Z");
+    }
+
+    private List<Movie> movies(String json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+}
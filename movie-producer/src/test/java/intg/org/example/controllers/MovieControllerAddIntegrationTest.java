@@ -8,12 +8,14 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.serialization.IntegerDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.metrics.PipelineMetrics;
 import org.example.records.Movie;
 import org.example.util.TestUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
@@ -40,6 +42,7 @@ import static org.junit.jupiter.api.Assertions.*;
  *
  **/
 @Slf4j
+@AutoConfigureObservability(tracing = false)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @EmbeddedKafka(topics = {"movies"}, partitions =1, ports = 9091)
 @TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
@@ -106,6 +109,31 @@ class MovieControllerAddIntegrationTest {
         assert consumerRecords.count() == 1;
         consumerRecords.forEach(record -> {
             assertEquals(movieJson, record.value());
+            assertNotNull(record.headers().lastHeader(PipelineMetrics.CREATED_AT_HEADER));
+            assertNotNull(record.headers().lastHeader(PipelineMetrics.SENT_AT_HEADER));
         });
     }
+
+    /**
+     * Integration test verifying that an added movie is counted and its acknowledgement timed on the Prometheus
+     * endpoint.
+     *
+     * @throws Exception if the movie cannot be sent
+     */
+    @Test
+    public void addMovieIsMeasured() throws Exception {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("content-type", MediaType.APPLICATION_JSON.toString());
+        // When
+        restTemplate.exchange("/add/movie", HttpMethod.POST, new HttpEntity<>(TestUtil.movieNewRecord(), headers),
+                Movie.class);
+        KafkaTestUtils.getRecords(consumer);
+        // Then
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+        assertTrue(metrics.contains("pipeline_records_sent_total{outcome=\"success\",topic=\"movies\",type=\"NEW\",}"),
+                metrics);
+        assertTrue(metrics.contains("pipeline_send_ack_seconds_count{topic=\"movies\",}"), metrics);
+        assertTrue(metrics.contains("pipeline_send_ack_seconds_bucket{topic=\"movies\",le="), metrics);
+    }
 }
\ No newline at end of file
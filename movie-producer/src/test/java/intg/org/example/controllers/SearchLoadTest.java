@@ -0,0 +1,97 @@
+package org.example.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of concurrent slow title searches.
+ * <p>
+ * No consumer answers the searches, so every request holds its request thread for the whole search timeout and is
+ * answered with 504. With platform threads the requests are served at most {@code server.tomcat.threads.max} at a
+ * time; with {@code spring.threads.virtual.enabled} on Java 21 or later all of them wait concurrently. The test logs
+ * the number of searches in flight on average, so running it once per mode compares the capacity before and after,
+ * e.g. {@code mvn test -Dtest=SearchLoadTest -Dspring.threads.virtual.enabled=true}.
+ * </p>
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(topics = {"movies", "movie-response-topic"}, partitions = 1)
+@TestPropertySource(properties = {"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.properties.bootstrap.servers=${spring.embedded.kafka.brokers}",
+        "server.tomcat.threads.max=50",
+        "search.timeout=500ms"})
+class SearchLoadTest {
+
+    private static final int SEARCHES = 300;
+
+    @LocalServerPort
+    int port;
+
+    @Value("${server.tomcat.threads.max}")
+    int tomcatThreads;
+
+    @Value("${search.timeout}")
+    Duration searchTimeout;
+
+    @Autowired
+    Environment environment;
+
+    /**
+     * Sends many concurrent title searches and verifies how many were served at the same time.
+     *
+     * @throws Exception If a request cannot be sent.
+     */
+    @Test
+    void concurrentSlowSearches() throws Exception {
+        // Given
+        HttpClient client = HttpClient.newHttpClient();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/get/movies/title/load" + i))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        // Then
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertEquals(504, response.join().statusCode());
+        }
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        double inFlight = SEARCHES * (double) searchTimeout.toMillis() / elapsedMillis;
+        log.info("{} searches of {} ms on {} threads took {} ms, {} searches in flight on average",
+                SEARCHES, searchTimeout.toMillis(), virtual ? "virtual" : "platform", elapsedMillis, Math.round(inFlight));
+        long platformMillis = (long) Math.ceil(SEARCHES / (double) tomcatThreads) * searchTimeout.toMillis();
+        if (virtual) {
+            assertTrue(elapsedMillis < platformMillis, "virtual threads should serve more than "
+                    + tomcatThreads + " searches at a time");
+        } else {
+            assertTrue(elapsedMillis >= platformMillis, "platform threads cannot serve more than "
+                    + tomcatThreads + " searches at a time");
+        }
+    }
+}
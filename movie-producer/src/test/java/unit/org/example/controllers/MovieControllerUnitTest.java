@@ -1,6 +1,9 @@
 package org.example.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.ingestion.IngestionResult;
+import org.example.ingestion.UploadResult;
+import org.example.producers.SendSummary;
 import org.example.records.Movie;
 import org.example.services.MovieService;
 import org.junit.jupiter.api.Test;
@@ -11,7 +14,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.example.util.TestUtil;
 
+import java.io.InputStream;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
@@ -87,11 +92,11 @@ class MovieControllerUnitTest {
     @Test
     void postMoviesFromCSV() throws Exception {
         // Given
-        Movie movie = TestUtil.movieNewRecord();
         String csvContent = "2,Jumanji (1995),Adventure|Children|Fantasy";
         MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", csvContent.getBytes());
         // Expect
-        when(movieService.parseMoviesCsvLine(any(String.class))).thenReturn(movie);
+        when(movieService.uploadMoviesFromCsv(any(InputStream.class))).thenReturn(
+                new UploadResult(new IngestionResult(1, 0, 1, 1), new SendSummary(1, 1, 0, 1.0)));
         mockMvc.perform(
                         multipart("/api/upload-csv-file/movies") // Use multipart here for file upload
                                 .file(file)
@@ -101,6 +106,27 @@ class MovieControllerUnitTest {
                 .andExpect(content().string("File processed successfully"));
     }
 
+    /**
+     * Test case verifying that an upload whose records could not all be sent to Kafka is reported as an error.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void postMoviesFromCSV_sendFailures() throws Exception {
+        // Given
+        String csvContent = "2,Jumanji (1995),Adventure|Children|Fantasy\n3,Heat (1995),Action";
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", csvContent.getBytes());
+        // Expect
+        when(movieService.uploadMoviesFromCsv(any(InputStream.class))).thenReturn(
+                new UploadResult(new IngestionResult(2, 0, 1, 1), new SendSummary(2, 1, 1, 1.0)));
+        mockMvc.perform(
+                        multipart("/api/upload-csv-file/movies")
+                                .file(file)
+                                .contentType(MediaType.MULTIPART_FORM_DATA)
+                )
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string("Error processing the file: 1 of 2 records could not be sent"));
+    }
 
     /**
      * Test case for handling 4xx client errors during movie upload from CSV file via POST request.
@@ -165,7 +191,7 @@ class MovieControllerUnitTest {
     @Test
     void searchMoviesByGenres() throws Exception {
         // Given
-        when(movieService.getJsonResponse()).thenReturn("{}");
+        when(movieService.searchMovies(isA(Movie.class))).thenReturn("{}");
         // Expect
         mockMvc.perform(get("/get/movies/genres/Action")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -181,11 +207,26 @@ class MovieControllerUnitTest {
     @Test
     void searchMoviesByTitle() throws Exception {
         // Given
-        when(movieService.getJsonResponse()).thenReturn("{}");
+        when(movieService.searchMovies(isA(Movie.class))).thenReturn("{}");
         // Expect
         mockMvc.perform(get("/get/movies/title/New Movie")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().string("{}"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case verifying that a search whose responses do not arrive in time is reported as a gateway timeout.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void searchMoviesByTitle_timeout() throws Exception {
+        // Given
+        when(movieService.searchMovies(isA(Movie.class))).thenThrow(new TimeoutException());
+        // Expect
+        mockMvc.perform(get("/get/movies/title/New Movie")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGatewayTimeout());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.controllers;
+
+import org.example.ingestion.UploadJob;
+import org.example.services.UploadJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for the {@link UploadJobController} class.
+ */
+@WebMvcTest(UploadJobController.class)
+class UploadJobControllerUnitTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    UploadJobService uploadJobService;
+
+    /**
+     * Test case for accepting a movies CSV file as a background job.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void submitMovies() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "movies.csv", "text/csv",
+                "2,Jumanji (1995),Adventure|Children|Fantasy".getBytes());
+        UploadJob job = new UploadJob("movies", "movies.csv", file.getSize());
+        when(uploadJobService.submitMovies(any())).thenReturn(job);
+        // Expect
+        mockMvc.perform(multipart("/api/upload-jobs/movies").file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/upload-jobs/" + job.getId()))
+                .andExpect(jsonPath("$.id").value(job.getId()))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    /**
+     * Test case verifying that uploads are rejected while the job queue is full.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void submitRatings_queueFull() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "ratings.csv", "text/csv",
+                "1,2,3.5,964982703".getBytes());
+        when(uploadJobService.submitRatings(any())).thenThrow(new TaskRejectedException("queue full"));
+        // Expect
+        mockMvc.perform(multipart("/api/upload-jobs/ratings").file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    /**
+     * Test case for handling an empty file.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void submitMovies_4xx() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "movies.csv", "text/csv", new byte[0]);
+        // Expect
+        mockMvc.perform(multipart("/api/upload-jobs/movies").file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test case for retrieving the progress of a job.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void getJob() throws Exception {
+        // Given
+        UploadJob job = new UploadJob("ratings", "ratings.csv", 100);
+        job.fail(new IllegalStateException("broker unavailable"));
+        when(uploadJobService.find(job.getId())).thenReturn(Optional.of(job));
+        when(uploadJobService.findAll()).thenReturn(List.of(job));
+        // Expect
+        mockMvc.perform(get("/api/upload-jobs/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("broker unavailable"));
+        mockMvc.perform(get("/api/upload-jobs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(job.getId()));
+    }
+
+    /**
+     * Test case for retrieving an unknown job.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void getJob_404() throws Exception {
+        // Given
+        when(uploadJobService.find("unknown")).thenReturn(Optional.empty());
+        // Expect
+        mockMvc.perform(get("/api/upload-jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.metrics.PipelineMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link CsvIngestionEngine} class.
+ */
+class CsvIngestionEngineTest {
+
+    /**
+     * Engine with a tiny chunk size, so that even short inputs are split into many chunks.
+     */
+    private final CsvIngestionEngine engine = new CsvIngestionEngine(4, 16,
+            new PipelineMetrics(new SimpleMeterRegistry()));
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    /**
+     * Test case verifying that records reach the sink in file order although chunks are parsed in parallel.
+     *
+     * @throws IOException If an error occurs during the test.
+     */
+    @Test
+    void ingestKeepsFileOrder() throws IOException {
+        // Given
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            csv.append(i).append(",Title ").append(i).append("\r\n");
+        }
+        List<Integer> received = new ArrayList<>();
+        // When
+        IngestionResult result = engine.ingest(toStream(csv.toString()), row -> row.getInt(0), received::add);
+        // Then
+        assertEquals(5_000, result.rows());
+        assertEquals(0, result.malformedRows());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    /**
+     * Test case verifying that the header row, blank lines and malformed records are skipped and that records
+     * longer than a chunk or containing quoted line breaks are kept whole. Only the well-formed records are reported
+     * as parsed.
+     *
+     * @throws IOException If an error occurs during the test.
+     */
+    @Test
+    void ingestSkipsHeaderAndMalformedRecords() throws IOException {
+        // Given
+        String csv = "movieId,title,genres\n\n1,A title that is much longer than a single chunk,Drama\n"
+                + "x,Not a movie,Drama\n2,\"Multi\nline, quoted\",Action\n3,Heat,Action";
+        List<String> received = new ArrayList<>();
+        AtomicLong parsed = new AtomicLong();
+        // When
+        IngestionResult result = engine.ingest(toStream(csv),
+                row -> row.getInt(0) + ":" + row.getString(1), received::add, parsed::addAndGet);
+        // Then
+        assertEquals(List.of("1:A title that is much longer than a single chunk", "2:Multi\nline, quoted", "3:Heat"),
+                received);
+        assertEquals(1, result.malformedRows());
+        assertEquals(3, parsed.get());
+    }
+
+    private static ByteArrayInputStream toStream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link CsvTokenizer} class.
+ */
+class CsvTokenizerTest {
+
+    /**
+     * Test case for quoted fields containing delimiters, escaped quotes and line breaks.
+     */
+    @Test
+    void quotedFields() {
+        // Given
+        CsvTokenizer row = CsvTokenizer.of("11,\"American President, The (1995)\",Comedy|Drama|Romance\r\n"
+                + "12,\"Dracula: \"\"Dead and Loving It\"\"\",\"Comedy\nHorror\"\n");
+        // Expect
+        assertTrue(row.nextRecord());
+        assertEquals(3, row.fieldCount());
+        assertEquals(11, row.getInt(0));
+        assertEquals("American President, The (1995)", row.getString(1));
+        assertEquals("Comedy|Drama|Romance", row.getString(2));
+        assertTrue(row.nextRecord());
+        assertEquals("Dracula: \"Dead and Loving It\"", row.getString(1));
+        assertEquals("Comedy\nHorror", row.getString(2));
+        assertFalse(row.nextRecord());
+    }
+
+    /**
+     * Test case for numbers parsed directly from the buffer.
+     */
+    @Test
+    void numericFields() {
+        // Given
+        CsvTokenizer row = CsvTokenizer.of("1,296,5.0,1147880044,-2147483648,0.1,1e3,,3.");
+        // Expect
+        assertTrue(row.nextRecord());
+        assertEquals(9, row.fieldCount());
+        assertEquals(296, row.getInt(1));
+        assertEquals(5.0, row.getDouble(2));
+        assertEquals(1147880044, row.getInt(3));
+        assertEquals(Integer.MIN_VALUE, row.getInt(4));
+        assertEquals(0.1, row.getDouble(5));
+        assertEquals(1000.0, row.getDouble(6));
+        assertEquals(3.0, row.getDouble(8));
+        assertTrue(row.isInt(0));
+        assertFalse(row.isInt(2));
+        assertFalse(row.isInt(7));
+        assertThrows(NumberFormatException.class, () -> row.getInt(7));
+        assertThrows(NumberFormatException.class, () -> row.getInt(2));
+        assertThrows(IllegalArgumentException.class, () -> row.getInt(9));
+    }
+
+    /**
+     * Test case verifying that a malformed record is reported and skipped without losing the following record.
+     */
+    @Test
+    void malformedRecordIsSkipped() {
+        // Given
+        CsvTokenizer row = CsvTokenizer.of("1,\"Heat\" (1995),Action\n2,Jumanji (1995),Adventure");
+        // Expect
+        assertThrows(IllegalArgumentException.class, row::nextRecord);
+        assertTrue(row.nextRecord());
+        assertEquals(2, row.getInt(0));
+        assertEquals("Jumanji (1995)", row.getString(1));
+    }
+
+    /**
+     * Test case verifying that chunk boundaries are never placed inside a quoted field.
+     */
+    @Test
+    void lastRecordEndIgnoresQuotedLineBreaks() {
+        // Given
+        char[] csv = "1,Heat,Action\n2,\"Multi\nline\",Drama".toCharArray();
+        // Expect
+        assertEquals(14, CsvTokenizer.lastRecordEnd(csv, csv.length));
+        assertEquals(-1, CsvTokenizer.lastRecordEnd(csv, 13));
+    }
+
+    /**
+     * Test case verifying that a stray quote inside an unquoted field does not hide the following record boundaries,
+     * while escaped quotes inside a quoted field keep it open.
+     */
+    @Test
+    void lastRecordEndIgnoresStrayQuotes() {
+        // Given
+        char[] stray = "1,Say \"Hi,Comedy\n2,Heat,Action\n3,Jum".toCharArray();
+        char[] escaped = "1,\"Say \"\"Hi\n\"\"\",Comedy\n2,Heat".toCharArray();
+        CsvTokenizer records = CsvTokenizer.of(new String(stray, 0, CsvTokenizer.lastRecordEnd(stray, stray.length)));
+        // Expect
+        assertEquals(31, CsvTokenizer.lastRecordEnd(stray, stray.length));
+        assertTrue(records.nextRecord());
+        assertEquals("Say \"Hi", records.getString(1));
+        assertTrue(records.nextRecord());
+        assertEquals("Heat", records.getString(1));
+        assertFalse(records.nextRecord());
+        assertEquals(23, CsvTokenizer.lastRecordEnd(escaped, escaped.length));
+        assertEquals(-1, CsvTokenizer.lastRecordEnd(escaped, 12));
+    }
+}
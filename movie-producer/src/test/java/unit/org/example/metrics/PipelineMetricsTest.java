@@ -0,0 +1,111 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.example.producers.ProducerChannel;
+import org.example.producers.ProducerSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link PipelineMetrics} class.
+ */
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final PipelineMetrics pipelineMetrics = new PipelineMetrics(registry);
+
+    /**
+     * Test case verifying that a record is stamped with its creation time and a later send time.
+     */
+    @Test
+    void stampAddsTimestampHeaders() {
+        // Given
+        ProducerRecord<Integer, byte[]> record = new ProducerRecord<>("movies", 1, new byte[0]);
+        long createdAt = System.currentTimeMillis() - 1000;
+        // When
+        pipelineMetrics.stamp(record, createdAt);
+        // Then
+        assertEquals(createdAt, header(record, PipelineMetrics.CREATED_AT_HEADER));
+        assertTrue(header(record, PipelineMetrics.SENT_AT_HEADER) >= createdAt + 1000);
+    }
+
+    /**
+     * Test case verifying that sends are counted per topic, movie type and outcome, and only acknowledged sends are
+     * timed.
+     */
+    @Test
+    void recordSentCountsPerTopicAndType() {
+        // When
+        pipelineMetrics.recordSent("movies", "NEW", TimeUnit.MILLISECONDS.toNanos(5), null);
+        pipelineMetrics.recordSent("movies", "NEW", TimeUnit.MILLISECONDS.toNanos(15), null);
+        pipelineMetrics.recordSent("movies", "DELETE", TimeUnit.MILLISECONDS.toNanos(5), null);
+        pipelineMetrics.recordSent("ratings", PipelineMetrics.NO_TYPE, 0, new IllegalStateException("broker down"));
+        // Then
+        assertEquals(2, registry.get("pipeline.records.sent").tags("topic", "movies", "type", "NEW", "outcome", "success")
+                .counter().count());
+        assertEquals(1, registry.get("pipeline.records.sent").tags("topic", "movies", "type", "DELETE").counter().count());
+        assertEquals(1, registry.get("pipeline.records.sent").tags("topic", "ratings", "outcome", "failure")
+                .counter().count());
+        assertEquals(3, registry.get("pipeline.send.ack").tag("topic", "movies").timer().count());
+        assertEquals(25, registry.get("pipeline.send.ack").tag("topic", "movies").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        assertNull(registry.find("pipeline.send.ack").tag("topic", "ratings").timer());
+    }
+
+    /**
+     * Test case verifying that the settings, last interval and totals of a producer channel are exposed as meters.
+     *
+     * @throws Exception If a send fails.
+     */
+    @Test
+    void producerChannelStats() throws Exception {
+        // Given
+        ProducerChannel channel = new ProducerChannel("bulk", new ProducerSettings(20, 262144, "lz4"),
+                settings -> new MockProducerFactory<>(
+                        () -> new MockProducer<>(true, new IntegerSerializer(), new ByteArraySerializer())));
+        pipelineMetrics.registerProducerChannel(channel);
+        // When
+        channel.send(new ProducerRecord<>("movies", 1, new byte[10])).get(5, TimeUnit.SECONDS);
+        channel.send(new ProducerRecord<>("movies", 2, new byte[10])).get(5, TimeUnit.SECONDS);
+        channel.sample();
+        channel.reconfigure(new ProducerSettings(50, 524288, "none"));
+        // Then
+        assertEquals(50, registry.get("pipeline.producer.linger").tag("producer", "bulk").gauge().value());
+        assertEquals(524288, registry.get("pipeline.producer.batch.size").tag("producer", "bulk").gauge().value());
+        assertEquals(0, registry.get("pipeline.producer.compressed").tag("producer", "bulk").gauge().value());
+        assertTrue(registry.get("pipeline.producer.records.rate").tag("producer", "bulk").gauge().value() > 0);
+        assertEquals(2, registry.get("pipeline.producer.records").tags("producer", "bulk", "outcome", "success")
+                .functionCounter().count());
+        assertEquals(0, registry.get("pipeline.producer.records").tags("producer", "bulk", "outcome", "failure")
+                .functionCounter().count());
+        channel.destroy();
+    }
+
+    /**
+     * Test case verifying that the parse time of a chunk is recorded.
+     */
+    @Test
+    void recordParse() {
+        // When
+        pipelineMetrics.recordParse(TimeUnit.MILLISECONDS.toNanos(3));
+        // Then
+        assertEquals(1, registry.get("pipeline.parse").timer().count());
+        assertEquals(3, registry.get("pipeline.parse").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    private static long header(ProducerRecord<Integer, byte[]> record, String name) {
+        return Long.parseLong(new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8));
+    }
+}
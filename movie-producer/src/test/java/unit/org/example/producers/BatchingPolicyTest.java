@@ -0,0 +1,63 @@
+package org.example.producers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for the {@link BatchingPolicy} class.
+ */
+class BatchingPolicyTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private final BatchingPolicy policy = new BatchingPolicy(5, 100, 64 * 1024, MB, "lz4", MB, 200, 1000);
+
+    private final ProducerSettings current = new ProducerSettings(20, 256 * 1024, "lz4");
+
+    /**
+     * Test case verifying that intervals with too few records keep the current settings.
+     */
+    @Test
+    void smallIntervalsKeepSettings() {
+        // When
+        ProducerSettings next = policy.next(current, new ThroughputSample(999, 100_000, 0, 5, 900));
+        // Then
+        assertSame(current, next);
+    }
+
+    /**
+     * Test case verifying that slow acknowledgements double the batch size and the linger time follows the time
+     * needed to fill it.
+     */
+    @Test
+    void slowAcksGrowBatches() {
+        // When
+        ProducerSettings next = policy.next(current, new ThroughputSample(100_000, 10L * MB, 0, 1, 500));
+        // Then
+        assertEquals(new ProducerSettings(50, 512 * 1024, "lz4"), next);
+    }
+
+    /**
+     * Test case verifying that a low send rate shrinks batches, caps the linger time and disables compression.
+     */
+    @Test
+    void lowRateShrinksBatchesAndDisablesCompression() {
+        // When
+        ProducerSettings next = policy.next(current, new ThroughputSample(2_000, 200 * 1024, 0, 1, 10));
+        // Then
+        assertEquals(new ProducerSettings(100, 128 * 1024, "none"), next);
+    }
+
+    /**
+     * Test case verifying that a linger change of less than a quarter does not replace the settings.
+     */
+    @Test
+    void smallLingerChangesAreIgnored() {
+        // When
+        ProducerSettings next = policy.next(current, new ThroughputSample(50_000, 11L * MB, 0, 1, 100));
+        // Then
+        assertSame(current, next);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.producers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.records.Movie;
+import org.example.records.MovieType;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link MovieRequestListener} class.
+ */
+class MovieRequestListenerTest {
+
+    private final MovieRequestListener listener = new MovieRequestListener(new ObjectMapper());
+
+    /**
+     * Test case verifying that interleaved responses of concurrent searches are routed to their own search.
+     */
+    @Test
+    void concurrentSearchesAreIsolated() {
+        // Given
+        int searches = 200;
+        List<CompletableFuture<List<Movie>>> replies = new ArrayList<>();
+        List<ConsumerRecord<Integer, String>> responses = new ArrayList<>();
+        for (int i = 0; i < searches; i++) {
+            replies.add(listener.register("search-" + i));
+            responses.add(movies("search-" + i, "Movie " + i));
+            responses.add(endOfResults("search-" + i, 2, "Sequel " + i));
+        }
+        Collections.shuffle(responses.subList(0, responses.size()));
+        // When
+        IntStream.range(0, responses.size()).parallel().forEach(i -> listener.processMovieRequest(responses.get(i)));
+        // Then
+        for (int i = 0; i < searches; i++) {
+            List<Movie> movies = replies.get(i).join();
+            assertEquals(2, movies.size());
+            String suffix = " " + i;
+            assertTrue(movies.stream().allMatch(movie -> movie.title().endsWith(suffix)));
+        }
+        assertEquals(0, listener.pendingSearches());
+    }
+
+    /**
+     * Test case verifying that a search completes only once all movies announced by the marker arrived,
+     * and that responses of abandoned searches are dropped.
+     */
+    @Test
+    void completesWhenAllAnnouncedMoviesArrived() {
+        // Given
+        CompletableFuture<List<Movie>> reply = listener.register("search");
+        // When
+        listener.processMovieRequest(endOfResults("search", 2, "Heat 2"));
+        // Then
+        assertFalse(reply.isDone());
+        listener.processMovieRequest(movies("search", "Heat"));
+        List<Movie> movies = reply.join();
+        assertEquals(2, movies.size());
+        assertEquals(1, movies.get(0).Id());
+        assertEquals(MovieType.GET, movies.get(0).movieType());
+        assertEquals("Action|Crime", movies.get(0).genres());
+
+        CompletableFuture<List<Movie>> abandoned = listener.register("abandoned");
+        listener.abandon("abandoned");
+        listener.processMovieRequest(endOfResults("abandoned", 0));
+        assertFalse(abandoned.isDone());
+    }
+
+    private static ConsumerRecord<Integer, String> movies(String correlationId, String... titles) {
+        StringBuilder batch = new StringBuilder("[");
+        for (String title : titles) {
+            if (batch.length() > 1) {
+                batch.append(',');
+            }
+            batch.append("{\"Id\":1,\"movieType\":\"GET\",\"title\":\"").append(title)
+                    .append("\",\"genres\":\"Action|Crime\"}");
+        }
+        return response(correlationId, batch.append(']').toString());
+    }
+
+    private static ConsumerRecord<Integer, String> endOfResults(String correlationId, int count, String... titles) {
+        ConsumerRecord<Integer, String> marker = movies(correlationId, titles);
+        marker.headers().add(MovieRequestListener.END_OF_RESULTS_HEADER, new byte[0]);
+        marker.headers().add(MovieRequestListener.RESULT_COUNT_HEADER,
+                Integer.toString(count).getBytes(StandardCharsets.UTF_8));
+        return marker;
+    }
+
+    private static ConsumerRecord<Integer, String> response(String correlationId, String value) {
+        ConsumerRecord<Integer, String> record = new ConsumerRecord<>("movie-response-topic", 0, 0, correlationId.hashCode(), value);
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.producers;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link ProducerChannel} class.
+ */
+class ProducerChannelTest {
+
+    private final List<TestProducerFactory> factories = new ArrayList<>();
+
+    /**
+     * Whether the producers of the factories created next acknowledge sends immediately.
+     */
+    private boolean autoComplete = true;
+
+    private final ProducerChannel channel = new ProducerChannel("bulk", new ProducerSettings(20, 262144, "lz4"),
+            settings -> {
+                TestProducerFactory factory = new TestProducerFactory(autoComplete);
+                factories.add(factory);
+                return factory;
+            });
+
+    /**
+     * Test case verifying that acknowledged sends are counted per interval and in total.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void sendsAreMeasured() throws Exception {
+        // When
+        for (int i = 0; i < 3; i++) {
+            channel.send(new ProducerRecord<>("movies", i, new byte[10])).get(5, TimeUnit.SECONDS);
+        }
+        ThroughputSample sample = channel.sample();
+        // Then
+        assertEquals(3, sample.records());
+        assertEquals(42, sample.bytes());
+        assertEquals(0, sample.failed());
+        assertEquals(sample, channel.stats().lastInterval());
+        assertEquals(3, channel.stats().totalRecords());
+        assertEquals(0, channel.sample().records());
+        assertEquals(3, channel.stats().totalRecords());
+    }
+
+    /**
+     * Test case verifying that reconfiguring sends through a new producer and closes the previous one.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void reconfigureReplacesProducer() throws Exception {
+        // Given
+        ProducerSettings next = new ProducerSettings(50, 524288, "lz4");
+        // When
+        channel.reconfigure(next);
+        channel.send(new ProducerRecord<>("movies", 1, new byte[10])).get(5, TimeUnit.SECONDS);
+        channel.reconfigure(next);
+        // Then
+        assertEquals(next, channel.settings());
+        assertEquals(2, factories.size());
+        assertTrue(factories.get(0).destroyed);
+        assertEquals(0, factories.get(0).sent());
+        assertFalse(factories.get(1).destroyed);
+        assertEquals(1, factories.get(1).sent());
+        channel.destroy();
+        assertTrue(factories.get(1).destroyed);
+    }
+
+    /**
+     * Test case verifying that the records of the previous producer are acknowledged before the next producer sends,
+     * so that records of the same key keep their order.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void reconfigureFlushesPreviousProducer() throws Exception {
+        // Given
+        autoComplete = false;
+        channel.reconfigure(new ProducerSettings(50, 524288, "lz4"));
+        TestProducerFactory previous = factories.get(1);
+        CompletableFuture<?> pending = channel.send(new ProducerRecord<>("movies", 1, new byte[10]));
+        autoComplete = true;
+        // When
+        channel.reconfigure(new ProducerSettings(100, 524288, "lz4"));
+        // Then
+        assertTrue(pending.isDone());
+        assertFalse(pending.isCompletedExceptionally());
+        assertTrue(previous.destroyed);
+        channel.send(new ProducerRecord<>("movies", 1, new byte[10])).get(5, TimeUnit.SECONDS);
+        assertEquals(1, previous.sent());
+        assertEquals(1, factories.get(2).sent());
+    }
+
+    /**
+     * Producer factory handing out one mock producer, like the shared producer of the default factory.
+     */
+    private static final class TestProducerFactory implements ProducerFactory<Integer, byte[]>, DisposableBean {
+
+        private final MockProducer<Integer, byte[]> producer;
+
+        private boolean destroyed;
+
+        TestProducerFactory(boolean autoComplete) {
+            producer = new MockProducer<>(autoComplete, new IntegerSerializer(), new ByteArraySerializer()) {
+                @Override
+                public void close(Duration timeout) {
+                    // shared, closed with the factory
+                }
+            };
+        }
+
+        @Override
+        public Producer<Integer, byte[]> createProducer() {
+            return producer;
+        }
+
+        @Override
+        public void destroy() {
+            destroyed = true;
+        }
+
+        int sent() {
+            return producer.history().size();
+        }
+    }
+}
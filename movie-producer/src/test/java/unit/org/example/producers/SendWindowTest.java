@@ -0,0 +1,75 @@
+package org.example.producers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link SendWindow} class.
+ */
+class SendWindowTest {
+
+    /**
+     * Test case verifying that a full window blocks the sender until an outstanding send is acknowledged.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void sendBlocksWhileWindowIsFull() throws Exception {
+        // Given
+        SendWindow window = new SendWindow(2);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        window.send(() -> first);
+        window.send(() -> second);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When
+            Future<?> third = executor.submit(() -> window.send(() -> CompletableFuture.completedFuture("third")));
+            // Then
+            assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+            assertEquals(2, window.inFlight());
+            first.complete("first");
+            third.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        second.completeExceptionally(new IllegalStateException("broker unavailable"));
+        SendSummary summary = window.awaitCompletion();
+        assertEquals(3, summary.sent());
+        assertEquals(2, summary.acked());
+        assertEquals(1, summary.failed());
+        assertFalse(summary.successful());
+        assertEquals(0, window.inFlight());
+    }
+
+    /**
+     * Test case verifying that a send failing synchronously is counted as failed and releases its slot.
+     *
+     * @throws Exception If an error occurs during the test.
+     */
+    @Test
+    void synchronousFailureIsCounted() throws Exception {
+        // Given
+        SendWindow window = new SendWindow(1);
+        // When
+        CompletableFuture<Object> future = window.send(() -> {
+            throw new IllegalStateException("buffer exhausted");
+        });
+        // Then
+        assertTrue(future.isCompletedExceptionally());
+        SendSummary summary = window.awaitCompletion();
+        assertEquals(1, summary.failed());
+        assertEquals(0.0, summary.p99AckLatencyMillis());
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.serde;
+
+import org.example.records.Movie;
+import org.example.records.MovieType;
+import org.example.records.Rating;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link BinaryRecordCodec} class.
+ */
+class BinaryRecordCodecTest {
+
+    /**
+     * Test case verifying movies and ratings survive a round trip, including negative ids, missing fields and
+     * non-ASCII text.
+     */
+    @Test
+    void roundTripsRecords() {
+        // Given
+        Movie movie = new Movie(-2, MovieType.GET, "Amélie (2001)", "Comedy|Romance");
+        Movie partial = new Movie(7, MovieType.DELETE, null, null);
+        Rating rating = new Rating(1, 31, 2.5, 1260759144);
+        // When
+        byte[] movieBytes = BinaryRecordCodec.writeMovie(movie);
+        byte[] ratingBytes = BinaryRecordCodec.writeRating(rating);
+        // Then
+        assertTrue(BinaryRecordCodec.isBinary(movieBytes));
+        assertFalse(BinaryRecordCodec.isBinary("{\"Id\":1}".getBytes()));
+        assertEquals(movie, BinaryRecordCodec.readMovie(movieBytes));
+        assertEquals(partial, BinaryRecordCodec.readMovie(BinaryRecordCodec.writeMovie(partial)));
+        assertEquals(rating, BinaryRecordCodec.readRating(ratingBytes));
+        assertTrue(ratingBytes.length < 25, "rating took " + ratingBytes.length + " bytes");
+    }
+
+    /**
+     * Test case verifying readers skip fields added by newer writers and reject other record types and versions.
+     */
+    @Test
+    void skipsUnknownFields() {
+        // Given
+        Rating rating = new Rating(1, 31, 4.0, 0);
+        byte[] written = BinaryRecordCodec.writeRating(rating);
+        byte[] extraFields = new BinaryWriter(32)
+                .stringField(9, "added later")
+                .doubleField(10, 1.5)
+                .intField(11, -1)
+                .toByteArray();
+        byte[] newer = Arrays.copyOf(written, written.length + extraFields.length);
+        System.arraycopy(extraFields, 0, newer, written.length, extraFields.length);
+        byte[] otherVersion = written.clone();
+        otherVersion[1] = 2;
+        // Then
+        assertEquals(rating, BinaryRecordCodec.readRating(newer));
+        assertThrows(IllegalArgumentException.class, () -> BinaryRecordCodec.readMovie(written));
+        assertThrows(IllegalArgumentException.class, () -> BinaryRecordCodec.readRating(otherVersion));
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryRecordCodec.readRating(Arrays.copyOf(written, written.length - 1)));
+    }
+}